@@ -36,6 +36,56 @@ public interface AsyncKeyValueService extends AutoCloseable {
     @Timed
     ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell);
 
+    /**
+     * Asynchronously gets values for whole rows from the key-value store. This is the asynchronous counterpart of
+     * {@link KeyValueService#getRows(TableReference, Iterable, ColumnSelection, long)}.
+     *
+     * @param tableRef        the name of the table to retrieve values from.
+     * @param rows            set containing the rows to retrieve values for.
+     * @param columnSelection specifies the set of columns to fetch.
+     * @param timestamp       specifies the maximum timestamp (exclusive) at which to retrieve each row's value.
+     * @return listenable future containing map of retrieved values. Values which do not exist are simply not returned.
+     */
+    @Idempotent
+    @Timed
+    ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp);
+
+    /**
+     * Asynchronously gets values for the specified rows and column range. This is the asynchronous counterpart of
+     * {@link KeyValueService#getRowsColumnRange(TableReference, Iterable, BatchColumnRangeSelection, long)}; the
+     * returned iterators are backed by values that have already been loaded when the future completes.
+     *
+     * @param tableRef                  the name of the table to retrieve values from.
+     * @param rows                      set containing the rows to retrieve values for.
+     * @param batchColumnRangeSelection specifies the column range and the per-row batchSize to fetch.
+     * @param timestamp                 specifies the maximum timestamp (exclusive) at which to retrieve each row's
+     *                                  value.
+     * @return listenable future containing map of row names to {@link RowColumnRangeIterator}.
+     */
+    @Idempotent
+    @Timed
+    ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp);
+
+    /**
+     * Asynchronously gets timestamp values from the key-value store. This is the asynchronous counterpart of
+     * {@link KeyValueService#getLatestTimestamps(TableReference, Map)}.
+     *
+     * @param tableRef        the name of the table to retrieve values from.
+     * @param timestampByCell specifies, for each cell, the maximum timestamp (exclusive) at which to retrieve that
+     *                        cell's latest timestamp.
+     * @return listenable future containing map of retrieved timestamps. Cells which do not exist are simply not
+     * returned.
+     */
+    @Idempotent
+    @Timed
+    ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+            TableReference tableRef, Map<Cell, Long> timestampByCell);
+
     @Override
     void close();
 
@@ -16,6 +16,8 @@
 package com.palantir.atlasdb.keyvalue.api;
 
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.MustBeClosed;
 import com.palantir.atlasdb.metrics.Timed;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
@@ -137,6 +139,31 @@ public interface KeyValueService extends AutoCloseable, AsyncKeyValueService {
     @Timed
     Map<Cell, Value> get(TableReference tableRef, Map<Cell, Long> timestampByCell);
 
+    /**
+     * Synchronously loads the requested rows and wraps the result in an immediate future. Key value services that can
+     * read without blocking the calling thread should override this.
+     */
+    @Override
+    @DoDelegate
+    default ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+        return Futures.immediateFuture(getRows(tableRef, rows, columnSelection, timestamp));
+    }
+
+    /**
+     * Synchronously loads the requested column ranges and wraps the result in an immediate future. Key value services
+     * that can read without blocking the calling thread should override this.
+     */
+    @Override
+    @DoDelegate
+    default ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        return Futures.immediateFuture(getRowsColumnRange(tableRef, rows, batchColumnRangeSelection, timestamp));
+    }
+
     /**
      * Gets timestamp values from the key-value store.
      *
@@ -154,6 +181,17 @@ public interface KeyValueService extends AutoCloseable, AsyncKeyValueService {
     @Timed
     Map<Cell, Long> getLatestTimestamps(TableReference tableRef, Map<Cell, Long> timestampByCell);
 
+    /**
+     * Synchronously loads the latest timestamps and wraps the result in an immediate future. Key value services that
+     * can read without blocking the calling thread should override this.
+     */
+    @Override
+    @DoDelegate
+    default ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+            TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        return Futures.immediateFuture(getLatestTimestamps(tableRef, timestampByCell));
+    }
+
     /**
      * Puts values into the key-value store. This call <i>does not</i> guarantee
      * atomicity across cells. On failure, it is possible
@@ -0,0 +1,91 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.autobatch;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Arrays;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Tunes how long an autobatcher holds a batch open. Every {@link #ADJUSTMENT_INTERVAL} batches the window is halved if
+ * the p99 of the recorded latencies exceeds the target; otherwise it grows by a fixed step while the batch function
+ * is the bottleneck (requests keep arriving while it runs), and decays towards zero when it is not.
+ */
+@NotThreadSafe // Only used from the disruptor consumer thread.
+final class AdaptiveBatchWindow {
+    @VisibleForTesting
+    static final int ADJUSTMENT_INTERVAL = 128;
+
+    private static final int STEPS_TO_MAX_WINDOW = 8;
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final long maxWindowNanos;
+    private final long targetP99Nanos;
+    private final long stepNanos;
+    private final long[] latencies = new long[ADJUSTMENT_INTERVAL];
+
+    private int numLatencies = 0;
+    private long windowNanos = 0;
+    private long lastFlushStartNanos = Long.MIN_VALUE;
+    private double arrivalsDuringFlush = 0;
+
+    AdaptiveBatchWindow(AdaptiveBatchingConfig config) {
+        this.maxWindowNanos = config.maxBatchWindow().toNanos();
+        this.targetP99Nanos = config.targetP99Latency().toNanos();
+        this.stepNanos = Math.max(1, maxWindowNanos / STEPS_TO_MAX_WINDOW);
+    }
+
+    long windowNanos() {
+        return windowNanos;
+    }
+
+    /**
+     * Records a flushed batch.
+     *
+     * @param batchSize number of requests in the batch
+     * @param flushStartNanos when the batch function was invoked
+     * @param oldestWaitNanos how long the oldest request in the batch waited before the batch function was invoked
+     * @param flushNanos how long the batch function took
+     */
+    void recordBatch(int batchSize, long flushStartNanos, long oldestWaitNanos, long flushNanos) {
+        if (lastFlushStartNanos != Long.MIN_VALUE) {
+            // The arrival rate over the last cycle times the flush duration estimates how many requests arrive while
+            // the batch function runs. Above one, requests queue up behind it and larger batches pay off.
+            long cycleNanos = Math.max(1, flushStartNanos - lastFlushStartNanos);
+            double sample = (double) batchSize * flushNanos / cycleNanos;
+            arrivalsDuringFlush = EWMA_WEIGHT * sample + (1 - EWMA_WEIGHT) * arrivalsDuringFlush;
+        }
+        lastFlushStartNanos = flushStartNanos;
+
+        latencies[numLatencies++] = oldestWaitNanos + flushNanos;
+        if (numLatencies == ADJUSTMENT_INTERVAL) {
+            adjust();
+            numLatencies = 0;
+        }
+    }
+
+    private void adjust() {
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.ceil(0.99 * ADJUSTMENT_INTERVAL) - 1];
+        if (p99 > targetP99Nanos) {
+            windowNanos /= 2;
+        } else if (arrivalsDuringFlush >= 1) {
+            windowNanos = Math.min(maxWindowNanos, windowNanos + stepNanos);
+        } else {
+            windowNanos = windowNanos * 3 / 4;
+        }
+    }
+}
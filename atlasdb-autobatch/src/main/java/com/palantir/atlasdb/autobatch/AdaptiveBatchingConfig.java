@@ -0,0 +1,66 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.autobatch;
+
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.time.Duration;
+import org.immutables.value.Value;
+
+/**
+ * Configures an autobatcher to hold batches open for a short, self-tuning window instead of flushing as soon as the
+ * ring buffer is drained. The window grows while the batch function is the bottleneck, so that more requests share
+ * each call, and shrinks whenever the observed p99 latency exceeds {@link #targetP99Latency()}.
+ */
+@Value.Immutable
+public interface AdaptiveBatchingConfig {
+    /**
+     * The longest that the consumer will hold a batch open waiting for more requests.
+     */
+    Duration maxBatchWindow();
+
+    /**
+     * The p99 latency, measured from a request being picked up by the consumer to its batch completing, that the
+     * window is tuned to stay under.
+     */
+    Duration targetP99Latency();
+
+    /**
+     * Batches are flushed as soon as they reach this size, regardless of the window.
+     */
+    @Value.Default
+    default int maxBatchSize() {
+        return 1_000;
+    }
+
+    @Value.Check
+    default void check() {
+        Preconditions.checkArgument(
+                !maxBatchWindow().isNegative() && !maxBatchWindow().isZero(),
+                "Max batch window must be positive",
+                SafeArg.of("maxBatchWindow", maxBatchWindow()));
+        Preconditions.checkArgument(
+                !targetP99Latency().isNegative() && !targetP99Latency().isZero(),
+                "Target p99 latency must be positive",
+                SafeArg.of("targetP99Latency", targetP99Latency()));
+        Preconditions.checkArgument(
+                maxBatchSize() > 0, "Max batch size must be positive", SafeArg.of("maxBatchSize", maxBatchSize()));
+    }
+
+    static ImmutableAdaptiveBatchingConfig.Builder builder() {
+        return ImmutableAdaptiveBatchingConfig.builder();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.autobatch;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.TimeoutHandler;
+import com.lmax.disruptor.WaitStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+
+/**
+ * Holds batches open for the window chosen by {@link AdaptiveBatchWindow} instead of flushing whenever the disruptor
+ * reports the end of a batch. The most recent event is held back from the delegate until the batch is flushed, since
+ * the delegate flushes on the event that carries {@code endOfBatch}.
+ *
+ * Batches that are waiting on their window are flushed from {@link #onTimeout(long)}, so this handler must run with
+ * its own {@link #waitStrategy()}, which only times out while a batch is held.
+ */
+final class AdaptiveBatchingEventHandler<T, R>
+        implements EventHandler<BatchElement<T, R>>, TimeoutHandler, LifecycleAware {
+    private static final long MIN_TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int TICKS_PER_WINDOW = 4;
+
+    private final EventHandler<BatchElement<T, R>> delegate;
+    private final AdaptiveBatchWindow window;
+    private final int maxBatchSize;
+    private final LongSupplier clock;
+    private final HeldBatchWaitStrategy waitStrategy;
+
+    @Nullable
+    private BatchElement<T, R> held;
+
+    private long heldSequence;
+    private int batchSize = 0;
+    private long firstArrivalNanos;
+
+    @VisibleForTesting
+    AdaptiveBatchingEventHandler(
+            EventHandler<BatchElement<T, R>> delegate,
+            AdaptiveBatchWindow window,
+            int maxBatchSize,
+            LongSupplier clock,
+            HeldBatchWaitStrategy waitStrategy) {
+        this.delegate = delegate;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.clock = clock;
+        this.waitStrategy = waitStrategy;
+    }
+
+    static <T, R> AdaptiveBatchingEventHandler<T, R> create(
+            EventHandler<BatchElement<T, R>> delegate, AdaptiveBatchingConfig config) {
+        long tickNanos = Math.max(MIN_TICK_NANOS, config.maxBatchWindow().toNanos() / TICKS_PER_WINDOW);
+        return new AdaptiveBatchingEventHandler<>(
+                delegate,
+                new AdaptiveBatchWindow(config),
+                config.maxBatchSize(),
+                System::nanoTime,
+                new HeldBatchWaitStrategy(tickNanos));
+    }
+
+    /**
+     * The wait strategy the disruptor running this handler must use.
+     */
+    WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public void onEvent(BatchElement<T, R> event, long sequence, boolean endOfBatch) throws Exception {
+        if (held != null) {
+            delegate.onEvent(held, heldSequence, false);
+        } else {
+            firstArrivalNanos = clock.getAsLong();
+        }
+        held = event;
+        heldSequence = sequence;
+        batchSize++;
+        waitStrategy.setTimeoutArmed(true);
+
+        long windowNanos = window.windowNanos();
+        boolean windowElapsed = clock.getAsLong() - firstArrivalNanos >= windowNanos;
+        if (batchSize >= maxBatchSize || (windowElapsed && (endOfBatch || windowNanos > 0))) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onTimeout(long sequence) throws Exception {
+        if (held != null && clock.getAsLong() - firstArrivalNanos >= window.windowNanos()) {
+            flush();
+        }
+    }
+
+    @Override
+    public void onStart() {}
+
+    @Override
+    public void onShutdown() {
+        if (held != null) {
+            try {
+                flush();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private void flush() throws Exception {
+        BatchElement<T, R> last = held;
+        int size = batchSize;
+        held = null;
+        batchSize = 0;
+        waitStrategy.setTimeoutArmed(false);
+
+        long flushStartNanos = clock.getAsLong();
+        delegate.onEvent(last, heldSequence, true);
+        long flushNanos = clock.getAsLong() - flushStartNanos;
+        window.recordBatch(size, flushStartNanos, flushStartNanos - firstArrivalNanos, flushNanos);
+    }
+}
@@ -22,8 +22,10 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.TimeoutHandler;
 import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
@@ -93,6 +95,13 @@ public final class DisruptorAutobatcher<T, R>
         return result;
     }
 
+    /**
+     * The number of requests published to the ring buffer that the event handler has not yet consumed.
+     */
+    long queueDepth() {
+        return buffer.getBufferSize() - buffer.remainingCapacity();
+    }
+
     @Override
     public void close() {
         closed = true;
@@ -123,6 +132,45 @@ public final class DisruptorAutobatcher<T, R>
         }
     }
 
+    /**
+     * Hands each element to the delegate, and forwards timeout and lifecycle callbacks to it if it wants them (the
+     * disruptor only delivers those to handlers that implement the corresponding interfaces).
+     */
+    private static final class ConsumingEventHandler<T, R>
+            implements EventHandler<DisruptorBatchElement<T, R>>, TimeoutHandler, LifecycleAware {
+        private final EventHandler<BatchElement<T, R>> delegate;
+
+        private ConsumingEventHandler(EventHandler<BatchElement<T, R>> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onEvent(DisruptorBatchElement<T, R> event, long sequence, boolean endOfBatch) throws Exception {
+            delegate.onEvent(event.consume(), sequence, endOfBatch);
+        }
+
+        @Override
+        public void onTimeout(long sequence) throws Exception {
+            if (delegate instanceof TimeoutHandler) {
+                ((TimeoutHandler) delegate).onTimeout(sequence);
+            }
+        }
+
+        @Override
+        public void onStart() {
+            if (delegate instanceof LifecycleAware) {
+                ((LifecycleAware) delegate).onStart();
+            }
+        }
+
+        @Override
+        public void onShutdown() {
+            if (delegate instanceof LifecycleAware) {
+                ((LifecycleAware) delegate).onShutdown();
+            }
+        }
+    }
+
     public static final class DisruptorFuture<R> extends AbstractFuture<R> {
 
         private final DetachedSpan parent;
@@ -178,8 +226,7 @@ public final class DisruptorAutobatcher<T, R>
                 threadFactory(safeLoggablePurpose),
                 ProducerType.MULTI,
                 waitStrategy.orElseGet(BlockingWaitStrategy::new));
-        disruptor.handleEventsWith(
-                (event, sequence, endOfBatch) -> eventHandler.onEvent(event.consume(), sequence, endOfBatch));
+        disruptor.handleEventsWith(new ConsumingEventHandler<>(eventHandler));
         disruptor.start();
         return new DisruptorAutobatcher<>(disruptor, disruptor.getRingBuffer(), safeLoggablePurpose, closingCallback);
     }
@@ -0,0 +1,95 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.autobatch;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.WaitStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Blocks like {@link com.lmax.disruptor.BlockingWaitStrategy} while the consumer holds no batch, and times out after
+ * one tick while it holds a batch open, so that {@link AdaptiveBatchingEventHandler} can flush the batch once its
+ * window has elapsed. An idle consumer therefore sleeps until it is signalled instead of waking every tick.
+ *
+ * The timeout is armed and disarmed by the consumer thread itself, between calls to {@link #waitFor}.
+ */
+final class HeldBatchWaitStrategy implements WaitStrategy {
+    private final Object mutex = new Object();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+    private final long tickNanos;
+
+    private volatile boolean timeoutArmed = false;
+
+    HeldBatchWaitStrategy(long tickNanos) {
+        this.tickNanos = tickNanos;
+    }
+
+    void setTimeoutArmed(boolean armed) {
+        this.timeoutArmed = armed;
+    }
+
+    boolean isTimeoutArmed() {
+        return timeoutArmed;
+    }
+
+    @Override
+    public long waitFor(long sequence, Sequence cursorSequence, Sequence dependentSequence, SequenceBarrier barrier)
+            throws AlertException, InterruptedException, TimeoutException {
+        if (cursorSequence.get() < sequence) {
+            long deadlineNanos = System.nanoTime() + tickNanos;
+            synchronized (mutex) {
+                while (true) {
+                    // Set before checking the cursor, so that a publisher that advances it afterwards notifies us.
+                    signalNeeded.set(true);
+                    if (cursorSequence.get() >= sequence) {
+                        break;
+                    }
+                    barrier.checkAlert();
+                    if (!timeoutArmed) {
+                        mutex.wait();
+                    } else {
+                        long remainingNanos = deadlineNanos - System.nanoTime();
+                        if (remainingNanos <= 0) {
+                            throw TimeoutException.INSTANCE;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(mutex, remainingNanos);
+                    }
+                }
+            }
+        }
+
+        long availableSequence;
+        while ((availableSequence = dependentSequence.get()) < sequence) {
+            barrier.checkAlert();
+            Thread.onSpinWait();
+        }
+        return availableSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded.getAndSet(false)) {
+            synchronized (mutex) {
+                mutex.notifyAll();
+            }
+        }
+    }
+}
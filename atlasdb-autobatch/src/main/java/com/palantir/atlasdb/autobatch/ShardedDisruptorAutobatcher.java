@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.autobatch;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.SharedTaggedMetricRegistries;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * An autobatcher that spreads requests over several independent {@link DisruptorAutobatcher}s, each with its own ring
+ * buffer and consumer thread. This removes the single consumer thread and the contended ring buffer sequence as
+ * bottlenecks for very hot purposes, at the cost of smaller batches per shard.
+ *
+ * While this class is public, it shouldn't be used as API outside of AtlasDB because we
+ * don't guarantee we won't break it.
+ */
+public final class ShardedDisruptorAutobatcher<T, R>
+        implements AsyncFunction<T, R>, Function<T, ListenableFuture<R>>, Closeable {
+    static final String QUEUE_DEPTH_GAUGE_NAME = ShardedDisruptorAutobatcher.class.getName() + ".queueDepth";
+
+    private final List<DisruptorAutobatcher<T, R>> shards;
+    private final ToIntFunction<T> shardSelector;
+    private final List<MetricName> queueDepthGauges;
+    private final Runnable closingCallback;
+
+    private ShardedDisruptorAutobatcher(
+            List<DisruptorAutobatcher<T, R>> shards,
+            ToIntFunction<T> shardSelector,
+            List<MetricName> queueDepthGauges,
+            Runnable closingCallback) {
+        this.shards = shards;
+        this.shardSelector = shardSelector;
+        this.queueDepthGauges = queueDepthGauges;
+        this.closingCallback = closingCallback;
+    }
+
+    static <T, R> ShardedDisruptorAutobatcher<T, R> create(
+            int numShards,
+            ToIntFunction<T> shardSelector,
+            IntFunction<DisruptorAutobatcher<T, R>> shardFactory,
+            String safeLoggablePurpose,
+            Map<String, String> safeTags,
+            Runnable closingCallback) {
+        ImmutableList.Builder<DisruptorAutobatcher<T, R>> shards = ImmutableList.builder();
+        ImmutableList.Builder<MetricName> queueDepthGauges = ImmutableList.builder();
+        TaggedMetricRegistry registry = SharedTaggedMetricRegistries.getSingleton();
+        for (int shard = 0; shard < numShards; shard++) {
+            DisruptorAutobatcher<T, R> autobatcher = shardFactory.apply(shard);
+            MetricName gaugeName = MetricName.builder()
+                    .safeName(QUEUE_DEPTH_GAUGE_NAME)
+                    .putSafeTags("identifier", safeLoggablePurpose)
+                    .putSafeTags("shard", Integer.toString(shard))
+                    .putAllSafeTags(safeTags)
+                    .build();
+            registry.registerWithReplacement(gaugeName, (Gauge<Long>) autobatcher::queueDepth);
+            shards.add(autobatcher);
+            queueDepthGauges.add(gaugeName);
+        }
+        return new ShardedDisruptorAutobatcher<>(
+                shards.build(), shardSelector, queueDepthGauges.build(), closingCallback);
+    }
+
+    @Override
+    public ListenableFuture<R> apply(T argument) {
+        return shards.get(shardSelector.applyAsInt(argument)).apply(argument);
+    }
+
+    public int numShards() {
+        return shards.size();
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(DisruptorAutobatcher::close);
+        TaggedMetricRegistry registry = SharedTaggedMetricRegistries.getSingleton();
+        queueDepthGauges.forEach(registry::remove);
+        closingCallback.run();
+    }
+}
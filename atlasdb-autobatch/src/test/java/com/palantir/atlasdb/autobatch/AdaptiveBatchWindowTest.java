@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.autobatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AdaptiveBatchWindowTest {
+    private static final Duration MAX_WINDOW = Duration.ofMillis(1);
+    private static final long STEP_NANOS = MAX_WINDOW.toNanos() / 8;
+    private static final AdaptiveBatchingConfig CONFIG = AdaptiveBatchingConfig.builder()
+            .maxBatchWindow(MAX_WINDOW)
+            .targetP99Latency(Duration.ofMillis(10))
+            .build();
+
+    private final AdaptiveBatchWindow window = new AdaptiveBatchWindow(CONFIG);
+    private long now = 0;
+
+    @Test
+    public void startsWithNoWindow() {
+        assertThat(window.windowNanos()).isZero();
+    }
+
+    @Test
+    public void growsByOneStepPerIntervalWhileBatchFunctionIsBottleneck() {
+        recordBottleneckedInterval();
+        assertThat(window.windowNanos()).isEqualTo(STEP_NANOS);
+
+        recordBottleneckedInterval();
+        assertThat(window.windowNanos()).isEqualTo(2 * STEP_NANOS);
+    }
+
+    @Test
+    public void neverExceedsMaxWindow() {
+        for (int i = 0; i < 20; i++) {
+            recordBottleneckedInterval();
+        }
+        assertThat(window.windowNanos()).isEqualTo(MAX_WINDOW.toNanos());
+    }
+
+    @Test
+    public void halvesWhenP99LatencyExceedsTarget() {
+        for (int i = 0; i < 8; i++) {
+            recordBottleneckedInterval();
+        }
+
+        for (int i = 0; i < AdaptiveBatchWindow.ADJUSTMENT_INTERVAL; i++) {
+            recordBatch(10, TimeUnit.MILLISECONDS.toNanos(20), TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        assertThat(window.windowNanos()).isEqualTo(MAX_WINDOW.toNanos() / 2);
+    }
+
+    @Test
+    public void decaysWhenBatchFunctionIsNotBottleneck() {
+        for (int i = 0; i < 8; i++) {
+            recordBottleneckedInterval();
+        }
+
+        for (int i = 0; i < AdaptiveBatchWindow.ADJUSTMENT_INTERVAL; i++) {
+            recordBatch(1, 0, TimeUnit.MICROSECONDS.toNanos(1));
+        }
+
+        assertThat(window.windowNanos()).isEqualTo(MAX_WINDOW.toNanos() * 3 / 4);
+    }
+
+    @Test
+    public void configRejectsNonPositiveValues() {
+        assertThatThrownBy(() -> AdaptiveBatchingConfig.builder()
+                        .maxBatchWindow(Duration.ZERO)
+                        .targetP99Latency(Duration.ofMillis(1))
+                        .build())
+                .isInstanceOf(SafeIllegalArgumentException.class);
+        assertThatThrownBy(() -> AdaptiveBatchingConfig.builder()
+                        .maxBatchWindow(Duration.ofMillis(1))
+                        .targetP99Latency(Duration.ofMillis(1))
+                        .maxBatchSize(0)
+                        .build())
+                .isInstanceOf(SafeIllegalArgumentException.class);
+    }
+
+    private void recordBottleneckedInterval() {
+        // Ten requests arrive during each half millisecond flush, so larger batches would help.
+        for (int i = 0; i < AdaptiveBatchWindow.ADJUSTMENT_INTERVAL; i++) {
+            recordBatch(10, 0, TimeUnit.MICROSECONDS.toNanos(500));
+        }
+    }
+
+    private void recordBatch(int batchSize, long waitNanos, long flushNanos) {
+        now += TimeUnit.MILLISECONDS.toNanos(1);
+        window.recordBatch(batchSize, now, waitNanos, flushNanos);
+    }
+}
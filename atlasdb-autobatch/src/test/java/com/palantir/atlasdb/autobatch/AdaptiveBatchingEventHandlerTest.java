@@ -0,0 +1,174 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.autobatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher.DisruptorFuture;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class AdaptiveBatchingEventHandlerTest {
+    private static final AdaptiveBatchingConfig CONFIG = AdaptiveBatchingConfig.builder()
+            .maxBatchWindow(Duration.ofMillis(1))
+            .targetP99Latency(Duration.ofMillis(10))
+            .build();
+    private static final long WINDOW_NANOS = CONFIG.maxBatchWindow().toNanos() / 8;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final HeldBatchWaitStrategy waitStrategy = new HeldBatchWaitStrategy(TimeUnit.MILLISECONDS.toNanos(1));
+    private final List<String> delegateCalls = new ArrayList<>();
+    private final EventHandler<BatchElement<Integer, Integer>> delegate =
+            (event, sequence, endOfBatch) -> delegateCalls.add(event.argument() + (endOfBatch ? "!" : ""));
+
+    @Test
+    public void flushesOnEndOfBatchWhileWindowIsZero() throws Exception {
+        AdaptiveBatchingEventHandler<Integer, Integer> handler = handler(new AdaptiveBatchWindow(CONFIG), 100);
+
+        handler.onEvent(element(1), 0, false);
+        handler.onEvent(element(2), 1, true);
+
+        assertThat(delegateCalls).containsExactly("1", "2!");
+    }
+
+    @Test
+    public void holdsBatchOpenUntilWindowElapses() throws Exception {
+        AdaptiveBatchingEventHandler<Integer, Integer> handler = handler(openWindow(), 100);
+
+        handler.onEvent(element(1), 0, true);
+        assertThat(delegateCalls).isEmpty();
+
+        clock.addAndGet(WINDOW_NANOS / 2);
+        handler.onTimeout(0);
+        handler.onEvent(element(2), 1, true);
+        assertThat(delegateCalls).containsExactly("1");
+
+        clock.addAndGet(WINDOW_NANOS);
+        handler.onTimeout(1);
+        assertThat(delegateCalls).containsExactly("1", "2!");
+    }
+
+    @Test
+    public void flushesOnceMaxBatchSizeIsReached() throws Exception {
+        AdaptiveBatchingEventHandler<Integer, Integer> handler = handler(openWindow(), 2);
+
+        handler.onEvent(element(1), 0, false);
+        handler.onEvent(element(2), 1, false);
+        handler.onEvent(element(3), 2, true);
+
+        assertThat(delegateCalls).containsExactly("1", "2!");
+    }
+
+    @Test
+    public void flushesHeldBatchOnShutdown() throws Exception {
+        AdaptiveBatchingEventHandler<Integer, Integer> handler = handler(openWindow(), 100);
+
+        handler.onEvent(element(1), 0, true);
+        handler.onShutdown();
+
+        assertThat(delegateCalls).containsExactly("1!");
+    }
+
+    @Test
+    public void armsTimeoutOnlyWhileBatchIsHeld() throws Exception {
+        AdaptiveBatchingEventHandler<Integer, Integer> handler = handler(openWindow(), 100);
+        assertThat(waitStrategy.isTimeoutArmed()).isFalse();
+
+        handler.onEvent(element(1), 0, true);
+        assertThat(waitStrategy.isTimeoutArmed()).isTrue();
+
+        clock.addAndGet(WINDOW_NANOS);
+        handler.onTimeout(0);
+        assertThat(delegateCalls).containsExactly("1!");
+        assertThat(waitStrategy.isTimeoutArmed()).isFalse();
+    }
+
+    @Test
+    public void waitStrategyTimesOutOnlyWhenArmed() throws Exception {
+        Sequence cursor = new Sequence(0);
+        SequenceBarrier barrier = mock(SequenceBarrier.class);
+
+        waitStrategy.setTimeoutArmed(true);
+        assertThatThrownBy(() -> waitStrategy.waitFor(1, cursor, cursor, barrier))
+                .isInstanceOf(TimeoutException.class);
+
+        waitStrategy.setTimeoutArmed(false);
+        Thread waiter = new Thread(() -> {
+            try {
+                waitStrategy.waitFor(1, cursor, cursor, barrier);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        waiter.setDaemon(true);
+        waiter.start();
+        waiter.join(100);
+        assertThat(waiter.isAlive()).isTrue();
+
+        cursor.set(1);
+        waitStrategy.signalAllWhenBlocking();
+        waiter.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(waiter.isAlive()).isFalse();
+    }
+
+    @Test
+    public void autobatcherWithAdaptiveBatchingCompletesAllRequests() throws ExecutionException, InterruptedException {
+        try (DisruptorAutobatcher<Integer, Integer> autobatcher = Autobatchers.<Integer, Integer>coalescing(
+                        arguments -> arguments.stream().collect(Collectors.toMap(x -> x, x -> x + 1)))
+                .safeLoggablePurpose("adaptive-batching")
+                .adaptiveBatching(CONFIG)
+                .build()) {
+            List<Integer> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(autobatcher.apply(i).get());
+            }
+
+            assertThat(results)
+                    .containsExactlyElementsOf(
+                            IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    private AdaptiveBatchingEventHandler<Integer, Integer> handler(AdaptiveBatchWindow window, int maxBatchSize) {
+        return new AdaptiveBatchingEventHandler<>(delegate, window, maxBatchSize, clock::get, waitStrategy);
+    }
+
+    private static AdaptiveBatchWindow openWindow() {
+        AdaptiveBatchWindow window = new AdaptiveBatchWindow(CONFIG);
+        for (int i = 0; i < AdaptiveBatchWindow.ADJUSTMENT_INTERVAL; i++) {
+            window.recordBatch(10, TimeUnit.MILLISECONDS.toNanos(i + 1), 0, TimeUnit.MICROSECONDS.toNanos(500));
+        }
+        assertThat(window.windowNanos()).isEqualTo(WINDOW_NANOS);
+        return window;
+    }
+
+    private static BatchElement<Integer, Integer> element(int argument) {
+        return BatchElement.of(argument, new DisruptorFuture<>("test"));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.autobatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.SharedTaggedMetricRegistries;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ShardedDisruptorAutobatcherTest {
+    private static final int NUM_SHARDS = 4;
+
+    private final Set<String> consumerThreads = ConcurrentHashMap.newKeySet();
+
+    @Test
+    public void processesAllRequestsAcrossShards() throws ExecutionException, InterruptedException {
+        try (ShardedDisruptorAutobatcher<Integer, Integer> autobatcher = doubling()
+                .safeLoggablePurpose("sharded-all-requests")
+                .shardingStrategy(Autobatchers.ShardingStrategy.ROUND_ROBIN)
+                .buildSharded(NUM_SHARDS)) {
+            List<ListenableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                results.add(autobatcher.apply(i));
+            }
+
+            assertThat(Futures.allAsList(results).get()).containsExactlyElementsOf(expectedDoubles(1_000));
+        }
+    }
+
+    @Test
+    public void roundRobinUsesEveryShardConsumer() throws ExecutionException, InterruptedException {
+        try (ShardedDisruptorAutobatcher<Integer, Integer> autobatcher = doubling()
+                .safeLoggablePurpose("sharded-round-robin")
+                .shardingStrategy(Autobatchers.ShardingStrategy.ROUND_ROBIN)
+                .buildSharded(NUM_SHARDS)) {
+            List<ListenableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(autobatcher.apply(i));
+            }
+            Futures.allAsList(results).get();
+
+            assertThat(autobatcher.numShards()).isEqualTo(NUM_SHARDS);
+            assertThat(consumerThreads).hasSize(NUM_SHARDS);
+        }
+    }
+
+    @Test
+    public void argumentHashSendsEqualArgumentsToTheSameShard() throws ExecutionException, InterruptedException {
+        Map<String, Set<String>> threadsByArgument = new ConcurrentHashMap<>();
+        try (ShardedDisruptorAutobatcher<String, String> autobatcher = Autobatchers.<String, String>coalescing(
+                        arguments -> {
+                            arguments.forEach(argument -> threadsByArgument
+                                    .computeIfAbsent(argument, unused -> ConcurrentHashMap.newKeySet())
+                                    .add(Thread.currentThread().getName()));
+                            return arguments.stream().collect(Collectors.toMap(Function.identity(), a -> a + a));
+                        })
+                .safeLoggablePurpose("sharded-argument-hash")
+                .shardingStrategy(Autobatchers.ShardingStrategy.ARGUMENT_HASH)
+                .buildSharded(NUM_SHARDS)) {
+            List<ListenableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                results.add(autobatcher.apply("key" + (i % 10)));
+            }
+            Futures.allAsList(results).get();
+        }
+
+        assertThat(threadsByArgument).hasSize(10);
+        assertThat(threadsByArgument.values()).allSatisfy(threads -> assertThat(threads)
+                .hasSize(1));
+    }
+
+    @Test
+    public void registersQueueDepthGaugePerShardAndRemovesThemOnClose() {
+        ShardedDisruptorAutobatcher<Integer, Integer> autobatcher =
+                doubling().safeLoggablePurpose("sharded-gauges").buildSharded(NUM_SHARDS);
+
+        assertThat(queueDepthGauges("sharded-gauges")).hasSize(NUM_SHARDS);
+
+        autobatcher.close();
+        assertThat(queueDepthGauges("sharded-gauges")).isEmpty();
+    }
+
+    @Test
+    public void spinThenParkWaitStrategyProcessesRequests() throws ExecutionException, InterruptedException {
+        try (DisruptorAutobatcher<Integer, Integer> autobatcher = doubling()
+                .safeLoggablePurpose("spin-then-park")
+                .spinThenParkWaitStrategy(Duration.ofMillis(1), Duration.ofMillis(1))
+                .build()) {
+            assertThat(autobatcher.apply(21).get()).isEqualTo(42);
+        }
+    }
+
+    @Test
+    public void rejectsNonPositiveNumberOfShards() {
+        assertThatThrownBy(() -> doubling().safeLoggablePurpose("sharded-invalid").buildSharded(0))
+                .isInstanceOf(SafeIllegalArgumentException.class);
+    }
+
+    private Autobatchers.AutobatcherBuilder<Integer, Integer> doubling() {
+        return Autobatchers.independent(elements -> {
+            consumerThreads.add(Thread.currentThread().getName());
+            elements.forEach(element -> element.result().set(element.argument() * 2));
+        });
+    }
+
+    private static List<Integer> expectedDoubles(int count) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            expected.add(i * 2);
+        }
+        return expected;
+    }
+
+    private static Set<MetricName> queueDepthGauges(String purpose) {
+        return SharedTaggedMetricRegistries.getSingleton().getMetrics().keySet().stream()
+                .filter(name -> name.safeName().equals(ShardedDisruptorAutobatcher.QUEUE_DEPTH_GAUGE_NAME))
+                .filter(name -> purpose.equals(name.safeTags().get("identifier")))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cassandra;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * Configures an adaptive limit on the number of concurrent requests each Cassandra host may serve. The limit follows
+ * an additive-increase/multiplicative-decrease scheme: it grows slowly while requests complete quickly, and shrinks by
+ * {@link #backoffRatio()} whenever a request is slow or fails in a way that indicates Cassandra load. A request is
+ * slow if it took more than {@link #latencyTolerance()} times the host's long-run average latency, and at least
+ * {@link #latencyThreshold()}. Requests above the limit are rejected before they queue for a connection, and are
+ * retried on a different host.
+ */
+@JsonSerialize(as = ImmutableCassandraConcurrencyLimitConfig.class)
+@JsonDeserialize(as = ImmutableCassandraConcurrencyLimitConfig.class)
+@Value.Immutable
+public abstract class CassandraConcurrencyLimitConfig {
+    @Value.Default
+    public boolean enabled() {
+        return false;
+    }
+
+    @Value.Default
+    public int initialLimit() {
+        return 20;
+    }
+
+    @Value.Default
+    public int minLimit() {
+        return 1;
+    }
+
+    /**
+     * Defaults to {@link CassandraKeyValueServiceConfig#maxConnectionBurstSize()}, as there is no point in admitting
+     * more requests than there are connections.
+     */
+    public abstract Optional<Integer> maxLimit();
+
+    /**
+     * Requests faster than this are never considered slow, so that jitter around a very low average latency does not
+     * shrink the limit.
+     */
+    @Value.Default
+    public Duration latencyThreshold() {
+        return Duration.ofMillis(10);
+    }
+
+    /**
+     * How many times slower than the host's long-run average latency a request must be to count as slow.
+     */
+    @Value.Default
+    public double latencyTolerance() {
+        return 2.0;
+    }
+
+    @Value.Default
+    public double backoffRatio() {
+        return 0.9;
+    }
+
+    @Value.Check
+    public void check() {
+        Preconditions.checkState(minLimit() > 0, "minLimit should be positive, but found %s", minLimit());
+        Preconditions.checkState(
+                initialLimit() >= minLimit(),
+                "initialLimit %s should not be below minLimit %s",
+                initialLimit(),
+                minLimit());
+        maxLimit().ifPresent(max -> Preconditions.checkState(
+                        max >= initialLimit(), "maxLimit %s should not be below initialLimit %s", max, initialLimit()));
+        Preconditions.checkState(
+                backoffRatio() > 0 && backoffRatio() < 1,
+                "backoffRatio should be strictly between 0 and 1, but found %s",
+                backoffRatio());
+        Preconditions.checkState(
+                !latencyThreshold().isNegative() && !latencyThreshold().isZero(),
+                "latencyThreshold should be positive, but found %s",
+                latencyThreshold());
+        Preconditions.checkState(
+                latencyTolerance() > 1, "latencyTolerance should be greater than 1, but found %s", latencyTolerance());
+    }
+
+    static CassandraConcurrencyLimitConfig defaultConfig() {
+        return ImmutableCassandraConcurrencyLimitConfig.builder().build();
+    }
+}
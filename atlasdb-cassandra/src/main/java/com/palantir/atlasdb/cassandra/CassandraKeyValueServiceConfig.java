@@ -138,6 +138,15 @@ public interface CassandraKeyValueServiceConfig extends KeyValueServiceConfig {
         return CassandraConstants.DEFAULT_GC_GRACE_SECONDS;
     }
 
+    /**
+     * Whether get and getRows return their results as a {@link com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap},
+     * which holds large results in far less memory, at the cost of creating cells and values when they are read.
+     */
+    @Value.Default
+    default boolean compactReadResults() {
+        return false;
+    }
+
     /**
      * This increases the likelihood of selecting an instance that is hosted in the same rack as the process.
      * Weighting is a ratio from 0 to 1, where 0 disables the feature and 1 forces the same rack if possible.
@@ -147,6 +156,25 @@ public interface CassandraKeyValueServiceConfig extends KeyValueServiceConfig {
         return 1.0;
     }
 
+    /**
+     * If true, requests are routed to the less loaded of two randomly chosen candidate hosts, where load is the
+     * peak-EWMA request latency of the host scaled by its number of in-flight requests. This applies both to
+     * token-aware routing among the replicas of a key and to picking a random host. If false, hosts are weighted
+     * only by their number of in-flight requests.
+     */
+    @Value.Default
+    default boolean latencyAwareHostSelection() {
+        return false;
+    }
+
+    /**
+     * Adaptive per-host concurrency limits; disabled by default. See {@link CassandraConcurrencyLimitConfig}.
+     */
+    @Value.Default
+    default CassandraConcurrencyLimitConfig concurrencyLimit() {
+        return CassandraConcurrencyLimitConfig.defaultConfig();
+    }
+
     /**
      * This sets the number of times a node needs to be detected as absent from the Cassandra ring before its client
      * pool is removed. Configuring this may be useful for nodes operating in environments where IPs change frequently.
@@ -74,6 +74,47 @@ public final class CassandraServersConfigs {
         public int preparedStatementCacheSize() {
             return 100;
         }
+
+        /**
+         * Whether asynchronous gets (and latest timestamp reads) read several cells of a row with one CQL query. Such
+         * a query cannot stop at the latest visible version of each cell, so it reads every version of the requested
+         * cells; this should only be enabled for users whose tables are thoroughly swept. When disabled, every cell is
+         * read with its own query.
+         */
+        @Value.Default
+        public boolean batchGetQueries() {
+            return false;
+        }
+
+        /**
+         * Maximum number of cells of one row that a single CQL query reads when getting cells asynchronously, if
+         * {@link #batchGetQueries()} is enabled. Setting this to 1 reads every cell with its own query.
+         */
+        @Value.Default
+        public int maxCellsPerGetQuery() {
+            return 100;
+        }
+
+        /**
+         * Maximum number of queries that one asynchronous get keeps in flight against each Cassandra host, if
+         * {@link #batchGetQueries()} is enabled; further queries for that host are started as earlier ones complete.
+         */
+        @Value.Default
+        public int maxInFlightGetQueriesPerHost() {
+            return 16;
+        }
+
+        @Value.Check
+        final void check() {
+            Preconditions.checkArgument(
+                    maxCellsPerGetQuery() > 0,
+                    "maxCellsPerGetQuery must be positive",
+                    SafeArg.of("maxCellsPerGetQuery", maxCellsPerGetQuery()));
+            Preconditions.checkArgument(
+                    maxInFlightGetQueriesPerHost() > 0,
+                    "maxInFlightGetQueriesPerHost must be positive",
+                    SafeArg.of("maxInFlightGetQueriesPerHost", maxInFlightGetQueriesPerHost()));
+        }
     }
 
     @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type", defaultImpl = ImmutableDefaultConfig.class)
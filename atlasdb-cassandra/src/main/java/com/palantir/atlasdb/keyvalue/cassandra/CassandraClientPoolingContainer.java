@@ -24,8 +24,11 @@ import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientFactory.CassandraC
 import com.palantir.atlasdb.keyvalue.cassandra.pool.CassandraClientPoolHostLevelMetric;
 import com.palantir.atlasdb.keyvalue.cassandra.pool.CassandraClientPoolMetrics;
 import com.palantir.atlasdb.keyvalue.cassandra.pool.CassandraServer;
+import com.palantir.atlasdb.keyvalue.cassandra.pool.ConcurrencyLimiter;
+import com.palantir.atlasdb.keyvalue.cassandra.pool.PeakEwmaLatency;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.base.FunctionCheckedException;
+import com.palantir.common.exception.AtlasDbDependencyException;
 import com.palantir.common.pooling.PoolingContainer;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.UnsafeArg;
@@ -68,6 +71,8 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
     private final MetricsManager metricsManager;
     private final AtomicLong count = new AtomicLong();
     private final AtomicInteger openRequests = new AtomicInteger();
+    private final PeakEwmaLatency latency = PeakEwmaLatency.create();
+    private final ConcurrencyLimiter concurrencyLimiter;
     private final GenericObjectPool<CassandraClient> clientPool;
     private final int poolNumber;
     private final CassandraClientPoolMetrics poolMetrics;
@@ -85,6 +90,8 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
         this.config = config;
         this.poolNumber = poolNumber;
         this.poolMetrics = poolMetrics;
+        this.concurrencyLimiter =
+                ConcurrencyLimiter.create(config.concurrencyLimit(), config.maxConnectionBurstSize());
         this.clientPool = createClientPool();
         this.timedRunner = TimedRunner.create(config.timeoutOnConnectionBorrow().toJavaDuration());
     }
@@ -103,6 +110,14 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
         return openRequests.get();
     }
 
+    /**
+     * Peak-EWMA latency of requests to this host, scaled by the number of requests currently in flight. Lower scores
+     * indicate hosts that are expected to serve an additional request sooner.
+     */
+    public double getLoadScore() {
+        return latency.getLoadScore(getOpenRequests());
+    }
+
     // returns negative if not available; only expected use is debugging
     public int getActiveCheckouts() {
         return clientPool.getNumActive();
@@ -116,6 +131,9 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
     @Override
     public <V, K extends Exception> V runWithPooledResource(FunctionCheckedException<CassandraClient, V, K> fn)
             throws K {
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(cassandraServer, concurrencyLimiter.getLimit());
+        }
         final String origName = Thread.currentThread().getName();
         String newThreadName = origName + " to cassandra " + proxy.getHostString() + ':' + proxy.getPort() + " - "
                 + count.getAndIncrement();
@@ -124,10 +142,20 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
             newThreadName += " started at " + Instant.now();
         }
         ThreadNames.setThreadName(Thread.currentThread(), newThreadName);
+        long startNanos = System.nanoTime();
+        // The limiter judges the host on the time it spent serving the request, excluding the wait for a connection.
+        AtomicLong serviceStartNanos = new AtomicLong(startNanos);
+        ConcurrencyLimiter.Outcome outcome = ConcurrencyLimiter.Outcome.SUCCESS;
         try {
             openRequests.getAndIncrement();
-            return runWithGoodResource(fn);
+            return runWithGoodResource(client -> {
+                serviceStartNanos.set(System.nanoTime());
+                return fn.apply(client);
+            });
         } catch (Throwable t) {
+            outcome = isIndicativeOfHostOverload(t)
+                    ? ConcurrencyLimiter.Outcome.DROPPED
+                    : ConcurrencyLimiter.Outcome.IGNORED;
             log.warn("Error occurred talking to host '{}'", SafeArg.of("host", cassandraServer), t);
             if (t instanceof NoSuchElementException && t.getMessage().contains("Pool exhausted")) {
                 log.warn(
@@ -143,11 +171,24 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
             }
             throw t;
         } finally {
+            long endNanos = System.nanoTime();
+            long elapsedNanos = endNanos - startNanos;
+            if (outcome == ConcurrencyLimiter.Outcome.SUCCESS) {
+                latency.recordLatency(elapsedNanos);
+            } else if (outcome == ConcurrencyLimiter.Outcome.DROPPED) {
+                latency.recordFailure(elapsedNanos);
+            }
+            concurrencyLimiter.release(endNanos - serviceStartNanos.get(), outcome);
             openRequests.getAndDecrement();
             ThreadNames.setThreadName(Thread.currentThread(), origName);
         }
     }
 
+    private static boolean isIndicativeOfHostOverload(Throwable throwable) {
+        return CassandraRequestExceptionHandler.isIndicativeOfCassandraLoad(throwable)
+                || CassandraRequestExceptionHandler.isConnectionException(throwable);
+    }
+
     @Override
     public <V> V runWithPooledResource(Function<CassandraClient, V> fn) {
         throw new UnsupportedOperationException("you should use FunctionCheckedException<?, ?, Exception> "
@@ -362,9 +403,36 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
         registerPoolMetric(CassandraClientPoolHostLevelMetric.CREATED, pool::getCreatedCount);
         registerPoolMetric(CassandraClientPoolHostLevelMetric.DESTROYED_BY_EVICTOR, pool::getDestroyedByEvictorCount);
         registerPoolMetric(CassandraClientPoolHostLevelMetric.DESTROYED, pool::getDestroyedCount);
+        registerPoolMetric(CassandraClientPoolHostLevelMetric.LATENCY_EWMA_MICROS, this::getLatencyEwmaMicros);
+        registerPoolMetric(CassandraClientPoolHostLevelMetric.LOAD_SCORE_MICROS, this::getLoadScoreMicros);
+        registerPoolMetric(
+                CassandraClientPoolHostLevelMetric.CONCURRENCY_LIMIT, () -> (long) concurrencyLimiter.getLimit());
+        registerPoolMetric(
+                CassandraClientPoolHostLevelMetric.CONCURRENCY_LIMIT_REJECTIONS, concurrencyLimiter::getRejectedCount);
+    }
+
+    private long getLatencyEwmaMicros() {
+        return (long) (latency.getEwmaNanos() / 1_000);
+    }
+
+    private long getLoadScoreMicros() {
+        return (long) (getLoadScore() / 1_000);
     }
 
     private void registerPoolMetric(CassandraClientPoolHostLevelMetric metric, Gauge<Long> gauge) {
         poolMetrics.registerPoolMetric(metric, gauge, poolNumber);
     }
+
+    /**
+     * Thrown when a request is shed because the host already has as many requests in flight as its adaptive
+     * concurrency limit allows. The request did not reach Cassandra, so it can safely be retried on another host.
+     */
+    static final class ConcurrencyLimitExceededException extends AtlasDbDependencyException {
+        private static final long serialVersionUID = 1L;
+
+        ConcurrencyLimitExceededException(CassandraServer server, int limit) {
+            super("Concurrency limit of " + limit + " requests exceeded for Cassandra host "
+                    + server.cassandraHostName());
+        }
+    }
 }
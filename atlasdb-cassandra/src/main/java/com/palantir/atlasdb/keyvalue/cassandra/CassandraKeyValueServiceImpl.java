@@ -87,6 +87,7 @@ import com.palantir.atlasdb.keyvalue.cassandra.thrift.SlicePredicates.Range;
 import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
 import com.palantir.atlasdb.keyvalue.impl.CheckAndSetResult;
+import com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap;
 import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.keyvalue.impl.KeyValueServices;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
@@ -628,7 +629,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                     () -> getRowsForSingleHost(hostAndRows.getKey(), tableRef, hostAndRows.getValue(), startTs)));
         }
         List<Map<Cell, Value>> perHostResults = taskRunner.runAllTasksCancelOnFailure(tasks);
-        Map<Cell, Value> result = Maps.newHashMapWithExpectedSize(Iterables.size(rows));
+        Map<Cell, Value> result = newReadResults(Iterables.size(rows));
         for (Map<Cell, Value> perHostResult : perHostResults) {
             result.putAll(perHostResult);
         }
@@ -639,7 +640,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             final CassandraServer host, final TableReference tableRef, final List<byte[]> rows, final long startTs) {
         try {
             int rowCount = 0;
-            final Map<Cell, Value> result = new HashMap<>();
+            final Map<Cell, Value> result = newReadResults(rows.size());
             int fetchBatchCount = runtimeConfig.get().fetchBatchCount();
             for (final List<byte[]> batch : Lists.partition(rows, fetchBatchCount)) {
                 rowCount += batch.size();
@@ -653,7 +654,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                         SafeArg.of("rowCount", rowCount),
                         SafeArg.of("stacktrace", CassandraKeyValueServices.getFilteredStackTrace("com.palantir")));
             }
-            return ImmutableMap.copyOf(result);
+            return config.compactReadResults() ? result : ImmutableMap.copyOf(result);
         } catch (Exception e) {
             throw Throwables.unwrapAndThrowAtlasDbDependencyException(e);
         }
@@ -679,11 +680,17 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                     .collect(Collectors.toList());
         }
 
-        ValueExtractor extractor = new ValueExtractor(metricsManager, Maps.newHashMapWithExpectedSize(result.size()));
+        ValueExtractor extractor = new ValueExtractor(metricsManager, newReadResults(result.size()));
         extractor.extractResults(Multimaps.asMap(result), startTs, ColumnSelection.all());
         return extractor.asMap();
     }
 
+    private Map<Cell, Value> newReadResults(int expectedSize) {
+        return config.compactReadResults()
+                ? CompactCellValueMap.createWithExpectedSize(expectedSize)
+                : Maps.newHashMapWithExpectedSize(expectedSize);
+    }
+
     private static KeyPredicate keyPredicate(ByteBuffer row, SlicePredicate predicate) {
         return new KeyPredicate().setKey(row).setPredicate(predicate);
     }
@@ -807,7 +814,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
 
             SetMultimap<Long, Cell> cellsByTs =
                     Multimaps.invertFrom(Multimaps.forMap(timestampByCell), HashMultimap.create());
-            ImmutableMap.Builder<Cell, Value> builder = ImmutableMap.builder();
+            Map<Cell, Value> results = newReadResults(timestampByCell.size());
             for (long ts : cellsByTs.keySet()) {
                 StartTsResultsCollector collector = new StartTsResultsCollector(metricsManager, ts);
                 cellLoader.loadWithTs(
@@ -818,9 +825,9 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                         false,
                         collector,
                         readConsistencyProvider.getConsistency(tableRef));
-                builder.putAll(collector.getCollectedResults());
+                results.putAll(collector.getCollectedResults());
             }
-            return builder.buildOrThrow();
+            return config.compactReadResults() ? results : ImmutableMap.copyOf(results);
         } catch (Exception e) {
             throw Throwables.unwrapAndThrowAtlasDbDependencyException(e);
         }
@@ -2130,27 +2137,71 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             log.info("Attempted get with no specified cells", LoggingArgs.tableRef(tableRef));
             return Futures.immediateFuture(ImmutableMap.of());
         }
+        return readAsyncWithSynchronousFallback(
+                () -> asyncKeyValueService.getAsync(tableRef, timestampByCell),
+                () -> this.get(tableRef, timestampByCell));
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+        if (Iterables.isEmpty(rows)) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        return readAsyncWithSynchronousFallback(
+                () -> asyncKeyValueService.getRowsAsync(tableRef, rows, columnSelection, timestamp),
+                () -> getRows(tableRef, rows, columnSelection, timestamp));
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        if (Iterables.isEmpty(rows)) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        return readAsyncWithSynchronousFallback(
+                () -> asyncKeyValueService.getRowsColumnRangeAsync(
+                        tableRef, rows, batchColumnRangeSelection, timestamp),
+                () -> getRowsColumnRange(tableRef, rows, batchColumnRangeSelection, timestamp));
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+            TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        if (timestampByCell.isEmpty()) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        return readAsyncWithSynchronousFallback(
+                () -> asyncKeyValueService.getLatestTimestampsAsync(tableRef, timestampByCell),
+                () -> getLatestTimestamps(tableRef, timestampByCell));
+    }
+
+    private <T> ListenableFuture<T> readAsyncWithSynchronousFallback(
+            Supplier<ListenableFuture<T>> asyncRead, Supplier<T> synchronousRead) {
         if (asyncKeyValueService.isValid()) {
             try {
                 return Futures.catching(
-                        asyncKeyValueService.getAsync(tableRef, timestampByCell),
+                        asyncRead.get(),
                         IllegalStateException.class,
                         e -> {
                             log.warn(
-                                    "CQL Client closed during getAsync. Delegating to synchronous get. This should be"
-                                            + " very rare, and only happen once after the Cassandra Server list has"
-                                            + " changed.",
+                                    "CQL Client closed during an asynchronous read. Delegating to synchronous read."
+                                            + " This should be very rare, and only happen once after the Cassandra"
+                                            + " Server list has changed.",
                                     e);
-                            return this.get(tableRef, timestampByCell);
+                            return synchronousRead.get();
                         },
                         executor);
             } catch (IllegalStateException | DriverInternalError e) {
                 // If the container is closed, or we've reloaded into an invalid ThrowingCqlClient, after testing for
                 // validity
-                return Futures.immediateFuture(this.get(tableRef, timestampByCell));
+                return Futures.immediateFuture(synchronousRead.get());
             }
         } else {
-            return Futures.immediateFuture(this.get(tableRef, timestampByCell));
+            return Futures.immediateFuture(synchronousRead.get());
         }
     }
 
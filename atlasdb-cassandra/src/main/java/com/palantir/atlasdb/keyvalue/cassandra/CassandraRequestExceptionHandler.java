@@ -148,11 +148,11 @@ class CassandraRequestExceptionHandler {
             CassandraServer serverTried,
             Exception ex,
             RequestExceptionHandlerStrategy strategy) {
-        if (!shouldBackoff(ex, strategy)) {
+        if (!shouldBackoff(req, ex, strategy)) {
             return;
         }
 
-        long backOffPeriod = strategy.getBackoffPeriod(req.getNumberOfAttemptsOnHost(serverTried));
+        long backOffPeriod = strategy.getBackoffPeriod(getBackoffAttempts(req, serverTried, ex));
         log.info(
                 "Retrying a query, {}, with backoff of {}ms, intended for host {}.",
                 UnsafeArg.of("queryString", req.getFunction().toString()),
@@ -173,6 +173,27 @@ class CassandraRequestExceptionHandler {
         return strategy.shouldBackoff(ex);
     }
 
+    /**
+     * A request shed by a host's concurrency limit is retried on another host straight away. If that host sheds it as
+     * well, every host we have tried is saturated, and retrying without pause would only add load to the cluster.
+     */
+    @VisibleForTesting
+    boolean shouldBackoff(RetryableCassandraRequest<?, ?> req, Exception ex, RequestExceptionHandlerStrategy strategy) {
+        if (ex instanceof CassandraClientPoolingContainer.ConcurrencyLimitExceededException) {
+            return req.getNumberOfConsecutiveConcurrencyLimitRejections() > 1;
+        }
+        return shouldBackoff(ex, strategy);
+    }
+
+    private static int getBackoffAttempts(
+            RetryableCassandraRequest<?, ?> req, CassandraServer serverTried, Exception ex) {
+        if (ex instanceof CassandraClientPoolingContainer.ConcurrencyLimitExceededException) {
+            // Each rejection fails over to a new host, so grow the backoff with the run of rejections instead.
+            return req.getNumberOfConsecutiveConcurrencyLimitRejections() - 1;
+        }
+        return req.getNumberOfAttemptsOnHost(serverTried);
+    }
+
     private <K extends Exception> void handleRetryOnDifferentHosts(
             RetryableCassandraRequest<?, K> req,
             CassandraServer serverTried,
@@ -235,7 +256,10 @@ class CassandraRequestExceptionHandler {
     static boolean isFastFailoverException(Throwable ex) {
         return ex != null
                 // underlying cassandra table does not exist. The table might exist on other cassandra nodes.
-                && (ex instanceof InvalidRequestException || isFastFailoverException(ex.getCause()));
+                && (ex instanceof InvalidRequestException
+                        // this node shed the request before sending it; other nodes may have capacity.
+                        || ex instanceof CassandraClientPoolingContainer.ConcurrencyLimitExceededException
+                        || isFastFailoverException(ex.getCause()));
     }
 
     static boolean isExceptionNotImplicatingThisParticularNode(Throwable ex) {
@@ -32,6 +32,7 @@ public class RetryableCassandraRequest<V, K extends Exception> {
     private boolean shouldGiveUpOnPreferredHost = false;
     private Map<CassandraServer, Integer> triedHosts = new ConcurrentHashMap<>();
     private List<Exception> encounteredExceptions = new ArrayList<>();
+    private int consecutiveConcurrencyLimitRejections = 0;
 
     public RetryableCassandraRequest(
             CassandraServer cassandraServer, FunctionCheckedException<CassandraClient, V, K> fn) {
@@ -77,6 +78,19 @@ public class RetryableCassandraRequest<V, K extends Exception> {
 
     public void registerException(Exception exception) {
         encounteredExceptions.add(exception);
+        if (exception instanceof CassandraClientPoolingContainer.ConcurrencyLimitExceededException) {
+            consecutiveConcurrencyLimitRejections++;
+        } else {
+            consecutiveConcurrencyLimitRejections = 0;
+        }
+    }
+
+    /**
+     * The number of attempts, up to and including the most recent one, that were shed by the concurrency limit of the
+     * host they were sent to.
+     */
+    public int getNumberOfConsecutiveConcurrencyLimitRejections() {
+        return consecutiveConcurrencyLimitRejections;
     }
 
     public AtlasDbDependencyException throwLimitReached() {
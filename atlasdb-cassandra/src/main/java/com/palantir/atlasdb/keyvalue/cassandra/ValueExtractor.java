@@ -19,19 +19,26 @@ import com.codahale.metrics.Counter;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
 import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap;
 import com.palantir.atlasdb.tracing.TraceStatistics;
 import com.palantir.atlasdb.util.MetricsManager;
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 class ValueExtractor extends ResultsExtractor<Value> {
     private final Map<Cell, Value> collector;
+
+    @Nullable
+    private final CompactCellValueMap compactCollector;
+
     private final Counter notLatestVisibleValueCellFilterCounter =
             getNotLatestVisibleValueCellFilterCounter(ValueExtractor.class);
 
     ValueExtractor(MetricsManager metricsManager, Map<Cell, Value> collector) {
         super(metricsManager);
         this.collector = collector;
+        this.compactCollector = collector instanceof CompactCellValueMap ? (CompactCellValueMap) collector : null;
     }
 
     static ValueExtractor create(MetricsManager metricsManager) {
@@ -42,9 +49,12 @@ class ValueExtractor extends ResultsExtractor<Value> {
     public void internalExtractResult(
             long startTs, ColumnSelection selection, byte[] row, byte[] col, byte[] val, long ts) {
         if (ts < startTs && selection.contains(col)) {
-            Cell cell = Cell.create(row, col);
-            Value value = collector.computeIfAbsent(cell, _cell -> Value.create(val, ts));
-            if (value.getTimestamp() != ts) {
+            long retainedTs = compactCollector != null
+                    ? compactCollector.putIfAbsent(row, col, val, ts)
+                    : collector
+                            .computeIfAbsent(Cell.create(row, col), _cell -> Value.create(val, ts))
+                            .getTimestamp();
+            if (retainedTs != ts) {
                 TraceStatistics.incSkippedValues(1L);
                 notLatestVisibleValueCellFilterCounter.inc();
             }
@@ -16,24 +16,50 @@
 
 package com.palantir.atlasdb.keyvalue.cassandra.async;
 
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.cassandra.CassandraServersConfigs.CqlCapableConfigTuning;
 import com.palantir.atlasdb.cassandra.ReloadingCloseableContainer;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.futures.AtlasFutures;
 import com.palantir.atlasdb.futures.FuturesCombiner;
 import com.palantir.atlasdb.keyvalue.api.AsyncKeyValueService;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetLatestTimestampQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec.GetQueryParameters;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnRangePage;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnRangePageQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnRangeQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangePageQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangePageQuerySpec.RowColumnRangePage;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangePageQuerySpec.RowColumnRangePageQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangeQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangeQuerySpec.RowColumnRangeQueryParameters;
 import com.palantir.atlasdb.logging.LoggingArgs;
+import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.streams.KeyedStream;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -43,21 +69,43 @@ public final class CassandraAsyncKeyValueService implements AsyncKeyValueService
     private final String keyspace;
     private final ReloadingCloseableContainer<CqlClient> cqlClientContainer;
     private final FuturesCombiner futuresCombiner;
+    private final Optional<CqlGetBatcher> getBatcher;
 
+    /**
+     * Creates a service that reads every cell requested from {@link #getAsync} with its own query.
+     */
     public static AsyncKeyValueService create(
             String keyspace,
             ReloadingCloseableContainer<CqlClient> cqlClientContainer,
             FuturesCombiner futuresCombiner) {
-        return new CassandraAsyncKeyValueService(keyspace, cqlClientContainer, futuresCombiner);
+        return new CassandraAsyncKeyValueService(keyspace, cqlClientContainer, futuresCombiner, Optional.empty());
+    }
+
+    /**
+     * Creates a service that batches the cells requested from {@link #getAsync} by row and by replica, as configured
+     * by the given tuning.
+     */
+    public static AsyncKeyValueService create(
+            String keyspace,
+            ReloadingCloseableContainer<CqlClient> cqlClientContainer,
+            FuturesCombiner futuresCombiner,
+            MetricsManager metricsManager,
+            CqlCapableConfigTuning tuning) {
+        CqlGetBatcher getBatcher = new CqlGetBatcher(
+                metricsManager, tuning.maxCellsPerGetQuery(), tuning.maxInFlightGetQueriesPerHost());
+        return new CassandraAsyncKeyValueService(
+                keyspace, cqlClientContainer, futuresCombiner, Optional.of(getBatcher));
     }
 
     private CassandraAsyncKeyValueService(
             String keyspace,
             ReloadingCloseableContainer<CqlClient> cqlClientContainer,
-            FuturesCombiner futuresCombiner) {
+            FuturesCombiner futuresCombiner,
+            Optional<CqlGetBatcher> getBatcher) {
         this.keyspace = keyspace;
         this.cqlClientContainer = cqlClientContainer;
         this.futuresCombiner = futuresCombiner;
+        this.getBatcher = getBatcher;
     }
 
     @Override
@@ -69,6 +117,10 @@ public final class CassandraAsyncKeyValueService implements AsyncKeyValueService
                     LoggingArgs.tableRef(tableReference));
         }
 
+        if (getBatcher.isPresent()) {
+            return getBatcher.get().get(cqlClientContainer.get(), queryContext(tableReference), timestampByCell);
+        }
+
         Map<Cell, ListenableFuture<Optional<Value>>> cellListenableFutureMap = KeyedStream.stream(timestampByCell)
                 .map((cell, timestamp) -> getCellAsync(tableReference, cell, timestamp))
                 .collectToMap();
@@ -77,16 +129,253 @@ public final class CassandraAsyncKeyValueService implements AsyncKeyValueService
     }
 
     private ListenableFuture<Optional<Value>> getCellAsync(TableReference tableReference, Cell cell, long timestamp) {
-        CqlQueryContext queryContext = ImmutableCqlQueryContext.builder()
-                .tableReference(tableReference)
-                .keyspace(keyspace)
+        GetQueryParameters getQueryParameters = ImmutableGetQueryParameters.builder()
+                .cell(cell)
+                .humanReadableTimestamp(timestamp)
+                .build();
+
+        return cqlClientContainer
+                .get()
+                .executeQuery(new GetQuerySpec(queryContext(tableReference), getQueryParameters));
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableReference, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+        if (!columnSelection.allColumnsSelected()) {
+            Map<Cell, Long> timestampByCell = new HashMap<>();
+            for (byte[] row : rows) {
+                for (byte[] column : columnSelection.getSelectedColumns()) {
+                    timestampByCell.put(Cell.create(row, column), timestamp);
+                }
+            }
+            return getAsync(tableReference, timestampByCell);
+        }
+
+        List<ListenableFuture<Map<Cell, Value>>> rowFutures = new ArrayList<>();
+        for (byte[] row : rows) {
+            rowFutures.add(getRowColumnRangeAsync(
+                    tableReference, row, PtBytes.EMPTY_BYTE_ARRAY, PtBytes.EMPTY_BYTE_ARRAY, 0, timestamp));
+        }
+        if (log.isTraceEnabled()) {
+            log.trace(
+                    "Getting rows using CQL.",
+                    SafeArg.of("rows", rowFutures.size()),
+                    LoggingArgs.tableRef(tableReference));
+        }
+
+        return Futures.transform(
+                Futures.allAsList(rowFutures),
+                rowResults -> {
+                    Map<Cell, Value> result = new HashMap<>();
+                    rowResults.forEach(result::putAll);
+                    return result;
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    /**
+     * The future completes once the first {@code batchColumnRangeSelection.getBatchHint()} cell versions of each row
+     * have been read; the returned iterators read the rest of their row's range, one page of that many versions at a
+     * time, only as they are consumed.
+     */
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableReference,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        List<byte[]> rowList = ImmutableList.copyOf(rows);
+        if (log.isTraceEnabled()) {
+            log.trace(
+                    "Getting row column ranges using CQL.",
+                    SafeArg.of("rows", rowList.size()),
+                    LoggingArgs.tableRef(tableReference));
+        }
+
+        List<ListenableFuture<RowColumnRangePage>> firstPages = new ArrayList<>(rowList.size());
+        for (byte[] row : rowList) {
+            firstPages.add(getRowColumnRangePageAsync(
+                    tableReference,
+                    row,
+                    batchColumnRangeSelection.getStartCol(),
+                    batchColumnRangeSelection,
+                    timestamp));
+        }
+
+        return Futures.transform(
+                Futures.allAsList(firstPages),
+                pages -> {
+                    Map<byte[], RowColumnRangeIterator> result = Maps.newHashMapWithExpectedSize(rowList.size());
+                    for (int i = 0; i < rowList.size(); i++) {
+                        result.put(
+                                rowList.get(i),
+                                new PagingRowColumnRangeIterator(
+                                        tableReference,
+                                        rowList.get(i),
+                                        batchColumnRangeSelection,
+                                        timestamp,
+                                        pages.get(i)));
+                    }
+                    return result;
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<RowColumnRangePage> getRowColumnRangePageAsync(
+            TableReference tableReference,
+            byte[] row,
+            byte[] startColumnInclusive,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        RowColumnRangePageQueryParameters parameters = ImmutableRowColumnRangePageQueryParameters.builder()
+                .row(row)
+                .startColumnInclusive(startColumnInclusive)
+                .endColumnExclusive(batchColumnRangeSelection.getEndCol())
+                .limit(Math.max(1, batchColumnRangeSelection.getBatchHint()))
+                .humanReadableTimestamp(timestamp)
+                .build();
+
+        ListenableFuture<RowColumnRangePage> page = cqlClientContainer
+                .get()
+                .executeQuery(new RowColumnRangePageQuerySpec(queryContext(tableReference), parameters));
+        return Futures.transformAsync(
+                page,
+                readPage -> resolveLastColumn(tableReference, row, timestamp, readPage),
+                MoreExecutors.directExecutor());
+    }
+
+    /**
+     * A page that ends part way through the versions of a column without reaching a visible one has to look up that
+     * column's latest visible version separately, as it is older than everything the page read.
+     */
+    private ListenableFuture<RowColumnRangePage> resolveLastColumn(
+            TableReference tableReference, byte[] row, long timestamp, RowColumnRangePage page) {
+        if (page.unresolvedColumn().isEmpty()) {
+            return Futures.immediateFuture(page);
+        }
+        Cell cell = Cell.create(row, page.unresolvedColumn().get());
+        return Futures.transform(
+                getCellAsync(tableReference, cell, timestamp),
+                value -> {
+                    ImmutableRowColumnRangePage.Builder resolved =
+                            ImmutableRowColumnRangePage.builder().from(page).unresolvedColumn(Optional.empty());
+                    value.ifPresent(present -> resolved.putValues(cell, present));
+                    return resolved.build();
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<Map<Cell, Value>> getRowColumnRangeAsync(
+            TableReference tableReference,
+            byte[] row,
+            byte[] startColumnInclusive,
+            byte[] endColumnExclusive,
+            int fetchSize,
+            long timestamp) {
+        RowColumnRangeQueryParameters parameters = ImmutableRowColumnRangeQueryParameters.builder()
+                .row(row)
+                .startColumnInclusive(startColumnInclusive)
+                .endColumnExclusive(endColumnExclusive)
+                .fetchSize(fetchSize)
+                .humanReadableTimestamp(timestamp)
                 .build();
+
+        return cqlClientContainer
+                .get()
+                .executeQuery(new RowColumnRangeQuerySpec(queryContext(tableReference), parameters));
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+            TableReference tableReference, Map<Cell, Long> timestampByCell) {
+        if (log.isTraceEnabled()) {
+            log.trace(
+                    "Getting latest timestamps using CQL.",
+                    SafeArg.of("cells", timestampByCell.size()),
+                    LoggingArgs.tableRef(tableReference));
+        }
+
+        if (getBatcher.isPresent()) {
+            return getBatcher
+                    .get()
+                    .getLatestTimestamps(cqlClientContainer.get(), queryContext(tableReference), timestampByCell);
+        }
+
+        Map<Cell, ListenableFuture<Optional<Long>>> cellListenableFutureMap = KeyedStream.stream(timestampByCell)
+                .map((cell, timestamp) -> getLatestTimestampAsync(tableReference, cell, timestamp))
+                .collectToMap();
+
+        return futuresCombiner.allAsMap(cellListenableFutureMap);
+    }
+
+    private ListenableFuture<Optional<Long>> getLatestTimestampAsync(
+            TableReference tableReference, Cell cell, long timestamp) {
         GetQueryParameters getQueryParameters = ImmutableGetQueryParameters.builder()
                 .cell(cell)
                 .humanReadableTimestamp(timestamp)
                 .build();
 
-        return cqlClientContainer.get().executeQuery(new GetQuerySpec(queryContext, getQueryParameters));
+        return cqlClientContainer
+                .get()
+                .executeQuery(new GetLatestTimestampQuerySpec(queryContext(tableReference), getQueryParameters));
+    }
+
+    private CqlQueryContext queryContext(TableReference tableReference) {
+        return ImmutableCqlQueryContext.builder()
+                .tableReference(tableReference)
+                .keyspace(keyspace)
+                .build();
+    }
+
+    /**
+     * Iterates over a row's column range, reading the next page of the range from Cassandra only once the previous
+     * page has been consumed.
+     */
+    private final class PagingRowColumnRangeIterator extends AbstractIterator<Map.Entry<Cell, Value>>
+            implements RowColumnRangeIterator {
+        private final TableReference tableReference;
+        private final byte[] row;
+        private final BatchColumnRangeSelection batchColumnRangeSelection;
+        private final long timestamp;
+
+        private Iterator<Map.Entry<Cell, Value>> currentPage;
+        private Optional<byte[]> nextStartColumn;
+
+        private PagingRowColumnRangeIterator(
+                TableReference tableReference,
+                byte[] row,
+                BatchColumnRangeSelection batchColumnRangeSelection,
+                long timestamp,
+                RowColumnRangePage firstPage) {
+            this.tableReference = tableReference;
+            this.row = row;
+            this.batchColumnRangeSelection = batchColumnRangeSelection;
+            this.timestamp = timestamp;
+            setPage(firstPage);
+        }
+
+        @Override
+        protected Map.Entry<Cell, Value> computeNext() {
+            while (!currentPage.hasNext()) {
+                if (nextStartColumn.isEmpty()) {
+                    return endOfData();
+                }
+                setPage(AtlasFutures.getUnchecked(getRowColumnRangePageAsync(
+                        tableReference, row, nextStartColumn.get(), batchColumnRangeSelection, timestamp)));
+            }
+            return currentPage.next();
+        }
+
+        private void setPage(RowColumnRangePage page) {
+            currentPage = page.values().entrySet().iterator();
+            nextStartColumn = page.nextStartColumn().filter(this::isWithinRange);
+        }
+
+        private boolean isWithinRange(byte[] column) {
+            byte[] endColumn = batchColumnRangeSelection.getEndCol();
+            return endColumn.length == 0 || UnsignedBytes.lexicographicalComparator().compare(column, endColumn) < 0;
+        }
     }
 
     @Override
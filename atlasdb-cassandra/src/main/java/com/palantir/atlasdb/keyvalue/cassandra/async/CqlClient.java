@@ -19,12 +19,21 @@ package com.palantir.atlasdb.keyvalue.cassandra.async;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQuerySpec;
 import com.palantir.processors.AutoDelegate;
+import java.net.InetSocketAddress;
+import java.util.Optional;
 
 @AutoDelegate
 public interface CqlClient extends AutoCloseable {
 
     <V> ListenableFuture<V> executeQuery(CqlQuerySpec<V> querySpec);
 
+    /**
+     * The replica that token aware routing sends queries for the given partition first, if the client knows the ring.
+     */
+    default Optional<InetSocketAddress> primaryReplica(String keyspace, byte[] partitionKey) {
+        return Optional.empty();
+    }
+
     @Override
     void close();
 
@@ -17,6 +17,7 @@
 package com.palantir.atlasdb.keyvalue.cassandra.async;
 
 import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Metadata;
 import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Session;
@@ -33,6 +34,9 @@ import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowStreamAccumulato
 import com.palantir.atlasdb.keyvalue.cassandra.async.statement.preparing.CachingStatementPreparer;
 import com.palantir.atlasdb.keyvalue.cassandra.async.statement.preparing.StatementPreparer;
 import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 
 public final class CqlClientImpl implements CqlClient {
@@ -127,6 +131,16 @@ public final class CqlClientImpl implements CqlClient {
         return execute(executableStatement, MoreExecutors.directExecutor(), querySpec.rowStreamAccumulator());
     }
 
+    @Override
+    public Optional<InetSocketAddress> primaryReplica(String keyspace, byte[] partitionKey) {
+        return session.getCluster()
+                .getMetadata()
+                .getReplicas(Metadata.quote(keyspace), ByteBuffer.wrap(partitionKey))
+                .stream()
+                .findFirst()
+                .map(host -> host.getEndPoint().resolve());
+    }
+
     private <V> ListenableFuture<V> execute(
             Statement executableStatement, Executor executor, RowStreamAccumulator<V> rowStreamAccumulator) {
         return Futures.transformAsync(
@@ -0,0 +1,291 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetLatestTimestampQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec.GetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableMultiGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetLatestTimestampQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec.MultiGetQueryParameters;
+import com.palantir.atlasdb.util.MetricsManager;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Reads cells, or only their latest timestamps, with as few CQL queries as possible. Cells are grouped by row and read
+ * timestamp, and each group is read by single partition {@code IN} queries of at most {@code maxCellsPerQuery} columns;
+ * groups of a single cell use the single cell query, which lets Cassandra stop at the latest visible version. Queries
+ * are then grouped by the replica that token aware routing sends them to, and each replica has at most
+ * {@code maxInFlightPerHost} of a request's queries outstanding at a time, with the rest started as earlier ones
+ * complete.
+ */
+final class CqlGetBatcher {
+    private static final String UNKNOWN_HOST = "unknown";
+
+    private final int maxCellsPerQuery;
+    private final int maxInFlightPerHost;
+    private final MetricsManager metricsManager;
+    private final Histogram queriesPerRequest;
+    private final ConcurrentMap<String, Counter> inFlightQueriesByHost = new ConcurrentHashMap<>();
+
+    CqlGetBatcher(MetricsManager metricsManager, int maxCellsPerQuery, int maxInFlightPerHost) {
+        this.maxCellsPerQuery = maxCellsPerQuery;
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.metricsManager = metricsManager;
+        this.queriesPerRequest = metricsManager.registerOrGetHistogram(CqlGetBatcher.class, "queriesPerRequest");
+    }
+
+    ListenableFuture<Map<Cell, Value>> get(CqlClient client, CqlQueryContext context, Map<Cell, Long> timestampByCell) {
+        return execute(client, context, timestampByCell, CellQueries.VALUES);
+    }
+
+    ListenableFuture<Map<Cell, Long>> getLatestTimestamps(
+            CqlClient client, CqlQueryContext context, Map<Cell, Long> timestampByCell) {
+        return execute(client, context, timestampByCell, CellQueries.LATEST_TIMESTAMPS);
+    }
+
+    private <V> ListenableFuture<Map<Cell, V>> execute(
+            CqlClient client, CqlQueryContext context, Map<Cell, Long> timestampByCell, CellQueries<V> queries) {
+        Map<Long, Map<ByteBuffer, List<Cell>>> cellsByTimestampAndRow = new LinkedHashMap<>();
+        timestampByCell.forEach((cell, timestamp) -> cellsByTimestampAndRow
+                .computeIfAbsent(timestamp, _ts -> new LinkedHashMap<>())
+                .computeIfAbsent(ByteBuffer.wrap(cell.getRowName()), _row -> new ArrayList<>())
+                .add(cell));
+
+        Map<String, Queue<PendingQuery<V>>> queriesByHost = new HashMap<>();
+        List<ListenableFuture<Map<Cell, V>>> results = new ArrayList<>();
+        cellsByTimestampAndRow.forEach((timestamp, cellsByRow) -> cellsByRow.forEach((row, cells) -> {
+            String host = client.primaryReplica(context.keyspace(), cells.get(0).getRowName())
+                    .map(InetSocketAddress::toString)
+                    .orElse(UNKNOWN_HOST);
+            for (List<Cell> batch : Lists.partition(cells, maxCellsPerQuery)) {
+                PendingQuery<V> query = new PendingQuery<>(() -> query(client, context, batch, timestamp, queries));
+                queriesByHost.computeIfAbsent(host, _host -> new ArrayDeque<>()).add(query);
+                results.add(query.result);
+            }
+        }));
+        queriesPerRequest.update(results.size());
+
+        AtomicBoolean failed = new AtomicBoolean(false);
+        ListenableFuture<Map<Cell, V>> combined = Futures.transform(
+                Futures.allAsList(results),
+                batchResults -> {
+                    Map<Cell, V> merged = Maps.newHashMapWithExpectedSize(timestampByCell.size());
+                    batchResults.forEach(merged::putAll);
+                    return merged;
+                },
+                MoreExecutors.directExecutor());
+        // Stop starting queries once the request can no longer succeed, including when the caller cancels it.
+        combined.addListener(
+                () -> {
+                    if (!succeeded(combined)) {
+                        failed.set(true);
+                    }
+                },
+                MoreExecutors.directExecutor());
+        queriesByHost.forEach((host, pending) -> new HostPipeline<>(inFlightQueries(host), pending, failed).drain());
+        return combined;
+    }
+
+    private static <V> ListenableFuture<Map<Cell, V>> query(
+            CqlClient client, CqlQueryContext context, List<Cell> cells, long timestamp, CellQueries<V> queries) {
+        if (cells.size() == 1) {
+            Cell cell = cells.get(0);
+            GetQueryParameters parameters = ImmutableGetQueryParameters.builder()
+                    .cell(cell)
+                    .humanReadableTimestamp(timestamp)
+                    .build();
+            return Futures.transform(
+                    queries.single(client, context, parameters),
+                    value -> value.<Map<Cell, V>>map(present -> ImmutableMap.of(cell, present))
+                            .orElseGet(ImmutableMap::of),
+                    MoreExecutors.directExecutor());
+        }
+        MultiGetQueryParameters parameters = ImmutableMultiGetQueryParameters.builder()
+                .row(cells.get(0).getRowName())
+                .columns(cells.stream().map(Cell::getColumnName).collect(Collectors.toList()))
+                .humanReadableTimestamp(timestamp)
+                .build();
+        return queries.multi(client, context, parameters);
+    }
+
+    private Counter inFlightQueries(String host) {
+        return inFlightQueriesByHost.computeIfAbsent(
+                host,
+                _host -> metricsManager.registerOrGetTaggedCounter(
+                        CqlGetBatcher.class, "inFlightQueries", ImmutableMap.of("host", host)));
+    }
+
+    /**
+     * The single cell and multiple column queries used to read either values or latest timestamps.
+     */
+    private interface CellQueries<V> {
+        CellQueries<Value> VALUES = new CellQueries<>() {
+            @Override
+            public ListenableFuture<Optional<Value>> single(
+                    CqlClient client, CqlQueryContext context, GetQueryParameters parameters) {
+                return client.executeQuery(new GetQuerySpec(context, parameters));
+            }
+
+            @Override
+            public ListenableFuture<Map<Cell, Value>> multi(
+                    CqlClient client, CqlQueryContext context, MultiGetQueryParameters parameters) {
+                return client.executeQuery(new MultiGetQuerySpec(context, parameters));
+            }
+        };
+
+        CellQueries<Long> LATEST_TIMESTAMPS = new CellQueries<>() {
+            @Override
+            public ListenableFuture<Optional<Long>> single(
+                    CqlClient client, CqlQueryContext context, GetQueryParameters parameters) {
+                return client.executeQuery(new GetLatestTimestampQuerySpec(context, parameters));
+            }
+
+            @Override
+            public ListenableFuture<Map<Cell, Long>> multi(
+                    CqlClient client, CqlQueryContext context, MultiGetQueryParameters parameters) {
+                return client.executeQuery(new MultiGetLatestTimestampQuerySpec(context, parameters));
+            }
+        };
+
+        ListenableFuture<Optional<V>> single(CqlClient client, CqlQueryContext context, GetQueryParameters parameters);
+
+        ListenableFuture<Map<Cell, V>> multi(
+                CqlClient client, CqlQueryContext context, MultiGetQueryParameters parameters);
+    }
+
+    private static final class PendingQuery<V> {
+        private final Supplier<ListenableFuture<Map<Cell, V>>> query;
+        private final SettableFuture<Map<Cell, V>> result = SettableFuture.create();
+
+        private PendingQuery(Supplier<ListenableFuture<Map<Cell, V>>> query) {
+            this.query = query;
+        }
+    }
+
+    /**
+     * Starts the queries of one request against one host, keeping at most {@code maxInFlightPerHost} outstanding.
+     * Queries may complete on the thread that starts them, so starting is done in a loop rather than recursively from
+     * completion callbacks.
+     */
+    private final class HostPipeline<V> {
+        private final Counter inFlightQueries;
+        private final Queue<PendingQuery<V>> pending;
+        private final AtomicBoolean failed;
+
+        // guarded by this
+        private int running = 0;
+        private boolean draining = false;
+
+        private HostPipeline(Counter inFlightQueries, Queue<PendingQuery<V>> pending, AtomicBoolean failed) {
+            this.inFlightQueries = inFlightQueries;
+            this.pending = pending;
+            this.failed = failed;
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                PendingQuery<V> next;
+                synchronized (this) {
+                    if (running >= maxInFlightPerHost || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    next = pending.poll();
+                    running++;
+                }
+                start(next);
+            }
+        }
+
+        private void start(PendingQuery<V> query) {
+            if (failed.get() || query.result.isDone()) {
+                query.result.cancel(false);
+                onQueryDone();
+                return;
+            }
+            inFlightQueries.inc();
+            ListenableFuture<Map<Cell, V>> future;
+            try {
+                future = query.query.get();
+            } catch (RuntimeException e) {
+                future = Futures.immediateFailedFuture(e);
+            }
+            query.result.setFuture(future);
+            ListenableFuture<Map<Cell, V>> started = future;
+            started.addListener(
+                    () -> {
+                        inFlightQueries.dec();
+                        if (!succeeded(started)) {
+                            failed.set(true);
+                        }
+                        onQueryDone();
+                    },
+                    MoreExecutors.directExecutor());
+        }
+
+        private void onQueryDone() {
+            synchronized (this) {
+                running--;
+            }
+            drain();
+        }
+    }
+
+    private static boolean succeeded(ListenableFuture<?> future) {
+        try {
+            Futures.getDone(future);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -19,12 +19,14 @@ package com.palantir.atlasdb.keyvalue.cassandra.async;
 import com.codahale.metrics.InstrumentedExecutorService;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.cassandra.CassandraServersConfigs;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs.CassandraServersConfig;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs.CqlCapableConfig;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs.DefaultConfig;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs.Visitor;
 import com.palantir.atlasdb.cassandra.ReloadingCloseableContainer;
 import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.futures.FuturesCombiner;
 import com.palantir.atlasdb.keyvalue.api.AsyncKeyValueService;
 import com.palantir.atlasdb.keyvalue.cassandra.async.client.creation.ClusterFactory.CassandraClusterConfig;
 import com.palantir.atlasdb.keyvalue.cassandra.async.client.creation.CqlClientFactory;
@@ -75,8 +77,12 @@ public final class DefaultCassandraAsyncKeyValueServiceFactory implements Cassan
             }
         });
 
-        return CassandraAsyncKeyValueService.create(
-                keyspace, cqlClientContainer, AtlasFutures.futuresCombiner(executorService));
+        FuturesCombiner futuresCombiner = AtlasFutures.futuresCombiner(executorService);
+        return CassandraServersConfigs.getCqlCapableConfigIfValid(refreshable.get())
+                .filter(cqlCapableConfig -> cqlCapableConfig.tuning().batchGetQueries())
+                .map(cqlCapableConfig -> CassandraAsyncKeyValueService.create(
+                        keyspace, cqlClientContainer, futuresCombiner, metricsManager, cqlCapableConfig.tuning()))
+                .orElseGet(() -> CassandraAsyncKeyValueService.create(keyspace, cqlClientContainer, futuresCombiner));
     }
 
     /**
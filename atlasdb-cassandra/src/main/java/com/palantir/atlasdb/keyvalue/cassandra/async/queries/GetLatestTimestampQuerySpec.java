@@ -0,0 +1,130 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec.GetQueryParameters;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import com.palantir.logsafe.Preconditions;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@SuppressWarnings("InlineFormatString") // complex query string, makes more sense to keep extracted as a constant
+public final class GetLatestTimestampQuerySpec implements CqlQuerySpec<Optional<Long>> {
+
+    /**
+     * Same access pattern as {@link GetQuerySpec}, but only the timestamp column is selected so that no values are
+     * transferred.
+     */
+    private static final String QUERY_FORMAT = "SELECT column2 FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 = :column AND column2 > :timestamp "
+            + "LIMIT 1;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final GetQueryParameters getQueryParameters;
+    private final LatestTimestampAccumulator accumulator = new LatestTimestampAccumulator();
+
+    public GetLatestTimestampQuerySpec(CqlQueryContext cqlQueryContext, GetQueryParameters getQueryParameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.getQueryParameters = getQueryParameters;
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.GET_LATEST_TIMESTAMP;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        return preparedStatement
+                .bind()
+                .setBytes("row", toReadOnlyByteBuffer(getQueryParameters.cell().getRowName()))
+                .setBytes(
+                        "column", toReadOnlyByteBuffer(getQueryParameters.cell().getColumnName()))
+                .setLong("timestamp", getQueryParameters.queryTimestamp());
+    }
+
+    private static ByteBuffer toReadOnlyByteBuffer(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<Optional<Long>> rowStreamAccumulator() {
+        return accumulator;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        GetLatestTimestampQuerySpec that = (GetLatestTimestampQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext) && getQueryParameters.equals(that.getQueryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, getQueryParameters);
+    }
+
+    private static final class LatestTimestampAccumulator implements RowStreamAccumulator<Optional<Long>> {
+
+        private volatile Long resultTimestamp = null;
+        private volatile boolean assigned = false;
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            Preconditions.checkState(
+                    !assigned, "Multiple calls to accumulateRowStream, wrong usage of this implementation");
+            // the query can only ever return one page with one row
+            assigned = true;
+            resultTimestamp = rowStream.findFirst().map(row -> ~row.getLong(0)).orElse(null);
+        }
+
+        @Override
+        public Optional<Long> result() {
+            Preconditions.checkState(assigned, "Result has never been assigned(query associated never ran).");
+            return Optional.ofNullable(resultTimestamp);
+        }
+    }
+}
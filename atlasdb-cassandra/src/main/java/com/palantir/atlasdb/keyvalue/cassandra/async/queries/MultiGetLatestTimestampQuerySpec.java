@@ -0,0 +1,157 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the timestamp of the latest visible version of several columns of a single row with one query. Shares its
+ * parameters with {@link MultiGetQuerySpec}.
+ */
+@SuppressWarnings("InlineFormatString") // complex query string, makes more sense to keep extracted as a constant
+public final class MultiGetLatestTimestampQuerySpec implements CqlQuerySpec<Map<Cell, Long>> {
+
+    /**
+     * Same access pattern as {@link MultiGetQuerySpec}, but only the column and timestamp are selected so that no
+     * values are transferred.
+     */
+    private static final String QUERY_FORMAT = "SELECT column1, column2 FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 IN :columns;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final MultiGetQuerySpec.MultiGetQueryParameters parameters;
+    private final LatestVisibleTimestampsAccumulator accumulator;
+
+    public MultiGetLatestTimestampQuerySpec(
+            CqlQueryContext cqlQueryContext, MultiGetQuerySpec.MultiGetQueryParameters parameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.parameters = parameters;
+        this.accumulator = new LatestVisibleTimestampsAccumulator(parameters.row(), parameters.queryTimestamp());
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.MULTI_GET_LATEST_TIMESTAMP;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        return preparedStatement
+                .bind()
+                .setBytes("row", toReadOnlyByteBuffer(parameters.row()))
+                .setList(
+                        "columns",
+                        parameters.columns().stream()
+                                .map(MultiGetLatestTimestampQuerySpec::toReadOnlyByteBuffer)
+                                .collect(Collectors.toList()),
+                        ByteBuffer.class);
+    }
+
+    private static ByteBuffer toReadOnlyByteBuffer(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<Map<Cell, Long>> rowStreamAccumulator() {
+        return accumulator;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        MultiGetLatestTimestampQuerySpec that = (MultiGetLatestTimestampQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext) && parameters.equals(that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, parameters);
+    }
+
+    /**
+     * Keeps the first visible version of each column; the versions of a column are returned newest first.
+     */
+    private static final class LatestVisibleTimestampsAccumulator implements RowStreamAccumulator<Map<Cell, Long>> {
+        private final byte[] row;
+        private final long queryTimestamp;
+        private final Map<Cell, Long> result = new HashMap<>();
+
+        private LatestVisibleTimestampsAccumulator(byte[] row, long queryTimestamp) {
+            this.row = row;
+            this.queryTimestamp = queryTimestamp;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            rowStream.forEach(this::accumulate);
+        }
+
+        private void accumulate(Row cqlRow) {
+            long storedTimestamp = cqlRow.getLong(1);
+            if (storedTimestamp <= queryTimestamp) {
+                return;
+            }
+            Cell cell = Cell.create(row, getBytes(cqlRow.getBytes(0)));
+            result.putIfAbsent(cell, ~storedTimestamp);
+        }
+
+        @Override
+        public Map<Cell, Long> result() {
+            return result;
+        }
+
+        private static byte[] getBytes(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+    }
+}
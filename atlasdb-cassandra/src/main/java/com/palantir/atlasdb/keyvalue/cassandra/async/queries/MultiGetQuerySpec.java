@@ -0,0 +1,173 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the latest visible version of several columns of a single row with one query.
+ */
+@SuppressWarnings("InlineFormatString") // complex query string, makes more sense to keep extracted as a constant
+public final class MultiGetQuerySpec implements CqlQuerySpec<Map<Cell, Value>> {
+
+    /**
+     * As for {@link RowColumnRangeQuerySpec}, {@code column2} cannot be restricted once {@code column1} is restricted
+     * by anything other than an equality, so older versions are filtered out while accumulating. Restricting the query
+     * to one partition lets the coordinator serve it from a single replica set.
+     */
+    private static final String QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 IN :columns;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final MultiGetQueryParameters parameters;
+    private final LatestVisibleValuesAccumulator accumulator;
+
+    public MultiGetQuerySpec(CqlQueryContext cqlQueryContext, MultiGetQueryParameters parameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.parameters = parameters;
+        this.accumulator = new LatestVisibleValuesAccumulator(parameters.row(), parameters.queryTimestamp());
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.MULTI_GET;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        return preparedStatement
+                .bind()
+                .setBytes("row", toReadOnlyByteBuffer(parameters.row()))
+                .setList(
+                        "columns",
+                        parameters.columns().stream()
+                                .map(MultiGetQuerySpec::toReadOnlyByteBuffer)
+                                .collect(Collectors.toList()),
+                        ByteBuffer.class);
+    }
+
+    private static ByteBuffer toReadOnlyByteBuffer(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<Map<Cell, Value>> rowStreamAccumulator() {
+        return accumulator;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface MultiGetQueryParameters {
+        byte[] row();
+
+        List<byte[]> columns();
+
+        long humanReadableTimestamp();
+
+        default long queryTimestamp() {
+            return ~humanReadableTimestamp();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        MultiGetQuerySpec that = (MultiGetQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext) && parameters.equals(that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, parameters);
+    }
+
+    /**
+     * Keeps the first visible version of each column; the versions of a column are returned newest first.
+     */
+    private static final class LatestVisibleValuesAccumulator implements RowStreamAccumulator<Map<Cell, Value>> {
+        private final byte[] row;
+        private final long queryTimestamp;
+        private final Map<Cell, Value> result = new HashMap<>();
+
+        private LatestVisibleValuesAccumulator(byte[] row, long queryTimestamp) {
+            this.row = row;
+            this.queryTimestamp = queryTimestamp;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            rowStream.forEach(this::accumulate);
+        }
+
+        private void accumulate(Row cqlRow) {
+            long storedTimestamp = cqlRow.getLong(1);
+            if (storedTimestamp <= queryTimestamp) {
+                return;
+            }
+            Cell cell = Cell.create(row, getBytes(cqlRow.getBytes(0)));
+            if (!result.containsKey(cell)) {
+                result.put(cell, Value.create(getBytes(cqlRow.getBytes(2)), ~storedTimestamp));
+            }
+        }
+
+        @Override
+        public Map<Cell, Value> result() {
+            return result;
+        }
+
+        private static byte[] getBytes(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+    }
+}
@@ -17,5 +17,12 @@
 package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
 
 public enum QueryType {
-    GET
+    GET,
+    GET_LATEST_TIMESTAMP,
+    GET_ROW_COLUMN_RANGE,
+    GET_ROW_COLUMN_RANGE_TO_END,
+    GET_ROW_COLUMN_RANGE_PAGE,
+    GET_ROW_COLUMN_RANGE_PAGE_TO_END,
+    MULTI_GET,
+    MULTI_GET_LATEST_TIMESTAMP
 }
@@ -0,0 +1,235 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads one page of a row's column range: at most {@code limit} cell versions, keeping the latest visible version of
+ * each column. The page reports where the range continues, so that callers can read the rest of the range only when
+ * they need it.
+ */
+@SuppressWarnings("InlineFormatString") // complex query string, makes more sense to keep extracted as a constant
+public final class RowColumnRangePageQuerySpec implements CqlQuerySpec<RowColumnRangePageQuerySpec.RowColumnRangePage> {
+
+    /**
+     * As for {@link RowColumnRangeQuerySpec}, versions that are not visible are filtered out while accumulating. The
+     * limit counts versions rather than columns, so a page may hold fewer columns than the limit.
+     */
+    private static final String BOUNDED_QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 >= :startColumn AND column1 < :endColumn LIMIT :limit;";
+
+    private static final String TO_END_QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 >= :startColumn LIMIT :limit;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final RowColumnRangePageQueryParameters parameters;
+    private final PageAccumulator accumulator;
+
+    public RowColumnRangePageQuerySpec(
+            CqlQueryContext cqlQueryContext, RowColumnRangePageQueryParameters parameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.parameters = parameters;
+        this.accumulator = new PageAccumulator(parameters.row(), parameters.queryTimestamp(), parameters.limit());
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                isBounded() ? BOUNDED_QUERY_FORMAT : TO_END_QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return isBounded() ? QueryType.GET_ROW_COLUMN_RANGE_PAGE : QueryType.GET_ROW_COLUMN_RANGE_PAGE_TO_END;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        BoundStatement statement = preparedStatement
+                .bind()
+                .setBytes("row", toReadOnlyByteBuffer(parameters.row()))
+                .setBytes("startColumn", toReadOnlyByteBuffer(parameters.startColumnInclusive()))
+                .setInt("limit", parameters.limit());
+        if (isBounded()) {
+            statement.setBytes("endColumn", toReadOnlyByteBuffer(parameters.endColumnExclusive()));
+        }
+        return statement.setFetchSize(parameters.limit());
+    }
+
+    private boolean isBounded() {
+        return parameters.endColumnExclusive().length > 0;
+    }
+
+    private static ByteBuffer toReadOnlyByteBuffer(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<RowColumnRangePage> rowStreamAccumulator() {
+        return accumulator;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface RowColumnRangePageQueryParameters {
+        byte[] row();
+
+        byte[] startColumnInclusive();
+
+        /**
+         * Empty means the range extends to the last column of the row.
+         */
+        @org.immutables.value.Value.Default
+        default byte[] endColumnExclusive() {
+            return new byte[0];
+        }
+
+        long humanReadableTimestamp();
+
+        /**
+         * Maximum number of CQL rows (i.e. cell versions) read by the page.
+         */
+        int limit();
+
+        default long queryTimestamp() {
+            return ~humanReadableTimestamp();
+        }
+
+        @org.immutables.value.Value.Check
+        default void check() {
+            com.palantir.logsafe.Preconditions.checkArgument(limit() > 0, "limit must be positive");
+        }
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface RowColumnRangePage {
+        /**
+         * The latest visible version of each column read, in column order.
+         */
+        Map<Cell, Value> values();
+
+        /**
+         * The column to continue the range from, if the page read as many versions as its limit.
+         */
+        Optional<byte[]> nextStartColumn();
+
+        /**
+         * The last column read, if none of its versions read by the page was visible. Its older versions are beyond
+         * the page, so it has to be read separately before continuing from {@link #nextStartColumn()}.
+         */
+        Optional<byte[]> unresolvedColumn();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        RowColumnRangePageQuerySpec that = (RowColumnRangePageQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext) && parameters.equals(that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, parameters);
+    }
+
+    private static final class PageAccumulator implements RowStreamAccumulator<RowColumnRangePage> {
+        private final byte[] row;
+        private final long queryTimestamp;
+        private final int limit;
+        private final Map<Cell, Value> values = new LinkedHashMap<>();
+        private int versionsRead = 0;
+        private byte[] lastColumn = null;
+        private boolean lastColumnVisible = false;
+
+        private PageAccumulator(byte[] row, long queryTimestamp, int limit) {
+            this.row = row;
+            this.queryTimestamp = queryTimestamp;
+            this.limit = limit;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            rowStream.forEach(this::accumulate);
+        }
+
+        private void accumulate(Row cqlRow) {
+            versionsRead++;
+            byte[] column = getBytes(cqlRow.getBytes(0));
+            if (!Arrays.equals(column, lastColumn)) {
+                lastColumn = column;
+                lastColumnVisible = false;
+            }
+            long storedTimestamp = cqlRow.getLong(1);
+            if (lastColumnVisible || storedTimestamp <= queryTimestamp) {
+                return;
+            }
+            lastColumnVisible = true;
+            values.put(Cell.create(row, column), Value.create(getBytes(cqlRow.getBytes(2)), ~storedTimestamp));
+        }
+
+        @Override
+        public RowColumnRangePage result() {
+            ImmutableRowColumnRangePage.Builder page =
+                    ImmutableRowColumnRangePage.builder().values(values);
+            if (versionsRead >= limit) {
+                // Later versions of the last column are older than the ones read, so the range continues after it.
+                page.nextStartColumn(Arrays.copyOf(lastColumn, lastColumn.length + 1));
+                if (!lastColumnVisible) {
+                    page.unresolvedColumn(lastColumn);
+                }
+            }
+            return page.build();
+        }
+
+        private static byte[] getBytes(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+    }
+}
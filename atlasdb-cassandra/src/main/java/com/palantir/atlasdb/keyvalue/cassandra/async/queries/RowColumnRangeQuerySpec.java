@@ -0,0 +1,210 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Reads the latest visible version of every column of a single row within a column range. Used both for whole row
+ * reads (empty bounds) and for column range reads.
+ */
+@SuppressWarnings("InlineFormatString") // complex query string, makes more sense to keep extracted as a constant
+public final class RowColumnRangeQuerySpec implements CqlQuerySpec<Map<Cell, Value>> {
+
+    /**
+     * Cells are clustered by {@code column1/column} and then by {@code column2/timestamp}; timestamps are stored as
+     * bitwise complements, so for each column the first row with {@code column2 > ~timestamp} is the latest visible
+     * version. Cassandra does not allow restricting {@code column2} without an equality on {@code column1}, so older
+     * versions are filtered out while accumulating.
+     */
+    private static final String BOUNDED_QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 >= :startColumn AND column1 < :endColumn;";
+
+    private static final String TO_END_QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 >= :startColumn;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final RowColumnRangeQueryParameters parameters;
+    private final LatestVisibleValuesAccumulator accumulator;
+
+    public RowColumnRangeQuerySpec(CqlQueryContext cqlQueryContext, RowColumnRangeQueryParameters parameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.parameters = parameters;
+        this.accumulator = new LatestVisibleValuesAccumulator(parameters.row(), parameters.queryTimestamp());
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                isBounded() ? BOUNDED_QUERY_FORMAT : TO_END_QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return isBounded() ? QueryType.GET_ROW_COLUMN_RANGE : QueryType.GET_ROW_COLUMN_RANGE_TO_END;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        BoundStatement statement = preparedStatement
+                .bind()
+                .setBytes("row", toReadOnlyByteBuffer(parameters.row()))
+                .setBytes("startColumn", toReadOnlyByteBuffer(parameters.startColumnInclusive()));
+        if (isBounded()) {
+            statement.setBytes("endColumn", toReadOnlyByteBuffer(parameters.endColumnExclusive()));
+        }
+        if (parameters.fetchSize() > 0) {
+            statement.setFetchSize(parameters.fetchSize());
+        }
+        return statement;
+    }
+
+    private boolean isBounded() {
+        return parameters.endColumnExclusive().length > 0;
+    }
+
+    private static ByteBuffer toReadOnlyByteBuffer(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<Map<Cell, Value>> rowStreamAccumulator() {
+        return accumulator;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface RowColumnRangeQueryParameters {
+        byte[] row();
+
+        /**
+         * Empty means the range starts at the first column of the row.
+         */
+        @org.immutables.value.Value.Default
+        default byte[] startColumnInclusive() {
+            return new byte[0];
+        }
+
+        /**
+         * Empty means the range extends to the last column of the row.
+         */
+        @org.immutables.value.Value.Default
+        default byte[] endColumnExclusive() {
+            return new byte[0];
+        }
+
+        long humanReadableTimestamp();
+
+        /**
+         * Number of CQL rows (i.e. cell versions) fetched per page; non-positive values use the driver default.
+         */
+        @org.immutables.value.Value.Default
+        default int fetchSize() {
+            return 0;
+        }
+
+        default long queryTimestamp() {
+            return ~humanReadableTimestamp();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        RowColumnRangeQuerySpec that = (RowColumnRangeQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext) && parameters.equals(that.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, parameters);
+    }
+
+    /**
+     * Keeps the first visible version of each column. Pages are delivered sequentially, so a column whose versions
+     * span a page boundary is still handled correctly.
+     */
+    private static final class LatestVisibleValuesAccumulator implements RowStreamAccumulator<Map<Cell, Value>> {
+        private final byte[] row;
+        private final long queryTimestamp;
+        private final Map<Cell, Value> result = new LinkedHashMap<>();
+        private byte[] lastAcceptedColumn = null;
+
+        private LatestVisibleValuesAccumulator(byte[] row, long queryTimestamp) {
+            this.row = row;
+            this.queryTimestamp = queryTimestamp;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            rowStream.forEach(this::accumulate);
+        }
+
+        private void accumulate(Row cqlRow) {
+            long storedTimestamp = cqlRow.getLong(1);
+            if (storedTimestamp <= queryTimestamp) {
+                return;
+            }
+            byte[] column = getBytes(cqlRow.getBytes(0));
+            if (Arrays.equals(column, lastAcceptedColumn)) {
+                return;
+            }
+            lastAcceptedColumn = column;
+            result.put(Cell.create(row, column), Value.create(getBytes(cqlRow.getBytes(2)), ~storedTimestamp));
+        }
+
+        @Override
+        public Map<Cell, Value> result() {
+            return result;
+        }
+
+        private static byte[] getBytes(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+    }
+}
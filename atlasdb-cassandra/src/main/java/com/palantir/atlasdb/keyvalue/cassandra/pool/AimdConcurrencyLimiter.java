@@ -0,0 +1,142 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.cassandra.CassandraConcurrencyLimitConfig;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Additive-increase/multiplicative-decrease concurrency limit. Each request that completes quickly while the host was
+ * busy (at least half the limit in flight) grows the limit by {@code 1 / limit}, i.e. by roughly one per round of
+ * {@code limit} requests. Each slow or dropped request multiplies the limit by the backoff ratio. Requests beyond the
+ * limit are rejected outright rather than queueing for a connection.
+ *
+ * A request is slow if its latency exceeds both the latency threshold and the tolerance times a slowly moving average
+ * of this host's successful latencies, so the signal is a gradient against what is normal for the host's workload
+ * rather than an absolute bound.
+ */
+@ThreadSafe
+final class AimdConcurrencyLimiter implements ConcurrencyLimiter {
+    /**
+     * Weight of each successful request in the baseline latency; the baseline follows roughly the last hundred
+     * requests, so that a burst of slow requests is judged against the latency that preceded it.
+     */
+    private static final double BASELINE_SMOOTHING = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+
+    @GuardedBy("this")
+    private double baselineLatencyNanos = 0;
+
+    @GuardedBy("this")
+    private double limit;
+
+    @GuardedBy("this")
+    private int inFlight = 0;
+
+    @GuardedBy("this")
+    private long rejected = 0;
+
+    @VisibleForTesting
+    AimdConcurrencyLimiter(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            long latencyThresholdNanos,
+            double latencyTolerance,
+            double backoffRatio) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+    }
+
+    static AimdConcurrencyLimiter create(CassandraConcurrencyLimitConfig config, int defaultMaxLimit) {
+        int maxLimit = Math.max(config.maxLimit().orElse(defaultMaxLimit), config.minLimit());
+        return new AimdConcurrencyLimiter(
+                Math.min(config.initialLimit(), maxLimit),
+                config.minLimit(),
+                maxLimit,
+                config.latencyThreshold().toNanos(),
+                config.latencyTolerance(),
+                config.backoffRatio());
+    }
+
+    @Override
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    @Override
+    public synchronized void release(long latencyNanos, Outcome outcome) {
+        boolean wasBusy = inFlight * 2 >= (int) limit;
+        inFlight--;
+        if (outcome == Outcome.IGNORED) {
+            return;
+        }
+        if (outcome == Outcome.DROPPED || isSlow(latencyNanos)) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (wasBusy) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        if (outcome == Outcome.SUCCESS) {
+            updateBaseline(latencyNanos);
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean isSlow(long latencyNanos) {
+        return latencyNanos > latencyThresholdNanos && latencyNanos > baselineLatencyNanos * latencyTolerance;
+    }
+
+    @GuardedBy("this")
+    private void updateBaseline(long latencyNanos) {
+        if (baselineLatencyNanos == 0) {
+            baselineLatencyNanos = latencyNanos;
+        } else {
+            baselineLatencyNanos += (latencyNanos - baselineLatencyNanos) * BASELINE_SMOOTHING;
+        }
+    }
+
+    @Override
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized long getRejectedCount() {
+        return rejected;
+    }
+
+    @VisibleForTesting
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -22,7 +22,11 @@ public enum CassandraClientPoolHostLevelMetric {
     NUM_ACTIVE("numActive", 0.1, 2.0),
     CREATED("created", 0.01, 2.0),
     DESTROYED_BY_EVICTOR("destroyedByEvictor", 0.01, 2.0),
-    DESTROYED("destroyed", 0.01, 2.0);
+    DESTROYED("destroyed", 0.01, 2.0),
+    LATENCY_EWMA_MICROS("latencyEwmaMicros", 0.0, 2.0),
+    LOAD_SCORE_MICROS("loadScoreMicros", 0.0, 2.0),
+    CONCURRENCY_LIMIT("concurrencyLimit", 0.0, 2.0),
+    CONCURRENCY_LIMIT_REJECTIONS("concurrencyLimitRejections", 0.01, 2.0);
 
     public final String metricName;
     public final double minimumMeanThreshold;
@@ -426,6 +426,9 @@ public class CassandraService implements AutoCloseable {
         if (matchingPools.isEmpty()) {
             return Optional.empty();
         }
+        if (config.latencyAwareHostSelection()) {
+            return Optional.of(PowerOfTwoChoicesServerSelector.select(matchingPools, random));
+        }
         return Optional.of(WeightedServers.create(matchingPools).getRandomServer());
     }
 
@@ -0,0 +1,79 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import com.palantir.atlasdb.cassandra.CassandraConcurrencyLimitConfig;
+
+/**
+ * Bounds the number of requests in flight to a single Cassandra host. Callers must call {@link #release} exactly once
+ * for every successful {@link #tryAcquire()}.
+ */
+public interface ConcurrencyLimiter {
+    enum Outcome {
+        /**
+         * The request completed; its latency is a valid signal of host health.
+         */
+        SUCCESS,
+        /**
+         * The request failed or timed out in a way indicative of host overload.
+         */
+        DROPPED,
+        /**
+         * The request failed for reasons unrelated to host load, and should not influence the limit.
+         */
+        IGNORED
+    }
+
+    boolean tryAcquire();
+
+    void release(long latencyNanos, Outcome outcome);
+
+    int getLimit();
+
+    long getRejectedCount();
+
+    static ConcurrencyLimiter create(CassandraConcurrencyLimitConfig config, int defaultMaxLimit) {
+        if (!config.enabled()) {
+            return Unlimited.INSTANCE;
+        }
+        return AimdConcurrencyLimiter.create(config, defaultMaxLimit);
+    }
+
+    enum Unlimited implements ConcurrencyLimiter {
+        INSTANCE;
+
+        @Override
+        public boolean tryAcquire() {
+            return true;
+        }
+
+        @Override
+        public void release(long latencyNanos, Outcome outcome) {
+            // no limit to adjust
+        }
+
+        @Override
+        public int getLimit() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public long getRejectedCount() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Tracks a peak-sensitive exponentially weighted moving average of request latencies to a single host. Latencies
+ * above the current average replace it immediately, while lower latencies (and idle time) pull it down with a time
+ * constant of {@link #DEFAULT_DECAY_TIME}. This makes a host that suddenly becomes slow unattractive straight away,
+ * while one that recovers regains traffic gradually.
+ *
+ * Only successful requests should be recorded with {@link #recordLatency(long)}; a request that failed quickly says
+ * nothing good about the host, so failures that indicate overload are recorded with {@link #recordFailure(long)}.
+ */
+@ThreadSafe
+public final class PeakEwmaLatency {
+    @VisibleForTesting
+    static final Duration DEFAULT_DECAY_TIME = Duration.ofSeconds(10);
+
+    /**
+     * Score assigned to a host we have no latency observations for but that has requests in flight, so that a host
+     * whose first requests are hanging is not considered better than all measured hosts.
+     */
+    private static final double UNMEASURED_PENDING_PENALTY_NANOS = Duration.ofSeconds(1).toNanos();
+
+    /**
+     * Latency charged for a request that failed because the host is overloaded, however quickly it failed.
+     */
+    private static final long FAILURE_PENALTY_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final LongSupplier nanoClock;
+    private final double decayNanos;
+
+    private double ewmaNanos = 0;
+    private long lastUpdateNanos;
+
+    @VisibleForTesting
+    PeakEwmaLatency(LongSupplier nanoClock, Duration decayTime) {
+        this.nanoClock = nanoClock;
+        this.decayNanos = decayTime.toNanos();
+        this.lastUpdateNanos = nanoClock.getAsLong();
+    }
+
+    public static PeakEwmaLatency create() {
+        return new PeakEwmaLatency(System::nanoTime, DEFAULT_DECAY_TIME);
+    }
+
+    public synchronized void recordLatency(long latencyNanos) {
+        long now = nanoClock.getAsLong();
+        double weight = decayWeight(now);
+        // Compare against the average as decayed by idle time, which is what callers have been observing.
+        if (latencyNanos > ewmaNanos * weight) {
+            ewmaNanos = latencyNanos;
+        } else {
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastUpdateNanos = now;
+    }
+
+    public void recordFailure(long latencyNanos) {
+        recordLatency(Math.max(latencyNanos, FAILURE_PENALTY_NANOS));
+    }
+
+    public synchronized double getEwmaNanos() {
+        return ewmaNanos * decayWeight(nanoClock.getAsLong());
+    }
+
+    /**
+     * The expected cost of sending one more request to this host: the latency average scaled by the number of
+     * requests that would be in flight. Lower is better.
+     */
+    public double getLoadScore(int openRequests) {
+        int pending = Math.max(openRequests, 0);
+        double ewma = getEwmaNanos();
+        if (ewma == 0 && pending > 0) {
+            return UNMEASURED_PENDING_PENALTY_NANOS + pending;
+        }
+        return ewma * (pending + 1);
+    }
+
+    private double decayWeight(long now) {
+        long elapsed = Math.max(now - lastUpdateNanos, 0);
+        return Math.exp(-elapsed / decayNanos);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+import com.palantir.logsafe.Preconditions;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Picks two distinct hosts uniformly at random and returns the one with the lower
+ * {@link CassandraClientPoolingContainer#getLoadScore() peak-EWMA load score}. Compared to weighting purely by open
+ * requests (see {@link WeightedServers}), this steers traffic away from hosts that are slow even when they have few
+ * requests in flight, while the random sampling avoids herding all clients onto the single best-looking host.
+ */
+public final class PowerOfTwoChoicesServerSelector {
+    private PowerOfTwoChoicesServerSelector() {
+        // utility
+    }
+
+    public static CassandraServer select(Map<CassandraServer, CassandraClientPoolingContainer> pools, Random random) {
+        Preconditions.checkArgument(!pools.isEmpty(), "pools should be non-empty");
+        List<Map.Entry<CassandraServer, CassandraClientPoolingContainer>> candidates =
+                ImmutableList.copyOf(pools.entrySet());
+        if (candidates.size() == 1) {
+            return candidates.get(0).getKey();
+        }
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Map.Entry<CassandraServer, CassandraClientPoolingContainer> firstCandidate = candidates.get(first);
+        Map.Entry<CassandraServer, CassandraClientPoolingContainer> secondCandidate = candidates.get(second);
+        boolean firstIsCheaper =
+                firstCandidate.getValue().getLoadScore() <= secondCandidate.getValue().getLoadScore();
+        return firstIsCheaper ? firstCandidate.getKey() : secondCandidate.getKey();
+    }
+}
@@ -22,7 +22,9 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceConfig;
 import com.palantir.atlasdb.keyvalue.api.InsufficientConsistencyException;
+import com.palantir.atlasdb.keyvalue.cassandra.pool.CassandraServer;
 import com.palantir.refreshable.Refreshable;
+import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
 import java.util.Collection;
 import java.util.NoSuchElementException;
@@ -53,8 +55,10 @@ public class CassandraRequestExceptionHandlerTest {
             new TimedOutException(),
             new UnavailableException(),
             new InsufficientConsistencyException(MESSAGE));
-    private static final ImmutableSet<Exception> FAST_FAILOVER_EXCEPTIONS =
-            ImmutableSet.of(new InvalidRequestException());
+    private static final ImmutableSet<Exception> FAST_FAILOVER_EXCEPTIONS = ImmutableSet.of(
+            new InvalidRequestException(),
+            new CassandraClientPoolingContainer.ConcurrencyLimitExceededException(
+                    CassandraServer.of(InetSocketAddress.createUnresolved("localhost", 9160)), 1));
     private static final ImmutableSet<Exception> ALL_EXCEPTIONS = Stream.of(
                     CONNECTION_EXCEPTIONS,
                     TRANSIENT_EXCEPTIONS,
@@ -152,6 +156,30 @@ public class CassandraRequestExceptionHandlerTest {
         }
     }
 
+    @Test
+    public void concurrencyLimitRejectionsBackOffOnceAllTriedHostsAreSaturated() {
+        CassandraServer firstHost = CassandraServer.of(InetSocketAddress.createUnresolved("cassandra-1", 9160));
+        CassandraServer secondHost = CassandraServer.of(InetSocketAddress.createUnresolved("cassandra-2", 9160));
+        Exception firstRejection = new CassandraClientPoolingContainer.ConcurrencyLimitExceededException(firstHost, 1);
+        Exception secondRejection =
+                new CassandraClientPoolingContainer.ConcurrencyLimitExceededException(secondHost, 1);
+
+        for (CassandraRequestExceptionHandler handler : ImmutableSet.of(handlerLegacy, handlerConservative)) {
+            RetryableCassandraRequest<Void, RuntimeException> req =
+                    new RetryableCassandraRequest<>(firstHost, client -> null);
+
+            req.registerException(firstRejection);
+            assertThat(handler.shouldBackoff(req, firstRejection, handler.getStrategy()))
+                    .describedAs("A single saturated host should fail over without backoff")
+                    .isFalse();
+
+            req.registerException(secondRejection);
+            assertThat(handler.shouldBackoff(req, secondRejection, handler.getStrategy()))
+                    .describedAs("Backoff is expected once the failover host is saturated as well")
+                    .isTrue();
+        }
+    }
+
     @Test
     public void connectionExceptionRetriesOnDifferentHostAfterSufficientRetriesDefault() {
         for (Exception ex : CONNECTION_EXCEPTIONS) {
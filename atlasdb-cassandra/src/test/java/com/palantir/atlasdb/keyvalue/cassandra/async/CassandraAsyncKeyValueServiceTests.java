@@ -17,8 +17,12 @@
 package com.palantir.atlasdb.keyvalue.cassandra.async;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -26,15 +30,29 @@ import com.palantir.atlasdb.cassandra.ReloadingCloseableContainerImpl;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.futures.AtlasFutures;
 import com.palantir.atlasdb.keyvalue.api.AsyncKeyValueService;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetLatestTimestampQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnRangePage;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnRangePageQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnRangeQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangePageQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangePageQuerySpec.RowColumnRangePage;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangePageQuerySpec.RowColumnRangePageQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangeQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangeQuerySpec.RowColumnRangeQueryParameters;
 import com.palantir.common.random.RandomBytes;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
@@ -51,9 +69,12 @@ public class CassandraAsyncKeyValueServiceTests {
     private static final TableReference TABLE = TableReference.create(Namespace.DEFAULT_NAMESPACE, "foo");
     // tests are imagined as if the visible data has a timestamp lower than 20 and non visible data has timestamp higher
     private static final long TIMESTAMP = 20L;
-    private static final Cell NON_VISIBLE_CELL = Cell.create(PtBytes.toBytes(100), PtBytes.toBytes(100));
-    private static final Cell VISIBLE_CELL_1 = Cell.create(PtBytes.toBytes(100), PtBytes.toBytes(200));
-    private static final Cell VISIBLE_CELL_2 = Cell.create(PtBytes.toBytes(100), PtBytes.toBytes(300));
+    private static final byte[] ROW = PtBytes.toBytes(100);
+    private static final byte[] OTHER_ROW = PtBytes.toBytes(101);
+    private static final Cell NON_VISIBLE_CELL = Cell.create(ROW, PtBytes.toBytes(100));
+    private static final Cell VISIBLE_CELL_1 = Cell.create(ROW, PtBytes.toBytes(200));
+    private static final Cell VISIBLE_CELL_2 = Cell.create(ROW, PtBytes.toBytes(300));
+    private static final Cell OTHER_ROW_CELL = Cell.create(OTHER_ROW, PtBytes.toBytes(200));
     private static final CqlQueryContext CQL_QUERY_CONTEXT = ImmutableCqlQueryContext.builder()
             .keyspace(KEYSPACE)
             .tableReference(TABLE)
@@ -133,6 +154,135 @@ public class CassandraAsyncKeyValueServiceTests {
         assertThat(asyncKeyValueService.isValid()).isTrue();
     }
 
+    @Test
+    public void testLatestTimestampsOnlyReturnedForVisibleCells() throws Exception {
+        when(cqlClient.executeQuery(buildLatestTimestampQuerySpec(VISIBLE_CELL_1)))
+                .thenReturn(Futures.immediateFuture(Optional.of(TIMESTAMP - 1)));
+        when(cqlClient.executeQuery(buildLatestTimestampQuerySpec(NON_VISIBLE_CELL)))
+                .thenReturn(Futures.immediateFuture(Optional.empty()));
+
+        Map<Cell, Long> request = ImmutableMap.of(
+                NON_VISIBLE_CELL, TIMESTAMP,
+                VISIBLE_CELL_1, TIMESTAMP);
+        Map<Cell, Long> result = asyncKeyValueService.getLatestTimestampsAsync(TABLE, request).get();
+
+        assertThat(result).containsExactly(Map.entry(VISIBLE_CELL_1, TIMESTAMP - 1));
+    }
+
+    @Test
+    public void testGetRowsWithColumnSelectionUsesCellReads() throws Exception {
+        setUpVisibleCells(VISIBLE_CELL_1);
+        setUpNonVisibleCells(NON_VISIBLE_CELL);
+
+        Map<Cell, Value> result = asyncKeyValueService
+                .getRowsAsync(
+                        TABLE,
+                        ImmutableList.of(ROW),
+                        ColumnSelection.create(
+                                ImmutableList.of(VISIBLE_CELL_1.getColumnName(), NON_VISIBLE_CELL.getColumnName())),
+                        TIMESTAMP)
+                .get();
+
+        assertThat(result).containsOnlyKeys(VISIBLE_CELL_1);
+    }
+
+    @Test
+    public void testGetRowsWithAllColumnsMergesRowReads() throws Exception {
+        setUpRowColumnRange(ROW, PtBytes.EMPTY_BYTE_ARRAY, 0, VISIBLE_CELL_1, VISIBLE_CELL_2);
+        setUpRowColumnRange(OTHER_ROW, PtBytes.EMPTY_BYTE_ARRAY, 0, OTHER_ROW_CELL);
+
+        Map<Cell, Value> result = asyncKeyValueService
+                .getRowsAsync(TABLE, ImmutableList.of(ROW, OTHER_ROW), ColumnSelection.all(), TIMESTAMP)
+                .get();
+
+        assertThat(result).containsOnlyKeys(VISIBLE_CELL_1, VISIBLE_CELL_2, OTHER_ROW_CELL);
+    }
+
+    @Test
+    public void testGetRowsColumnRangeReturnsIteratorPerRow() throws Exception {
+        byte[] endColumn = PtBytes.toBytes(250);
+        setUpRowColumnRangePage(ROW, PtBytes.EMPTY_BYTE_ARRAY, endColumn, 10, pageOf(VISIBLE_CELL_1));
+        setUpRowColumnRangePage(OTHER_ROW, PtBytes.EMPTY_BYTE_ARRAY, endColumn, 10, pageOf());
+
+        Map<byte[], RowColumnRangeIterator> result = asyncKeyValueService
+                .getRowsColumnRangeAsync(
+                        TABLE,
+                        ImmutableList.of(ROW, OTHER_ROW),
+                        BatchColumnRangeSelection.create(PtBytes.EMPTY_BYTE_ARRAY, endColumn, 10),
+                        TIMESTAMP)
+                .get();
+
+        assertThat(result).containsOnlyKeys(ROW, OTHER_ROW);
+        assertThat(result.get(ROW)).toIterable().extracting(Map.Entry::getKey).containsExactly(VISIBLE_CELL_1);
+        assertThat(result.get(OTHER_ROW)).toIterable().isEmpty();
+    }
+
+    @Test
+    public void testGetRowsColumnRangeReadsFurtherPagesOnlyWhenConsumed() throws Exception {
+        byte[] secondPageStart = Arrays.copyOf(NON_VISIBLE_CELL.getColumnName(), 9);
+        setUpRowColumnRangePage(
+                ROW,
+                PtBytes.EMPTY_BYTE_ARRAY,
+                PtBytes.EMPTY_BYTE_ARRAY,
+                1,
+                ImmutableRowColumnRangePage.builder()
+                        .nextStartColumn(secondPageStart)
+                        .unresolvedColumn(NON_VISIBLE_CELL.getColumnName())
+                        .build());
+        setUpNonVisibleCells(NON_VISIBLE_CELL);
+        setUpRowColumnRangePage(
+                ROW, secondPageStart, PtBytes.EMPTY_BYTE_ARRAY, 1, pageOf(VISIBLE_CELL_1, VISIBLE_CELL_2));
+
+        RowColumnRangeIterator iterator = asyncKeyValueService
+                .getRowsColumnRangeAsync(
+                        TABLE,
+                        ImmutableList.of(ROW),
+                        BatchColumnRangeSelection.create(PtBytes.EMPTY_BYTE_ARRAY, PtBytes.EMPTY_BYTE_ARRAY, 1),
+                        TIMESTAMP)
+                .get()
+                .get(ROW);
+
+        verify(cqlClient, times(2)).executeQuery(any());
+        assertThat(iterator).toIterable().extracting(Map.Entry::getKey).containsExactly(VISIBLE_CELL_1, VISIBLE_CELL_2);
+        verify(cqlClient, times(3)).executeQuery(any());
+    }
+
+    private void setUpRowColumnRangePage(
+            byte[] row, byte[] startColumn, byte[] endColumn, int limit, RowColumnRangePage page) {
+        RowColumnRangePageQueryParameters parameters = ImmutableRowColumnRangePageQueryParameters.builder()
+                .row(row)
+                .startColumnInclusive(startColumn)
+                .endColumnExclusive(endColumn)
+                .limit(limit)
+                .humanReadableTimestamp(TIMESTAMP)
+                .build();
+        when(cqlClient.executeQuery(new RowColumnRangePageQuerySpec(CQL_QUERY_CONTEXT, parameters)))
+                .thenReturn(Futures.immediateFuture(page));
+    }
+
+    private static RowColumnRangePage pageOf(Cell... cells) {
+        ImmutableRowColumnRangePage.Builder page = ImmutableRowColumnRangePage.builder();
+        for (Cell cell : cells) {
+            page.putValues(cell, Value.create(RandomBytes.ofLength(10), TIMESTAMP - 1));
+        }
+        return page.build();
+    }
+
+    private void setUpRowColumnRange(byte[] row, byte[] endColumn, int fetchSize, Cell... cells) {
+        Map<Cell, Value> rowResult = new LinkedHashMap<>();
+        for (Cell cell : cells) {
+            rowResult.put(cell, Value.create(RandomBytes.ofLength(10), TIMESTAMP - 1));
+        }
+        RowColumnRangeQueryParameters parameters = ImmutableRowColumnRangeQueryParameters.builder()
+                .row(row)
+                .endColumnExclusive(endColumn)
+                .fetchSize(fetchSize)
+                .humanReadableTimestamp(TIMESTAMP)
+                .build();
+        when(cqlClient.executeQuery(new RowColumnRangeQuerySpec(CQL_QUERY_CONTEXT, parameters)))
+                .thenReturn(Futures.immediateFuture(rowResult));
+    }
+
     private void setUpVisibleCells(Cell... cells) {
         for (Cell cell : cells) {
             when(cqlClient.executeQuery(buildGetQuerySpec(buildGetQueryParameter(cell))))
@@ -153,6 +303,10 @@ public class CassandraAsyncKeyValueServiceTests {
         return new GetQuerySpec(CQL_QUERY_CONTEXT, getQueryParameters);
     }
 
+    private static GetLatestTimestampQuerySpec buildLatestTimestampQuerySpec(Cell cell) {
+        return new GetLatestTimestampQuerySpec(CQL_QUERY_CONTEXT, buildGetQueryParameter(cell));
+    }
+
     private static GetQuerySpec.GetQueryParameters buildGetQueryParameter(Cell cell) {
         return ImmutableGetQueryParameters.builder()
                 .cell(cell)
@@ -0,0 +1,202 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetLatestTimestampQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec.GetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableMultiGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetLatestTimestampQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.MultiGetQuerySpec.MultiGetQueryParameters;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CqlGetBatcherTest {
+    private static final long TIMESTAMP = 20L;
+    private static final byte[] ROW = PtBytes.toBytes("row");
+    private static final byte[] OTHER_ROW = PtBytes.toBytes("other");
+    private static final Cell CELL_1 = Cell.create(ROW, PtBytes.toBytes("a"));
+    private static final Cell CELL_2 = Cell.create(ROW, PtBytes.toBytes("b"));
+    private static final Cell CELL_3 = Cell.create(ROW, PtBytes.toBytes("c"));
+    private static final Cell OTHER_ROW_CELL = Cell.create(OTHER_ROW, PtBytes.toBytes("a"));
+    private static final CqlQueryContext CONTEXT = ImmutableCqlQueryContext.builder()
+            .keyspace("test")
+            .tableReference(TableReference.create(Namespace.DEFAULT_NAMESPACE, "foo"))
+            .build();
+    private static final InetSocketAddress HOST = InetSocketAddress.createUnresolved("cassandra", 9042);
+
+    private final MetricsManager metricsManager = MetricsManagers.createForTests();
+
+    @Mock
+    private CqlClient cqlClient;
+
+    @Before
+    public void setUp() {
+        when(cqlClient.primaryReplica(anyString(), any())).thenReturn(Optional.of(HOST));
+    }
+
+    @Test
+    public void readsCellsOfOneRowWithOneQuery() throws Exception {
+        Value value = Value.create(PtBytes.toBytes("value"), TIMESTAMP - 1);
+        when(cqlClient.executeQuery(multiGet(ROW, CELL_1, CELL_2)))
+                .thenReturn(Futures.immediateFuture(ImmutableMap.of(CELL_1, value)));
+        when(cqlClient.executeQuery(get(OTHER_ROW_CELL))).thenReturn(Futures.immediateFuture(Optional.of(value)));
+
+        Map<Cell, Value> result = new CqlGetBatcher(metricsManager, 10, 10)
+                .get(cqlClient, CONTEXT, orderedRequest(CELL_1, CELL_2, OTHER_ROW_CELL))
+                .get();
+
+        assertThat(result).containsOnlyKeys(CELL_1, OTHER_ROW_CELL);
+        verify(cqlClient, times(2)).executeQuery(any());
+        assertThat(metricsManager
+                        .registerOrGetHistogram(CqlGetBatcher.class, "queriesPerRequest")
+                        .getSnapshot()
+                        .getValues())
+                .containsExactly(2L);
+    }
+
+    @Test
+    public void readsLatestTimestampsOfOneRowWithOneQuery() throws Exception {
+        when(cqlClient.executeQuery(
+                        new MultiGetLatestTimestampQuerySpec(CONTEXT, multiGetParameters(ROW, CELL_1, CELL_2))))
+                .thenReturn(Futures.immediateFuture(ImmutableMap.of(CELL_1, TIMESTAMP - 1)));
+        when(cqlClient.executeQuery(new GetLatestTimestampQuerySpec(CONTEXT, getParameters(OTHER_ROW_CELL))))
+                .thenReturn(Futures.immediateFuture(Optional.of(TIMESTAMP - 2)));
+
+        Map<Cell, Long> result = new CqlGetBatcher(metricsManager, 10, 10)
+                .getLatestTimestamps(cqlClient, CONTEXT, orderedRequest(CELL_1, CELL_2, OTHER_ROW_CELL))
+                .get();
+
+        assertThat(result).containsOnly(Map.entry(CELL_1, TIMESTAMP - 1), Map.entry(OTHER_ROW_CELL, TIMESTAMP - 2));
+        verify(cqlClient, times(2)).executeQuery(any());
+    }
+
+    @Test
+    public void splitsRowsIntoQueriesOfBoundedSize() throws Exception {
+        when(cqlClient.executeQuery(multiGet(ROW, CELL_1, CELL_2))).thenReturn(Futures.immediateFuture(Map.of()));
+        when(cqlClient.executeQuery(get(CELL_3))).thenReturn(Futures.immediateFuture(Optional.empty()));
+
+        Map<Cell, Value> result = new CqlGetBatcher(metricsManager, 2, 10)
+                .get(cqlClient, CONTEXT, orderedRequest(CELL_1, CELL_2, CELL_3))
+                .get();
+
+        assertThat(result).isEmpty();
+        verify(cqlClient, times(2)).executeQuery(any());
+    }
+
+    @Test
+    public void boundsQueriesInFlightPerHost() {
+        SettableFuture<Optional<Value>> first = SettableFuture.create();
+        when(cqlClient.executeQuery(get(CELL_1))).thenReturn(first);
+        when(cqlClient.executeQuery(get(OTHER_ROW_CELL))).thenReturn(Futures.immediateFuture(Optional.empty()));
+
+        ListenableFuture<Map<Cell, Value>> result = new CqlGetBatcher(metricsManager, 10, 1)
+                .get(cqlClient, CONTEXT, orderedRequest(CELL_1, OTHER_ROW_CELL));
+
+        verify(cqlClient, times(1)).executeQuery(any());
+        assertThat(inFlightQueries()).isEqualTo(1);
+
+        first.set(Optional.empty());
+
+        verify(cqlClient, times(2)).executeQuery(any());
+        assertThat(result).isDone();
+        assertThat(inFlightQueries()).isZero();
+    }
+
+    @Test
+    public void stopsStartingQueriesAfterAFailure() {
+        when(cqlClient.executeQuery(get(CELL_1))).thenReturn(Futures.immediateFailedFuture(new RuntimeException()));
+
+        ListenableFuture<Map<Cell, Value>> result = new CqlGetBatcher(metricsManager, 10, 1)
+                .get(cqlClient, CONTEXT, orderedRequest(CELL_1, OTHER_ROW_CELL));
+
+        assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class);
+        verify(cqlClient, never()).executeQuery(eq(get(OTHER_ROW_CELL)));
+    }
+
+    private long inFlightQueries() {
+        return metricsManager
+                .registerOrGetTaggedCounter(
+                        CqlGetBatcher.class, "inFlightQueries", ImmutableMap.of("host", HOST.toString()))
+                .getCount();
+    }
+
+    private static Map<Cell, Long> orderedRequest(Cell... cells) {
+        ImmutableMap.Builder<Cell, Long> request = ImmutableMap.builder();
+        for (Cell cell : cells) {
+            request.put(cell, TIMESTAMP);
+        }
+        return request.buildOrThrow();
+    }
+
+    private static GetQuerySpec get(Cell cell) {
+        return new GetQuerySpec(CONTEXT, getParameters(cell));
+    }
+
+    private static GetQueryParameters getParameters(Cell cell) {
+        return ImmutableGetQueryParameters.builder()
+                .cell(cell)
+                .humanReadableTimestamp(TIMESTAMP)
+                .build();
+    }
+
+    private static MultiGetQuerySpec multiGet(byte[] row, Cell... cells) {
+        return new MultiGetQuerySpec(CONTEXT, multiGetParameters(row, cells));
+    }
+
+    private static MultiGetQueryParameters multiGetParameters(byte[] row, Cell... cells) {
+        ImmutableMultiGetQueryParameters.Builder parameters =
+                ImmutableMultiGetQueryParameters.builder().row(row).humanReadableTimestamp(TIMESTAMP);
+        for (Cell cell : cells) {
+            parameters.addColumns(cell.getColumnName());
+        }
+        return parameters.build();
+    }
+}
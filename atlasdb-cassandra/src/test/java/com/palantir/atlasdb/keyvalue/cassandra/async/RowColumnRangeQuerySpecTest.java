@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.driver.core.Row;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnRangeQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.QueryType;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnRangeQuerySpec;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class RowColumnRangeQuerySpecTest {
+    private static final long TIMESTAMP = 20L;
+    private static final byte[] ROW = PtBytes.toBytes("row");
+    private static final byte[] COLUMN_1 = PtBytes.toBytes("a");
+    private static final byte[] COLUMN_2 = PtBytes.toBytes("b");
+
+    @Test
+    public void keepsLatestVisibleVersionOfEachColumnAcrossPages() {
+        RowColumnRangeQuerySpec spec = spec(PtBytes.EMPTY_BYTE_ARRAY);
+
+        // versions are returned newest first, as timestamps are stored as bitwise complements
+        spec.rowStreamAccumulator().accumulateRowStream(Stream.of(row(COLUMN_1, 25), row(COLUMN_1, 15)));
+        spec.rowStreamAccumulator().accumulateRowStream(Stream.of(row(COLUMN_1, 10), row(COLUMN_2, 30)));
+
+        Map<Cell, Value> result = spec.rowStreamAccumulator().result();
+        assertThat(result).containsOnlyKeys(Cell.create(ROW, COLUMN_1));
+        assertThat(result.get(Cell.create(ROW, COLUMN_1)).getTimestamp()).isEqualTo(15);
+    }
+
+    @Test
+    public void emptyEndColumnSelectsUnboundedQuery() {
+        assertThat(spec(PtBytes.EMPTY_BYTE_ARRAY).queryType()).isEqualTo(QueryType.GET_ROW_COLUMN_RANGE_TO_END);
+        assertThat(spec(PtBytes.EMPTY_BYTE_ARRAY).formatQueryString()).doesNotContain(":endColumn");
+        assertThat(spec(COLUMN_2).queryType()).isEqualTo(QueryType.GET_ROW_COLUMN_RANGE);
+        assertThat(spec(COLUMN_2).formatQueryString()).contains("column1 < :endColumn");
+    }
+
+    private static RowColumnRangeQuerySpec spec(byte[] endColumn) {
+        return new RowColumnRangeQuerySpec(
+                ImmutableCqlQueryContext.builder()
+                        .keyspace("test")
+                        .tableReference(TableReference.create(Namespace.DEFAULT_NAMESPACE, "foo"))
+                        .build(),
+                ImmutableRowColumnRangeQueryParameters.builder()
+                        .row(ROW)
+                        .endColumnExclusive(endColumn)
+                        .humanReadableTimestamp(TIMESTAMP)
+                        .build());
+    }
+
+    private static Row row(byte[] column, long timestamp) {
+        Row row = mock(Row.class);
+        when(row.getBytes(0)).thenReturn(ByteBuffer.wrap(column));
+        when(row.getLong(1)).thenReturn(~timestamp);
+        when(row.getBytes(2)).thenReturn(ByteBuffer.wrap(PtBytes.toBytes(timestamp)));
+        return row;
+    }
+}
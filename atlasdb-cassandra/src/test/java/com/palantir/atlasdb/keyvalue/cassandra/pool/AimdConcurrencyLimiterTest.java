@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.palantir.atlasdb.keyvalue.cassandra.pool.ConcurrencyLimiter.Outcome;
+import org.junit.Test;
+
+public class AimdConcurrencyLimiterTest {
+    private static final long THRESHOLD_NANOS = 1_000;
+    private static final long FAST = 10;
+    private static final long SLOW = 2 * THRESHOLD_NANOS;
+    private static final double TOLERANCE = 2.0;
+
+    private final AimdConcurrencyLimiter limiter =
+            new AimdConcurrencyLimiter(4, 2, 5, THRESHOLD_NANOS, TOLERANCE, 0.5);
+
+    @Test
+    public void rejectsRequestsBeyondLimit() {
+        acquire(4);
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+
+        limiter.release(FAST, Outcome.IGNORED);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void slowRequestsDecreaseLimit() {
+        acquire(1);
+        limiter.release(SLOW, Outcome.SUCCESS);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void latencyIsJudgedAgainstHostBaseline() {
+        AimdConcurrencyLimiter gradientLimiter = new AimdConcurrencyLimiter(4, 1, 5, THRESHOLD_NANOS, TOLERANCE, 0.5);
+        long usual = 5 * THRESHOLD_NANOS;
+
+        assertThat(gradientLimiter.tryAcquire()).isTrue();
+        gradientLimiter.release(usual, Outcome.SUCCESS);
+        assertThat(gradientLimiter.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(gradientLimiter.tryAcquire()).isTrue();
+            gradientLimiter.release(usual, Outcome.SUCCESS);
+        }
+        int limitBeforeSlowRequest = gradientLimiter.getLimit();
+        assertThat(limitBeforeSlowRequest).isGreaterThanOrEqualTo(2);
+
+        assertThat(gradientLimiter.tryAcquire()).isTrue();
+        gradientLimiter.release(3 * usual, Outcome.SUCCESS);
+        assertThat(gradientLimiter.getLimit()).isLessThan(limitBeforeSlowRequest);
+    }
+
+    @Test
+    public void droppedRequestsDecreaseLimit() {
+        acquire(1);
+        limiter.release(FAST, Outcome.DROPPED);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void limitDoesNotDropBelowMinimum() {
+        for (int i = 0; i < 10; i++) {
+            acquire(1);
+            limiter.release(FAST, Outcome.DROPPED);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void fastRequestsIncreaseLimitOnlyWhenBusy() {
+        for (int i = 0; i < 10; i++) {
+            acquire(1);
+            limiter.release(FAST, Outcome.SUCCESS);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 5; i++) {
+            acquire(2);
+            limiter.release(FAST, Outcome.SUCCESS);
+            limiter.release(FAST, Outcome.SUCCESS);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void limitDoesNotExceedMaximum() {
+        for (int i = 0; i < 100; i++) {
+            acquire(4);
+            for (int j = 0; j < 4; j++) {
+                limiter.release(FAST, Outcome.SUCCESS);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void ignoredOutcomesDoNotChangeLimit() {
+        acquire(4);
+        for (int i = 0; i < 4; i++) {
+            limiter.release(SLOW, Outcome.IGNORED);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private void acquire(int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
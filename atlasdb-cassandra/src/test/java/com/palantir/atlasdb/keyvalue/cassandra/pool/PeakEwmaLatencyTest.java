@@ -0,0 +1,96 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class PeakEwmaLatencyTest {
+    private static final Duration DECAY_TIME = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PeakEwmaLatency latency = new PeakEwmaLatency(clock::get, DECAY_TIME);
+
+    @Test
+    public void unmeasuredIdleHostHasZeroScore() {
+        assertThat(latency.getEwmaNanos()).isZero();
+        assertThat(latency.getLoadScore(0)).isZero();
+    }
+
+    @Test
+    public void unmeasuredHostWithPendingRequestsIsPenalised() {
+        latency.recordLatency(1_000);
+        PeakEwmaLatency unmeasured = new PeakEwmaLatency(clock::get, DECAY_TIME);
+
+        assertThat(unmeasured.getLoadScore(1)).isGreaterThan(latency.getLoadScore(1));
+    }
+
+    @Test
+    public void peaksAreAdoptedImmediately() {
+        latency.recordLatency(1_000);
+        latency.recordLatency(50_000);
+
+        assertThat(latency.getEwmaNanos()).isEqualTo(50_000);
+    }
+
+    @Test
+    public void lowerLatenciesDecayTowardsObservedValue() {
+        latency.recordLatency(50_000);
+        clock.addAndGet(DECAY_TIME.toNanos());
+        latency.recordLatency(1_000);
+
+        double weight = Math.exp(-1);
+        assertThat(latency.getEwmaNanos()).isCloseTo(50_000 * weight + 1_000 * (1 - weight), within(1.0));
+    }
+
+    @Test
+    public void averageDecaysWhileIdle() {
+        latency.recordLatency(50_000);
+        clock.addAndGet(DECAY_TIME.toNanos() * 10);
+
+        assertThat(latency.getEwmaNanos()).isLessThan(50_000 * 0.001);
+    }
+
+    @Test
+    public void peaksAreComparedAgainstDecayedAverage() {
+        latency.recordLatency(50_000);
+        clock.addAndGet(DECAY_TIME.toNanos() * 10);
+        latency.recordLatency(20_000);
+
+        assertThat(latency.getEwmaNanos()).isEqualTo(20_000);
+    }
+
+    @Test
+    public void failuresAreChargedAtLeastThePenalty() {
+        latency.recordLatency(1_000);
+        latency.recordFailure(10);
+
+        assertThat(latency.getEwmaNanos()).isEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    public void scoreScalesWithOpenRequests() {
+        latency.recordLatency(1_000);
+
+        assertThat(latency.getLoadScore(0)).isEqualTo(1_000);
+        assertThat(latency.getLoadScore(3)).isEqualTo(4_000);
+    }
+}
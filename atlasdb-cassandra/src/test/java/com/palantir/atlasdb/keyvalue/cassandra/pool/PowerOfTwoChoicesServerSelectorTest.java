@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class PowerOfTwoChoicesServerSelectorTest {
+    private static final CassandraServer FAST = CassandraServer.of(InetSocketAddress.createUnresolved("0", 0));
+    private static final CassandraServer MEDIUM = CassandraServer.of(InetSocketAddress.createUnresolved("1", 1));
+    private static final CassandraServer SLOW = CassandraServer.of(InetSocketAddress.createUnresolved("2", 2));
+
+    private final Random random = new Random(0);
+
+    @Test
+    public void singleHostIsAlwaysSelected() {
+        assertThat(PowerOfTwoChoicesServerSelector.select(ImmutableMap.of(SLOW, poolWithScore(100.0)), random))
+                .isEqualTo(SLOW);
+    }
+
+    @Test
+    public void picksCheaperOfTwoHosts() {
+        Map<CassandraServer, CassandraClientPoolingContainer> pools =
+                ImmutableMap.of(FAST, poolWithScore(1.0), SLOW, poolWithScore(100.0));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(PowerOfTwoChoicesServerSelector.select(pools, random)).isEqualTo(FAST);
+        }
+    }
+
+    @Test
+    public void slowestHostIsNeverSelectedAmongThree() {
+        Map<CassandraServer, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                FAST, poolWithScore(1.0), MEDIUM, poolWithScore(10.0), SLOW, poolWithScore(100.0));
+
+        Map<CassandraServer, Integer> selections = new HashMap<>();
+        for (int i = 0; i < 3_000; i++) {
+            selections.merge(PowerOfTwoChoicesServerSelector.select(pools, random), 1, Integer::sum);
+        }
+
+        // the fast host wins both pairs it is part of, the medium host only the pair with the slow host
+        assertThat(selections).doesNotContainKey(SLOW);
+        assertThat(selections.get(FAST)).isGreaterThan(selections.get(MEDIUM));
+    }
+
+    @Test
+    public void throwsOnEmptyPools() {
+        assertThatThrownBy(() -> PowerOfTwoChoicesServerSelector.select(ImmutableMap.of(), random))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CassandraClientPoolingContainer poolWithScore(double score) {
+        CassandraClientPoolingContainer pool = mock(CassandraClientPoolingContainer.class);
+        when(pool.getLoadScore()).thenReturn(score);
+        return pool;
+    }
+}
@@ -0,0 +1,681 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * A {@code Map<Cell, Value>} for large key value service read results that stores its entries column-wise, rather
+ * than as a {@link Cell}, a {@link Value} and a map node per entry. The row name, column name and contents of every
+ * entry are packed into a single byte arena as {@code [rowLength][columnLength][valueLength][row][column][value]},
+ * timestamps are held in a {@code long[]}, and an open-addressing table of entry ordinals serves lookups.
+ * <p>
+ * Results can be accumulated through {@link #putIfNewer} and {@link #putIfAbsent} without allocating anything per
+ * entry. {@link Cell}s and {@link Value}s are only created when entries are read through the {@link Map} interface,
+ * and are then kept, so that callers iterating over the map several times create each of them once; callers that
+ * only need timestamps can use {@link #forEachTimestamp}. Entries iterate in insertion order.
+ * <p>
+ * Replacing the contents of an entry with contents of a different length leaves the old contents as garbage in the
+ * arena until the map is cleared. This class is not thread safe.
+ */
+public final class CompactCellValueMap extends AbstractMap<Cell, Value> {
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int ESTIMATED_ENTRY_BYTES = 64;
+    private static final int MIN_SLOTS = 16;
+    private static final int MAX_ARENA_BYTES = Integer.MAX_VALUE - 8;
+
+    private static final int EMPTY_SLOT = 0;
+    private static final int REMOVED_SLOT = -1;
+    private static final int REMOVED_ENTRY = -1;
+
+    private byte[] arena;
+    private int arenaSize = 0;
+
+    // Indexed by entry ordinal; removed entries have an offset of REMOVED_ENTRY until the next rehash.
+    private int[] offsets;
+    private long[] timestamps;
+
+    // Indexed by entry ordinal, and only allocated once an entry is read through the Map interface.
+    @Nullable
+    private Cell[] cells;
+
+    @Nullable
+    private Value[] values;
+
+    private int ordinals = 0;
+    private int size = 0;
+
+    // Slots hold (ordinal + 1) so that zero can denote an empty slot.
+    private int[] slots;
+    private int usedSlots = 0;
+    private int modCount = 0;
+
+    private Set<Map.Entry<Cell, Value>> entrySet;
+
+    private CompactCellValueMap(int expectedSize) {
+        int capacity = Math.max(expectedSize, 1);
+        arena = new byte[(int) Math.min((long) capacity * ESTIMATED_ENTRY_BYTES, MAX_ARENA_BYTES)];
+        offsets = new int[capacity];
+        timestamps = new long[capacity];
+        slots = new int[slotsFor(capacity)];
+    }
+
+    public static CompactCellValueMap create() {
+        return new CompactCellValueMap(DEFAULT_EXPECTED_SIZE);
+    }
+
+    public static CompactCellValueMap createWithExpectedSize(int expectedSize) {
+        Preconditions.checkArgument(
+                expectedSize >= 0, "Expected size must be non-negative", SafeArg.of("expectedSize", expectedSize));
+        return new CompactCellValueMap(expectedSize);
+    }
+
+    public static CompactCellValueMap copyOf(Map<Cell, Value> values) {
+        CompactCellValueMap copy = createWithExpectedSize(values.size());
+        copy.putAll(values);
+        return copy;
+    }
+
+    /**
+     * Maps the given cell to the given contents and timestamp, unless it is already mapped to a value with a greater
+     * timestamp. This is how results are combined when a read returns several versions of the same cell. As with
+     * {@link Value#create}, null contents are treated as empty. Returns true if and only if the map was modified.
+     */
+    public boolean putIfNewer(byte[] row, byte[] column, @Nullable byte[] rawContents, long timestamp) {
+        checkTimestamp(timestamp);
+        byte[] contents = MoreObjects.firstNonNull(rawContents, PtBytes.EMPTY_BYTE_ARRAY);
+        int slot = findSlot(row, 0, row.length, column, 0, column.length);
+        int slotValue = slots[slot];
+        if (slotValue > EMPTY_SLOT) {
+            int ordinal = slotValue - 1;
+            if (timestamps[ordinal] > timestamp) {
+                return false;
+            }
+            replace(ordinal, contents, 0, contents.length, timestamp);
+            return true;
+        }
+        insert(slot, row, 0, row.length, column, 0, column.length, contents, 0, contents.length, timestamp);
+        return true;
+    }
+
+    /**
+     * Maps the given cell to the given contents and timestamp if it is not already mapped, and returns the timestamp
+     * of the value the cell is mapped to afterwards.
+     */
+    public long putIfAbsent(byte[] row, byte[] column, @Nullable byte[] rawContents, long timestamp) {
+        checkTimestamp(timestamp);
+        byte[] contents = MoreObjects.firstNonNull(rawContents, PtBytes.EMPTY_BYTE_ARRAY);
+        int slot = findSlot(row, 0, row.length, column, 0, column.length);
+        int slotValue = slots[slot];
+        if (slotValue > EMPTY_SLOT) {
+            return timestamps[slotValue - 1];
+        }
+        insert(slot, row, 0, row.length, column, 0, column.length, contents, 0, contents.length, timestamp);
+        return timestamp;
+    }
+
+    /**
+     * Passes the timestamp of every value in this map to the given consumer, without materializing any values.
+     */
+    public void forEachTimestamp(LongConsumer consumer) {
+        for (int ordinal = 0; ordinal < ordinals; ordinal++) {
+            if (offsets[ordinal] != REMOVED_ENTRY) {
+                consumer.accept(timestamps[ordinal]);
+            }
+        }
+    }
+
+    /**
+     * Bytes retained on the heap by this map's arrays, including contents that have been replaced but not yet dropped.
+     * Cells and values kept after being read are not counted.
+     */
+    public long retainedBytes() {
+        return (long) arena.length
+                + (long) offsets.length * Integer.BYTES
+                + (long) timestamps.length * Long.BYTES
+                + (long) slots.length * Integer.BYTES
+                + (cells != null ? (long) cells.length * Integer.BYTES : 0)
+                + (values != null ? (long) values.length * Integer.BYTES : 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return ordinalOf(key) >= 0;
+    }
+
+    @Override
+    public Value get(Object key) {
+        int ordinal = ordinalOf(key);
+        return ordinal >= 0 ? valueAt(ordinal) : null;
+    }
+
+    @Override
+    public Value put(Cell key, Value value) {
+        Preconditions.checkNotNull(value, "Values of a CompactCellValueMap must be non-null");
+        byte[] row = key.getRowName();
+        byte[] column = key.getColumnName();
+        byte[] contents = value.getContents();
+        int slot = findSlot(row, 0, row.length, column, 0, column.length);
+        int slotValue = slots[slot];
+        if (slotValue > EMPTY_SLOT) {
+            int ordinal = slotValue - 1;
+            Value previous = valueAt(ordinal);
+            replace(ordinal, contents, 0, contents.length, value.getTimestamp());
+            return previous;
+        }
+        insert(slot, row, 0, row.length, column, 0, column.length, contents, 0, contents.length, value.getTimestamp());
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends Cell, ? extends Value> values) {
+        if (!(values instanceof CompactCellValueMap)) {
+            super.putAll(values);
+            return;
+        }
+        // Copy entries straight between the arenas, so that merging batches of results stays allocation free.
+        CompactCellValueMap other = (CompactCellValueMap) values;
+        byte[] source = other.arena;
+        for (int ordinal = 0; ordinal < other.ordinals; ordinal++) {
+            int offset = other.offsets[ordinal];
+            if (offset == REMOVED_ENTRY) {
+                continue;
+            }
+            int rowLength = readInt(source, offset);
+            int columnLength = readInt(source, offset + Integer.BYTES);
+            int valueLength = readInt(source, offset + 2 * Integer.BYTES);
+            int rowStart = offset + HEADER_BYTES;
+            int columnStart = rowStart + rowLength;
+            int valueStart = columnStart + columnLength;
+            long timestamp = other.timestamps[ordinal];
+            int slot = findSlot(source, rowStart, rowLength, source, columnStart, columnLength);
+            int slotValue = slots[slot];
+            if (slotValue > EMPTY_SLOT) {
+                replace(slotValue - 1, source, valueStart, valueLength, timestamp);
+                adoptReadEntry(slotValue - 1, other, ordinal);
+            } else {
+                insert(
+                        slot,
+                        source,
+                        rowStart,
+                        rowLength,
+                        source,
+                        columnStart,
+                        columnLength,
+                        source,
+                        valueStart,
+                        valueLength,
+                        timestamp);
+                // the inserted entry always has the last ordinal, even if inserting rehashed the map
+                adoptReadEntry(ordinals - 1, other, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Keeps any cell and value already created for an entry copied from another map, as they are immutable.
+     */
+    private void adoptReadEntry(int ordinal, CompactCellValueMap other, int otherOrdinal) {
+        if (other.cells != null && other.cells[otherOrdinal] != null) {
+            if (cells == null) {
+                cells = new Cell[offsets.length];
+            }
+            cells[ordinal] = other.cells[otherOrdinal];
+        }
+        if (other.values != null && other.values[otherOrdinal] != null) {
+            if (values == null) {
+                values = new Value[offsets.length];
+            }
+            values[ordinal] = other.values[otherOrdinal];
+        }
+    }
+
+    @Override
+    public Value remove(Object key) {
+        if (!(key instanceof Cell)) {
+            return null;
+        }
+        Cell cell = (Cell) key;
+        byte[] row = cell.getRowName();
+        byte[] column = cell.getColumnName();
+        int slot = findSlot(row, 0, row.length, column, 0, column.length);
+        int slotValue = slots[slot];
+        if (slotValue <= EMPTY_SLOT) {
+            return null;
+        }
+        Value previous = valueAt(slotValue - 1);
+        removeAt(slot);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        arena = new byte[DEFAULT_EXPECTED_SIZE * ESTIMATED_ENTRY_BYTES];
+        arenaSize = 0;
+        offsets = new int[DEFAULT_EXPECTED_SIZE];
+        timestamps = new long[DEFAULT_EXPECTED_SIZE];
+        ordinals = 0;
+        size = 0;
+        slots = new int[slotsFor(DEFAULT_EXPECTED_SIZE)];
+        usedSlots = 0;
+        cells = null;
+        values = null;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<Cell, Value>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int ordinalOf(Object key) {
+        if (!(key instanceof Cell)) {
+            return -1;
+        }
+        Cell cell = (Cell) key;
+        byte[] row = cell.getRowName();
+        byte[] column = cell.getColumnName();
+        int slotValue = slots[findSlot(row, 0, row.length, column, 0, column.length)];
+        return slotValue > EMPTY_SLOT ? slotValue - 1 : -1;
+    }
+
+    private Cell cellAt(int ordinal) {
+        if (cells == null) {
+            cells = new Cell[offsets.length];
+        }
+        Cell cell = cells[ordinal];
+        if (cell == null) {
+            int offset = offsets[ordinal];
+            int rowLength = readInt(arena, offset);
+            int columnLength = readInt(arena, offset + Integer.BYTES);
+            int rowStart = offset + HEADER_BYTES;
+            cell = Cell.create(
+                    Arrays.copyOfRange(arena, rowStart, rowStart + rowLength),
+                    Arrays.copyOfRange(arena, rowStart + rowLength, rowStart + rowLength + columnLength));
+            cells[ordinal] = cell;
+        }
+        return cell;
+    }
+
+    private Value valueAt(int ordinal) {
+        if (values == null) {
+            values = new Value[offsets.length];
+        }
+        Value value = values[ordinal];
+        if (value == null) {
+            int offset = offsets[ordinal];
+            int valueStart = offset + HEADER_BYTES + readInt(arena, offset) + readInt(arena, offset + Integer.BYTES);
+            int valueLength = readInt(arena, offset + 2 * Integer.BYTES);
+            value = Value.create(
+                    Arrays.copyOfRange(arena, valueStart, valueStart + valueLength), timestamps[ordinal]);
+            values[ordinal] = value;
+        }
+        return value;
+    }
+
+    private void insert(
+            int slot,
+            byte[] row,
+            int rowStart,
+            int rowLength,
+            byte[] column,
+            int columnStart,
+            int columnLength,
+            byte[] contents,
+            int contentsStart,
+            int contentsLength,
+            long timestamp) {
+        if (ordinals == offsets.length) {
+            int newLength = Math.max(offsets.length * 2, DEFAULT_EXPECTED_SIZE);
+            offsets = Arrays.copyOf(offsets, newLength);
+            timestamps = Arrays.copyOf(timestamps, newLength);
+            if (cells != null) {
+                cells = Arrays.copyOf(cells, newLength);
+            }
+            if (values != null) {
+                values = Arrays.copyOf(values, newLength);
+            }
+        }
+        int entryLength = HEADER_BYTES + rowLength + columnLength + contentsLength;
+        ensureArenaCapacity(entryLength);
+        int offset = arenaSize;
+        writeInt(arena, offset, rowLength);
+        writeInt(arena, offset + Integer.BYTES, columnLength);
+        writeInt(arena, offset + 2 * Integer.BYTES, contentsLength);
+        int position = offset + HEADER_BYTES;
+        System.arraycopy(row, rowStart, arena, position, rowLength);
+        position += rowLength;
+        System.arraycopy(column, columnStart, arena, position, columnLength);
+        position += columnLength;
+        System.arraycopy(contents, contentsStart, arena, position, contentsLength);
+        arenaSize += entryLength;
+
+        int ordinal = ordinals++;
+        offsets[ordinal] = offset;
+        timestamps[ordinal] = timestamp;
+        if (slots[slot] == EMPTY_SLOT) {
+            usedSlots++;
+        }
+        slots[slot] = ordinal + 1;
+        size++;
+        modCount++;
+        if (usedSlots * 2 > slots.length) {
+            rehash();
+        }
+    }
+
+    private void replace(int ordinal, byte[] contents, int contentsStart, int contentsLength, long timestamp) {
+        int offset = offsets[ordinal];
+        int rowLength = readInt(arena, offset);
+        int columnLength = readInt(arena, offset + Integer.BYTES);
+        timestamps[ordinal] = timestamp;
+        if (values != null) {
+            values[ordinal] = null;
+        }
+        if (readInt(arena, offset + 2 * Integer.BYTES) == contentsLength) {
+            System.arraycopy(
+                    contents, contentsStart, arena, offset + HEADER_BYTES + rowLength + columnLength, contentsLength);
+            return;
+        }
+        int entryLength = HEADER_BYTES + rowLength + columnLength + contentsLength;
+        ensureArenaCapacity(entryLength);
+        int newOffset = arenaSize;
+        System.arraycopy(arena, offset, arena, newOffset, HEADER_BYTES + rowLength + columnLength);
+        writeInt(arena, newOffset + 2 * Integer.BYTES, contentsLength);
+        System.arraycopy(
+                contents, contentsStart, arena, newOffset + HEADER_BYTES + rowLength + columnLength, contentsLength);
+        arenaSize += entryLength;
+        offsets[ordinal] = newOffset;
+    }
+
+    private void removeAt(int slot) {
+        int ordinal = slots[slot] - 1;
+        slots[slot] = REMOVED_SLOT;
+        offsets[ordinal] = REMOVED_ENTRY;
+        if (cells != null) {
+            cells[ordinal] = null;
+        }
+        if (values != null) {
+            values[ordinal] = null;
+        }
+        size--;
+        modCount++;
+    }
+
+    private int slotOfOrdinal(int ordinal) {
+        int offset = offsets[ordinal];
+        int mask = slots.length - 1;
+        int index = hashAt(arena, offset) & mask;
+        while (slots[index] != ordinal + 1) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void ensureArenaCapacity(int additionalBytes) {
+        long required = (long) arenaSize + additionalBytes;
+        if (required <= arena.length) {
+            return;
+        }
+        if (required > MAX_ARENA_BYTES) {
+            throw new SafeIllegalStateException(
+                    "Results are too large to hold in a single map", SafeArg.of("requiredBytes", required));
+        }
+        long newLength = Math.max(required, Math.min((long) arena.length * 2, MAX_ARENA_BYTES));
+        arena = Arrays.copyOf(arena, (int) newLength);
+    }
+
+    /**
+     * Rebuilds the slot table from the live entries, dropping removed slots and compacting removed ordinals.
+     */
+    private void rehash() {
+        int live = 0;
+        for (int ordinal = 0; ordinal < ordinals; ordinal++) {
+            if (offsets[ordinal] != REMOVED_ENTRY) {
+                offsets[live] = offsets[ordinal];
+                timestamps[live] = timestamps[ordinal];
+                if (cells != null) {
+                    cells[live] = cells[ordinal];
+                }
+                if (values != null) {
+                    values[live] = values[ordinal];
+                }
+                live++;
+            }
+        }
+        if (cells != null) {
+            Arrays.fill(cells, live, ordinals, null);
+        }
+        if (values != null) {
+            Arrays.fill(values, live, ordinals, null);
+        }
+        ordinals = live;
+        int[] newSlots = new int[slotsFor(live * 2)];
+        int mask = newSlots.length - 1;
+        for (int ordinal = 0; ordinal < live; ordinal++) {
+            int index = hashAt(arena, offsets[ordinal]) & mask;
+            while (newSlots[index] != EMPTY_SLOT) {
+                index = (index + 1) & mask;
+            }
+            newSlots[index] = ordinal + 1;
+        }
+        slots = newSlots;
+        usedSlots = live;
+    }
+
+    /**
+     * Returns the slot holding the given key if it is present, and otherwise the slot it should be inserted into.
+     */
+    private int findSlot(byte[] row, int rowStart, int rowLength, byte[] column, int columnStart, int columnLength) {
+        int mask = slots.length - 1;
+        int index = hash(row, rowStart, rowLength, column, columnStart, columnLength) & mask;
+        int firstRemoved = -1;
+        while (true) {
+            int slotValue = slots[index];
+            if (slotValue == EMPTY_SLOT) {
+                return firstRemoved >= 0 ? firstRemoved : index;
+            }
+            if (slotValue == REMOVED_SLOT) {
+                if (firstRemoved < 0) {
+                    firstRemoved = index;
+                }
+            } else if (keyEquals(offsets[slotValue - 1], row, rowStart, rowLength, column, columnStart, columnLength)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(
+            int offset, byte[] row, int rowStart, int rowLength, byte[] column, int columnStart, int columnLength) {
+        if (readInt(arena, offset) != rowLength || readInt(arena, offset + Integer.BYTES) != columnLength) {
+            return false;
+        }
+        int arenaRowStart = offset + HEADER_BYTES;
+        int arenaColumnStart = arenaRowStart + rowLength;
+        return Arrays.equals(arena, arenaRowStart, arenaColumnStart, row, rowStart, rowStart + rowLength)
+                && Arrays.equals(
+                        arena,
+                        arenaColumnStart,
+                        arenaColumnStart + columnLength,
+                        column,
+                        columnStart,
+                        columnStart + columnLength);
+    }
+
+    private static void checkTimestamp(long timestamp) {
+        Preconditions.checkArgument(
+                (timestamp >= 0 && timestamp < Long.MAX_VALUE) || timestamp == Value.INVALID_VALUE_TIMESTAMP,
+                "timestamp out of bounds",
+                SafeArg.of("timestamp", timestamp));
+    }
+
+    private static int slotsFor(int entries) {
+        int slots = MIN_SLOTS;
+        while (slots < entries * 2L) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    private static int hash(byte[] row, int rowStart, int rowLength, byte[] column, int columnStart, int columnLength) {
+        int hash = hashBytes(row, rowStart, rowLength, 1);
+        return mix(hashBytes(column, columnStart, columnLength, 31 * hash + rowLength));
+    }
+
+    private static int hashAt(byte[] arena, int offset) {
+        int rowLength = readInt(arena, offset);
+        int columnLength = readInt(arena, offset + Integer.BYTES);
+        int rowStart = offset + HEADER_BYTES;
+        return hash(arena, rowStart, rowLength, arena, rowStart + rowLength, columnLength);
+    }
+
+    private static int hashBytes(byte[] bytes, int start, int length, int seed) {
+        int hash = seed;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        int mixed = hash ^ (hash >>> 16);
+        mixed *= 0x85ebca6b;
+        mixed ^= mixed >>> 13;
+        mixed *= 0xc2b2ae35;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Cell, Value>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            if (!(object instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) object;
+            int ordinal = ordinalOf(entry.getKey());
+            return ordinal >= 0 && valueAt(ordinal).equals(entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            CompactCellValueMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<Cell, Value>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Cell, Value>> {
+        private int next = nextLiveOrdinal(0);
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < ordinals;
+        }
+
+        @Override
+        public Map.Entry<Cell, Value> next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = nextLiveOrdinal(next + 1);
+            return Maps.immutableEntry(cellAt(last), valueAt(last));
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new SafeIllegalStateException("next() has not been called since the last call to remove()");
+            }
+            checkForComodification();
+            removeAt(slotOfOrdinal(last));
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private int nextLiveOrdinal(int from) {
+            int ordinal = from;
+            while (ordinal < ordinals && offsets[ordinal] == REMOVED_ENTRY) {
+                ordinal++;
+            }
+            return ordinal;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -226,6 +226,28 @@ public final class KeyValueServices {
                 return Futures.immediateFuture(keyValueService.get(tableRef, timestampByCell));
             }
 
+            @Override
+            public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+                    TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+                return Futures.immediateFuture(keyValueService.getRows(tableRef, rows, columnSelection, timestamp));
+            }
+
+            @Override
+            public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+                    TableReference tableRef,
+                    Iterable<byte[]> rows,
+                    BatchColumnRangeSelection batchColumnRangeSelection,
+                    long timestamp) {
+                return Futures.immediateFuture(
+                        keyValueService.getRowsColumnRange(tableRef, rows, batchColumnRangeSelection, timestamp));
+            }
+
+            @Override
+            public ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+                    TableReference tableRef, Map<Cell, Long> timestampByCell) {
+                return Futures.immediateFuture(keyValueService.getLatestTimestamps(tableRef, timestampByCell));
+            }
+
             @Override
             public void close() {
                 // NoOp
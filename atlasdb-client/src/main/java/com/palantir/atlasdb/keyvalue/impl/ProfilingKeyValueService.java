@@ -554,4 +554,42 @@ public final class ProfilingKeyValueService implements KeyValueService {
                         LoggingArgs.durationMillis(stopwatch)),
                 logCellResultSize(4L));
     }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+        long startTime = System.currentTimeMillis();
+        return KvsProfilingLogger.maybeLogAsync(
+                () -> delegate.getRowsAsync(tableRef, rows, columnSelection, timestamp),
+                (logger, stopwatch) -> logger.log(
+                        "Call to KVS.getRowsAsync at time {}, on table {} requesting {} columns from {} rows"
+                                + " took {} ms",
+                        LoggingArgs.startTimeMillis(startTime),
+                        LoggingArgs.tableRef(tableRef),
+                        LoggingArgs.columnCount(columnSelection),
+                        LoggingArgs.rowCount(Iterables.size(rows)),
+                        LoggingArgs.durationMillis(stopwatch)),
+                logCellResultSize(0L));
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        return KvsProfilingLogger.maybeLogAsync(
+                () -> delegate.getRowsColumnRangeAsync(tableRef, rows, batchColumnRangeSelection, timestamp),
+                logTimeAndTableRows("getRowsColumnRangeAsync", tableRef, rows),
+                (logger, result) -> {});
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+            TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        return KvsProfilingLogger.maybeLogAsync(
+                () -> delegate.getLatestTimestampsAsync(tableRef, timestampByCell),
+                logTimeAndTable("getLatestTimestampsAsync", tableRef),
+                (logger, result) -> {});
+    }
 }
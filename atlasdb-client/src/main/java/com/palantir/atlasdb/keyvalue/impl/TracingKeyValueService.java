@@ -531,6 +531,58 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         });
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+        TraceStatistics.getCurrentAndClear();
+        TraceStatistic current = TraceStatistics.getReferenceToCurrent();
+        DetachedSpan detachedSpan = DetachedSpan.start("atlasdb-kvs.getRowsAsync");
+        ListenableFuture<Map<Cell, Value>> future =
+                delegate().getRowsAsync(tableRef, rows, columnSelection, timestamp);
+
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService, sink -> {
+            sink.statistics(current);
+            sink.tableRef(tableRef);
+            sink.size("rows", rows);
+            sink.timestamp(timestamp);
+        });
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        TraceStatistics.getCurrentAndClear();
+        TraceStatistic current = TraceStatistics.getReferenceToCurrent();
+        DetachedSpan detachedSpan = DetachedSpan.start("atlasdb-kvs.getRowsColumnRangeAsync");
+        ListenableFuture<Map<byte[], RowColumnRangeIterator>> future =
+                delegate().getRowsColumnRangeAsync(tableRef, rows, batchColumnRangeSelection, timestamp);
+
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService, sink -> {
+            sink.statistics(current);
+            sink.tableRef(tableRef);
+            sink.size("rows", rows);
+            sink.timestamp(timestamp);
+        });
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+            TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        TraceStatistics.getCurrentAndClear();
+        TraceStatistic current = TraceStatistics.getReferenceToCurrent();
+        DetachedSpan detachedSpan = DetachedSpan.start("atlasdb-kvs.getLatestTimestampsAsync");
+        ListenableFuture<Map<Cell, Long>> future = delegate().getLatestTimestampsAsync(tableRef, timestampByCell);
+
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService, sink -> {
+            sink.statistics(current);
+            sink.tableRef(tableRef);
+            sink.size("cells", timestampByCell);
+        });
+    }
+
     @MustBeClosed
     private static CloseableTracer startLocalTrace(@CompileTimeConstant final String operation) {
         TraceStatistic original = TraceStatistics.getCurrentAndClear();
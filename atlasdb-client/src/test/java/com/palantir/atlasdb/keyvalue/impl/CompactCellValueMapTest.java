@@ -0,0 +1,180 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class CompactCellValueMapTest {
+    private static final Cell CELL = cell("row", "col");
+
+    private final CompactCellValueMap map = CompactCellValueMap.create();
+
+    @Test
+    public void putIfNewerKeepsTheLatestVersion() {
+        assertThat(map.putIfNewer(bytes("row"), bytes("col"), bytes("old"), 5L)).isTrue();
+        assertThat(map.putIfNewer(bytes("row"), bytes("col"), bytes("newer"), 10L)).isTrue();
+        assertThat(map.putIfNewer(bytes("row"), bytes("col"), bytes("stale"), 7L)).isFalse();
+
+        assertThat(map).hasSize(1).containsEntry(CELL, Value.create(bytes("newer"), 10L));
+    }
+
+    @Test
+    public void putIfAbsentKeepsTheFirstVersion() {
+        assertThat(map.putIfAbsent(bytes("row"), bytes("col"), bytes("first"), 5L)).isEqualTo(5L);
+        assertThat(map.putIfAbsent(bytes("row"), bytes("col"), bytes("second"), 10L)).isEqualTo(5L);
+
+        assertThat(map).containsExactly(Map.entry(CELL, Value.create(bytes("first"), 5L)));
+    }
+
+    @Test
+    public void behavesLikeAHashMap() {
+        Map<Cell, Value> expected = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            Cell cell = cell("row" + (i % 37), "col" + i);
+            Value value = Value.create(bytes("value" + i), i);
+            assertThat(map.put(cell, value)).isEqualTo(expected.put(cell, value));
+        }
+        for (int i = 0; i < 1_000; i += 3) {
+            Cell cell = cell("row" + (i % 37), "col" + i);
+            assertThat(map.remove(cell)).isEqualTo(expected.remove(cell));
+        }
+        for (int i = 0; i < 1_000; i += 5) {
+            Cell cell = cell("row" + (i % 37), "col" + i);
+            Value value = Value.create(bytes("replaced value " + i), i + 1);
+            assertThat(map.put(cell, value)).isEqualTo(expected.put(cell, value));
+        }
+
+        assertThat(map).isEqualTo(expected);
+        assertThat(map.get(cell("missing", "cell"))).isNull();
+        assertThat(map.containsKey("not a cell")).isFalse();
+    }
+
+    @Test
+    public void preservesEmptyContentsAndIterationOrder() {
+        map.put(cell("b", "1"), Value.create(PtBytes.EMPTY_BYTE_ARRAY, 1L));
+        map.put(cell("a", "1"), Value.create(bytes("a"), Value.INVALID_VALUE_TIMESTAMP));
+
+        assertThat(map.keySet()).containsExactly(cell("b", "1"), cell("a", "1"));
+        assertThat(map.get(cell("b", "1")).getContents()).isEmpty();
+        assertThat(map.get(cell("a", "1")).getTimestamp()).isEqualTo(Value.INVALID_VALUE_TIMESTAMP);
+    }
+
+    @Test
+    public void putAllCopiesBetweenCompactMaps() {
+        CompactCellValueMap other = CompactCellValueMap.create();
+        other.putIfNewer(bytes("row"), bytes("col"), bytes("other"), 3L);
+        other.putIfNewer(bytes("row2"), bytes("col"), bytes("value"), 4L);
+        other.remove(cell("row2", "col"));
+        map.putIfNewer(bytes("row"), bytes("col"), bytes("mine"), 9L);
+        map.putIfNewer(bytes("mine"), bytes("col"), bytes("mine"), 9L);
+
+        map.putAll(other);
+
+        assertThat(map)
+                .isEqualTo(ImmutableMap.of(
+                        CELL, Value.create(bytes("other"), 3L), cell("mine", "col"), Value.create(bytes("mine"), 9L)));
+        assertThat(CompactCellValueMap.copyOf(map)).isEqualTo(map);
+    }
+
+    @Test
+    public void repeatedReadsReuseCellsAndValuesUntilReplaced() {
+        for (int i = 0; i < 100; i++) {
+            map.putIfNewer(bytes("row"), bytes("col" + i), bytes("value" + i), i);
+        }
+        Map.Entry<Cell, Value> first = map.entrySet().iterator().next();
+
+        assertThat(map.entrySet().iterator().next().getKey()).isSameAs(first.getKey());
+        assertThat(map.get(first.getKey())).isSameAs(first.getValue());
+
+        map.putIfNewer(bytes("row"), bytes("col0"), bytes("replaced"), 1_000L);
+        for (int i = 100; i < 1_000; i++) {
+            map.putIfNewer(bytes("row"), bytes("col" + i), bytes("value" + i), i);
+        }
+        Map.Entry<Cell, Value> replaced = map.entrySet().iterator().next();
+
+        assertThat(replaced.getKey()).isSameAs(first.getKey());
+        assertThat(replaced.getValue()).isEqualTo(Value.create(bytes("replaced"), 1_000L));
+    }
+
+    @Test
+    public void iteratorSupportsRemoval() {
+        for (int i = 0; i < 10; i++) {
+            map.putIfNewer(bytes("row" + i), bytes("col"), bytes("value"), i);
+        }
+
+        Iterator<Map.Entry<Cell, Value>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().getTimestamp() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        List<Long> timestamps = new ArrayList<>();
+        map.forEachTimestamp(timestamps::add);
+        assertThat(timestamps).containsExactly(1L, 3L, 5L, 7L, 9L);
+        assertThat(map).hasSize(5).containsKey(cell("row1", "col")).doesNotContainKey(cell("row2", "col"));
+    }
+
+    @Test
+    public void iteratorFailsOnConcurrentModification() {
+        map.put(CELL, Value.create(bytes("value"), 1L));
+        Iterator<Cell> iterator = map.keySet().iterator();
+
+        map.put(cell("other", "col"), Value.create(bytes("value"), 1L));
+
+        assertThatThrownBy(iterator::next).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @Test
+    public void rejectsInvalidTimestamps() {
+        assertThatThrownBy(() -> map.putIfNewer(bytes("row"), bytes("col"), bytes("value"), Long.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(map).isEmpty();
+    }
+
+    @Test
+    public void clearRemovesAllEntries() {
+        map.putIfNewer(bytes("row"), bytes("col"), bytes("value"), 1L);
+        map.clear();
+
+        assertThat(map).isEmpty();
+        assertThat(map.get(CELL)).isNull();
+        map.putIfNewer(bytes("row"), bytes("col"), bytes("value"), 2L);
+        assertThat(map.get(CELL).getTimestamp()).isEqualTo(2L);
+    }
+
+    private static Cell cell(String row, String column) {
+        return Cell.create(bytes(row), bytes(column));
+    }
+
+    private static byte[] bytes(String value) {
+        return PtBytes.toBytes(value);
+    }
+}
@@ -40,6 +40,17 @@ public abstract class TimeLockClientConfig {
         return true;
     }
 
+    /**
+     * If true, concurrent lock requests (for example, commit locks of concurrently committing transactions) are first
+     * attempted without blocking, together in one request to TimeLock. A request whose locks are not free is then sent
+     * on its own with its full acquire timeout. This requires TimeLock servers that support the multi-client lock
+     * endpoint.
+     */
+    @Value.Default
+    public boolean batchLockRequests() {
+        return false;
+    }
+
     @JsonIgnore
     @Value.Lazy
     public String getClientOrThrow() {
@@ -18,8 +18,11 @@ package com.palantir.atlasdb.config;
 
 import com.palantir.lock.client.LeaderTimeCoalescingBatcher;
 import com.palantir.lock.client.MultiClientCommitTimestampGetter;
+import com.palantir.lock.client.MultiClientLockAcquirer;
+import com.palantir.lock.client.MultiClientLockRefresher;
 import com.palantir.lock.client.MultiClientTimeLockUnlocker;
 import com.palantir.lock.client.MultiClientTransactionStarter;
+import java.util.Optional;
 import org.immutables.value.Value;
 
 @Value.Immutable
@@ -31,4 +34,12 @@ public interface TimeLockRequestBatcherProviders {
     TimeLockRequestBatcherProvider<MultiClientCommitTimestampGetter> commitTimestamps();
 
     TimeLockRequestBatcherProvider<MultiClientTimeLockUnlocker> unlock();
+
+    /**
+     * If present (together with {@link #refreshLocks()}), lock requests are batched across namespaces. This requires
+     * the TimeLock server to support the multi-client lock endpoints.
+     */
+    Optional<TimeLockRequestBatcherProvider<MultiClientLockAcquirer>> lock();
+
+    Optional<TimeLockRequestBatcherProvider<MultiClientLockRefresher>> refreshLocks();
 }
@@ -61,6 +61,9 @@ import com.palantir.lock.client.LegacyLeaderTimeGetter;
 import com.palantir.lock.client.LegacyLockTokenUnlocker;
 import com.palantir.lock.client.LockRefreshingLockService;
 import com.palantir.lock.client.LockTokenUnlocker;
+import com.palantir.lock.client.MultiClientLockAcquirer;
+import com.palantir.lock.client.MultiClientLockRefresher;
+import com.palantir.lock.client.MultiClientLockingConjureTimelockService;
 import com.palantir.lock.client.MultiClientTimeLockUnlocker;
 import com.palantir.lock.client.NamespacedCoalescingLeaderTimeGetter;
 import com.palantir.lock.client.NamespacedConjureLockWatchingService;
@@ -93,6 +96,7 @@ import com.palantir.timestamp.TimestampStoreInvalidator;
 import com.palantir.util.OptionalResolver;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -269,6 +273,7 @@ public final class DefaultLockAndTimestampServiceFactory implements LockAndTimes
                 reloadingFactory,
                 timeLockFeedbackBackgroundTask,
                 timelockRequestBatcherProviders,
+                config.timelock().map(TimeLockClientConfig::batchLockRequests).orElse(false),
                 schemas,
                 config.lockWatchCaching());
 
@@ -294,6 +299,7 @@ public final class DefaultLockAndTimestampServiceFactory implements LockAndTimes
             ReloadingFactory reloadingFactory,
             Optional<TimeLockFeedbackBackgroundTask> timeLockFeedbackBackgroundTask,
             Optional<TimeLockRequestBatcherProviders> timelockRequestBatcherProviders,
+            boolean batchLockRequests,
             Set<Schema> schemas,
             LockWatchCachingConfig cachingConfig) {
         AtlasDbDialogueServiceProvider serviceProvider = AtlasDbDialogueServiceProvider.create(
@@ -324,7 +330,7 @@ public final class DefaultLockAndTimestampServiceFactory implements LockAndTimes
         timeLockFeedbackBackgroundTask.ifPresent(
                 task -> task.registerLeaderElectionStatistics(leaderElectionReportingTimelockService));
 
-        NamespacedConjureTimelockService namespacedConjureTimelockService =
+        NamespacedConjureTimelockService timestampCorroboratingTimelockService =
                 TimestampCorroboratingTimelockService.create(
                         timelockNamespace, metricsManager.getTaggedRegistry(), leaderElectionReportingTimelockService);
 
@@ -334,6 +340,16 @@ public final class DefaultLockAndTimestampServiceFactory implements LockAndTimes
         Supplier<InternalMultiClientConjureTimelockService> multiClientTimelockServiceSupplier =
                 getMultiClientTimelockServiceSupplier(serviceProvider);
 
+        Optional<MultiClientLockingConjureTimelockService> multiClientLockingService = getMultiClientLockingService(
+                timelockNamespace,
+                timelockRequestBatcherProviders,
+                batchLockRequests,
+                timestampCorroboratingTimelockService,
+                multiClientTimelockServiceSupplier);
+        NamespacedConjureTimelockService namespacedConjureTimelockService = multiClientLockingService
+                .<NamespacedConjureTimelockService>map(service -> service)
+                .orElse(timestampCorroboratingTimelockService);
+
         Supplier<Optional<RequestBatchersFactory.MultiClientRequestBatchers>> requestBatcherProvider =
                 () -> timelockRequestBatcherProviders.map(batcherProviders -> ImmutableMultiClientRequestBatchers.of(
                         batcherProviders.commitTimestamps().getBatcher(multiClientTimelockServiceSupplier),
@@ -360,15 +376,52 @@ public final class DefaultLockAndTimestampServiceFactory implements LockAndTimes
         TimestampManagementService timestampManagementService = new RemoteTimestampManagementAdapter(
                 serviceProvider.getTimestampManagementRpcClient(), timelockNamespace);
 
-        return ImmutableLockAndTimestampServices.builder()
+        ImmutableLockAndTimestampServices.Builder services = ImmutableLockAndTimestampServices.builder()
                 .lock(lockService)
                 .timestamp(new TimelockTimestampServiceAdapter(remoteTimelockServiceAdapter))
                 .timestampManagement(timestampManagementService)
                 .timelock(remoteTimelockServiceAdapter)
                 .lockWatcher(lockWatchManager)
                 .addResources(remoteTimelockServiceAdapter::close)
-                .addResources(lockWatchManager::close)
-                .build();
+                .addResources(lockWatchManager::close);
+        multiClientLockingService.ifPresent(service -> services.addResources(service::close));
+        return services.build();
+    }
+
+    /**
+     * Lock requests are batched with those of other namespaces if the shared batchers are provided; failing that, if
+     * lock batching is enabled in the config, they are batched with the other lock requests of this namespace only.
+     */
+    private static Optional<MultiClientLockingConjureTimelockService> getMultiClientLockingService(
+            String timelockNamespace,
+            Optional<TimeLockRequestBatcherProviders> timelockRequestBatcherProviders,
+            boolean batchLockRequests,
+            NamespacedConjureTimelockService namespacedConjureTimelockService,
+            Supplier<InternalMultiClientConjureTimelockService> multiClientTimelockServiceSupplier) {
+        ReferenceTrackingWrapper<MultiClientLockAcquirer> lockAcquirer;
+        ReferenceTrackingWrapper<MultiClientLockRefresher> lockRefresher;
+        if (timelockRequestBatcherProviders.isPresent()
+                && timelockRequestBatcherProviders.get().lock().isPresent()
+                && timelockRequestBatcherProviders.get().refreshLocks().isPresent()) {
+            lockAcquirer =
+                    timelockRequestBatcherProviders.get().lock().get().getBatcher(multiClientTimelockServiceSupplier);
+            lockRefresher = timelockRequestBatcherProviders
+                    .get()
+                    .refreshLocks()
+                    .get()
+                    .getBatcher(multiClientTimelockServiceSupplier);
+        } else if (batchLockRequests) {
+            lockAcquirer = new ReferenceTrackingWrapper<>(
+                    new MultiClientLockAcquirer(multiClientTimelockServiceSupplier.get(), OptionalInt.empty()));
+            lockRefresher = new ReferenceTrackingWrapper<>(
+                    new MultiClientLockRefresher(multiClientTimelockServiceSupplier.get(), OptionalInt.empty()));
+        } else {
+            return Optional.empty();
+        }
+        lockAcquirer.recordReference();
+        lockRefresher.recordReference();
+        return Optional.of(new MultiClientLockingConjureTimelockService(
+                timelockNamespace, namespacedConjureTimelockService, lockAcquirer, lockRefresher));
     }
 
     // Note: There is some duplication in the following two methods, but extracting a common method requires a fairly
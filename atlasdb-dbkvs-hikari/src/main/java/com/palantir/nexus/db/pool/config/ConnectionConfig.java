@@ -135,6 +135,23 @@ public abstract class ConnectionConfig {
         return true;
     }
 
+    /**
+     * If true, SQL statements run on the thread that issues them rather than being handed to a shared executor.
+     * This saves two context switches per statement; interrupted queries are instead cancelled by a shared timer.
+     */
+    @Value.Default
+    public boolean runStatementsOnCallingThread() {
+        return false;
+    }
+
+    /**
+     * Query timeout applied when {@link #runStatementsOnCallingThread()} is set. Zero means no timeout.
+     */
+    @Value.Default
+    public int getQueryTimeoutSeconds() {
+        return 0;
+    }
+
     /**
      * This is JsonIgnore'd because it doesn't serialise. Serialisation is needed for atlasdb-dropwizard-bundle.
      */
@@ -70,7 +70,10 @@ public class DbAtlasDbFactory implements AtlasDbFactory {
             boolean initializeAsync) {
 
         return ConnectionManagerAwareDbKvs.create(
-                DbKeyValueServiceConfigs.toDbKeyValueServiceConfig(config), runtimeConfig, initializeAsync);
+                DbKeyValueServiceConfigs.toDbKeyValueServiceConfig(config),
+                runtimeConfig,
+                initializeAsync,
+                metricsManager);
     }
 
     @Override
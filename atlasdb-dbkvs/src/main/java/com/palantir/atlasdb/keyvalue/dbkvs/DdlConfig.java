@@ -57,6 +57,15 @@ public abstract class DdlConfig {
         return 2 * 1024 * 1024;
     }
 
+    /**
+     * Whether get and getRows return their results as a {@link com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap},
+     * which holds large results in far less memory, at the cost of creating cells and values when they are read.
+     */
+    @Value.Default
+    public boolean compactReadResults() {
+        return false;
+    }
+
     @Value.Check
     protected final void check() {
         Preconditions.checkState(
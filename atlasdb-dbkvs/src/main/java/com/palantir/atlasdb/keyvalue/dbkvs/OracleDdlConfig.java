@@ -68,6 +68,34 @@ public abstract class OracleDdlConfig extends DdlConfig {
 
     public abstract OverflowMigrationState overflowMigrationState();
 
+    /**
+     * The maximum number of overflow ids fetched by a single overflow query.
+     */
+    @Value.Default
+    public int overflowFetchBatchSize() {
+        return 1000;
+    }
+
+    /**
+     * The number of overflow batches of a single read that may be fetched concurrently, each on its own connection.
+     * With the default of 1, overflow values are fetched batch by batch on the connection of the read, after its
+     * primary rows have been loaded; higher values fetch overflow values while the primary rows are still being read.
+     */
+    @Value.Default
+    public int overflowFetchParallelism() {
+        return 1;
+    }
+
+    /**
+     * The maximum number of connections that overflow fetches of all reads together may take from the connection pool
+     * at any time, in addition to the connections of the reads themselves. Batches beyond this limit are fetched on
+     * the connection of their read. Only relevant if {@link #overflowFetchParallelism()} is above 1.
+     */
+    @Value.Default
+    public int overflowFetchMaxConnections() {
+        return 4;
+    }
+
     @Value.Default
     public boolean enableOracleEnterpriseFeatures() {
         return false;
@@ -153,6 +181,12 @@ public abstract class OracleDdlConfig extends DdlConfig {
 
         checkTablePrefixLengthLimits();
 
+        Preconditions.checkState(overflowFetchBatchSize() > 0, "Oracle 'overflowFetchBatchSize' must be positive.");
+        Preconditions.checkState(
+                overflowFetchParallelism() > 0, "Oracle 'overflowFetchParallelism' must be positive.");
+        Preconditions.checkState(
+                overflowFetchMaxConnections() > 0, "Oracle 'overflowFetchMaxConnections' must be positive.");
+
         Preconditions.checkState(
                 !(useTableMapping() && longIdentifierNamesSupported()),
                 "The table mapper does not support long identifier names yet. Please contact the AtlasDB team if you "
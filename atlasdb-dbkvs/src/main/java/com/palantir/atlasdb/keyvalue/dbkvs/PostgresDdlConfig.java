@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.conjure.java.api.config.service.HumanReadableDuration;
+import java.util.Optional;
 import org.immutables.value.Value;
 
 @JsonDeserialize(as = ImmutablePostgresDdlConfig.class)
@@ -50,4 +51,13 @@ public abstract class PostgresDdlConfig extends DdlConfig {
     public HumanReadableDuration compactInterval() {
         return HumanReadableDuration.seconds(0);
     }
+
+    /**
+     * Minimum number of cells in a single write batch for it to be sent through the binary COPY protocol instead of
+     * batched INSERT statements. Large writes are then streamed into a temporary table and moved into the target
+     * table with a single statement. If absent, all writes use batched INSERT statements.
+     *
+     * Note that batches never exceed {@link #mutationBatchCount()} cells.
+     */
+    public abstract Optional<Integer> bulkCopyThreshold();
 }
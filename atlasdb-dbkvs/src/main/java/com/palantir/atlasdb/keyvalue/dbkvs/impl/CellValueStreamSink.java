@@ -0,0 +1,29 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import java.io.IOException;
+import java.io.InputStream;
+
+@FunctionalInterface
+public interface CellValueStreamSink {
+    /**
+     * Consumes the latest value of the given cell. The stream is only valid for the duration of the call.
+     */
+    void accept(Cell cell, long timestamp, InputStream value) throws IOException;
+}
@@ -22,6 +22,8 @@ import com.palantir.atlasdb.keyvalue.dbkvs.util.SqlConnectionSuppliers;
 import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
 import com.palantir.atlasdb.spi.KeyValueServiceRuntimeConfig;
 import com.palantir.atlasdb.spi.LocalConnectionConfig;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
 import com.palantir.nexus.db.pool.ConnectionManager;
 import com.palantir.nexus.db.pool.HikariClientPoolConnectionManagers;
 import com.palantir.refreshable.Refreshable;
@@ -56,6 +58,14 @@ public final class ConnectionManagerAwareDbKvs extends ForwardingKeyValueService
             DbKeyValueServiceConfig config,
             Refreshable<Optional<KeyValueServiceRuntimeConfig>> runtimeConfig,
             boolean initializeAsync) {
+        return create(config, runtimeConfig, initializeAsync, MetricsManagers.createForTests());
+    }
+
+    public static ConnectionManagerAwareDbKvs create(
+            DbKeyValueServiceConfig config,
+            Refreshable<Optional<KeyValueServiceRuntimeConfig>> runtimeConfig,
+            boolean initializeAsync,
+            MetricsManager metricsManager) {
         ConnectionManager connManager;
         if (config.sharedResourcesConfig().isPresent()) {
             LocalConnectionConfig localConnectionConfig =
@@ -71,7 +81,7 @@ public final class ConnectionManagerAwareDbKvs extends ForwardingKeyValueService
         SqlConnectionSupplier sqlConnSupplier =
                 SqlConnectionSuppliers.createSimpleConnectionSupplier(connManager, config, runtimeConfig);
         return new ConnectionManagerAwareDbKvs(
-                DbKvs.create(config, sqlConnSupplier, initializeAsync), connManager, sqlConnSupplier);
+                DbKvs.create(config, sqlConnSupplier, initializeAsync, metricsManager), connManager, sqlConnSupplier);
     }
 
     private ConnectionManagerAwareDbKvs(
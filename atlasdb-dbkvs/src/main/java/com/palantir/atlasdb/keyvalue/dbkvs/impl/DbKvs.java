@@ -81,16 +81,21 @@ import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresGetRange;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresPrefixedTableNames;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges.DbKvsGetRange;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges.DbKvsGetRanges;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges.DbKvsRangeSplitter;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges.ParallelDbKvsGetRange;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.sweep.CellTsPairLoader;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.sweep.DbKvsGetCandidateCellsForSweeping;
 import com.palantir.atlasdb.keyvalue.dbkvs.util.DbKvsPartitioners;
 import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap;
 import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
 import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.atlasdb.spi.SharedResourcesConfig;
 import com.palantir.atlasdb.tracing.TraceStatistics;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
 import com.palantir.common.annotation.Output;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
@@ -114,6 +119,9 @@ import com.palantir.util.crypto.Sha256Hash;
 import com.palantir.util.paging.AbstractPagingIterable;
 import com.palantir.util.paging.SimpleTokenBackedResultsPage;
 import com.palantir.util.paging.TokenBackedBasicResultsPage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -141,6 +149,7 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 public final class DbKvs extends AbstractKeyValueService implements DbKeyValueService {
     private static final SafeLogger log = SafeLoggerFactory.get(DbKvs.class);
@@ -151,6 +160,9 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
     public static final String VAL = "val";
     public static final long DEFAULT_GET_RANGE_OF_TS_BATCH = 1_000_000L;
 
+    // more sub-ranges than threads, so that a slow sub-range does not leave the other threads idle
+    private static final int SUB_RANGES_PER_PARALLEL_SCAN = 4;
+
     private long maxRangeOfTimestampsBatchSize = DEFAULT_GET_RANGE_OF_TS_BATCH;
 
     private final DdlConfig config;
@@ -160,15 +172,30 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
     private final OverflowValueLoader overflowValueLoader;
     private final DbKvsGetRange getRangeStrategy;
     private final DbKvsGetCandidateCellsForSweeping getCandidateCellsForSweepingStrategy;
+    private final DbKvsRangeSplitter rangeSplitter;
     private final InitializingWrapper wrapper = new InitializingWrapper();
 
+    @GuardedBy("this")
+    private ExecutorService parallelGetRangeExecutor;
+
+    @GuardedBy("this")
+    private ParallelDbKvsGetRange parallelGetRange;
+
     public static DbKeyValueService create(DbKeyValueServiceConfig config, SqlConnectionSupplier sqlConnSupplier) {
         return create(config, sqlConnSupplier, AtlasDbConstants.DEFAULT_INITIALIZE_ASYNC);
     }
 
     public static DbKeyValueService create(
             DbKeyValueServiceConfig config, SqlConnectionSupplier sqlConnSupplier, boolean initializeAsync) {
-        DbKvs dbKvs = createNoInit(config.ddl(), sqlConnSupplier, config.sharedResourcesConfig());
+        return create(config, sqlConnSupplier, initializeAsync, MetricsManagers.createForTests());
+    }
+
+    public static DbKeyValueService create(
+            DbKeyValueServiceConfig config,
+            SqlConnectionSupplier sqlConnSupplier,
+            boolean initializeAsync,
+            MetricsManager metricsManager) {
+        DbKvs dbKvs = createNoInit(config.ddl(), sqlConnSupplier, config.sharedResourcesConfig(), metricsManager);
         dbKvs.wrapper.initialize(initializeAsync);
         return dbKvs.wrapper.isInitialized() ? dbKvs : dbKvs.wrapper;
     }
@@ -182,6 +209,14 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
             DdlConfig config,
             SqlConnectionSupplier connections,
             Optional<SharedResourcesConfig> sharedResourcesConfig) {
+        return createNoInit(config, connections, sharedResourcesConfig, MetricsManagers.createForTests());
+    }
+
+    public static DbKvs createNoInit(
+            DdlConfig config,
+            SqlConnectionSupplier connections,
+            Optional<SharedResourcesConfig> sharedResourcesConfig,
+            MetricsManager metricsManager) {
         ExecutorService executor = SharedFixedExecutors.createOrGetShared(
                 "Atlas Relational KVS",
                 config.poolSize(),
@@ -201,7 +236,7 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
 
             @Override
             public DbKvs visit(OracleDdlConfig oracleDdlConfig) {
-                return createOracle(executor, oracleDdlConfig, connections);
+                return createOracle(executor, oracleDdlConfig, connections, metricsManager);
             }
         });
     }
@@ -224,14 +259,18 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
     }
 
     private static DbKvs createOracle(
-            ExecutorService executor, OracleDdlConfig oracleDdlConfig, SqlConnectionSupplier connections) {
+            ExecutorService executor,
+            OracleDdlConfig oracleDdlConfig,
+            SqlConnectionSupplier connections,
+            MetricsManager metricsManager) {
         OracleTableNameGetter tableNameGetter = OracleTableNameGetterImpl.createDefault(oracleDdlConfig);
         OraclePrefixedTableNames prefixedTableNames = new OraclePrefixedTableNames(tableNameGetter);
         TableValueStyleCacheImpl valueStyleCache = new TableValueStyleCacheImpl();
         DbTableFactory tableFactory = new OracleDbTableFactory(
                 oracleDdlConfig, tableNameGetter, prefixedTableNames, valueStyleCache, executor);
         TableMetadataCache tableMetadataCache = new TableMetadataCache(tableFactory);
-        OverflowValueLoader overflowValueLoader = new OracleOverflowValueLoader(oracleDdlConfig, tableNameGetter);
+        OverflowValueLoader overflowValueLoader =
+                new OracleOverflowValueLoader(oracleDdlConfig, tableNameGetter, connections, metricsManager);
         DbKvsGetRange getRange = new OracleGetRange(
                 connections,
                 overflowValueLoader,
@@ -274,6 +313,8 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
         this.overflowValueLoader = overflowValueLoader;
         this.getRangeStrategy = getRangeStrategy;
         this.getCandidateCellsForSweepingStrategy = getCandidateCellsForSweepingStrategy;
+        this.rangeSplitter =
+                new DbKvsRangeSplitter(dbTables.getDbType(), connections, dbTables.getPrefixedTableNames());
     }
 
     private static ExecutorService newFixedThreadPool(int maxPoolSize) {
@@ -307,6 +348,12 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
     @Override
     public void close() {
         super.close();
+        synchronized (this) {
+            if (parallelGetRangeExecutor != null) {
+                parallelGetRangeExecutor.shutdownNow();
+            }
+        }
+        overflowValueLoader.close();
         dbTables.close();
         connections.close();
         batchingQueryRunner.close();
@@ -323,16 +370,63 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
         return batchingQueryRunner.runTask(
                 timestampByCell,
                 BatchingStrategies.forMap(),
-                AccumulatorStrategies.forMap(),
+                readResultsAccumulator(),
                 cellBatch -> runReadAndExtractResults(tableRef, table -> table.getLatestCells(cellBatch, true)));
     }
 
+    /**
+     * Reads the same values as {@link #get(TableReference, Map)}, but passes each value to the sink as a stream
+     * instead of returning them. Values stored in overflow tables are streamed from the database without being copied
+     * into memory, so this is intended for reading cells with very large values.
+     */
+    public void streamValues(TableReference tableRef, Map<Cell, Long> timestampByCell, CellValueStreamSink sink) {
+        runRead(tableRef, table -> {
+            Map<Cell, Value> values = new HashMap<>();
+            Map<Cell, OverflowValue> overflowValues = new HashMap<>();
+            collectResults(table, table.getLatestCells(timestampByCell, true), values, overflowValues);
+            removeOverflowValuesShadowedByNewerValues(overflowValues, values);
+            try {
+                for (Map.Entry<Cell, Value> entry : values.entrySet()) {
+                    Value value = entry.getValue();
+                    sink.accept(entry.getKey(), value.getTimestamp(), new ByteArrayInputStream(value.getContents()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            streamOverflowValues(table.getConnectionSupplier(), tableRef, overflowValues, sink);
+            return null;
+        });
+    }
+
+    private void streamOverflowValues(
+            ConnectionSupplier conns,
+            TableReference tableRef,
+            Map<Cell, OverflowValue> overflowValues,
+            CellValueStreamSink sink) {
+        Map<Long, Cell> cellsByOverflowId = Maps.newHashMapWithExpectedSize(overflowValues.size());
+        overflowValues.forEach((cell, overflowValue) -> cellsByOverflowId.put(overflowValue.id(), cell));
+        List<Long> overflowIds = ImmutableList.copyOf(cellsByOverflowId.keySet());
+        overflowValueLoader.streamOverflowValues(conns, tableRef, overflowIds, (overflowId, value) -> {
+            Cell cell = cellsByOverflowId.remove(overflowId);
+            if (cell != null) {
+                sink.accept(cell, overflowValues.get(cell).ts(), value);
+            }
+        });
+        if (!cellsByOverflowId.isEmpty()) {
+            Map.Entry<Long, Cell> missing = cellsByOverflowId.entrySet().iterator().next();
+            throw new SafeNullPointerException(
+                    "Failed to load overflow data",
+                    UnsafeArg.of("cell", missing.getValue()),
+                    UnsafeArg.of("overflowId", missing.getKey()));
+        }
+    }
+
     private Map<Cell, Value> getRowsBatching(
             TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
         return batchingQueryRunner.runTask(
                 rows,
                 BatchingStrategies.forIterable(),
-                AccumulatorStrategies.forMap(),
+                readResultsAccumulator(),
                 rowBatch -> runReadAndExtractResults(
                         tableRef, table -> table.getLatestRows(rowBatch, columnSelection, timestamp, true)));
     }
@@ -342,36 +436,46 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
         return runRead(tableRef, table -> extractResults(table, tableRef, query.apply(table)));
     }
 
-    @SuppressWarnings("deprecation")
     private Map<Cell, Value> extractResults(
             DbReadTable table, TableReference tableRef, ClosableIterator<AgnosticLightResultRow> rows) {
-        Map<Cell, Value> results = new HashMap<>();
+        Map<Cell, Value> results = config.compactReadResults() ? CompactCellValueMap.create() : new HashMap<>();
         Map<Cell, OverflowValue> overflowResults = new HashMap<>();
+        collectResults(table, rows, results, overflowResults);
+        fillOverflowValues(table.getConnectionSupplier(), tableRef, overflowResults, results);
+        return results;
+    }
+
+    /**
+     * Collects the latest inline value and the latest overflow pointer of each cell among the given rows.
+     */
+    private static void collectResults(
+            DbReadTable table,
+            ClosableIterator<AgnosticLightResultRow> rows,
+            @Output Map<Cell, Value> results,
+            @Output Map<Cell, OverflowValue> overflowResults) {
         try (ClosableIterator<AgnosticLightResultRow> iter = rows) {
-            boolean hasOverflow = table.hasOverflowValues();
+            DbKvsRowDecoder decoder = DbKvsRowDecoder.create(table.hasOverflowValues());
             while (iter.hasNext()) {
                 AgnosticLightResultRow row = iter.next();
-                Cell cell = Cell.create(row.getBytes(ROW), row.getBytes(COL));
+                byte[] rowName = decoder.rowName(row);
+                byte[] columnName = decoder.columnName(row);
 
-                TraceStatistics.incBytesRead(cell.getRowName().length);
-                TraceStatistics.incBytesRead(cell.getColumnName().length);
+                TraceStatistics.incBytesRead(rowName.length);
+                TraceStatistics.incBytesRead(columnName.length);
 
-                Long overflowId = hasOverflow ? row.getLongObject("overflow") : null;
-                if (overflowId == null) {
-                    Value value = Value.create(row.getBytes(VAL), row.getLong(TIMESTAMP));
+                if (!decoder.hasOverflowId(row)) {
+                    byte[] contents = decoder.rawValue(row);
 
-                    TraceStatistics.incBytesRead(value.getContents().length);
+                    TraceStatistics.incBytesRead(contents);
 
-                    Value oldValue = results.put(cell, value);
-                    if (oldValue != null && oldValue.getTimestamp() > value.getTimestamp()) {
-                        results.put(cell, oldValue);
-                    }
+                    putIfNewer(results, rowName, columnName, contents, decoder.timestamp(row));
                 } else {
                     // Note: the bytes read for overflow values are tracked when fetching the actual value, this
                     // just pulls a pointer out of the DB (two longs)
                     TraceStatistics.incBytesRead(2 * 8);
 
-                    OverflowValue ov = ImmutableOverflowValue.of(row.getLong(TIMESTAMP), overflowId);
+                    Cell cell = Cell.create(rowName, columnName);
+                    OverflowValue ov = ImmutableOverflowValue.of(decoder.timestamp(row), decoder.overflowId(row));
                     OverflowValue oldOv = overflowResults.put(cell, ov);
                     if (oldOv != null && oldOv.ts() > ov.ts()) {
                         overflowResults.put(cell, oldOv);
@@ -379,8 +483,24 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
                 }
             }
         }
-        fillOverflowValues(table.getConnectionSupplier(), tableRef, overflowResults, results);
-        return results;
+    }
+
+    private static void putIfNewer(
+            Map<Cell, Value> results, byte[] rowName, byte[] columnName, byte[] contents, long timestamp) {
+        if (results instanceof CompactCellValueMap) {
+            ((CompactCellValueMap) results).putIfNewer(rowName, columnName, contents, timestamp);
+            return;
+        }
+        Cell cell = Cell.create(rowName, columnName);
+        Value value = Value.create(contents, timestamp);
+        Value oldValue = results.put(cell, value);
+        if (oldValue != null && oldValue.getTimestamp() > value.getTimestamp()) {
+            results.put(cell, oldValue);
+        }
+    }
+
+    private BatchingTaskRunner.ResultAccumulatorStrategy<Map<Cell, Value>> readResultsAccumulator() {
+        return config.compactReadResults() ? AccumulatorStrategies.forCellValueMap() : AccumulatorStrategies.forMap();
     }
 
     @Override
@@ -664,6 +784,39 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
         return ClosableIterators.wrapWithEmptyClose(getRangeStrategy.getRange(tableRef, rangeRequest, timestamp));
     }
 
+    /**
+     * Scans the given range like {@link #getRange(TableReference, RangeRequest, long)}, but divides it into
+     * sub-ranges at estimated split points and scans up to {@code parallelism} of them concurrently on separate
+     * connections. Rows are returned in the same order as by a sequential scan. This is intended for table-level
+     * tools such as migrations, validation and backfills that read large parts of a table; reverse ranges are
+     * scanned sequentially.
+     */
+    public ClosableIterator<RowResult<Value>> getRangeInParallel(
+            TableReference tableRef, RangeRequest rangeRequest, long timestamp, int parallelism) {
+        if (parallelism <= 1 || rangeRequest.isReverse()) {
+            return getRange(tableRef, rangeRequest, timestamp);
+        }
+        List<byte[]> splitPoints = estimateSplitPoints(tableRef, parallelism * SUB_RANGES_PER_PARALLEL_SCAN);
+        return getParallelGetRange().getRange(tableRef, rangeRequest, timestamp, splitPoints, parallelism);
+    }
+
+    private synchronized ParallelDbKvsGetRange getParallelGetRange() {
+        if (parallelGetRange == null) {
+            // not the shared executor: sub-range scans block while their buffers are full
+            parallelGetRangeExecutor = PTExecutors.newFixedThreadPool(config.poolSize(), "Atlas DbKvs parallel range");
+            parallelGetRange = new ParallelDbKvsGetRange(getRangeStrategy, parallelGetRangeExecutor);
+        }
+        return parallelGetRange;
+    }
+
+    /**
+     * Estimates up to {@code numSplits - 1} sorted, distinct row names that divide the given table into
+     * sub-ranges containing roughly equal numbers of cells, by sampling the table.
+     */
+    public List<byte[]> estimateSplitPoints(TableReference tableRef, int numSplits) {
+        return rangeSplitter.estimateSplitPoints(tableRef, numSplits);
+    }
+
     public void setMaxRangeOfTimestampsBatchSize(long newValue) {
         maxRangeOfTimestampsBatchSize = newValue;
     }
@@ -1044,25 +1197,24 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
             cellsByRow.put(rowHash, new ArrayList<>());
         }
 
-        boolean hasOverflow = table.hasOverflowValues();
+        DbKvsRowDecoder decoder = DbKvsRowDecoder.create(table.hasOverflowValues());
         Map<Cell, Value> values = new HashMap<>();
         Map<Cell, OverflowValue> overflowValues = new HashMap<>();
 
         try (ClosableIterator<AgnosticLightResultRow> iter = rowLoader.get()) {
             while (iter.hasNext()) {
                 AgnosticLightResultRow row = iter.next();
-                Cell cell = Cell.create(row.getBytes(ROW), row.getBytes(COL));
+                Cell cell = decoder.cell(row);
                 Sha256Hash rowHash = Sha256Hash.computeHash(cell.getRowName());
                 cellsByRow.get(rowHash).add(cell);
-                Long overflowId = hasOverflow ? row.getLongObject("overflow") : null;
-                if (overflowId == null) {
-                    Value value = Value.create(row.getBytes(VAL), row.getLong(TIMESTAMP));
+                if (!decoder.hasOverflowId(row)) {
+                    Value value = decoder.value(row);
                     Value oldValue = values.put(cell, value);
                     if (oldValue != null && oldValue.getTimestamp() > value.getTimestamp()) {
                         values.put(cell, oldValue);
                     }
                 } else {
-                    OverflowValue ov = ImmutableOverflowValue.of(row.getLong(TIMESTAMP), overflowId);
+                    OverflowValue ov = ImmutableOverflowValue.of(decoder.timestamp(row), decoder.overflowId(row));
                     OverflowValue oldOv = overflowValues.put(cell, ov);
                     if (oldOv != null && oldOv.ts() > ov.ts()) {
                         overflowValues.put(cell, oldOv);
@@ -1091,15 +1243,7 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
             TableReference tableRef,
             Map<Cell, OverflowValue> overflowValues,
             @Output Map<Cell, Value> values) {
-        Iterator<Map.Entry<Cell, OverflowValue>> overflowIterator =
-                overflowValues.entrySet().iterator();
-        while (overflowIterator.hasNext()) {
-            Map.Entry<Cell, OverflowValue> entry = overflowIterator.next();
-            Value value = values.get(entry.getKey());
-            if (value != null && value.getTimestamp() > entry.getValue().ts()) {
-                overflowIterator.remove();
-            }
-        }
+        removeOverflowValuesShadowedByNewerValues(overflowValues, values);
         Map<Long, byte[]> resolvedOverflowValues = overflowValueLoader.loadOverflowValues(
                 conns, tableRef, Collections2.transform(overflowValues.values(), OverflowValue::id));
         for (Map.Entry<Cell, OverflowValue> entry : overflowValues.entrySet()) {
@@ -1120,6 +1264,19 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
         }
     }
 
+    private static void removeOverflowValuesShadowedByNewerValues(
+            Map<Cell, OverflowValue> overflowValues, Map<Cell, Value> values) {
+        Iterator<Map.Entry<Cell, OverflowValue>> overflowIterator =
+                overflowValues.entrySet().iterator();
+        while (overflowIterator.hasNext()) {
+            Map.Entry<Cell, OverflowValue> entry = overflowIterator.next();
+            Value value = values.get(entry.getKey());
+            if (value != null && value.getTimestamp() > entry.getValue().ts()) {
+                overflowIterator.remove();
+            }
+        }
+    }
+
     private Map<Sha256Hash, Integer> getColumnCounts(
             TableReference tableRef, List<byte[]> rowList, ColumnRangeSelection columnRangeSelection, long timestamp) {
         Map<Sha256Hash, Integer> countsByRow = batchingQueryRunner.runTask(
@@ -1255,7 +1412,7 @@ public final class DbKvs extends AbstractKeyValueService implements DbKeyValueSe
 
     @Override
     public List<byte[]> getRowKeysInRange(TableReference tableRef, byte[] startRow, byte[] endRow, int maxResults) {
-        throw new UnsupportedOperationException("getRowKeysInRange is only supported for Cassandra.");
+        return rangeSplitter.getRowKeysInRange(tableRef, startRow, endRow, maxResults);
     }
 
     @Override
@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.nexus.db.sql.PositionalResultRow;
+
+/**
+ * Decodes the cells, timestamps and values of DbKvs result rows by column index rather than by column name. The index
+ * of each column is resolved the first time it is read and reused for the rest of the result set, so decoding a row
+ * reads the row, column, timestamp and value straight off the underlying result set without any further column
+ * lookups or boxing of the timestamp and overflow id.
+ * <p>
+ * A decoder is bound to the shape of a single result set and is not thread-safe.
+ */
+public final class DbKvsRowDecoder {
+    private static final String OVERFLOW = "overflow";
+    private static final int UNRESOLVED = -1;
+
+    private final boolean hasOverflow;
+
+    private int rowIndex = UNRESOLVED;
+    private int colIndex = UNRESOLVED;
+    private int timestampIndex = UNRESOLVED;
+    private int valueIndex = UNRESOLVED;
+    private int overflowIndex = UNRESOLVED;
+
+    private DbKvsRowDecoder(boolean hasOverflow) {
+        this.hasOverflow = hasOverflow;
+    }
+
+    public static DbKvsRowDecoder create() {
+        return new DbKvsRowDecoder(false);
+    }
+
+    /**
+     * Creates a decoder that also reads the overflow id column if {@code hasOverflow} is set, as is the case for
+     * tables with overflow values.
+     */
+    public static DbKvsRowDecoder create(boolean hasOverflow) {
+        return new DbKvsRowDecoder(hasOverflow);
+    }
+
+    public Cell cell(PositionalResultRow row) {
+        return Cell.create(rowName(row), columnName(row));
+    }
+
+    public byte[] rowName(PositionalResultRow row) {
+        if (rowIndex == UNRESOLVED) {
+            rowIndex = row.columnIndex(DbKvs.ROW);
+        }
+        return row.getBytesAt(rowIndex);
+    }
+
+    public byte[] columnName(PositionalResultRow row) {
+        if (colIndex == UNRESOLVED) {
+            colIndex = row.columnIndex(DbKvs.COL);
+        }
+        return row.getBytesAt(colIndex);
+    }
+
+    public long timestamp(PositionalResultRow row) {
+        if (timestampIndex == UNRESOLVED) {
+            timestampIndex = row.columnIndex(DbKvs.TIMESTAMP);
+        }
+        return row.getLongAt(timestampIndex);
+    }
+
+    public byte[] rawValue(PositionalResultRow row) {
+        if (valueIndex == UNRESOLVED) {
+            valueIndex = row.columnIndex(DbKvs.VAL);
+        }
+        return row.getBytesAt(valueIndex);
+    }
+
+    public Value value(PositionalResultRow row) {
+        return Value.create(rawValue(row), timestamp(row));
+    }
+
+    /**
+     * Returns whether the value of the given row is stored in the overflow table, in which case
+     * {@link #overflowId(PositionalResultRow)} returns its id.
+     */
+    public boolean hasOverflowId(PositionalResultRow row) {
+        if (!hasOverflow) {
+            return false;
+        }
+        overflowId(row);
+        return !row.wasNull();
+    }
+
+    public long overflowId(PositionalResultRow row) {
+        if (overflowIndex == UNRESOLVED) {
+            overflowIndex = row.columnIndex(OVERFLOW);
+        }
+        return row.getLongAt(overflowIndex);
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import java.util.Map;
+
+/**
+ * An in-progress load of overflow values, started by {@link OverflowValueLoader#startFetch}. Closing the fetch
+ * abandons any values that are still being loaded.
+ */
+public interface OverflowValueFetch extends AutoCloseable {
+    void add(long overflowId);
+
+    /**
+     * Waits for the values of all added overflow ids and returns them, keyed by overflow id.
+     */
+    Map<Long, byte[]> finish();
+
+    @Override
+    void close();
+}
@@ -16,10 +16,63 @@
 package com.palantir.atlasdb.keyvalue.dbkvs.impl;
 
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 public interface OverflowValueLoader {
     Map<Long, byte[]> loadOverflowValues(
             ConnectionSupplier conns, TableReference tableRef, Collection<Long> overflowIds);
+
+    /**
+     * Starts loading overflow values whose ids are discovered incrementally, for example while reading the primary
+     * rows of a page. Implementations may start fetching values as soon as ids are added; by default, all values are
+     * loaded on the given connection when the fetch is finished.
+     */
+    default OverflowValueFetch startFetch(ConnectionSupplier conns, TableReference tableRef) {
+        List<Long> overflowIds = new ArrayList<>();
+        return new OverflowValueFetch() {
+            @Override
+            public void add(long overflowId) {
+                overflowIds.add(overflowId);
+            }
+
+            @Override
+            public Map<Long, byte[]> finish() {
+                return loadOverflowValues(conns, tableRef, overflowIds);
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+
+    /**
+     * Passes the value of each of the given overflow ids that exists to the sink as a stream. Implementations should
+     * stream values from the database rather than copying them into memory; by default, the values are loaded with
+     * {@link #loadOverflowValues} first.
+     */
+    default void streamOverflowValues(
+            ConnectionSupplier conns,
+            TableReference tableRef,
+            Collection<Long> overflowIds,
+            OverflowValueStreamSink sink) {
+        Map<Long, byte[]> values = loadOverflowValues(conns, tableRef, overflowIds);
+        try {
+            for (Map.Entry<Long, byte[]> value : values.entrySet()) {
+                sink.accept(value.getKey(), new ByteArrayInputStream(value.getValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Releases any threads held by this loader.
+     */
+    default void close() {}
 }
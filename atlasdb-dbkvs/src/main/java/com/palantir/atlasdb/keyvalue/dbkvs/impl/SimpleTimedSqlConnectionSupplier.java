@@ -31,8 +31,17 @@ public final class SimpleTimedSqlConnectionSupplier implements SqlConnectionSupp
     private final SQL sql;
 
     public SimpleTimedSqlConnectionSupplier(ConnectionSupplier connectionSupplier) {
+        this(connectionSupplier, false, 0);
+    }
+
+    /**
+     * @param runOnCallingThread whether statements run on the calling thread rather than a shared executor
+     * @param queryTimeoutSeconds query timeout used when running on the calling thread; zero means no timeout
+     */
+    public SimpleTimedSqlConnectionSupplier(
+            ConnectionSupplier connectionSupplier, boolean runOnCallingThread, int queryTimeoutSeconds) {
         this.connectionSupplier = connectionSupplier;
-        this.sql = new SimpleSql();
+        this.sql = new SimpleSql(runOnCallingThread, queryTimeoutSeconds);
     }
 
     @Override
@@ -51,6 +60,14 @@ public final class SimpleTimedSqlConnectionSupplier implements SqlConnectionSupp
     }
 
     private static final class SimpleSql extends SQL {
+        private final boolean runOnCallingThread;
+        private final int queryTimeoutSeconds;
+
+        private SimpleSql(boolean runOnCallingThread, int queryTimeoutSeconds) {
+            this.runOnCallingThread = runOnCallingThread;
+            this.queryTimeoutSeconds = queryTimeoutSeconds;
+        }
+
         @Override
         protected SqlConfig getSqlConfig() {
             return new SqlConfig() {
@@ -59,6 +76,16 @@ public final class SimpleTimedSqlConnectionSupplier implements SqlConnectionSupp
                     return false;
                 }
 
+                @Override
+                public boolean isCallingThreadExecutionEnabled() {
+                    return runOnCallingThread;
+                }
+
+                @Override
+                public int getQueryTimeoutSeconds() {
+                    return queryTimeoutSeconds;
+                }
+
                 @Override
                 public SqlTimer getSqlTimer() {
                     return SqlTimers.createCombinedSqlTimer(getSqlTimers());
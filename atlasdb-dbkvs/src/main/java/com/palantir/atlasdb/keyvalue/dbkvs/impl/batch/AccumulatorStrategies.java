@@ -17,6 +17,9 @@ package com.palantir.atlasdb.keyvalue.dbkvs.impl.batch;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -29,6 +32,14 @@ public final class AccumulatorStrategies {
         return (MapAccumulatorStrategy<K, V>) mapAccumulatorStrategy;
     }
 
+    /**
+     * Accumulates cell results into a {@link CompactCellValueMap}, which merges batches that are themselves compact
+     * without materializing their entries.
+     */
+    public static BatchingTaskRunner.ResultAccumulatorStrategy<Map<Cell, Value>> forCellValueMap() {
+        return cellValueMapAccumulatorStrategy;
+    }
+
     @SuppressWarnings("unchecked")
     public static <K, V> BatchingTaskRunner.ResultAccumulatorStrategy<Multimap<K, V>> forListMultimap() {
         return (ListMultimapAccumulatorStrategy<K, V>) listMultimapAccumulatorStrategy;
@@ -49,6 +60,22 @@ public final class AccumulatorStrategies {
 
     private static final MapAccumulatorStrategy<?, ?> mapAccumulatorStrategy = new MapAccumulatorStrategy<>();
 
+    private static final class CellValueMapAccumulatorStrategy
+            implements BatchingTaskRunner.ResultAccumulatorStrategy<Map<Cell, Value>> {
+        @Override
+        public Map<Cell, Value> createEmptyResult() {
+            return CompactCellValueMap.create();
+        }
+
+        @Override
+        public void accumulateResult(Map<Cell, Value> result, Map<Cell, Value> toAdd) {
+            result.putAll(toAdd);
+        }
+    }
+
+    private static final CellValueMapAccumulatorStrategy cellValueMapAccumulatorStrategy =
+            new CellValueMapAccumulatorStrategy();
+
     private static final class ListMultimapAccumulatorStrategy<K, V>
             implements BatchingTaskRunner.ResultAccumulatorStrategy<Multimap<K, V>> {
         @Override
@@ -31,6 +31,7 @@ import com.palantir.atlasdb.keyvalue.dbkvs.OracleDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.OracleTableNameGetter;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowValueFetch;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowValueLoader;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.SqlConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.TableMetadataCache;
@@ -52,9 +53,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /*
  * 1) When in comes to implementing paging, Oracle is the exact opposite of Postgres:
@@ -215,15 +214,10 @@ public class OracleGetRange implements DbKvsGetRange {
             if (endOfResults) {
                 return endOfData();
             } else {
-                try (ConnectionSupplier conns = new ConnectionSupplier(connectionPool)) {
-                    List<RawSqlRow> sqlRows = loadSqlRows(conns);
-                    Map<Long, byte[]> overflowValues = overflowValueLoader.loadOverflowValues(
-                            conns,
-                            tableRef,
-                            sqlRows.stream()
-                                    .map(r -> r.overflowId)
-                                    .filter(Objects::nonNull)
-                                    .collect(Collectors.toList()));
+                try (ConnectionSupplier conns = new ConnectionSupplier(connectionPool);
+                        OverflowValueFetch overflowFetch = overflowValueLoader.startFetch(conns, tableRef)) {
+                    List<RawSqlRow> sqlRows = loadSqlRows(conns, overflowFetch);
+                    Map<Long, byte[]> overflowValues = overflowFetch.finish();
                     List<RowResult<Value>> rowResults = createRowResults(sqlRows, overflowValues, maxRowsPerPage);
                     if (rowResults.isEmpty()) {
                         endOfResults = true;
@@ -239,7 +233,7 @@ public class OracleGetRange implements DbKvsGetRange {
         }
 
         @SuppressWarnings("deprecation")
-        private List<RawSqlRow> loadSqlRows(ConnectionSupplier conns) {
+        private List<RawSqlRow> loadSqlRows(ConnectionSupplier conns, OverflowValueFetch overflowFetch) {
             List<RawSqlRow> sqlRows = new ArrayList<>();
             try (ClosableIterator<AgnosticLightResultRow> rangeResults = selectNextPage(conns)) {
                 while (rangeResults.hasNext()) {
@@ -248,6 +242,9 @@ public class OracleGetRange implements DbKvsGetRange {
                     long ts = row.getLong("ts");
                     byte[] val = row.getBytes("val");
                     Long overflowId = haveOverflowValues ? row.getLongObject("overflow") : null;
+                    if (overflowId != null) {
+                        overflowFetch.add(overflowId);
+                    }
                     sqlRows.add(new RawSqlRow(cell, ts, val, overflowId));
                 }
             }
@@ -15,8 +15,10 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle;
 
+import com.codahale.metrics.Timer;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.dbkvs.OracleDdlConfig;
@@ -24,28 +26,78 @@ import com.palantir.atlasdb.keyvalue.dbkvs.OracleTableNameGetter;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowMigrationState;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowValueFetch;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowValueLoader;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowValueStreamSink;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.SqlConnectionSupplier;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.exception.TableMappingNotFoundException;
 import com.palantir.db.oracle.JdbcHandler.ArrayHandler;
+import com.palantir.logsafe.Preconditions;
 import com.palantir.nexus.db.sql.AgnosticLightResultRow;
 import com.palantir.nexus.db.sql.AgnosticLightResultSet;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import javax.annotation.concurrent.GuardedBy;
 
 public class OracleOverflowValueLoader implements OverflowValueLoader {
-
     private final OracleDdlConfig config;
     private final OracleTableNameGetter tableNameGetter;
+    private final Optional<SqlConnectionSupplier> connectionPool;
+    private final Semaphore connectionPermits;
+    private final Timer fetchTimer;
+    private final Timer waitTimer;
+
+    @GuardedBy("this")
+    private ExecutorService executor;
 
+    @GuardedBy("this")
+    private boolean closed = false;
+
+    /**
+     * Creates a loader that fetches overflow values on the connection of each read. Its metrics are not published.
+     */
     public OracleOverflowValueLoader(OracleDdlConfig config, OracleTableNameGetter tableNameGetter) {
+        this(config, tableNameGetter, Optional.empty(), MetricsManagers.createForTests());
+    }
+
+    /**
+     * Creates a loader that fetches overflow values on connections from the given pool when
+     * {@link OracleDdlConfig#overflowFetchParallelism()} allows more than one batch to be fetched at a time.
+     */
+    public OracleOverflowValueLoader(
+            OracleDdlConfig config,
+            OracleTableNameGetter tableNameGetter,
+            SqlConnectionSupplier connectionPool,
+            MetricsManager metricsManager) {
+        this(config, tableNameGetter, Optional.of(connectionPool), metricsManager);
+    }
+
+    private OracleOverflowValueLoader(
+            OracleDdlConfig config,
+            OracleTableNameGetter tableNameGetter,
+            Optional<SqlConnectionSupplier> connectionPool,
+            MetricsManager metricsManager) {
         this.config = config;
         this.tableNameGetter = tableNameGetter;
+        this.connectionPool = connectionPool;
+        this.connectionPermits = new Semaphore(config.overflowFetchMaxConnections());
+        this.fetchTimer = metricsManager.registerOrGetTimer(OracleOverflowValueLoader.class, "fetchLatency");
+        this.waitTimer = metricsManager.registerOrGetTimer(OracleOverflowValueLoader.class, "waitLatency");
     }
 
     @Override
@@ -53,8 +105,86 @@ public class OracleOverflowValueLoader implements OverflowValueLoader {
             ConnectionSupplier conns, TableReference tableRef, Collection<Long> overflowIds) {
         if (overflowIds.isEmpty()) {
             return new HashMap<>();
+        } else if (isParallel()) {
+            try (OverflowValueFetch fetch = startFetch(conns, tableRef)) {
+                overflowIds.forEach(fetch::add);
+                return fetch.finish();
+            }
         } else {
             Map<Long, byte[]> ret = Maps.newHashMapWithExpectedSize(overflowIds.size());
+            for (List<Long> batch : Iterables.partition(overflowIds, config.overflowFetchBatchSize())) {
+                ret.putAll(loadBatch(conns, tableRef, batch));
+            }
+            return ret;
+        }
+    }
+
+    @Override
+    public OverflowValueFetch startFetch(ConnectionSupplier conns, TableReference tableRef) {
+        if (!isParallel()) {
+            return OverflowValueLoader.super.startFetch(conns, tableRef);
+        }
+        return new ParallelOverflowValueFetch(
+                config.overflowFetchBatchSize(),
+                config.overflowFetchParallelism(),
+                getExecutor(),
+                connectionPermits,
+                batch -> loadBatchOnNewConnection(tableRef, batch),
+                batch -> loadBatch(conns, tableRef, batch),
+                waitTimer);
+    }
+
+    /**
+     * Streams the values of the given overflow ids into the sink one at a time, rather than copying them into memory.
+     * Each value is selected by its own query, so this is intended for reading a few very large values.
+     */
+    @Override
+    public void streamOverflowValues(
+            ConnectionSupplier conns,
+            TableReference tableRef,
+            Collection<Long> overflowIds,
+            OverflowValueStreamSink sink) {
+        List<String> overflowTables = getOverflowTableNames(conns, tableRef);
+        for (long overflowId : overflowIds) {
+            for (String overflowTable : overflowTables) {
+                if (streamOverflowValue(conns, overflowTable, overflowId, sink)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean streamOverflowValue(
+            ConnectionSupplier conns, String overflowTable, long overflowId, OverflowValueStreamSink sink) {
+        FullQuery query = new FullQuery(" /* SELECT_OVERFLOW_VALUE (" + overflowTable + ") */ "
+                        + " SELECT o.val FROM " + overflowTable + " o WHERE o.id = ? ")
+                .withArg(overflowId);
+        try (ClosableIterator<AgnosticLightResultRow> overflowIter = select(conns, query)) {
+            if (!overflowIter.hasNext()) {
+                return false;
+            }
+            try (InputStream value = overflowIter.next().getBinaryInputStream("val")) {
+                sink.accept(overflowId, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }
+    }
+
+    private boolean isParallel() {
+        return config.overflowFetchParallelism() > 1 && connectionPool.isPresent();
+    }
+
+    private Map<Long, byte[]> loadBatchOnNewConnection(TableReference tableRef, List<Long> overflowIds) {
+        try (ConnectionSupplier conns = new ConnectionSupplier(connectionPool.orElseThrow())) {
+            return loadBatch(conns, tableRef, overflowIds);
+        }
+    }
+
+    private Map<Long, byte[]> loadBatch(ConnectionSupplier conns, TableReference tableRef, List<Long> overflowIds) {
+        Map<Long, byte[]> ret = Maps.newHashMapWithExpectedSize(overflowIds.size());
+        try (Timer.Context ignored = fetchTimer.time()) {
             for (FullQuery query : getOverflowQueries(conns, tableRef, overflowIds)) {
                 try (ClosableIterator<AgnosticLightResultRow> overflowIter = select(conns, query)) {
                     while (overflowIter.hasNext()) {
@@ -67,7 +197,25 @@ public class OracleOverflowValueLoader implements OverflowValueLoader {
                     }
                 }
             }
-            return ret;
+        }
+        return ret;
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        Preconditions.checkState(!closed, "Overflow value loader has been closed");
+        if (executor == null) {
+            // Every task holds a connection permit while it runs, so more threads than permits would never be used.
+            executor = PTExecutors.newCachedThreadPoolWithMaxThreads(
+                    config.overflowFetchMaxConnections(), "Atlas DbKvs overflow loader");
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
         }
     }
 
@@ -85,14 +233,22 @@ public class OracleOverflowValueLoader implements OverflowValueLoader {
         }
         ArrayHandler arg = config.jdbcHandler()
                 .createStructArray(structArrayPrefix() + "CELL_TS", structArrayPrefix() + "CELL_TS_TABLE", oraRows);
+        List<FullQuery> queries = new ArrayList<>();
+        for (String overflowTable : getOverflowTableNames(conns, tableRef)) {
+            queries.add(getOverflowQuery(overflowTable, arg));
+        }
+        return queries;
+    }
+
+    private List<String> getOverflowTableNames(ConnectionSupplier conns, TableReference tableRef) {
         switch (config.overflowMigrationState()) {
             case UNSTARTED:
-                return ImmutableList.of(getOldOverflowQuery(arg));
+                return ImmutableList.of(config.singleOverflowTable());
             case IN_PROGRESS:
-                return ImmutableList.of(getOldOverflowQuery(arg), getNewOverflowQuery(conns, tableRef, arg));
+                return ImmutableList.of(config.singleOverflowTable(), getOverflowTableName(conns, tableRef));
             case FINISHING:
             case FINISHED:
-                return ImmutableList.of(getNewOverflowQuery(conns, tableRef, arg));
+                return ImmutableList.of(getOverflowTableName(conns, tableRef));
             default:
                 throw new EnumConstantNotPresentException(
                         OverflowMigrationState.class,
@@ -100,20 +256,7 @@ public class OracleOverflowValueLoader implements OverflowValueLoader {
         }
     }
 
-    private FullQuery getOldOverflowQuery(ArrayHandler arg) {
-        String query = " /* SELECT_OVERFLOW */ "
-                + " SELECT"
-                + "   /*+ USE_NL(t o) LEADING(t o) INDEX(o "
-                + PrimaryKeyConstraintNames.get(config.singleOverflowTable()) + ") */ "
-                + "   o.id, o.val "
-                + " FROM " + config.singleOverflowTable() + " o, "
-                + "   TABLE(CAST(? AS " + structArrayPrefix() + "CELL_TS_TABLE)) t "
-                + " WHERE t.max_ts = o.id ";
-        return new FullQuery(query).withArg(arg);
-    }
-
-    private FullQuery getNewOverflowQuery(ConnectionSupplier conns, TableReference tableRef, ArrayHandler arg) {
-        String overflowTableName = getOverflowTableName(conns, tableRef);
+    private FullQuery getOverflowQuery(String overflowTableName, ArrayHandler arg) {
         String query = " /* SELECT_OVERFLOW (" + overflowTableName + ") */ "
                 + " SELECT"
                 + "   /*+ USE_NL(t o) LEADING(t o) INDEX(o "
@@ -0,0 +1,150 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle;
+
+import com.codahale.metrics.Timer;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowValueFetch;
+import com.palantir.common.base.Throwables;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Fetches overflow values in batches of up to {@code batchSize} ids as soon as each batch fills up, with at most
+ * {@code parallelism} batches in flight. Adding an id blocks once that many batches are in flight, so that a read
+ * producing overflow ids faster than they can be fetched is slowed down rather than buffering without bound.
+ * <p>
+ * Each batch fetched in the background holds one of the shared {@code connectionPermits} for as long as it runs, which
+ * bounds the connections taken from the pool by all reads together. A batch that finds no permit free is loaded on the
+ * read's own connection instead, so reads never wait for other reads' overflow fetches.
+ */
+final class ParallelOverflowValueFetch implements OverflowValueFetch {
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final Semaphore connectionPermits;
+    private final Function<List<Long>, Map<Long, byte[]>> newConnectionLoader;
+    private final Function<List<Long>, Map<Long, byte[]>> ownConnectionLoader;
+    private final Timer waitTimer;
+
+    private final Deque<InFlightBatch> inFlight = new ArrayDeque<>();
+    private final Map<Long, byte[]> results = new HashMap<>();
+    private List<Long> pending;
+
+    ParallelOverflowValueFetch(
+            int batchSize,
+            int parallelism,
+            ExecutorService executor,
+            Semaphore connectionPermits,
+            Function<List<Long>, Map<Long, byte[]>> newConnectionLoader,
+            Function<List<Long>, Map<Long, byte[]>> ownConnectionLoader,
+            Timer waitTimer) {
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.connectionPermits = connectionPermits;
+        this.newConnectionLoader = newConnectionLoader;
+        this.ownConnectionLoader = ownConnectionLoader;
+        this.waitTimer = waitTimer;
+        this.pending = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void add(long overflowId) {
+        pending.add(overflowId);
+        if (pending.size() >= batchSize) {
+            submitPending();
+        }
+    }
+
+    @Override
+    public Map<Long, byte[]> finish() {
+        if (!pending.isEmpty()) {
+            submitPending();
+        }
+        while (!inFlight.isEmpty()) {
+            awaitOldest();
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        inFlight.forEach(InFlightBatch::cancel);
+        inFlight.clear();
+    }
+
+    private void submitPending() {
+        if (inFlight.size() >= parallelism) {
+            awaitOldest();
+        }
+        List<Long> batch = pending;
+        pending = new ArrayList<>(batchSize);
+        if (connectionPermits.tryAcquire()) {
+            inFlight.addLast(new InFlightBatch(batch));
+        } else {
+            results.putAll(ownConnectionLoader.apply(batch));
+        }
+    }
+
+    private void awaitOldest() {
+        InFlightBatch oldest = inFlight.removeFirst();
+        try (Timer.Context ignored = waitTimer.time()) {
+            results.putAll(oldest.future.get());
+        } catch (InterruptedException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+
+    private final class InFlightBatch {
+        private final AtomicBoolean holdsPermit = new AtomicBoolean(true);
+        private final Future<Map<Long, byte[]>> future;
+
+        private InFlightBatch(List<Long> batch) {
+            this.future = executor.submit(() -> {
+                try {
+                    return newConnectionLoader.apply(batch);
+                } finally {
+                    releasePermit();
+                }
+            });
+        }
+
+        void cancel() {
+            future.cancel(true);
+            // A batch cancelled before it started never reaches its finally block.
+            releasePermit();
+        }
+
+        private void releasePermit() {
+            if (holdsPermit.compareAndSet(true, false)) {
+                connectionPermits.release();
+            }
+        }
+    }
+}
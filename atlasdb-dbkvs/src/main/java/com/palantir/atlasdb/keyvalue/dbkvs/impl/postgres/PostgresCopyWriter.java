@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.exception.PalantirSqlException;
+import com.palantir.logsafe.exceptions.SafeRuntimeException;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import com.palantir.nexus.db.sql.SqlConnection;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Writes cells through the Postgres binary COPY protocol. Rows are streamed into a session-local staging table and
+ * then moved into the target table with a single INSERT ... SELECT, which avoids the per-row statement overhead of
+ * batched inserts. The staging table has no constraints, so primary key violations surface from the final insert
+ * just as they would for a batched insert, and the whole write either succeeds or leaves the target untouched.
+ *
+ * Every AtlasDB table has the same columns, so a single staging table serves all of them. It is created the first
+ * time a connection writes through COPY and lives as long as that database session, and is emptied after each write,
+ * so steady-state writes do not create and drop catalog entries.
+ */
+final class PostgresCopyWriter {
+    private static final SafeLogger log = SafeLoggerFactory.get(PostgresCopyWriter.class);
+
+    @VisibleForTesting
+    static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    private static final String STAGING_TABLE = "atlasdb_copy_staging";
+    private static final short FIELDS_PER_ROW = 4;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private PostgresCopyWriter() {
+        // utility
+    }
+
+    /**
+     * Whether the connection speaks the Postgres COPY protocol; this is false for e.g. H2 running in Postgres mode.
+     */
+    static boolean isSupported(SqlConnection sqlConnection) {
+        try {
+            return sqlConnection.getUnderlyingConnection().isWrapperFor(PGConnection.class);
+        } catch (SQLException | PalantirSqlException e) {
+            return false;
+        }
+    }
+
+    static void write(SqlConnection sqlConnection, String prefixedTableName, Iterable<Map.Entry<Cell, Value>> cells) {
+        Connection conn = sqlConnection.getUnderlyingConnection();
+        try {
+            boolean autoCommit = conn.getAutoCommit();
+            if (autoCommit) {
+                conn.setAutoCommit(false);
+            }
+            try {
+                copyAndInsert(conn, prefixedTableName, cells);
+                if (autoCommit) {
+                    conn.commit();
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                if (autoCommit) {
+                    rollbackQuietly(conn);
+                }
+                throw e;
+            } finally {
+                if (autoCommit) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            throw PalantirSqlException.create(e);
+        } catch (IOException e) {
+            throw new SafeRuntimeException("Failed to stream rows to Postgres", e);
+        }
+    }
+
+    private static void copyAndInsert(Connection conn, String prefixedTableName, Iterable<Map.Entry<Cell, Value>> cells)
+            throws SQLException, IOException {
+        try (Statement statement = conn.createStatement()) {
+            // A no-op apart from a catalog lookup once this session has created the table.
+            statement.execute("/* CREATE_COPY_STAGING */"
+                    + " CREATE TEMP TABLE IF NOT EXISTS " + STAGING_TABLE + " ("
+                    + "  row_name   BYTEA NOT NULL,"
+                    + "  col_name   BYTEA NOT NULL,"
+                    + "  ts         INT8 NOT NULL,"
+                    + "  val        BYTEA)");
+        }
+        try (OutputStream copy = new PGCopyOutputStream(
+                        conn.unwrap(PGConnection.class),
+                        "COPY " + STAGING_TABLE + " (row_name, col_name, ts, val) FROM STDIN (FORMAT BINARY)",
+                        COPY_BUFFER_SIZE);
+                DataOutputStream output = new DataOutputStream(copy)) {
+            writeRows(output, cells);
+        }
+        try (Statement statement = conn.createStatement()) {
+            statement.executeUpdate("/* INSERT_FROM_COPY_STAGING (" + prefixedTableName + ") */"
+                    + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val)"
+                    + " SELECT row_name, col_name, ts, val FROM " + STAGING_TABLE);
+            statement.execute("TRUNCATE " + STAGING_TABLE);
+        }
+    }
+
+    /**
+     * Encodes cells in the binary COPY format: a fixed header, then per row a field count followed by
+     * length-prefixed field values, and a trailer of -1.
+     */
+    @VisibleForTesting
+    static void writeRows(DataOutputStream output, Iterable<Map.Entry<Cell, Value>> cells) throws IOException {
+        output.write(SIGNATURE);
+        output.writeInt(0); // flags
+        output.writeInt(0); // header extension length
+        for (Map.Entry<Cell, Value> entry : cells) {
+            output.writeShort(FIELDS_PER_ROW);
+            writeBytes(output, entry.getKey().getRowName());
+            writeBytes(output, entry.getKey().getColumnName());
+            output.writeInt(Long.BYTES);
+            output.writeLong(entry.getValue().getTimestamp());
+            writeBytes(output, entry.getValue().getContents());
+        }
+        output.writeShort(-1);
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            log.warn("Failed to roll back COPY write", e);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.DbKvs;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.DbKvsRowDecoder;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.SqlConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.TableMetadataCache;
@@ -190,7 +191,6 @@ public class PostgresGetRange implements DbKvsGetRange {
         }
 
         @Override
-        @SuppressWarnings("deprecation")
         protected Iterator<RowResult<Value>> computeNext() {
             if (endOfResults) {
                 return endOfData();
@@ -198,20 +198,21 @@ public class PostgresGetRange implements DbKvsGetRange {
                 try (ConnectionSupplier conns = new ConnectionSupplier(connectionPool);
                         ClosableIterator<AgnosticLightResultRow> iter = selectNextPage(conns)) {
                     List<RowResult<Value>> results = new ArrayList<>(maxRowsPerPage);
+                    DbKvsRowDecoder decoder = DbKvsRowDecoder.create();
                     int numSqlRows = 0;
                     byte[] colName = null;
                     while (iter.hasNext()) {
                         numSqlRows += 1;
                         AgnosticLightResultRow sqlRow = iter.next();
-                        byte[] rowName = sqlRow.getBytes("row_name");
+                        byte[] rowName = decoder.rowName(sqlRow);
                         colName = Preconditions.checkNotNull(
-                                sqlRow.getBytes("col_name"), "received a null col_name from the database");
+                                decoder.columnName(sqlRow), "received a null col_name from the database");
                         if (!Arrays.equals(currentRowName, rowName)) {
                             flushCurrentRow(results);
                             currentRowName = rowName;
                         }
-                        byte[] rawVal = sqlRow.getBytes("val");
-                        Value value = Value.create(rawVal, sqlRow.getLong("ts"));
+                        byte[] rawVal = decoder.rawValue(sqlRow);
+                        Value value = Value.create(rawVal, decoder.timestamp(sqlRow));
                         currentRowCells.put(colName, value);
 
                         // Track the bytes read from the DB (ignoring overheads)
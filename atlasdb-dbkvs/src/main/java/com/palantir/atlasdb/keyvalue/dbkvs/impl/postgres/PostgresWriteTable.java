@@ -15,18 +15,70 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
 
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
-import com.palantir.atlasdb.keyvalue.dbkvs.DdlConfig;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbWriteTable;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
+import com.palantir.exception.PalantirSqlException;
+import com.palantir.nexus.db.sql.ExceptionCheck;
+import java.util.Collection;
+import java.util.Map;
 
 public class PostgresWriteTable extends AbstractDbWriteTable {
+    private final PostgresDdlConfig postgresConfig;
+    private final PrefixedTableNames prefixedTableNames;
+
     public PostgresWriteTable(
-            DdlConfig config,
+            PostgresDdlConfig config,
             ConnectionSupplier conns,
             TableReference tableRef,
             PrefixedTableNames prefixedTableNames) {
         super(config, conns, tableRef, prefixedTableNames);
+        this.postgresConfig = config;
+        this.prefixedTableNames = prefixedTableNames;
+    }
+
+    @Override
+    public void put(Collection<Map.Entry<Cell, byte[]>> data, long ts) {
+        if (shouldCopy(data.size())) {
+            copy(Collections2.transform(
+                    data, entry -> Maps.immutableEntry(entry.getKey(), Value.create(entry.getValue(), ts))));
+        } else {
+            super.put(data, ts);
+        }
+    }
+
+    @Override
+    public void put(Collection<Map.Entry<Cell, Value>> data) {
+        if (shouldCopy(data.size())) {
+            copy(data);
+        } else {
+            super.put(data);
+        }
+    }
+
+    private boolean shouldCopy(int numCells) {
+        return postgresConfig
+                        .bulkCopyThreshold()
+                        .map(threshold -> numCells >= threshold)
+                        .orElse(false)
+                && PostgresCopyWriter.isSupported(conns.get());
+    }
+
+    private void copy(Collection<Map.Entry<Cell, Value>> data) {
+        try {
+            PostgresCopyWriter.write(conns.get(), prefixedTableNames.get(tableRef, conns), data);
+        } catch (PalantirSqlException e) {
+            if (ExceptionCheck.isUniqueConstraintViolation(e)) {
+                throw new KeyAlreadyExistsException("primary key violation", e);
+            }
+            throw e;
+        }
     }
 }
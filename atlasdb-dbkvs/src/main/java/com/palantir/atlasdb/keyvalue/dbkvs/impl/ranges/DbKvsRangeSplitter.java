@@ -0,0 +1,199 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.DbKvs;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.SqlConnectionSupplier;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import com.palantir.nexus.db.DBType;
+import com.palantir.nexus.db.sql.AgnosticResultRow;
+import com.palantir.nexus.db.sql.AgnosticResultSet;
+import com.palantir.nexus.db.sql.BasicSQLUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lists and samples the row names of a DbKvs table, so that a table can be divided into sub-ranges of roughly equal
+ * size that may be scanned independently.
+ * <p>
+ * Split points are estimated by block-sampling the table ({@code TABLESAMPLE SYSTEM} on Postgres and
+ * {@code SAMPLE BLOCK} on Oracle), with a sampling rate derived from the row count in the table statistics. Rows
+ * are sampled per cell, so that sub-ranges are balanced by the number of cells they contain rather than by the
+ * number of distinct row names. Tables without statistics are assumed to be small, and are not split.
+ */
+@SuppressWarnings("InlineFormatString") // complex query string, makes more sense to keep extracted as a constant
+public final class DbKvsRangeSplitter {
+    private static final SafeLogger log = SafeLoggerFactory.get(DbKvsRangeSplitter.class);
+
+    @VisibleForTesting
+    static final int SAMPLES_PER_SPLIT = 100;
+
+    private static final int MAX_SAMPLE_OVERSHOOT = 10;
+    private static final double MIN_ORACLE_SAMPLE_PERCENT = 0.000001;
+
+    private final DBType dbType;
+    private final SqlConnectionSupplier connectionPool;
+    private final PrefixedTableNames prefixedTableNames;
+
+    public DbKvsRangeSplitter(
+            DBType dbType, SqlConnectionSupplier connectionPool, PrefixedTableNames prefixedTableNames) {
+        this.dbType = dbType;
+        this.connectionPool = connectionPool;
+        this.prefixedTableNames = prefixedTableNames;
+    }
+
+    /**
+     * Returns the sorted, distinct row names between {@code startRow} and {@code endRow}, both inclusive, up to
+     * {@code maxResults} rows. An empty start or end row leaves that end of the range unbounded.
+     */
+    public List<byte[]> getRowKeysInRange(TableReference tableRef, byte[] startRow, byte[] endRow, int maxResults) {
+        Preconditions.checkArgument(
+                maxResults > 0, "maxResults must be positive", SafeArg.of("maxResults", maxResults));
+        List<String> clauses = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (startRow.length > 0) {
+            clauses.add("t.row_name >= ?");
+            args.add(startRow);
+        }
+        if (endRow.length > 0) {
+            clauses.add("t.row_name <= ?");
+            args.add(endRow);
+        }
+        String where = clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+        try (ConnectionSupplier conns = new ConnectionSupplier(connectionPool)) {
+            String query = String.format(
+                    ROW_KEYS_IN_RANGE_TEMPLATE,
+                    DbKvs.internalTableName(tableRef),
+                    prefixedTableNames.get(tableRef, conns),
+                    where);
+            String limitQuery = BasicSQLUtils.limitQuery(query, maxResults, args, dbType);
+            return readRowNames(conns.get().selectResultSetUnregisteredQuery(limitQuery, args.toArray()));
+        }
+    }
+
+    /**
+     * Estimates up to {@code numSplits - 1} row names that divide the table into {@code numSplits} sub-ranges of
+     * roughly equal size. The returned row names are sorted and distinct; fewer are returned if the table is small,
+     * has no statistics, or is dominated by a few very wide rows.
+     */
+    public List<byte[]> estimateSplitPoints(TableReference tableRef, int numSplits) {
+        Preconditions.checkArgument(numSplits > 0, "numSplits must be positive", SafeArg.of("numSplits", numSplits));
+        if (numSplits == 1) {
+            return ImmutableList.of();
+        }
+        try (ConnectionSupplier conns = new ConnectionSupplier(connectionPool)) {
+            String prefixedTableName = prefixedTableNames.get(tableRef, conns);
+            long estimatedCells = getEstimatedRowCount(conns, prefixedTableName);
+            int targetSamples = numSplits * SAMPLES_PER_SPLIT;
+            if (estimatedCells < numSplits) {
+                log.debug(
+                        "Not splitting table without statistics or with too few rows",
+                        SafeArg.of("estimatedCells", estimatedCells),
+                        SafeArg.of("numSplits", numSplits));
+                return ImmutableList.of();
+            }
+            double samplePercent = Math.min(100.0, 100.0 * targetSamples / estimatedCells);
+            String query = String.format(
+                    SAMPLE_ROW_NAMES_TEMPLATE,
+                    DbKvs.internalTableName(tableRef),
+                    prefixedTableName,
+                    sampleClause(samplePercent));
+            List<Object> args = new ArrayList<>();
+            String limitQuery = BasicSQLUtils.limitQuery(query, targetSamples * MAX_SAMPLE_OVERSHOOT, args, dbType);
+            List<byte[]> samples = readRowNames(conns.get().selectResultSetUnregisteredQuery(limitQuery));
+            return selectSplitPoints(samples, numSplits);
+        }
+    }
+
+    @VisibleForTesting
+    static List<byte[]> selectSplitPoints(List<byte[]> samples, int numSplits) {
+        if (samples.isEmpty()) {
+            return ImmutableList.of();
+        }
+        byte[][] sorted = samples.toArray(new byte[0][]);
+        Arrays.sort(sorted, UnsignedBytes.lexicographicalComparator());
+        ImmutableList.Builder<byte[]> splitPoints = ImmutableList.builder();
+        byte[] previous = sorted[0];
+        for (int split = 1; split < numSplits; split++) {
+            byte[] candidate = sorted[(int) ((long) split * sorted.length / numSplits)];
+            if (UnsignedBytes.lexicographicalComparator().compare(candidate, previous) > 0) {
+                splitPoints.add(candidate);
+                previous = candidate;
+            }
+        }
+        return splitPoints.build();
+    }
+
+    private long getEstimatedRowCount(ConnectionSupplier conns, String prefixedTableName) {
+        switch (dbType) {
+            case ORACLE:
+                return conns.get()
+                        .selectLongUnregisteredQuery(
+                                "SELECT NVL(MAX(num_rows), 0) FROM user_tables WHERE table_name = ?",
+                                prefixedTableName.toUpperCase(Locale.ROOT));
+            case POSTGRESQL:
+                return conns.get()
+                        .selectLongUnregisteredQuery(
+                                "SELECT COALESCE(MAX(reltuples), 0)::bigint FROM pg_class WHERE oid = to_regclass(?)",
+                                prefixedTableName);
+            default:
+                return 0;
+        }
+    }
+
+    private String sampleClause(double samplePercent) {
+        if (samplePercent >= 100.0) {
+            return "";
+        }
+        if (dbType == DBType.ORACLE) {
+            return String.format(
+                    Locale.ROOT, "SAMPLE BLOCK (%.6f)", Math.max(MIN_ORACLE_SAMPLE_PERCENT, samplePercent));
+        }
+        return String.format(Locale.ROOT, "TABLESAMPLE SYSTEM (%.6f)", samplePercent);
+    }
+
+    private static List<byte[]> readRowNames(AgnosticResultSet results) {
+        List<byte[]> rowNames = new ArrayList<>(results.size());
+        for (AgnosticResultRow row : results.rows()) {
+            @SuppressWarnings("deprecation")
+            byte[] rowName = row.getBytes("row_name");
+            rowNames.add(rowName);
+        }
+        return rowNames;
+    }
+
+    private static final String ROW_KEYS_IN_RANGE_TEMPLATE = " /* ROW_KEYS_IN_RANGE (%s) */ "
+            + " SELECT DISTINCT row_name "
+            + " FROM %s t "
+            + " %s "
+            + " ORDER BY row_name ASC ";
+
+    private static final String SAMPLE_ROW_NAMES_TEMPLATE = " /* SAMPLE_ROW_NAMES (%s) */ "
+            + " SELECT row_name "
+            + " FROM %s %s ";
+}
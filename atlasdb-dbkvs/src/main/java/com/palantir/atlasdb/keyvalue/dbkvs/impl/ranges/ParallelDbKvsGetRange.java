@@ -0,0 +1,248 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scans a forward range by dividing it at the given split points and scanning up to {@code parallelism} of the
+ * resulting sub-ranges concurrently, each through the delegate {@link DbKvsGetRange} and so on its own connection.
+ * <p>
+ * Results are returned in the same order as a sequential scan: the sub-ranges are consumed one after another, while
+ * the sub-ranges after the one being consumed are prefetched into bounded buffers. A sub-range is only started once
+ * the consumer is within {@code parallelism} sub-ranges of it, which bounds both the number of connections and the
+ * memory used by a single scan. A sub-range that the executor has not picked up by the time the consumer reaches it
+ * is read on the consumer's thread instead, so concurrent scans sharing the executor cannot deadlock.
+ * <p>
+ * Closing the iterator cancels the outstanding sub-ranges. An iterator that is abandoned without being closed cancels
+ * them once it has been garbage collected; until then a prefetched sub-range simply waits for the consumer, however
+ * slow the consumer is.
+ */
+public final class ParallelDbKvsGetRange {
+    @VisibleForTesting
+    static final int BUFFERED_ROWS_PER_SUB_RANGE = 1_000;
+
+    private static final Cleaner ABANDONED_SCAN_CLEANER =
+            Cleaner.create(new NamedThreadFactory("Atlas DbKvs parallel range cleaner", true));
+
+    private final DbKvsGetRange delegate;
+    private final ExecutorService executor;
+
+    /**
+     * The executor should be dedicated to parallel range scans and bounded, as each of its threads holds a connection
+     * for as long as it scans a sub-range.
+     */
+    public ParallelDbKvsGetRange(DbKvsGetRange delegate, ExecutorService executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    public ClosableIterator<RowResult<Value>> getRange(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp,
+            List<byte[]> splitPoints,
+            int parallelism) {
+        Preconditions.checkArgument(
+                parallelism > 0, "parallelism must be positive", SafeArg.of("parallelism", parallelism));
+        Preconditions.checkArgument(!rangeRequest.isReverse(), "Parallel range scans only support forward ranges");
+        List<SubRangeScan> scans = new ArrayList<>();
+        for (RangeRequest subRange : splitRange(rangeRequest, splitPoints)) {
+            scans.add(new SubRangeScan(tableRef, subRange, timestamp));
+        }
+        return new ParallelRangeIterator(scans, parallelism);
+    }
+
+    /**
+     * Divides the given forward range at each of the sorted split points that fall strictly inside it.
+     */
+    @VisibleForTesting
+    static List<RangeRequest> splitRange(RangeRequest rangeRequest, List<byte[]> splitPoints) {
+        byte[] start = rangeRequest.getStartInclusive();
+        byte[] end = rangeRequest.getEndExclusive();
+        ImmutableList.Builder<RangeRequest> subRanges = ImmutableList.builder();
+        byte[] subRangeStart = start;
+        for (byte[] splitPoint : splitPoints) {
+            boolean afterStart = UnsignedBytes.lexicographicalComparator().compare(splitPoint, subRangeStart) > 0;
+            boolean beforeEnd =
+                    end.length == 0 || UnsignedBytes.lexicographicalComparator().compare(splitPoint, end) < 0;
+            if (afterStart && beforeEnd) {
+                subRanges.add(rangeRequest
+                        .getBuilder()
+                        .startRowInclusive(subRangeStart)
+                        .endRowExclusive(splitPoint)
+                        .build());
+                subRangeStart = splitPoint;
+            }
+        }
+        subRanges.add(rangeRequest
+                .getBuilder()
+                .startRowInclusive(subRangeStart)
+                .endRowExclusive(end)
+                .build());
+        return subRanges.build();
+    }
+
+    private final class SubRangeScan implements Runnable {
+        private final TableReference tableRef;
+        private final RangeRequest subRange;
+        private final long timestamp;
+        private final BlockingQueue<Optional<RowResult<Value>>> buffer =
+                new ArrayBlockingQueue<>(BUFFERED_ROWS_PER_SUB_RANGE);
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        private volatile Throwable failure;
+        private Future<?> future;
+        private Iterator<RowResult<Value>> inlineRows;
+
+        private SubRangeScan(TableReference tableRef, RangeRequest subRange, long timestamp) {
+            this.tableRef = tableRef;
+            this.subRange = subRange;
+            this.timestamp = timestamp;
+        }
+
+        void start() {
+            future = executor.submit(this);
+        }
+
+        boolean isStarted() {
+            return future != null;
+        }
+
+        void cancel() {
+            claimed.set(true);
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                Iterator<RowResult<Value>> rows = delegate.getRange(tableRef, subRange, timestamp);
+                while (rows.hasNext()) {
+                    buffer.put(Optional.of(rows.next()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                failure = t;
+            }
+            try {
+                buffer.put(Optional.empty());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Optional<RowResult<Value>> next() {
+            if (inlineRows == null && claimed.compareAndSet(false, true)) {
+                // Not picked up by the executor yet, possibly because its threads are busy with other scans; reading
+                // it on the consumer's thread means the consumer never waits on a queued task.
+                future.cancel(false);
+                inlineRows = delegate.getRange(tableRef, subRange, timestamp);
+            }
+            if (inlineRows != null) {
+                return inlineRows.hasNext() ? Optional.of(inlineRows.next()) : Optional.empty();
+            }
+            try {
+                Optional<RowResult<Value>> next = buffer.take();
+                if (next.isEmpty() && failure != null) {
+                    throw Throwables.rewrapAndThrowUncheckedException(
+                            "Failed to scan a sub-range of a parallel range scan", failure);
+                }
+                return next;
+            } catch (InterruptedException e) {
+                throw Throwables.rewrapAndThrowUncheckedException(e);
+            }
+        }
+    }
+
+    private static final class ParallelRangeIterator extends AbstractIterator<RowResult<Value>>
+            implements ClosableIterator<RowResult<Value>> {
+        private final List<SubRangeScan> scans;
+        private final int parallelism;
+        private final Cleaner.Cleanable cancellation;
+        private int current = 0;
+
+        private ParallelRangeIterator(List<SubRangeScan> scans, int parallelism) {
+            this.scans = scans;
+            this.parallelism = parallelism;
+            // The sub-range threads only reference the scans, so this iterator becomes unreachable once the consumer
+            // drops it, and the scans are then cancelled even if it was never closed.
+            this.cancellation = ABANDONED_SCAN_CLEANER.register(this, cancelAll(scans));
+        }
+
+        private static Runnable cancelAll(List<SubRangeScan> scans) {
+            return () -> scans.forEach(SubRangeScan::cancel);
+        }
+
+        @Override
+        protected RowResult<Value> computeNext() {
+            while (current < scans.size()) {
+                startScansWithinParallelism();
+                Optional<RowResult<Value>> next = scans.get(current).next();
+                if (next.isPresent()) {
+                    return next.get();
+                }
+                current++;
+            }
+            return endOfData();
+        }
+
+        private void startScansWithinParallelism() {
+            int last = Math.min(scans.size(), current + parallelism);
+            for (int i = current; i < last; i++) {
+                if (!scans.get(i).isStarted()) {
+                    scans.get(i).start();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            cancellation.clean();
+            current = scans.size();
+        }
+    }
+}
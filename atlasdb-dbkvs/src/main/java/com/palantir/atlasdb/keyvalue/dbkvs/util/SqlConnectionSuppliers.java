@@ -39,7 +39,10 @@ public final class SqlConnectionSuppliers {
         runtimeConfig.subscribe(
                 newRuntimeConfig -> updateConnManagerConfig(connectionManager, config, newRuntimeConfig));
         ReentrantManagedConnectionSupplier connSupplier = new ReentrantManagedConnectionSupplier(connectionManager);
-        return new SimpleTimedSqlConnectionSupplier(connSupplier);
+        return new SimpleTimedSqlConnectionSupplier(
+                connSupplier,
+                config.connection().runStatementsOnCallingThread(),
+                config.connection().getQueryTimeoutSeconds());
     }
 
     private static void updateConnManagerConfig(
@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.nexus.db.sql.PositionalResultRow;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DbKvsRowDecoderTest {
+    private static final byte[] ROW = PtBytes.toBytes("row");
+    private static final byte[] COL = PtBytes.toBytes("col");
+    private static final byte[] VAL = PtBytes.toBytes("val");
+    private static final long TIMESTAMP = 17L;
+    private static final long OVERFLOW_ID = 42L;
+
+    private final PositionalResultRow row = mock(PositionalResultRow.class);
+
+    @Before
+    public void setUp() {
+        when(row.columnIndex(DbKvs.ROW)).thenReturn(1);
+        when(row.columnIndex(DbKvs.COL)).thenReturn(2);
+        when(row.columnIndex(DbKvs.TIMESTAMP)).thenReturn(3);
+        when(row.columnIndex(DbKvs.VAL)).thenReturn(4);
+        when(row.columnIndex("overflow")).thenReturn(5);
+        when(row.getBytesAt(1)).thenReturn(ROW);
+        when(row.getBytesAt(2)).thenReturn(COL);
+        when(row.getLongAt(3)).thenReturn(TIMESTAMP);
+        when(row.getBytesAt(4)).thenReturn(VAL);
+    }
+
+    @Test
+    public void decodesCellAndValueByPosition() {
+        DbKvsRowDecoder decoder = DbKvsRowDecoder.create();
+
+        assertThat(decoder.cell(row)).isEqualTo(Cell.create(ROW, COL));
+        assertThat(decoder.value(row)).isEqualTo(Value.create(VAL, TIMESTAMP));
+    }
+
+    @Test
+    public void resolvesColumnIndexesOnlyOnce() {
+        DbKvsRowDecoder decoder = DbKvsRowDecoder.create();
+
+        for (int i = 0; i < 10; i++) {
+            decoder.cell(row);
+            decoder.value(row);
+        }
+
+        verify(row, times(1)).columnIndex(DbKvs.ROW);
+        verify(row, times(1)).columnIndex(DbKvs.COL);
+        verify(row, times(1)).columnIndex(DbKvs.TIMESTAMP);
+        verify(row, times(1)).columnIndex(DbKvs.VAL);
+    }
+
+    @Test
+    public void doesNotReadOverflowColumnForTablesWithoutOverflow() {
+        DbKvsRowDecoder decoder = DbKvsRowDecoder.create(false);
+
+        assertThat(decoder.hasOverflowId(row)).isFalse();
+        verify(row, never()).columnIndex("overflow");
+    }
+
+    @Test
+    public void nullOverflowIdMeansInlineValue() {
+        when(row.getLongAt(5)).thenReturn(0L);
+        when(row.wasNull()).thenReturn(true);
+        DbKvsRowDecoder decoder = DbKvsRowDecoder.create(true);
+
+        assertThat(decoder.hasOverflowId(row)).isFalse();
+    }
+
+    @Test
+    public void readsOverflowId() {
+        when(row.getLongAt(5)).thenReturn(OVERFLOW_ID);
+        when(row.wasNull()).thenReturn(false);
+        DbKvsRowDecoder decoder = DbKvsRowDecoder.create(true);
+
+        assertThat(decoder.hasOverflowId(row)).isTrue();
+        assertThat(decoder.overflowId(row)).isEqualTo(OVERFLOW_ID);
+        verify(row, times(1)).columnIndex(anyString());
+    }
+}
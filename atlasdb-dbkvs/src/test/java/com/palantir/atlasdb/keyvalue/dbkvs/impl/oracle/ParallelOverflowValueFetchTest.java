@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codahale.metrics.Timer;
+import com.google.common.primitives.Longs;
+import com.palantir.common.concurrent.PTExecutors;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelOverflowValueFetchTest {
+    private static final int BATCH_SIZE = 3;
+    private static final int PARALLELISM = 2;
+
+    private final ExecutorService executor = PTExecutors.newCachedThreadPool();
+    private final Semaphore connectionPermits = new Semaphore(PARALLELISM);
+    private final List<List<Long>> batchesLoadedOnOwnConnection = new CopyOnWriteArrayList<>();
+    private final List<List<Long>> loadedBatches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger concurrentLoads = new AtomicInteger();
+    private final AtomicInteger maxConcurrentLoads = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void loadsAllValuesInBatches() {
+        try (ParallelOverflowValueFetch fetch = createFetch(this::loadValues)) {
+            for (long id = 0; id < 10; id++) {
+                fetch.add(id);
+            }
+            Map<Long, byte[]> values = fetch.finish();
+
+            assertThat(values).hasSize(10);
+            values.forEach((id, value) -> assertThat(value).isEqualTo(Longs.toByteArray(id)));
+        }
+        assertThat(loadedBatches).hasSize(4).allSatisfy(batch -> assertThat(batch.size())
+                .isLessThanOrEqualTo(BATCH_SIZE));
+    }
+
+    @Test
+    public void startsLoadingBeforeFinish() {
+        try (ParallelOverflowValueFetch fetch = createFetch(this::loadValues)) {
+            // filling a third batch waits for the first batch, as two batches are already in flight
+            for (long id = 0; id < 3 * BATCH_SIZE; id++) {
+                fetch.add(id);
+            }
+            assertThat(loadedBatches).isNotEmpty();
+            fetch.finish();
+        }
+    }
+
+    @Test
+    public void boundsBatchesInFlight() {
+        try (ParallelOverflowValueFetch fetch = createFetch(this::loadValuesSlowly)) {
+            for (long id = 0; id < 10 * BATCH_SIZE; id++) {
+                fetch.add(id);
+            }
+            fetch.finish();
+        }
+        assertThat(maxConcurrentLoads.get()).isBetween(1, PARALLELISM);
+    }
+
+    @Test
+    public void loadsOnOwnConnectionWhenNoConnectionPermitIsFree() {
+        connectionPermits.drainPermits();
+        try (ParallelOverflowValueFetch fetch = createFetch(this::loadValues)) {
+            for (long id = 0; id < 10; id++) {
+                fetch.add(id);
+            }
+            assertThat(fetch.finish()).hasSize(10);
+        }
+        assertThat(batchesLoadedOnOwnConnection).hasSize(4);
+        assertThat(loadedBatches).hasSize(4);
+    }
+
+    @Test
+    public void releasesConnectionPermits() {
+        try (ParallelOverflowValueFetch fetch = createFetch(this::loadValuesSlowly)) {
+            for (long id = 0; id < 10 * BATCH_SIZE; id++) {
+                fetch.add(id);
+            }
+        }
+        try (ParallelOverflowValueFetch fetch = createFetch(this::loadValues)) {
+            fetch.add(1L);
+            fetch.finish();
+        }
+        assertThat(connectionPermits.availablePermits()).isEqualTo(PARALLELISM);
+    }
+
+    @Test
+    public void propagatesLoadFailures() {
+        try (ParallelOverflowValueFetch fetch = createFetch(_batch -> {
+            throw new IllegalStateException("boom");
+        })) {
+            fetch.add(1L);
+            assertThatThrownBy(fetch::finish).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private ParallelOverflowValueFetch createFetch(Function<List<Long>, Map<Long, byte[]>> batchLoader) {
+        Function<List<Long>, Map<Long, byte[]>> ownConnectionLoader = batch -> {
+            batchesLoadedOnOwnConnection.add(batch);
+            return batchLoader.apply(batch);
+        };
+        return new ParallelOverflowValueFetch(
+                BATCH_SIZE, PARALLELISM, executor, connectionPermits, batchLoader, ownConnectionLoader, new Timer());
+    }
+
+    private Map<Long, byte[]> loadValues(List<Long> batch) {
+        loadedBatches.add(batch);
+        return batch.stream().collect(Collectors.toMap(Function.identity(), Longs::toByteArray));
+    }
+
+    private Map<Long, byte[]> loadValuesSlowly(List<Long> batch) {
+        maxConcurrentLoads.accumulateAndGet(concurrentLoads.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrentLoads.decrementAndGet();
+        }
+        return loadValues(batch);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.nexus.db.sql.SqlConnection;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.postgresql.PGConnection;
+
+public class PostgresCopyWriterTest {
+    private static final Cell CELL = Cell.create(new byte[] {1, 2}, new byte[] {3});
+
+    @Test
+    public void encodesRowsInBinaryCopyFormat() throws IOException {
+        List<Map.Entry<Cell, Value>> rows = ImmutableList.of(
+                Maps.immutableEntry(CELL, Value.create(new byte[] {4, 5, 6}, 7L)),
+                Maps.immutableEntry(CELL, Value.create(new byte[0], 8L)));
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(encode(rows)));
+
+        byte[] signature = new byte[PostgresCopyWriter.SIGNATURE.length];
+        input.readFully(signature);
+        assertThat(signature).isEqualTo(PostgresCopyWriter.SIGNATURE);
+        assertThat(input.readInt()).isZero();
+        assertThat(input.readInt()).isZero();
+
+        assertRow(input, new byte[] {4, 5, 6}, 7L);
+        assertRow(input, new byte[0], 8L);
+
+        assertThat(input.readShort()).isEqualTo((short) -1);
+        assertThat(input.available()).isZero();
+    }
+
+    @Test
+    public void encodesEmptyInputAsHeaderAndTrailer() throws IOException {
+        assertThat(encode(ImmutableList.of())).hasSize(PostgresCopyWriter.SIGNATURE.length + 2 * Integer.BYTES + 2);
+    }
+
+    @Test
+    public void isOnlySupportedForPostgresConnections() throws SQLException {
+        assertThat(PostgresCopyWriter.isSupported(connectionWrapping(true))).isTrue();
+        assertThat(PostgresCopyWriter.isSupported(connectionWrapping(false))).isFalse();
+    }
+
+    private static void assertRow(DataInputStream input, byte[] expectedValue, long expectedTimestamp)
+            throws IOException {
+        assertThat(input.readShort()).isEqualTo((short) 4);
+        assertThat(readField(input)).isEqualTo(CELL.getRowName());
+        assertThat(readField(input)).isEqualTo(CELL.getColumnName());
+        assertThat(input.readInt()).isEqualTo(Long.BYTES);
+        assertThat(input.readLong()).isEqualTo(expectedTimestamp);
+        assertThat(readField(input)).isEqualTo(expectedValue);
+    }
+
+    private static byte[] readField(DataInputStream input) throws IOException {
+        byte[] field = new byte[input.readInt()];
+        input.readFully(field);
+        return field;
+    }
+
+    private static byte[] encode(List<Map.Entry<Cell, Value>> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            PostgresCopyWriter.writeRows(output, rows);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SqlConnection connectionWrapping(boolean isPostgres) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(isPostgres);
+        SqlConnection sqlConnection = mock(SqlConnection.class);
+        when(sqlConnection.getUnderlyingConnection()).thenReturn(connection);
+        return sqlConnection;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class DbKvsRangeSplitterTest {
+    @Test
+    public void selectsEvenlySpacedSplitPoints() {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(new byte[] {(byte) i});
+        }
+        Collections.shuffle(samples);
+
+        assertThat(DbKvsRangeSplitter.selectSplitPoints(samples, 4))
+                .containsExactly(new byte[] {25}, new byte[] {50}, new byte[] {75});
+    }
+
+    @Test
+    public void comparesRowNamesAsUnsignedBytes() {
+        List<byte[]> samples = ImmutableList.of(new byte[] {(byte) 0xFF}, new byte[] {0x01});
+
+        assertThat(DbKvsRangeSplitter.selectSplitPoints(samples, 2)).containsExactly(new byte[] {(byte) 0xFF});
+    }
+
+    @Test
+    public void deduplicatesSplitPointsOfWideRows() {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            samples.add(new byte[] {7});
+        }
+        for (int i = 0; i < 10; i++) {
+            samples.add(new byte[] {9});
+        }
+
+        assertThat(DbKvsRangeSplitter.selectSplitPoints(samples, 10)).containsExactly(new byte[] {9});
+    }
+
+    @Test
+    public void noSplitPointsWithoutSamples() {
+        assertThat(DbKvsRangeSplitter.selectSplitPoints(ImmutableList.of(), 8)).isEmpty();
+    }
+}
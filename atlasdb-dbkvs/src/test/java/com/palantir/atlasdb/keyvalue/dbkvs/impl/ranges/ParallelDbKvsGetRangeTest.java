@@ -0,0 +1,199 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.ranges;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.concurrent.PTExecutors;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelDbKvsGetRangeTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final List<byte[]> ROW_NAMES =
+            IntStream.range(0, 100).mapToObj(ParallelDbKvsGetRangeTest::row).collect(Collectors.toList());
+    private static final DbKvsGetRange IN_MEMORY_RANGE = (tableRef, rangeRequest, timestamp) -> ROW_NAMES.stream()
+            .filter(rangeRequest::inRange)
+            .map(ParallelDbKvsGetRangeTest::rowResult)
+            .iterator();
+
+    private final ExecutorService executor = PTExecutors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void splitsRangeAtSplitPointsInsideTheRange() {
+        RangeRequest range =
+                RangeRequest.builder().startRowInclusive(row(10)).endRowExclusive(row(50)).build();
+
+        List<RangeRequest> subRanges =
+                ParallelDbKvsGetRange.splitRange(range, ImmutableList.of(row(5), row(10), row(20), row(50), row(60)));
+
+        assertThat(subRanges).hasSize(2);
+        assertThat(subRanges.get(0).getStartInclusive()).isEqualTo(row(10));
+        assertThat(subRanges.get(0).getEndExclusive()).isEqualTo(row(20));
+        assertThat(subRanges.get(1).getStartInclusive()).isEqualTo(row(20));
+        assertThat(subRanges.get(1).getEndExclusive()).isEqualTo(row(50));
+    }
+
+    @Test
+    public void unboundedRangeWithoutSplitPointsIsScannedWhole() {
+        List<RangeRequest> subRanges = ParallelDbKvsGetRange.splitRange(RangeRequest.all(), ImmutableList.of());
+
+        assertThat(subRanges).containsExactly(RangeRequest.all());
+    }
+
+    @Test
+    public void returnsRowsInSequentialOrder() {
+        ParallelDbKvsGetRange parallelGetRange = new ParallelDbKvsGetRange(IN_MEMORY_RANGE, executor);
+        List<byte[]> splitPoints = ImmutableList.of(row(13), row(27), row(40), row(41), row(77));
+
+        try (ClosableIterator<RowResult<Value>> rows =
+                parallelGetRange.getRange(TABLE, RangeRequest.all(), Long.MAX_VALUE, splitPoints, 3)) {
+            assertThat(Lists.newArrayList(rows).stream().map(RowResult::getRowName))
+                    .containsExactlyElementsOf(ROW_NAMES);
+        }
+    }
+
+    @Test
+    public void propagatesSubRangeFailures() {
+        DbKvsGetRange failingRange = (tableRef, rangeRequest, timestamp) -> {
+            if (rangeRequest.getStartInclusive().length > 0) {
+                throw new IllegalStateException("boom");
+            }
+            return IN_MEMORY_RANGE.getRange(tableRef, rangeRequest, timestamp);
+        };
+        ParallelDbKvsGetRange parallelGetRange = new ParallelDbKvsGetRange(failingRange, executor);
+
+        try (ClosableIterator<RowResult<Value>> rows = parallelGetRange.getRange(
+                TABLE, RangeRequest.all(), Long.MAX_VALUE, ImmutableList.of(row(50)), 2)) {
+            assertThatThrownBy(() -> rows.forEachRemaining(row -> {}))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    public void readsSubRangesOnConsumerThreadWhenExecutorIsBusy() throws InterruptedException {
+        ExecutorService busyExecutor = PTExecutors.newFixedThreadPool(1);
+        CountDownLatch release = new CountDownLatch(1);
+        busyExecutor.execute(() -> Uninterruptibles.awaitUninterruptibly(release));
+        ParallelDbKvsGetRange parallelGetRange = new ParallelDbKvsGetRange(IN_MEMORY_RANGE, busyExecutor);
+
+        try (ClosableIterator<RowResult<Value>> rows = parallelGetRange.getRange(
+                TABLE, RangeRequest.all(), Long.MAX_VALUE, ImmutableList.of(row(50)), 2)) {
+            assertThat(Lists.newArrayList(rows).stream().map(RowResult::getRowName))
+                    .containsExactlyElementsOf(ROW_NAMES);
+        } finally {
+            release.countDown();
+            busyExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void slowConsumerReceivesAllRowsOfPrefetchedSubRanges() {
+        int rowsPerSubRange = 3 * ParallelDbKvsGetRange.BUFFERED_ROWS_PER_SUB_RANGE;
+        DbKvsGetRange largeRange = (tableRef, rangeRequest, timestamp) -> {
+            byte prefix = rangeRequest.getStartInclusive().length == 0 ? 0 : rangeRequest.getStartInclusive()[0];
+            return IntStream.range(0, rowsPerSubRange)
+                    .mapToObj(i -> rowResult(new byte[] {prefix, (byte) (i >> 8), (byte) i}))
+                    .iterator();
+        };
+        ParallelDbKvsGetRange parallelGetRange = new ParallelDbKvsGetRange(largeRange, executor);
+
+        try (ClosableIterator<RowResult<Value>> rows = parallelGetRange.getRange(
+                TABLE, RangeRequest.all(), Long.MAX_VALUE, ImmutableList.of(row(1), row(2)), 3)) {
+            int count = 0;
+            byte[] previous = rows.next().getRowName();
+            count++;
+            // Let the prefetched sub-ranges fill their buffers and stay blocked on them for a while.
+            Uninterruptibles.sleepUninterruptibly(500, TimeUnit.MILLISECONDS);
+            while (rows.hasNext()) {
+                byte[] rowName = rows.next().getRowName();
+                assertThat(UnsignedBytes.lexicographicalComparator().compare(previous, rowName))
+                        .isNegative();
+                previous = rowName;
+                count++;
+            }
+            assertThat(count).isEqualTo(3 * rowsPerSubRange);
+        }
+    }
+
+    @Test
+    public void abandonedScanReleasesItsThreadsOnceCollected() throws InterruptedException {
+        DbKvsGetRange endlessRange = (tableRef, rangeRequest, timestamp) ->
+                Stream.generate(() -> rowResult(rangeRequest.getStartInclusive())).iterator();
+        ExecutorService scanExecutor = PTExecutors.newFixedThreadPool(2);
+
+        startAndAbandonScan(new ParallelDbKvsGetRange(endlessRange, scanExecutor));
+
+        scanExecutor.shutdown();
+        for (int i = 0; i < 100 && !scanExecutor.isTerminated(); i++) {
+            System.gc();
+            scanExecutor.awaitTermination(100, TimeUnit.MILLISECONDS);
+        }
+        assertThat(scanExecutor.isTerminated()).isTrue();
+    }
+
+    @Test
+    public void rejectsReverseRanges() {
+        ParallelDbKvsGetRange parallelGetRange = new ParallelDbKvsGetRange(IN_MEMORY_RANGE, executor);
+
+        assertThatThrownBy(() -> parallelGetRange.getRange(
+                        TABLE, RangeRequest.reverseBuilder().build(), Long.MAX_VALUE, ImmutableList.of(), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void startAndAbandonScan(ParallelDbKvsGetRange parallelGetRange) {
+        ClosableIterator<RowResult<Value>> rows = parallelGetRange.getRange(
+                TABLE, RangeRequest.all(), Long.MAX_VALUE, ImmutableList.of(row(50)), 2);
+        rows.next();
+    }
+
+    private static byte[] row(int index) {
+        return new byte[] {(byte) index};
+    }
+
+    private static RowResult<Value> rowResult(byte[] rowName) {
+        return RowResult.create(
+                rowName,
+                ImmutableSortedMap.<byte[], Value>orderedBy(UnsignedBytes.lexicographicalComparator())
+                        .put(PtBytes.toBytes("col"), Value.create(rowName, 1L))
+                        .build());
+    }
+}
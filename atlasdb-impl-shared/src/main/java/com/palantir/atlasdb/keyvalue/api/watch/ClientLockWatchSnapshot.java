@@ -17,13 +17,13 @@
 package com.palantir.atlasdb.keyvalue.api.watch;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
+import com.google.common.collect.Sets;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.watch.LockEvent;
 import com.palantir.lock.watch.LockWatchCreatedEvent;
 import com.palantir.lock.watch.LockWatchEvent;
-import com.palantir.lock.watch.LockWatchReferences;
+import com.palantir.lock.watch.LockWatchReferences.LockWatchReference;
 import com.palantir.lock.watch.LockWatchStateUpdate;
 import com.palantir.lock.watch.LockWatchVersion;
 import com.palantir.lock.watch.UnlockEvent;
@@ -35,7 +35,7 @@ import java.util.Set;
 import java.util.UUID;
 
 final class ClientLockWatchSnapshot {
-    private final Set<LockWatchReferences.LockWatchReference> watches;
+    private final Set<LockWatchReference> watches;
     private final Set<LockDescriptor> locked;
     private final EventVisitor visitor;
     private Optional<LockWatchVersion> snapshotVersion;
@@ -47,25 +47,31 @@ final class ClientLockWatchSnapshot {
     private ClientLockWatchSnapshot() {
         this.watches = new HashSet<>();
         this.locked = new HashSet<>();
-        this.visitor = new EventVisitor();
+        this.visitor = new EventVisitor(locked, watches);
         this.snapshotVersion = Optional.empty();
     }
 
-    private LockWatchStateUpdate.Snapshot getSnapshot() {
+    /**
+     * Returns the snapshot this would become after processing the given events, without modifying this snapshot.
+     * The events are reduced to the descriptors they add and remove, so the locked descriptors, which dominate the size
+     * of the snapshot for large watched tables, are only copied once, into the returned snapshot.
+     */
+    LockWatchStateUpdate.Snapshot getSnapshotWithEvents(LockWatchEvents events, UUID versionId) {
         Preconditions.checkState(
                 snapshotVersion.isPresent(), "Snapshot was reset on fail and has not been seeded since");
-        return LockWatchStateUpdate.snapshot(
-                snapshotVersion.get().id(),
-                snapshotVersion.get().version(),
-                ImmutableSet.copyOf(locked),
-                ImmutableSet.copyOf(watches));
-    }
+        validateSnapshotUpdate(snapshotVersion.get(), versionId);
 
-    LockWatchStateUpdate.Snapshot getSnapshotWithEvents(LockWatchEvents events, UUID versionId) {
-        ClientLockWatchSnapshot freshSnapshot = create();
-        freshSnapshot.resetWithSnapshot(getSnapshot());
-        freshSnapshot.processEvents(events, versionId);
-        return freshSnapshot.getSnapshot();
+        if (events.events().isEmpty()) {
+            return toSnapshot(snapshotVersion.get(), locked, watches);
+        }
+
+        events.assertNoEventsAreMissingAfterLatestVersion(snapshotVersion);
+        EventDelta delta = new EventDelta();
+        events.events().forEach(event -> event.accept(delta));
+        return toSnapshot(
+                LockWatchVersion.of(versionId, events.versionRange().map(Range::upperEndpoint).get()),
+                Sets.union(Sets.difference(locked, delta.unlocked), delta.locked),
+                Sets.union(watches, delta.watches));
     }
 
     void processEvents(LockWatchEvents events, UUID versionId) {
@@ -107,6 +113,11 @@ final class ClientLockWatchSnapshot {
                 .build();
     }
 
+    private static LockWatchStateUpdate.Snapshot toSnapshot(
+            LockWatchVersion version, Set<LockDescriptor> lockedDescriptors, Set<LockWatchReference> references) {
+        return LockWatchStateUpdate.snapshot(version.id(), version.version(), lockedDescriptors, references);
+    }
+
     private static void validateSnapshotUpdate(LockWatchVersion snapshot, UUID versionId) {
         Preconditions.checkState(
                 snapshot.id().equals(versionId),
@@ -115,7 +126,15 @@ final class ClientLockWatchSnapshot {
                 SafeArg.of("attemptedUpdateVersionId", versionId));
     }
 
-    private final class EventVisitor implements LockWatchEvent.Visitor<Void> {
+    private static final class EventVisitor implements LockWatchEvent.Visitor<Void> {
+        private final Set<LockDescriptor> locked;
+        private final Set<LockWatchReference> watches;
+
+        private EventVisitor(Set<LockDescriptor> locked, Set<LockWatchReference> watches) {
+            this.locked = locked;
+            this.watches = watches;
+        }
+
         @Override
         public Void visit(LockEvent lockEvent) {
             locked.addAll(lockEvent.lockDescriptors());
@@ -135,4 +154,38 @@ final class ClientLockWatchSnapshot {
             return null;
         }
     }
+
+    /**
+     * Tracks how a sequence of events changes the locked descriptors relative to the state before them, in event order.
+     */
+    private static final class EventDelta implements LockWatchEvent.Visitor<Void> {
+        private final Set<LockDescriptor> locked = new HashSet<>();
+        private final Set<LockDescriptor> unlocked = new HashSet<>();
+        private final Set<LockWatchReference> watches = new HashSet<>();
+
+        @Override
+        public Void visit(LockEvent lockEvent) {
+            lock(lockEvent.lockDescriptors());
+            return null;
+        }
+
+        @Override
+        public Void visit(UnlockEvent unlockEvent) {
+            locked.removeAll(unlockEvent.lockDescriptors());
+            unlocked.addAll(unlockEvent.lockDescriptors());
+            return null;
+        }
+
+        @Override
+        public Void visit(LockWatchCreatedEvent lockWatchCreatedEvent) {
+            lock(lockWatchCreatedEvent.lockDescriptors());
+            watches.addAll(lockWatchCreatedEvent.references());
+            return null;
+        }
+
+        private void lock(Set<LockDescriptor> descriptors) {
+            unlocked.removeAll(descriptors);
+            locked.addAll(descriptors);
+        }
+    }
 }
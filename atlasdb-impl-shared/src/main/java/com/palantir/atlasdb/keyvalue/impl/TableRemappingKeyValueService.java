@@ -482,4 +482,39 @@ public final class TableRemappingKeyValueService extends ForwardingObject implem
             throw new IllegalArgumentException(e);
         }
     }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+        try {
+            return delegate().getRowsAsync(tableMapper.getMappedTableName(tableRef), rows, columnSelection, timestamp);
+        } catch (TableMappingNotFoundException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        try {
+            return delegate()
+                    .getRowsColumnRangeAsync(
+                            tableMapper.getMappedTableName(tableRef), rows, batchColumnRangeSelection, timestamp);
+        } catch (TableMappingNotFoundException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Long>> getLatestTimestampsAsync(
+            TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        try {
+            return delegate().getLatestTimestampsAsync(tableMapper.getMappedTableName(tableRef), timestampByCell);
+        } catch (TableMappingNotFoundException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
 }
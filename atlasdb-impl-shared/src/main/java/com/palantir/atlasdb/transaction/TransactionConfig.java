@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.transaction.impl.TransactionRetryStrategy;
 import com.palantir.conjure.java.api.config.service.HumanReadableDuration;
+import java.util.Optional;
 import org.immutables.value.Value;
 
 @JsonDeserialize(as = ImmutableTransactionConfig.class)
@@ -62,6 +63,14 @@ public abstract class TransactionConfig {
         return HumanReadableDuration.minutes(15);
     }
 
+    /**
+     * If set, transactions buffer their writes compactly, holding up to this many bytes of writes on the heap and
+     * spilling sorted runs of the rest to local temporary files, rather than in one skip list per table. At commit
+     * the writes are streamed to the key value service in batches. Reading back local writes is slower, so this suits
+     * bulk-loading transactions that write far more than they read back.
+     */
+    public abstract Optional<Long> compactWriteBufferMemoryBudgetBytes();
+
     /**
      * TODO(fdesouza): Remove this once PDS-95791 is resolved.
      * @deprecated Remove this once PDS-95791 is resolved.
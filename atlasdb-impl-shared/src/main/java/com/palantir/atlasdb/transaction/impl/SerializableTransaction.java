@@ -649,7 +649,7 @@ public class SerializableTransaction extends SnapshotTransaction {
                             .build();
                 }
 
-                ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
+                SortedMap<Cell, byte[]> writes = writesByTable.get(table);
                 BatchingVisitableView<RowResult<byte[]>> bv =
                         BatchingVisitableView.of(readOnlyTransaction.getRange(table, range));
                 NavigableMap<Cell, ByteBuffer> readsInRange =
@@ -677,7 +677,7 @@ public class SerializableTransaction extends SnapshotTransaction {
             Cell endCell = Cells.createSmallestCellForRow(RangeRequests.nextLexicographicName(row));
             reads = reads.headMap(endCell, false);
         }
-        ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
+        SortedMap<Cell, byte[]> writes = writesByTable.get(table);
         if (writes != null) {
             reads = Maps.filterKeys(reads, Predicates.not(Predicates.in(writes.keySet())));
         }
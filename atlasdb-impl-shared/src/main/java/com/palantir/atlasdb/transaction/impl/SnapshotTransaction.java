@@ -25,6 +25,7 @@ import com.google.common.base.Functions;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.StandardSystemProperty;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
@@ -33,6 +34,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
@@ -73,6 +75,7 @@ import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.api.cache.TransactionScopedCache;
 import com.palantir.atlasdb.keyvalue.api.watch.LockWatchManagerInternal;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap;
 import com.palantir.atlasdb.keyvalue.impl.KeyValueServices;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
 import com.palantir.atlasdb.keyvalue.impl.RowResults;
@@ -98,6 +101,7 @@ import com.palantir.atlasdb.transaction.api.TransactionLockAcquisitionTimeoutExc
 import com.palantir.atlasdb.transaction.api.TransactionLockTimeoutException;
 import com.palantir.atlasdb.transaction.api.TransactionReadSentinelBehavior;
 import com.palantir.atlasdb.transaction.api.expectations.TransactionReadInfo;
+import com.palantir.atlasdb.transaction.impl.buffer.CompactWriteBuffer;
 import com.palantir.atlasdb.transaction.impl.expectations.TrackingKeyValueService;
 import com.palantir.atlasdb.transaction.impl.expectations.TrackingKeyValueServiceImpl;
 import com.palantir.atlasdb.transaction.impl.metrics.TableLevelMetricsController;
@@ -142,6 +146,7 @@ import com.palantir.util.AssertUtils;
 import com.palantir.util.RateLimitedLogger;
 import com.palantir.util.paging.TokenBackedBasicResultsPage;
 import java.nio.ByteBuffer;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -164,7 +169,6 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
@@ -205,6 +209,7 @@ public class SnapshotTransaction extends AbstractTransaction
 
     private static final int BATCH_SIZE_GET_FIRST_PAGE = 1000;
     private static final long TXN_LENGTH_THRESHOLD = Duration.ofMinutes(30).toMillis();
+    private static final int COMPACT_WRITE_BUFFER_MULTI_PUT_CELLS = 10_000;
 
     @VisibleForTesting
     static final int MIN_BATCH_SIZE_FOR_DISTRIBUTED_LOAD = 100;
@@ -238,8 +243,8 @@ public class SnapshotTransaction extends AbstractTransaction
     private final PreCommitCondition preCommitCondition;
     protected final long timeCreated = System.currentTimeMillis();
 
-    protected final ConcurrentMap<TableReference, ConcurrentNavigableMap<Cell, byte[]>> writesByTable =
-            new ConcurrentHashMap<>();
+    protected final ConcurrentMap<TableReference, SortedMap<Cell, byte[]>> writesByTable = new ConcurrentHashMap<>();
+    private final Optional<CompactWriteBuffer> compactWriteBuffer;
     protected final TransactionConflictDetectionManager conflictDetectionManager;
     private final AtomicLong byteCount = new AtomicLong();
 
@@ -253,6 +258,9 @@ public class SnapshotTransaction extends AbstractTransaction
     protected final Long transactionReadTimeoutMillis;
     private final TransactionReadSentinelBehavior readSentinelBehavior;
     private volatile long commitTsForScrubbing = TransactionConstants.FAILED_COMMIT_TS;
+
+    @Nullable
+    private volatile Multimap<TableReference, Cell> cellsToScrubImmediately = null;
     protected final boolean allowHiddenTableAccess;
     protected final ExecutorService getRangesExecutor;
     protected final int defaultGetRangesConcurrency;
@@ -333,6 +341,11 @@ public class SnapshotTransaction extends AbstractTransaction
         this.transactionOutcomeMetrics = TransactionOutcomeMetrics.create(metricsManager);
         this.validateLocksOnReads = validateLocksOnReads;
         this.transactionConfig = transactionConfig;
+        this.compactWriteBuffer = transactionConfig
+                .get()
+                .compactWriteBufferMemoryBudgetBytes()
+                .map(budget -> CompactWriteBuffer.create(
+                        budget, Paths.get(StandardSystemProperty.JAVA_IO_TMPDIR.value())));
         this.tableLevelMetricsController = tableLevelMetricsController;
         this.timestampCache = timestampValidationReadCache;
         this.knowledge = knowledge;
@@ -413,8 +426,8 @@ public class SnapshotTransaction extends AbstractTransaction
         hasReads = true;
         ImmutableSortedMap.Builder<Cell, byte[]> result = ImmutableSortedMap.naturalOrder();
         Map<Cell, Value> rawResults =
-                new HashMap<>(keyValueService.getRows(tableRef, rows, columnSelection, getStartTimestamp()));
-        NavigableMap<Cell, byte[]> writes = writesByTable.get(tableRef);
+                mutableCopyOf(keyValueService.getRows(tableRef, rows, columnSelection, getStartTimestamp()));
+        SortedMap<Cell, byte[]> writes = writesByTable.get(tableRef);
         if (writes != null && !writes.isEmpty()) {
             for (byte[] row : rows) {
                 extractLocalWritesForRow(result, writes, row, columnSelection);
@@ -422,7 +435,7 @@ public class SnapshotTransaction extends AbstractTransaction
         }
 
         // We don't need to do work postFiltering if we have a write locally.
-        rawResults.keySet().removeAll(result.buildOrThrow().keySet());
+        result.buildOrThrow().keySet().forEach(rawResults::remove);
 
         NavigableMap<byte[], RowResult<byte[]>> results = filterRowResults(tableRef, rawResults, result);
         long getRowsMillis = TimeUnit.NANOSECONDS.toMillis(timer.stop());
@@ -1314,8 +1327,10 @@ public class SnapshotTransaction extends AbstractTransaction
         return ClosableIterators.wrap(rows, results);
     }
 
-    private ConcurrentNavigableMap<Cell, byte[]> getLocalWrites(TableReference tableRef) {
-        return writesByTable.computeIfAbsent(tableRef, unused -> new ConcurrentSkipListMap<>());
+    private SortedMap<Cell, byte[]> getLocalWrites(TableReference tableRef) {
+        return writesByTable.computeIfAbsent(tableRef, unused -> compactWriteBuffer
+                .map(buffer -> buffer.writesTo(tableRef))
+                .orElseGet(ConcurrentSkipListMap::new));
     }
 
     /**
@@ -1581,7 +1596,7 @@ public class SnapshotTransaction extends AbstractTransaction
             AsyncKeyValueService asyncKeyValueService,
             AsyncTransactionService asyncTransactionService) {
         Set<Cell> orphanedSentinels = findOrphanedSweepSentinels(tableRef, rawResults);
-        Set<Long> valuesStartTimestamps = getStartTimestampsForValues(rawResults.values());
+        Set<Long> valuesStartTimestamps = getStartTimestampsForValues(rawResults);
 
         return Futures.transformAsync(
                 getCommitTimestamps(tableRef, valuesStartTimestamps, true, asyncTransactionService),
@@ -1682,11 +1697,20 @@ public class SnapshotTransaction extends AbstractTransaction
     }
 
     private Map<Cell, Value> getRemainingResults(Map<Cell, Value> rawResults, Set<Cell> keysAddedToResults) {
-        Map<Cell, Value> remainingResults = new HashMap<>(rawResults);
-        remainingResults.keySet().removeAll(keysAddedToResults);
+        Map<Cell, Value> remainingResults = mutableCopyOf(rawResults);
+        keysAddedToResults.forEach(remainingResults::remove);
         return remainingResults;
     }
 
+    /**
+     * Compact results are copied arena to arena, rather than by creating every cell and value they hold.
+     */
+    private static Map<Cell, Value> mutableCopyOf(Map<Cell, Value> rawResults) {
+        return rawResults instanceof CompactCellValueMap
+                ? CompactCellValueMap.copyOf(rawResults)
+                : new HashMap<>(rawResults);
+    }
+
     /**
      * This is protected to allow for different post filter behavior.
      */
@@ -1722,9 +1746,10 @@ public class SnapshotTransaction extends AbstractTransaction
             // We need to check the status after incrementing writers to ensure that we fail if we are committing.
             ensureUncommitted();
 
-            ConcurrentNavigableMap<Cell, byte[]> writes = getLocalWrites(tableRef);
+            SortedMap<Cell, byte[]> writes = getLocalWrites(tableRef);
 
             putWritesAndLogIfTooLarge(values, writes);
+            compactWriteBuffer.ifPresent(CompactWriteBuffer::spillIfOverBudget);
         } finally {
             numWriters.decrementAndGet();
         }
@@ -1793,6 +1818,7 @@ public class SnapshotTransaction extends AbstractTransaction
     }
 
     private void close() {
+        closeCompactWriteBuffer();
         try {
             closer.close();
         } catch (Exception | Error e) {
@@ -1908,10 +1934,23 @@ public class SnapshotTransaction extends AbstractTransaction
             } else {
                 state.set(State.FAILED);
                 transactionOutcomeMetrics.markFailedCommit();
+                // A failed transaction is not closed, so its spilled writes must be deleted here.
+                closeCompactWriteBuffer();
             }
         }
     }
 
+    private void closeCompactWriteBuffer() {
+        if (compactWriteBuffer.isEmpty()) {
+            return;
+        }
+        if (getTransactionType() == TransactionType.AGGRESSIVE_HARD_DELETE && isDefinitivelyCommitted()) {
+            // The cells are scrubbed once the transaction manager is done with the transaction, after it is closed.
+            cellsToScrubImmediately = getCellsToScrubByTable(State.COMMITTED);
+        }
+        compactWriteBuffer.get().close();
+    }
+
     private void checkConstraints() {
         if (writesByTable.isEmpty()) {
             // avoid work in cases where constraints do not apply (e.g. read only transactions)
@@ -1984,7 +2023,7 @@ public class SnapshotTransaction extends AbstractTransaction
 
                 // Write to the key value service. We must do this before getting the commit timestamp - otherwise
                 // we risk another transaction starting at a timestamp after our commit timestamp not seeing our writes.
-                timedAndTraced("commitWrite", () -> keyValueService.multiPut(writesByTable, getStartTimestamp()));
+                timedAndTraced("commitWrite", this::writeToKeyValueService);
 
                 // Now that all writes are done, get the commit timestamp
                 // We must do this before we check that our locks are still valid to ensure that other transactions that
@@ -2036,6 +2075,19 @@ public class SnapshotTransaction extends AbstractTransaction
         });
     }
 
+    private void writeToKeyValueService() {
+        if (compactWriteBuffer.isPresent()) {
+            // Stream the writes in batches, so that spilled writes are not all read back onto the heap at once.
+            compactWriteBuffer
+                    .get()
+                    .forEachBatch(
+                            COMPACT_WRITE_BUFFER_MULTI_PUT_CELLS,
+                            batch -> keyValueService.multiPut(batch, getStartTimestamp()));
+        } else {
+            keyValueService.multiPut(writesByTable, getStartTimestamp());
+        }
+    }
+
     private void traced(String spanName, Runnable runnable) {
         try (CloseableTracer tracer = CloseableTracer.startSpan(spanName)) {
             runnable.run();
@@ -2134,7 +2186,7 @@ public class SnapshotTransaction extends AbstractTransaction
      */
     protected void throwIfConflictOnCommit(LockToken commitLocksToken, TransactionService transactionService)
             throws TransactionConflictException {
-        for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> write : writesByTable.entrySet()) {
+        for (Map.Entry<TableReference, SortedMap<Cell, byte[]>> write : writesByTable.entrySet()) {
             ConflictHandler conflictHandler = getConflictHandlerForTable(write.getKey());
             throwIfWriteAlreadyCommitted(
                     write.getKey(), write.getValue(), conflictHandler, commitLocksToken, transactionService);
@@ -2435,14 +2487,21 @@ public class SnapshotTransaction extends AbstractTransaction
                 stackTraceSnapshot);
     }
 
+    /**
+     * Returns the descriptors to lock for this transaction's writes, in lock order. Writes to a table are already
+     * sorted by cell, so sorting the descriptors is close to linear, and lets the lock server skip sorting them again.
+     */
     protected Set<LockDescriptor> getLocksForWrites() {
-        Set<LockDescriptor> result = new HashSet<>();
+        List<LockDescriptor> result = new ArrayList<>();
         for (TableReference tableRef : writesByTable.keySet()) {
             ConflictHandler conflictHandler = getConflictHandlerForTable(tableRef);
+            if (!conflictHandler.lockCellsForConflicts() && !conflictHandler.lockRowsForConflicts()) {
+                continue;
+            }
+            byte[] tableBytes = PtBytes.toBytes(tableRef.getQualifiedName());
             if (conflictHandler.lockCellsForConflicts()) {
                 for (Cell cell : getLocalWrites(tableRef).keySet()) {
-                    result.add(AtlasCellLockDescriptor.of(
-                            tableRef.getQualifiedName(), cell.getRowName(), cell.getColumnName()));
+                    result.add(AtlasCellLockDescriptor.of(tableBytes, cell.getRowName(), cell.getColumnName()));
                 }
             }
 
@@ -2450,7 +2509,7 @@ public class SnapshotTransaction extends AbstractTransaction
                 Cell lastCell = null;
                 for (Cell cell : getLocalWrites(tableRef).keySet()) {
                     if (lastCell == null || !Arrays.equals(lastCell.getRowName(), cell.getRowName())) {
-                        result.add(AtlasRowLockDescriptor.of(tableRef.getQualifiedName(), cell.getRowName()));
+                        result.add(AtlasRowLockDescriptor.of(tableBytes, cell.getRowName()));
                     }
                     lastCell = cell;
                 }
@@ -2459,16 +2518,21 @@ public class SnapshotTransaction extends AbstractTransaction
         result.add(AtlasRowLockDescriptor.of(
                 TransactionConstants.TRANSACTION_TABLE.getQualifiedName(),
                 TransactionConstants.getValueForTimestamp(getStartTimestamp())));
-        return result;
+        return ImmutableSortedSet.copyOf(result);
     }
 
     ///////////////////////////////////////////////////////////////////////////
     /// Commit timestamp management
     ///////////////////////////////////////////////////////////////////////////
 
-    private Set<Long> getStartTimestampsForValues(Iterable<Value> values) {
+    private Set<Long> getStartTimestampsForValues(Map<Cell, Value> values) {
         Set<Long> results = new HashSet<>();
-        for (Value v : values) {
+        if (values instanceof CompactCellValueMap) {
+            // Avoids materializing a Value per cell just to read its timestamp.
+            ((CompactCellValueMap) values).forEachTimestamp(results::add);
+            return results;
+        }
+        for (Value v : values.values()) {
             results.add(v.getTimestamp());
         }
         return results;
@@ -2614,14 +2678,15 @@ public class SnapshotTransaction extends AbstractTransaction
     }
 
     Multimap<TableReference, Cell> getCellsToScrubImmediately() {
-        return getCellsToScrubByTable(State.COMMITTED);
+        Multimap<TableReference, Cell> cells = cellsToScrubImmediately;
+        return cells != null ? cells : getCellsToScrubByTable(State.COMMITTED);
     }
 
     private Multimap<Cell, TableReference> getCellsToScrubByCell(State expectedState) {
         Multimap<Cell, TableReference> cellToTableName = HashMultimap.create();
         State actualState = state.get();
         if (expectedState == actualState) {
-            for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> entry : writesByTable.entrySet()) {
+            for (Map.Entry<TableReference, SortedMap<Cell, byte[]>> entry : writesByTable.entrySet()) {
                 TableReference table = entry.getKey();
                 Set<Cell> cells = entry.getValue().keySet();
                 for (Cell c : cells) {
@@ -2638,7 +2703,7 @@ public class SnapshotTransaction extends AbstractTransaction
         Multimap<TableReference, Cell> tableRefToCells = HashMultimap.create();
         State actualState = state.get();
         if (expectedState == actualState) {
-            for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> entry : writesByTable.entrySet()) {
+            for (Map.Entry<TableReference, SortedMap<Cell, byte[]>> entry : writesByTable.entrySet()) {
                 TableReference table = entry.getKey();
                 Set<Cell> cells = entry.getValue().keySet();
                 tableRefToCells.putAll(table, cells);
@@ -0,0 +1,390 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl.buffer;
+
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+
+/**
+ * Append-only store of cell writes for a single table. Every write is laid out contiguously in one byte array as
+ * {@code [rowLength][columnLength][valueLength][row][column][value]}, and an open-addressing table of arena offsets
+ * supports point lookups and last-write-wins overwrites without a {@link Cell} or map node per write.
+ *
+ * Overwrites append a new entry and leave the previous one as garbage in the arena; the garbage is dropped when the
+ * store is spilled. This class is not thread safe.
+ */
+final class ArenaCellStore {
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    private static final int INITIAL_ARENA_BYTES = 4096;
+    private static final int INITIAL_SLOTS = 64;
+    private static final int EMPTY_SLOT = 0;
+
+    private byte[] arena = new byte[INITIAL_ARENA_BYTES];
+    private int arenaSize = 0;
+
+    // Slots hold (arena offset + 1) so that zero can denote an empty slot.
+    private int[] slots = new int[INITIAL_SLOTS];
+    private int liveEntries = 0;
+
+    // Sorted view of the current contents, dropped on every write so that repeated reads between writes sort once.
+    @Nullable
+    private Snapshot snapshot = null;
+
+    /**
+     * Returns true if and only if the cell was not previously present in this store.
+     */
+    boolean put(byte[] row, byte[] column, byte[] value) {
+        int slot = findSlot(slots, row, column, hash(row, column));
+        int offset = append(row, column, value);
+        snapshot = null;
+        boolean isNew = slots[slot] == EMPTY_SLOT;
+        slots[slot] = offset + 1;
+        if (isNew) {
+            liveEntries++;
+            if (liveEntries * 2 > slots.length) {
+                resizeSlots();
+            }
+        }
+        return isNew;
+    }
+
+    @Nullable
+    byte[] get(byte[] row, byte[] column) {
+        int slotValue = slots[findSlot(slots, row, column, hash(row, column))];
+        if (slotValue == EMPTY_SLOT) {
+            return null;
+        }
+        int offset = slotValue - 1;
+        int valueStart = offset + HEADER_BYTES + readInt(arena, offset) + readInt(arena, offset + Integer.BYTES);
+        return Arrays.copyOfRange(arena, valueStart, valueStart + readInt(arena, offset + 2 * Integer.BYTES));
+    }
+
+    boolean isEmpty() {
+        return liveEntries == 0;
+    }
+
+    int size() {
+        return liveEntries;
+    }
+
+    /**
+     * Bytes retained on the heap by this store, including overwritten entries that have not yet been dropped.
+     */
+    long retainedBytes() {
+        return (long) arena.length + (long) slots.length * Integer.BYTES;
+    }
+
+    /**
+     * Takes an immutable, sorted view of the current contents. Because the arena is append-only and replaced rather
+     * than reused when it grows or is cleared, the view remains valid while further writes are made to this store.
+     * The view is reused until the next write.
+     */
+    Snapshot snapshot() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        int[] offsets = new int[liveEntries];
+        int index = 0;
+        for (int slotValue : slots) {
+            if (slotValue != EMPTY_SLOT) {
+                offsets[index++] = slotValue - 1;
+            }
+        }
+        sortOffsets(arena, offsets, new int[offsets.length], 0, offsets.length);
+        snapshot = new Snapshot(arena, offsets);
+        return snapshot;
+    }
+
+    void clear() {
+        snapshot = null;
+        arena = new byte[INITIAL_ARENA_BYTES];
+        arenaSize = 0;
+        slots = new int[INITIAL_SLOTS];
+        liveEntries = 0;
+    }
+
+    private int append(byte[] row, byte[] column, byte[] value) {
+        int entryLength = HEADER_BYTES + row.length + column.length + value.length;
+        ensureArenaCapacity(entryLength);
+        int offset = arenaSize;
+        writeInt(arena, offset, row.length);
+        writeInt(arena, offset + Integer.BYTES, column.length);
+        writeInt(arena, offset + 2 * Integer.BYTES, value.length);
+        int position = offset + HEADER_BYTES;
+        System.arraycopy(row, 0, arena, position, row.length);
+        position += row.length;
+        System.arraycopy(column, 0, arena, position, column.length);
+        position += column.length;
+        System.arraycopy(value, 0, arena, position, value.length);
+        arenaSize += entryLength;
+        return offset;
+    }
+
+    private void ensureArenaCapacity(int additionalBytes) {
+        long required = (long) arenaSize + additionalBytes;
+        if (required <= arena.length) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new SafeIllegalStateException("Arena cannot grow beyond 2GB; it should have been spilled earlier");
+        }
+        long newLength = Math.max(required, Math.min((long) arena.length * 2, Integer.MAX_VALUE - 8));
+        arena = Arrays.copyOf(arena, (int) newLength);
+    }
+
+    private void resizeSlots() {
+        int[] newSlots = new int[slots.length * 2];
+        for (int slotValue : slots) {
+            if (slotValue != EMPTY_SLOT) {
+                int offset = slotValue - 1;
+                int mask = newSlots.length - 1;
+                int index = hashAt(arena, offset) & mask;
+                while (newSlots[index] != EMPTY_SLOT) {
+                    index = (index + 1) & mask;
+                }
+                newSlots[index] = slotValue;
+            }
+        }
+        slots = newSlots;
+    }
+
+    private int findSlot(int[] table, byte[] row, byte[] column, int hash) {
+        int mask = table.length - 1;
+        int index = hash & mask;
+        while (table[index] != EMPTY_SLOT && !keyEquals(table[index] - 1, row, column)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private boolean keyEquals(int offset, byte[] row, byte[] column) {
+        int rowLength = readInt(arena, offset);
+        int columnLength = readInt(arena, offset + Integer.BYTES);
+        if (rowLength != row.length || columnLength != column.length) {
+            return false;
+        }
+        int rowStart = offset + HEADER_BYTES;
+        int columnStart = rowStart + rowLength;
+        return Arrays.equals(arena, rowStart, rowStart + rowLength, row, 0, row.length)
+                && Arrays.equals(arena, columnStart, columnStart + columnLength, column, 0, column.length);
+    }
+
+    private static int hash(byte[] row, byte[] column) {
+        int hash = hashBytes(row, 0, row.length, 1);
+        return mix(hashBytes(column, 0, column.length, 31 * hash + row.length));
+    }
+
+    private static int hashAt(byte[] arena, int offset) {
+        int rowLength = readInt(arena, offset);
+        int columnLength = readInt(arena, offset + Integer.BYTES);
+        int rowStart = offset + HEADER_BYTES;
+        int hash = hashBytes(arena, rowStart, rowLength, 1);
+        return mix(hashBytes(arena, rowStart + rowLength, columnLength, 31 * hash + rowLength));
+    }
+
+    private static int hashBytes(byte[] bytes, int start, int length, int seed) {
+        int hash = seed;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        int mixed = hash ^ (hash >>> 16);
+        mixed *= 0x85ebca6b;
+        mixed ^= mixed >>> 13;
+        mixed *= 0xc2b2ae35;
+        return mixed ^ (mixed >>> 16);
+    }
+
+    /**
+     * Merge sorts {@code offsets[from, to)} by the keys they point to, without boxing the offsets.
+     */
+    private static void sortOffsets(byte[] arena, int[] offsets, int[] scratch, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortOffsets(arena, offsets, scratch, from, mid);
+        sortOffsets(arena, offsets, scratch, mid, to);
+        if (compareKeys(arena, offsets[mid - 1], offsets[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(offsets, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int out = from; out < to; out++) {
+            if (right >= to || (left < mid && compareKeys(arena, scratch[left], scratch[right]) <= 0)) {
+                offsets[out] = scratch[left++];
+            } else {
+                offsets[out] = scratch[right++];
+            }
+        }
+    }
+
+    static int compareKeys(byte[] arena, int firstOffset, int secondOffset) {
+        int firstRowLength = readInt(arena, firstOffset);
+        int secondRowLength = readInt(arena, secondOffset);
+        int firstRowStart = firstOffset + HEADER_BYTES;
+        int secondRowStart = secondOffset + HEADER_BYTES;
+        int cmp = Arrays.compareUnsigned(
+                arena,
+                firstRowStart,
+                firstRowStart + firstRowLength,
+                arena,
+                secondRowStart,
+                secondRowStart + secondRowLength);
+        if (cmp != 0) {
+            return cmp;
+        }
+        int firstColumnStart = firstRowStart + firstRowLength;
+        int secondColumnStart = secondRowStart + secondRowLength;
+        return Arrays.compareUnsigned(
+                arena,
+                firstColumnStart,
+                firstColumnStart + readInt(arena, firstOffset + Integer.BYTES),
+                arena,
+                secondColumnStart,
+                secondColumnStart + readInt(arena, secondOffset + Integer.BYTES));
+    }
+
+    static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    /**
+     * A sorted, immutable view of the entries of an {@link ArenaCellStore} at a point in time.
+     */
+    static final class Snapshot {
+        private final byte[] arena;
+        private final int[] sortedOffsets;
+
+        private Snapshot(byte[] arena, int[] sortedOffsets) {
+            this.arena = arena;
+            this.sortedOffsets = sortedOffsets;
+        }
+
+        int size() {
+            return sortedOffsets.length;
+        }
+
+        /**
+         * Returns the raw encoded entry at the given sorted index, in the same layout as the arena.
+         */
+        byte[] encodedEntry(int index) {
+            int offset = sortedOffsets[index];
+            int length = HEADER_BYTES
+                    + readInt(arena, offset)
+                    + readInt(arena, offset + Integer.BYTES)
+                    + readInt(arena, offset + 2 * Integer.BYTES);
+            return Arrays.copyOfRange(arena, offset, offset + length);
+        }
+
+        Cell cellAt(int index) {
+            int offset = sortedOffsets[index];
+            int rowLength = readInt(arena, offset);
+            int columnLength = readInt(arena, offset + Integer.BYTES);
+            int rowStart = offset + HEADER_BYTES;
+            return Cell.create(
+                    Arrays.copyOfRange(arena, rowStart, rowStart + rowLength),
+                    Arrays.copyOfRange(arena, rowStart + rowLength, rowStart + rowLength + columnLength));
+        }
+
+        Map.Entry<Cell, byte[]> entryAt(int index) {
+            int offset = sortedOffsets[index];
+            int valueStart = offset + HEADER_BYTES + readInt(arena, offset) + readInt(arena, offset + Integer.BYTES);
+            int valueLength = readInt(arena, offset + 2 * Integer.BYTES);
+            return Maps.immutableEntry(
+                    cellAt(index), Arrays.copyOfRange(arena, valueStart, valueStart + valueLength));
+        }
+
+        /**
+         * Returns the index of the first entry whose cell is greater than or equal to the given cell.
+         */
+        int lowerBound(Cell cell) {
+            int low = 0;
+            int high = sortedOffsets.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareTo(sortedOffsets[mid], cell) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Iterator<Map.Entry<Cell, byte[]>> iterator(@Nullable Cell startInclusive, @Nullable Cell endExclusive) {
+            int start = startInclusive == null ? 0 : lowerBound(startInclusive);
+            int end = endExclusive == null ? sortedOffsets.length : lowerBound(endExclusive);
+            return new Iterator<>() {
+                private int next = start;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Map.Entry<Cell, byte[]> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return entryAt(next++);
+                }
+            };
+        }
+
+        private int compareTo(int offset, Cell cell) {
+            int rowLength = readInt(arena, offset);
+            int rowStart = offset + HEADER_BYTES;
+            byte[] row = cell.getRowName();
+            int cmp = Arrays.compareUnsigned(arena, rowStart, rowStart + rowLength, row, 0, row.length);
+            if (cmp != 0) {
+                return cmp;
+            }
+            int columnStart = rowStart + rowLength;
+            byte[] column = cell.getColumnName();
+            return Arrays.compareUnsigned(
+                    arena,
+                    columnStart,
+                    columnStart + readInt(arena, offset + Integer.BYTES),
+                    column,
+                    0,
+                    column.length);
+        }
+    }
+}
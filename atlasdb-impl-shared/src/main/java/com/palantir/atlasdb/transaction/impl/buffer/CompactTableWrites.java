@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl.buffer;
+
+import com.google.common.collect.Iterators;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.logsafe.Preconditions;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link SortedMap} view of the writes buffered for one table, optionally restricted to the cells in
+ * {@code [lowerInclusive, upperExclusive)}. Null bounds are unbounded.
+ */
+final class CompactTableWrites extends AbstractMap<Cell, byte[]> implements SortedMap<Cell, byte[]> {
+    private final TableWriteBuffer writes;
+
+    @Nullable
+    private final Cell lowerInclusive;
+
+    @Nullable
+    private final Cell upperExclusive;
+
+    CompactTableWrites(TableWriteBuffer writes, @Nullable Cell lowerInclusive, @Nullable Cell upperExclusive) {
+        this.writes = writes;
+        this.lowerInclusive = lowerInclusive;
+        this.upperExclusive = upperExclusive;
+    }
+
+    @Nullable
+    @Override
+    public byte[] get(Object key) {
+        return key instanceof Cell && inRange((Cell) key) ? writes.get((Cell) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Nullable
+    @Override
+    public byte[] put(Cell key, byte[] value) {
+        Preconditions.checkArgument(inRange(key), "Cell is outside the range of this view");
+        return writes.put(key, value);
+    }
+
+    @Override
+    public int size() {
+        return isUnbounded() ? writes.size() : Iterators.size(iterator());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return isUnbounded() ? writes.isEmpty() : !iterator().hasNext();
+    }
+
+    @Override
+    public Set<Entry<Cell, byte[]>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Cell, byte[]>> iterator() {
+                return CompactTableWrites.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return CompactTableWrites.this.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return CompactTableWrites.this.isEmpty();
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public Comparator<? super Cell> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedMap<Cell, byte[]> subMap(Cell fromKey, Cell toKey) {
+        Preconditions.checkArgument(fromKey.compareTo(toKey) <= 0, "fromKey must not be greater than toKey");
+        return new CompactTableWrites(writes, max(lowerInclusive, fromKey), min(upperExclusive, toKey));
+    }
+
+    @Override
+    public SortedMap<Cell, byte[]> headMap(Cell toKey) {
+        return new CompactTableWrites(writes, lowerInclusive, min(upperExclusive, toKey));
+    }
+
+    @Override
+    public SortedMap<Cell, byte[]> tailMap(Cell fromKey) {
+        return new CompactTableWrites(writes, max(lowerInclusive, fromKey), upperExclusive);
+    }
+
+    @Override
+    public Cell firstKey() {
+        Iterator<Entry<Cell, byte[]>> entries = iterator();
+        if (!entries.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return entries.next().getKey();
+    }
+
+    @Override
+    public Cell lastKey() {
+        return Iterators.getLast(iterator()).getKey();
+    }
+
+    private Iterator<Entry<Cell, byte[]>> iterator() {
+        if (lowerInclusive != null && upperExclusive != null && lowerInclusive.compareTo(upperExclusive) >= 0) {
+            return Collections.emptyIterator();
+        }
+        return writes.iterator(lowerInclusive, upperExclusive);
+    }
+
+    private boolean isUnbounded() {
+        return lowerInclusive == null && upperExclusive == null;
+    }
+
+    private boolean inRange(Cell cell) {
+        return (lowerInclusive == null || cell.compareTo(lowerInclusive) >= 0)
+                && (upperExclusive == null || cell.compareTo(upperExclusive) < 0);
+    }
+
+    private static Cell max(@Nullable Cell bound, Cell other) {
+        return bound == null || other.compareTo(bound) > 0 ? other : bound;
+    }
+
+    private static Cell min(@Nullable Cell bound, Cell other) {
+        return bound == null || other.compareTo(bound) < 0 ? other : bound;
+    }
+}
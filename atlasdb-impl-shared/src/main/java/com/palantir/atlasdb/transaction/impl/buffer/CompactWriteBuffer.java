@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl.buffer;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * A compact alternative to buffering a transaction's writes in one {@link java.util.concurrent.ConcurrentSkipListMap}
+ * per table. Writes are stored as packed bytes in a per-table arena, and once the total heap retained by the arenas
+ * exceeds the configured budget, the largest table's writes are sorted and spilled to a run file in the given
+ * directory. Reads merge the in-memory writes with any spilled runs, and at commit time the writes can be streamed
+ * in bounded batches into the key value service, so the full write set is never materialised.
+ *
+ * Values are stored as given; deletes should be buffered as empty values, as in {@code SnapshotTransaction}.
+ */
+public final class CompactWriteBuffer implements Closeable {
+    private static final SafeLogger log = SafeLoggerFactory.get(CompactWriteBuffer.class);
+
+    private final long memoryBudgetBytes;
+    private final Path spillDirectory;
+    private final ConcurrentMap<TableReference, TableWriteBuffer> writesByTable = new ConcurrentHashMap<>();
+
+    private CompactWriteBuffer(long memoryBudgetBytes, Path spillDirectory) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public static CompactWriteBuffer create(long memoryBudgetBytes, Path spillDirectory) {
+        Preconditions.checkArgument(
+                memoryBudgetBytes > 0,
+                "Memory budget must be positive",
+                SafeArg.of("memoryBudgetBytes", memoryBudgetBytes));
+        return new CompactWriteBuffer(memoryBudgetBytes, spillDirectory);
+    }
+
+    /**
+     * Returns a sorted map view of the writes buffered for the given table. The view supports the reads and
+     * navigation that local-write merging performs, and {@code put}; it does not support removal. Its iterators
+     * reflect the writes made before they were created.
+     *
+     * Writes through the view do not spill; call {@link #spillIfOverBudget()} after a batch of writes.
+     */
+    public SortedMap<Cell, byte[]> writesTo(TableReference tableRef) {
+        return new CompactTableWrites(
+                writesByTable.computeIfAbsent(tableRef, unused -> new TableWriteBuffer()), null, null);
+    }
+
+    public long retainedBytes() {
+        return writesByTable.values().stream()
+                .mapToLong(TableWriteBuffer::retainedBytes)
+                .sum();
+    }
+
+    public long spilledBytes() {
+        return writesByTable.values().stream()
+                .mapToLong(TableWriteBuffer::spilledBytes)
+                .sum();
+    }
+
+    /**
+     * Streams every buffered write to the consumer in batches of at most {@code maxCellsPerBatch} cells, in sorted
+     * order within each table. Batches may span tables.
+     *
+     * Each call to the consumer sees only part of the writes, so this must not be used for consumers that need all
+     * of a transaction's writes at once, such as the sweep queue, which numbers a transaction's writes per call.
+     */
+    public void forEachBatch(int maxCellsPerBatch, Consumer<Map<TableReference, Map<Cell, byte[]>>> consumer) {
+        Preconditions.checkArgument(
+                maxCellsPerBatch > 0,
+                "Batch size must be positive",
+                SafeArg.of("maxCellsPerBatch", maxCellsPerBatch));
+        Map<TableReference, Map<Cell, byte[]>> batch = new HashMap<>();
+        int cellsInBatch = 0;
+        for (Map.Entry<TableReference, TableWriteBuffer> table : writesByTable.entrySet()) {
+            Iterator<Map.Entry<Cell, byte[]>> writes = table.getValue().iterator(null, null);
+            while (writes.hasNext()) {
+                Map.Entry<Cell, byte[]> write = writes.next();
+                batch.computeIfAbsent(table.getKey(), unused -> new HashMap<>())
+                        .put(write.getKey(), write.getValue());
+                cellsInBatch++;
+                if (cellsInBatch >= maxCellsPerBatch) {
+                    consumer.accept(batch);
+                    batch = new HashMap<>();
+                    cellsInBatch = 0;
+                }
+            }
+        }
+        if (cellsInBatch > 0) {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * Spills the largest tables to disk until the heap retained by the buffer is within the memory budget.
+     */
+    public synchronized void spillIfOverBudget() {
+        long retainedBytes = retainedBytes();
+        while (retainedBytes > memoryBudgetBytes) {
+            Optional<Map.Entry<TableReference, TableWriteBuffer>> largest = writesByTable.entrySet().stream()
+                    .max(Comparator.comparingLong(entry -> entry.getValue().retainedBytes()));
+            if (largest.isEmpty()) {
+                return;
+            }
+            TableWriteBuffer tableWrites = largest.get().getValue();
+            long before = tableWrites.retainedBytes();
+            tableWrites.spill(spillDirectory);
+            long after = tableWrites.retainedBytes();
+            if (after >= before) {
+                // Nothing left that spilling can free.
+                return;
+            }
+            log.info(
+                    "Spilled buffered transaction writes to disk after exceeding the memory budget",
+                    SafeArg.of("memoryBudgetBytes", memoryBudgetBytes),
+                    SafeArg.of("spilledTableRunCount", tableWrites.numSpilledRuns()),
+                    SafeArg.of("totalSpilledBytes", spilledBytes()));
+            retainedBytes = retainedBytes();
+        }
+    }
+
+    /**
+     * Deletes any spilled runs and drops the buffered writes.
+     */
+    @Override
+    public void close() {
+        writesByTable.values().forEach(TableWriteBuffer::close);
+        writesByTable.clear();
+    }
+}
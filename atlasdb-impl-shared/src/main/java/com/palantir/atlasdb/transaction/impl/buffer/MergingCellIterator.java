@@ -0,0 +1,82 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl.buffer;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Merges several iterators, each sorted by cell, into a single sorted iterator. When more than one source contains a
+ * cell, the value from the source that appears earliest in the list wins, so sources should be ordered from newest to
+ * oldest.
+ */
+final class MergingCellIterator extends AbstractIterator<Map.Entry<Cell, byte[]>> {
+    private final PriorityQueue<Source> queue;
+
+    MergingCellIterator(List<Iterator<Map.Entry<Cell, byte[]>>> sourcesNewestFirst) {
+        this.queue = new PriorityQueue<>(
+                Math.max(1, sourcesNewestFirst.size()),
+                Comparator.comparing((Source source) -> source.iterator.peek().getKey())
+                        .thenComparingInt(source -> source.priority));
+        for (int priority = 0; priority < sourcesNewestFirst.size(); priority++) {
+            PeekingIterator<Map.Entry<Cell, byte[]>> iterator =
+                    Iterators.peekingIterator(sourcesNewestFirst.get(priority));
+            if (iterator.hasNext()) {
+                queue.add(new Source(iterator, priority));
+            }
+        }
+    }
+
+    @Override
+    protected Map.Entry<Cell, byte[]> computeNext() {
+        Source winner = queue.poll();
+        if (winner == null) {
+            return endOfData();
+        }
+        Map.Entry<Cell, byte[]> result = winner.iterator.next();
+        requeueIfNonEmpty(winner);
+        while (!queue.isEmpty() && queue.peek().iterator.peek().getKey().equals(result.getKey())) {
+            Source shadowed = queue.poll();
+            shadowed.iterator.next();
+            requeueIfNonEmpty(shadowed);
+        }
+        return result;
+    }
+
+    private void requeueIfNonEmpty(Source source) {
+        if (source.iterator.hasNext()) {
+            queue.add(source);
+        }
+    }
+
+    private static final class Source {
+        private final PeekingIterator<Map.Entry<Cell, byte[]>> iterator;
+        private final int priority;
+
+        private Source(PeekingIterator<Map.Entry<Cell, byte[]>> iterator, int priority) {
+            this.iterator = iterator;
+            this.priority = priority;
+        }
+    }
+}
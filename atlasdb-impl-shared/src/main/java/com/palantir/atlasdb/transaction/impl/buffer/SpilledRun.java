@@ -0,0 +1,264 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl.buffer;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeRuntimeException;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable, sorted run of cell writes spilled to a local file. Entries use the {@link ArenaCellStore} encoding and
+ * are grouped into blocks; the first cell of each block is kept in memory so that point lookups and range scans only
+ * need to read the blocks that can contain the requested cells.
+ */
+final class SpilledRun implements AutoCloseable {
+    private static final SafeLogger log = SafeLoggerFactory.get(SpilledRun.class);
+
+    static final int ENTRIES_PER_BLOCK = 128;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<Cell> blockFirstCells;
+    private final Cell lastCell;
+    private final long[] blockOffsets;
+    private final long fileSize;
+    private final int size;
+
+    private SpilledRun(
+            Path file,
+            FileChannel channel,
+            List<Cell> blockFirstCells,
+            Cell lastCell,
+            long[] blockOffsets,
+            long fileSize,
+            int size) {
+        this.file = file;
+        this.channel = channel;
+        this.blockFirstCells = blockFirstCells;
+        this.lastCell = lastCell;
+        this.blockOffsets = blockOffsets;
+        this.fileSize = fileSize;
+        this.size = size;
+    }
+
+    static SpilledRun write(Path directory, ArenaCellStore.Snapshot snapshot) {
+        Path file = null;
+        try {
+            file = Files.createTempFile(directory, "atlasdb-write-buffer-", ".run");
+            int numBlocks = (snapshot.size() + ENTRIES_PER_BLOCK - 1) / ENTRIES_PER_BLOCK;
+            List<Cell> blockFirstCells = new ArrayList<>(numBlocks);
+            long[] blockOffsets = new long[numBlocks];
+            long position = 0;
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file))) {
+                for (int index = 0; index < snapshot.size(); index++) {
+                    if (index % ENTRIES_PER_BLOCK == 0) {
+                        blockFirstCells.add(snapshot.cellAt(index));
+                        blockOffsets[index / ENTRIES_PER_BLOCK] = position;
+                    }
+                    byte[] entry = snapshot.encodedEntry(index);
+                    output.write(entry);
+                    position += entry.length;
+                }
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            return new SpilledRun(
+                    file,
+                    channel,
+                    Collections.unmodifiableList(blockFirstCells),
+                    snapshot.cellAt(snapshot.size() - 1),
+                    blockOffsets,
+                    position,
+                    snapshot.size());
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new SafeRuntimeException("Failed to spill transaction writes to local disk", e);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long fileSize() {
+        return fileSize;
+    }
+
+    @Nullable
+    byte[] get(Cell cell) {
+        // Bulk loads mostly write cells past everything already spilled, and those need no disk read.
+        if (cell.compareTo(lastCell) > 0) {
+            return null;
+        }
+        int block = blockContaining(cell);
+        if (block < 0) {
+            return null;
+        }
+        byte[] blockBytes = readBlock(block);
+        int offset = 0;
+        while (offset < blockBytes.length) {
+            int cmp = compare(blockBytes, offset, cell);
+            if (cmp == 0) {
+                return valueAt(blockBytes, offset);
+            }
+            if (cmp > 0) {
+                return null;
+            }
+            offset += entryLength(blockBytes, offset);
+        }
+        return null;
+    }
+
+    /**
+     * Iterates entries between the given cells in sorted order, reading one block at a time.
+     */
+    Iterator<Map.Entry<Cell, byte[]>> iterator(@Nullable Cell startInclusive, @Nullable Cell endExclusive) {
+        int firstBlock = startInclusive == null ? 0 : Math.max(0, blockContaining(startInclusive));
+        return new AbstractIterator<>() {
+            private int nextBlock = firstBlock;
+            private byte[] currentBlock = new byte[0];
+            private int offset = 0;
+
+            @Override
+            protected Map.Entry<Cell, byte[]> computeNext() {
+                while (true) {
+                    if (offset >= currentBlock.length) {
+                        if (nextBlock >= blockOffsets.length) {
+                            return endOfData();
+                        }
+                        currentBlock = readBlock(nextBlock++);
+                        offset = 0;
+                    }
+                    int entryOffset = offset;
+                    offset += entryLength(currentBlock, entryOffset);
+                    if (startInclusive != null && compare(currentBlock, entryOffset, startInclusive) < 0) {
+                        continue;
+                    }
+                    if (endExclusive != null && compare(currentBlock, entryOffset, endExclusive) >= 0) {
+                        return endOfData();
+                    }
+                    return Maps.immutableEntry(cellAt(currentBlock, entryOffset), valueAt(currentBlock, entryOffset));
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close spilled transaction write run", SafeArg.of("file", file), e);
+        }
+        deleteQuietly(file);
+    }
+
+    private int blockContaining(Cell cell) {
+        int index = Collections.binarySearch(blockFirstCells, cell);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private byte[] readBlock(int block) {
+        long start = blockOffsets[block];
+        long end = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : fileSize;
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new SafeRuntimeException(
+                            "Spilled transaction write run was truncated", SafeArg.of("file", file));
+                }
+            }
+        } catch (IOException e) {
+            throw new SafeRuntimeException("Failed to read spilled transaction writes", e, SafeArg.of("file", file));
+        }
+        return buffer.array();
+    }
+
+    private static int entryLength(byte[] block, int offset) {
+        return ArenaCellStore.HEADER_BYTES
+                + ArenaCellStore.readInt(block, offset)
+                + ArenaCellStore.readInt(block, offset + Integer.BYTES)
+                + ArenaCellStore.readInt(block, offset + 2 * Integer.BYTES);
+    }
+
+    private static Cell cellAt(byte[] block, int offset) {
+        int rowLength = ArenaCellStore.readInt(block, offset);
+        int columnLength = ArenaCellStore.readInt(block, offset + Integer.BYTES);
+        int rowStart = offset + ArenaCellStore.HEADER_BYTES;
+        return Cell.create(
+                Arrays.copyOfRange(block, rowStart, rowStart + rowLength),
+                Arrays.copyOfRange(block, rowStart + rowLength, rowStart + rowLength + columnLength));
+    }
+
+    private static byte[] valueAt(byte[] block, int offset) {
+        int valueStart = offset
+                + ArenaCellStore.HEADER_BYTES
+                + ArenaCellStore.readInt(block, offset)
+                + ArenaCellStore.readInt(block, offset + Integer.BYTES);
+        return Arrays.copyOfRange(
+                block, valueStart, valueStart + ArenaCellStore.readInt(block, offset + 2 * Integer.BYTES));
+    }
+
+    private static int compare(byte[] block, int offset, Cell cell) {
+        int rowLength = ArenaCellStore.readInt(block, offset);
+        int rowStart = offset + ArenaCellStore.HEADER_BYTES;
+        byte[] row = cell.getRowName();
+        int cmp = Arrays.compareUnsigned(block, rowStart, rowStart + rowLength, row, 0, row.length);
+        if (cmp != 0) {
+            return cmp;
+        }
+        int columnStart = rowStart + rowLength;
+        byte[] column = cell.getColumnName();
+        return Arrays.compareUnsigned(
+                block,
+                columnStart,
+                columnStart + ArenaCellStore.readInt(block, offset + Integer.BYTES),
+                column,
+                0,
+                column.length);
+    }
+
+    private static void deleteQuietly(@Nullable Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete spilled transaction write run", SafeArg.of("file", file), e);
+        }
+    }
+}
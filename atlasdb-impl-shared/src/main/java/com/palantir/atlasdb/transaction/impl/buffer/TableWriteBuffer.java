@@ -0,0 +1,110 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl.buffer;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Writes buffered for a single table: an in-memory {@link ArenaCellStore} for recent writes, backed by zero or more
+ * {@link SpilledRun}s holding older writes that were moved to disk when the memory budget was exceeded.
+ */
+final class TableWriteBuffer implements AutoCloseable {
+    private final ArenaCellStore memtable = new ArenaCellStore();
+    private final List<SpilledRun> runsOldestFirst = new ArrayList<>();
+    private int size = 0;
+
+    /**
+     * Returns the value previously buffered for the cell, in memory or in a spilled run, or null if there was none.
+     */
+    @Nullable
+    synchronized byte[] put(Cell cell, byte[] value) {
+        byte[] previous = get(cell);
+        memtable.put(cell.getRowName(), cell.getColumnName(), value);
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    @Nullable
+    synchronized byte[] get(Cell cell) {
+        byte[] value = memtable.get(cell.getRowName(), cell.getColumnName());
+        for (int i = runsOldestFirst.size() - 1; value == null && i >= 0; i--) {
+            value = runsOldestFirst.get(i).get(cell);
+        }
+        return value;
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The number of distinct cells buffered, whether in memory or spilled.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized long retainedBytes() {
+        return memtable.retainedBytes();
+    }
+
+    synchronized long spilledBytes() {
+        return runsOldestFirst.stream().mapToLong(SpilledRun::fileSize).sum();
+    }
+
+    synchronized int numSpilledRuns() {
+        return runsOldestFirst.size();
+    }
+
+    synchronized void spill(Path directory) {
+        if (memtable.isEmpty()) {
+            return;
+        }
+        runsOldestFirst.add(SpilledRun.write(directory, memtable.snapshot()));
+        memtable.clear();
+    }
+
+    /**
+     * Returns the buffered writes between the given cells in sorted order, with later writes to a cell shadowing
+     * earlier ones. Writes made after this method returns are not reflected in the iterator.
+     */
+    synchronized Iterator<Map.Entry<Cell, byte[]>> iterator(
+            @Nullable Cell startInclusive, @Nullable Cell endExclusive) {
+        List<Iterator<Map.Entry<Cell, byte[]>>> sources = new ArrayList<>(runsOldestFirst.size() + 1);
+        sources.add(memtable.snapshot().iterator(startInclusive, endExclusive));
+        for (int i = runsOldestFirst.size() - 1; i >= 0; i--) {
+            sources.add(runsOldestFirst.get(i).iterator(startInclusive, endExclusive));
+        }
+        return sources.size() == 1 ? sources.get(0) : new MergingCellIterator(sources);
+    }
+
+    @Override
+    public synchronized void close() {
+        runsOldestFirst.forEach(SpilledRun::close);
+        runsOldestFirst.clear();
+        memtable.clear();
+        size = 0;
+    }
+}
@@ -125,6 +125,23 @@ public class ClientLockWatchSnapshotTest {
                         .build());
     }
 
+    @Test
+    public void freshEventsAreAppliedInOrder() {
+        snapshot.processEvents(singleLockEvent(LOCK_DESCRIPTOR_1, SEQUENCE_1), INITIAL_LEADER_ID);
+
+        LockWatchEvents freshEvents = LockWatchEvents.builder()
+                .addEvents(
+                        LockEvent.builder(ImmutableSet.of(LOCK_DESCRIPTOR_2), LOCK_TOKEN_2)
+                                .build(SEQUENCE_2),
+                        UnlockEvent.builder(ImmutableSet.of(LOCK_DESCRIPTOR_1, LOCK_DESCRIPTOR_2))
+                                .build(SEQUENCE_3),
+                        LockEvent.builder(ONLY_LOCK_DESCRIPTOR_1, LOCK_TOKEN_1).build(SEQUENCE_3 + 1))
+                .build();
+        assertThat(snapshot.getSnapshotWithEvents(freshEvents, INITIAL_LEADER_ID))
+                .isEqualTo(LockWatchStateUpdate.snapshot(
+                        INITIAL_LEADER_ID, SEQUENCE_3 + 1, ONLY_LOCK_DESCRIPTOR_1, ImmutableSet.of()));
+    }
+
     @Test
     public void handlesSequentialProcessedEvents() {
         LockWatchEvents firstEvent = singleLockEvent(LOCK_DESCRIPTOR_1, SEQUENCE_1);
@@ -0,0 +1,189 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl.buffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompactWriteBufferTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final TableReference OTHER_TABLE = TableReference.createFromFullyQualifiedName("test.other");
+    private static final long SMALL_BUDGET = 64 * 1024;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path spillDirectory;
+    private CompactWriteBuffer buffer;
+    private SortedMap<Cell, byte[]> writes;
+
+    @Before
+    public void setUp() throws IOException {
+        spillDirectory = temporaryFolder.newFolder().toPath();
+        buffer = CompactWriteBuffer.create(SMALL_BUDGET, spillDirectory);
+        writes = buffer.writesTo(TABLE);
+    }
+
+    @After
+    public void tearDown() {
+        buffer.close();
+    }
+
+    @Test
+    public void readsBackWritesAndLaterWritesWin() {
+        assertThat(writes.put(cell("a", "1"), value("v1"))).isNull();
+        assertThat(writes.put(cell("a", "1"), value("v2"))).isEqualTo(value("v1"));
+
+        assertThat(writes.get(cell("a", "1"))).isEqualTo(value("v2"));
+        assertThat(writes.get(cell("a", "2"))).isNull();
+        assertThat(writes).hasSize(1);
+        assertThat(buffer.writesTo(OTHER_TABLE).get(cell("a", "1"))).isNull();
+    }
+
+    @Test
+    public void preservesEmptyValuesForDeletes() {
+        writes.put(cell("a", "1"), PtBytes.EMPTY_BYTE_ARRAY);
+
+        assertThat(writes.get(cell("a", "1"))).isEmpty();
+        assertThat(writes.containsKey(cell("a", "1"))).isTrue();
+    }
+
+    @Test
+    public void viewsAreSortedAndBounded() {
+        writes.putAll(ImmutableMap.of(cell("c", "1"), value("c1"), cell("a", "2"), value("a2")));
+        writes.putAll(ImmutableMap.of(cell("b", "1"), value("b1"), cell("a", "1"), value("a1")));
+
+        assertThat(writes.keySet()).containsExactly(cell("a", "1"), cell("a", "2"), cell("b", "1"), cell("c", "1"));
+        assertThat(writes.tailMap(cell("a", "2")).headMap(cell("c", "1")).keySet())
+                .containsExactly(cell("a", "2"), cell("b", "1"));
+        assertThat(writes.subMap(cell("b", "0"), cell("b", "2")).keySet()).containsExactly(cell("b", "1"));
+        assertThat(writes.headMap(cell("b", "1")).get(cell("b", "1"))).isNull();
+        assertThat(writes.tailMap(cell("c", "2")).isEmpty()).isTrue();
+        assertThat(writes.firstKey()).isEqualTo(cell("a", "1"));
+        assertThat(writes.lastKey()).isEqualTo(cell("c", "1"));
+    }
+
+    @Test
+    public void spillsOnceOverBudgetAndStillServesReads() {
+        Map<Cell, byte[]> expected = writeManyCells(5_000);
+
+        assertThat(buffer.spilledBytes()).isPositive();
+        assertThat(buffer.retainedBytes()).isLessThanOrEqualTo(SMALL_BUDGET);
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isNotEmpty();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        expected.forEach((cell, value) -> assertThat(writes.get(cell)).isEqualTo(value));
+        assertThat(writes.keySet())
+                .containsExactlyElementsOf(expected.keySet().stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void countsOverwritesOfSpilledCellsOnce() {
+        writeManyCells(5_000);
+        Cell spilled = cell("row" + 17, "col");
+
+        assertThat(writes.put(spilled, value("new"))).isEqualTo(value("value17"));
+        assertThat(writes).hasSize(5_000);
+    }
+
+    @Test
+    public void newerWritesShadowSpilledWrites() {
+        writeManyCells(5_000);
+        Cell overwritten = cell("row" + 17, "col");
+        writes.put(overwritten, value("new"));
+
+        assertThat(writes.get(overwritten)).isEqualTo(value("new"));
+        List<Map.Entry<Cell, byte[]>> matching = writes.tailMap(overwritten).entrySet().stream()
+                .filter(entry -> entry.getKey().equals(overwritten))
+                .collect(Collectors.toList());
+        assertThat(matching).hasSize(1);
+        assertThat(matching.get(0).getValue()).isEqualTo(value("new"));
+    }
+
+    @Test
+    public void streamsAllWritesInBoundedBatches() {
+        Map<Cell, byte[]> expected = writeManyCells(5_000);
+        buffer.writesTo(OTHER_TABLE).put(cell("x", "y"), value("z"));
+
+        List<Map<TableReference, Map<Cell, byte[]>>> batches = new ArrayList<>();
+        buffer.forEachBatch(1_000, batches::add);
+
+        assertThat(batches).allSatisfy(batch -> assertThat(
+                        batch.values().stream().mapToInt(Map::size).sum())
+                .isLessThanOrEqualTo(1_000));
+        Map<Cell, byte[]> streamed = new HashMap<>();
+        batches.forEach(batch -> streamed.putAll(batch.getOrDefault(TABLE, ImmutableMap.of())));
+        assertThat(streamed.keySet()).containsExactlyInAnyOrderElementsOf(expected.keySet());
+        assertThat(batches.stream()
+                        .filter(batch -> batch.containsKey(OTHER_TABLE))
+                        .collect(Collectors.toList()))
+                .hasSize(1);
+    }
+
+    @Test
+    public void closeDeletesSpilledRuns() throws IOException {
+        writeManyCells(5_000);
+        buffer.close();
+
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+        assertThat(writes).isEmpty();
+    }
+
+    private Map<Cell, byte[]> writeManyCells(int numCells) {
+        Map<Cell, byte[]> expected = new HashMap<>();
+        for (int i = 0; i < numCells; i++) {
+            Cell cell = cell("row" + i, "col");
+            byte[] value = value("value" + i);
+            writes.put(cell, value);
+            buffer.spillIfOverBudget();
+            expected.put(cell, value);
+        }
+        return expected;
+    }
+
+    private static Cell cell(String row, String column) {
+        return Cell.create(PtBytes.toBytes(row), PtBytes.toBytes(column));
+    }
+
+    private static byte[] value(String value) {
+        return PtBytes.toBytes(value);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Compares a set of JMH results against a previously recorded baseline in JMH's JSON result format, so that runs can
+ * be checked in CI or locally for throughput, latency or allocation regressions.
+ */
+public final class BaselineComparison {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private final double thresholdPercent;
+    private final List<String> regressions = new ArrayList<>();
+    private final List<String> report = new ArrayList<>();
+
+    private BaselineComparison(double thresholdPercent) {
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    public static BaselineComparison compare(File baseline, File current, double thresholdPercent) throws IOException {
+        return compare(readScores(baseline), readScores(current), thresholdPercent);
+    }
+
+    public static BaselineComparison compare(
+            Map<String, BenchmarkScore> baseline, Map<String, BenchmarkScore> current, double thresholdPercent) {
+        Preconditions.checkArgument(
+                thresholdPercent >= 0, "Threshold must be non-negative", SafeArg.of("threshold", thresholdPercent));
+        BaselineComparison comparison = new BaselineComparison(thresholdPercent);
+        current.forEach((name, score) -> comparison.compareOne(Optional.ofNullable(baseline.get(name)), score));
+        return comparison;
+    }
+
+    public static Map<String, BenchmarkScore> readScores(File file) throws IOException {
+        return parseScores(OBJECT_MAPPER.readTree(file));
+    }
+
+    static Map<String, BenchmarkScore> parseScores(JsonNode results) {
+        Map<String, BenchmarkScore> scores = new TreeMap<>();
+        for (JsonNode result : results) {
+            JsonNode primaryMetric = result.get("primaryMetric");
+            BenchmarkScore score = ImmutableBenchmarkScore.builder()
+                    .name(benchmarkName(result))
+                    .mode(result.get("mode").asText())
+                    .score(primaryMetric.get("score").asDouble())
+                    .unit(primaryMetric.get("scoreUnit").asText())
+                    .allocatedBytesPerOperation(allocationRate(result.get("secondaryMetrics")))
+                    .build();
+            scores.put(score.name(), score);
+        }
+        return scores;
+    }
+
+    public boolean hasRegressions() {
+        return !regressions.isEmpty();
+    }
+
+    public List<String> regressions() {
+        return ImmutableList.copyOf(regressions);
+    }
+
+    public List<String> report() {
+        return ImmutableList.copyOf(report);
+    }
+
+    private void compareOne(Optional<BenchmarkScore> maybeBaseline, BenchmarkScore current) {
+        if (maybeBaseline.isEmpty()) {
+            report.add(String.format("%s: %.3f %s (no baseline)", current.name(), current.score(), current.unit()));
+            return;
+        }
+        BenchmarkScore baseline = maybeBaseline.get();
+        double scoreChange = percentageChange(baseline.score(), current.score());
+        double worsening = current.higherIsBetter() ? -scoreChange : scoreChange;
+        String line = String.format(
+                "%s: %.3f -> %.3f %s (%+.1f%%)",
+                current.name(), baseline.score(), current.score(), current.unit(), scoreChange);
+        report.add(line);
+        if (baseline.mode().equals(current.mode()) && worsening > thresholdPercent) {
+            regressions.add(line);
+        }
+
+        if (baseline.allocatedBytesPerOperation().isPresent()
+                && current.allocatedBytesPerOperation().isPresent()) {
+            double before = baseline.allocatedBytesPerOperation().get();
+            double after = current.allocatedBytesPerOperation().get();
+            double allocationChange = percentageChange(before, after);
+            String allocationLine = String.format(
+                    "%s: %.1f -> %.1f B/op allocated (%+.1f%%)", current.name(), before, after, allocationChange);
+            report.add(allocationLine);
+            if (allocationChange > thresholdPercent) {
+                regressions.add(allocationLine);
+            }
+        }
+    }
+
+    private static double percentageChange(double before, double after) {
+        if (before == 0) {
+            return after == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return 100 * (after - before) / before;
+    }
+
+    private static String benchmarkName(JsonNode result) {
+        String benchmark = result.get("benchmark").asText();
+        JsonNode params = result.get("params");
+        if (params == null || params.size() == 0) {
+            return benchmark;
+        }
+        Map<String, String> sortedParams = new TreeMap<>();
+        params.fields().forEachRemaining(entry -> sortedParams.put(entry.getKey(), entry.getValue().asText()));
+        return benchmark + sortedParams;
+    }
+
+    private static Optional<Double> allocationRate(JsonNode secondaryMetrics) {
+        if (secondaryMetrics == null) {
+            return Optional.empty();
+        }
+        Iterator<Map.Entry<String, JsonNode>> metrics = secondaryMetrics.fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            // JMH prefixes profiler metrics with a middle dot in some versions but not others.
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return Optional.of(metric.getValue().get("score").asDouble());
+            }
+        }
+        return Optional.empty();
+    }
+}
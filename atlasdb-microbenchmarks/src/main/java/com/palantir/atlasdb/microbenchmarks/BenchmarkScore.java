@@ -0,0 +1,50 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks;
+
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * The headline numbers of a single JMH benchmark run, as read from JMH's JSON result format.
+ */
+@Value.Immutable
+public interface BenchmarkScore {
+    /**
+     * Fully qualified benchmark method, followed by its parameters if it has any.
+     */
+    String name();
+
+    /**
+     * The JMH mode short label, e.g. {@code thrpt} or {@code avgt}.
+     */
+    String mode();
+
+    double score();
+
+    String unit();
+
+    /**
+     * Normalised allocation rate reported by the GC profiler, if the run was profiled.
+     */
+    Optional<Double> allocatedBytesPerOperation();
+
+    @Value.Derived
+    default boolean higherIsBetter() {
+        return mode().equals("thrpt");
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.palantir.atlasdb.timelock.lock.AsyncLockService;
+import com.palantir.atlasdb.timelock.lock.AsyncResult;
+import com.palantir.atlasdb.timelock.lock.Leased;
+import com.palantir.atlasdb.timelock.lock.LockLog;
+import com.palantir.atlasdb.timelock.lock.TimeLimit;
+import com.palantir.atlasdb.timelock.lock.diagnostics.LockContentionDiagnostics;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exercises the TimeLock server-side lock state machine directly, without any HTTP or Paxos layers. Descriptors are
+ * drawn from a large space so that requests are almost never contended and the measurement reflects the cost of the
+ * lock and unlock paths themselves.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AsyncLockServiceBenchmarks {
+    private static final TimeLimit TIMEOUT = TimeLimit.of(10_000L);
+    private static final int DESCRIPTOR_SPACE = 10_000_000;
+    private static final int DESCRIPTORS_PER_COMMIT = 100;
+    private static final int DESCRIPTORS_PER_BULK_WRITE = 5_000;
+
+    /**
+     * Whether lock contention diagnostics record every acquisition and release, so that their overhead can be read off
+     * by comparing the two variants of each benchmark.
+     */
+    @Param({"false", "true"})
+    public boolean contentionDiagnostics;
+
+    private Optional<LockContentionDiagnostics> diagnostics;
+    private AsyncLockService lockService;
+
+    @Setup
+    public void setUp() {
+        diagnostics = contentionDiagnostics ? Optional.of(LockContentionDiagnostics.create()) : Optional.empty();
+        LockLog baseLockLog = new LockLog(new MetricRegistry(), () -> Long.MAX_VALUE);
+        LockLog lockLog = diagnostics
+                .map(contention -> baseLockLog.withContentionDiagnostics(contention, "benchmark"))
+                .orElse(baseLockLog);
+        lockService = AsyncLockService.createDefault(
+                lockLog,
+                PTExecutors.newSingleThreadScheduledExecutor(),
+                PTExecutors.newSingleThreadScheduledExecutor());
+    }
+
+    @TearDown
+    public void tearDown() {
+        lockService.close();
+        diagnostics.ifPresent(LockContentionDiagnostics::close);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean lockAndUnlockSingleDescriptor() {
+        return lockService.unlock(lock(ImmutableSet.of(randomDescriptor())));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean lockAndUnlockCommitSizedRequest() {
+        Set<LockDescriptor> descriptors = IntStream.range(0, DESCRIPTORS_PER_COMMIT)
+                .mapToObj(unused -> randomDescriptor())
+                .collect(Collectors.toSet());
+        return lockService.unlock(lock(descriptors));
+    }
+
+    /**
+     * Clients send descriptors in lock order, which lets the server skip sorting them.
+     */
+    @Benchmark
+    @Threads(16)
+    public boolean lockAndUnlockSortedCommitSizedRequest() {
+        Set<LockDescriptor> descriptors = IntStream.range(0, DESCRIPTORS_PER_COMMIT)
+                .mapToObj(unused -> randomDescriptor())
+                .collect(ImmutableSortedSet.toImmutableSortedSet(Comparator.naturalOrder()));
+        return lockService.unlock(lock(descriptors));
+    }
+
+    /**
+     * A bulk load locks a contiguous block of rows in a single request. This runs on one thread, as concurrent blocks
+     * would overlap too often for every request to be granted immediately.
+     */
+    @Benchmark
+    @Threads(1)
+    public boolean lockAndUnlockBulkWriteRequest() {
+        int firstRow = ThreadLocalRandom.current().nextInt(DESCRIPTOR_SPACE - DESCRIPTORS_PER_BULK_WRITE);
+        Set<LockDescriptor> descriptors = IntStream.range(firstRow, firstRow + DESCRIPTORS_PER_BULK_WRITE)
+                .mapToObj(row -> StringLockDescriptor.of(Integer.toString(row)))
+                .collect(Collectors.toSet());
+        return lockService.unlock(lock(descriptors));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean lockAndUnlockImmutableTimestamp() {
+        AsyncResult<Leased<LockToken>> result = lockService.lockImmutableTimestamp(
+                UUID.randomUUID(), ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+        return lockService.unlock(getCompleted(result));
+    }
+
+    private LockToken lock(Set<LockDescriptor> descriptors) {
+        return getCompleted(lockService.lock(UUID.randomUUID(), descriptors, TIMEOUT));
+    }
+
+    private static LockToken getCompleted(AsyncResult<Leased<LockToken>> result) {
+        if (!result.isCompletedSuccessfully()) {
+            throw new SafeIllegalStateException("Uncontended lock request was not granted immediately");
+        }
+        return result.get().value();
+    }
+
+    private static LockDescriptor randomDescriptor() {
+        return StringLockDescriptor.of(Integer.toString(ThreadLocalRandom.current().nextInt(DESCRIPTOR_SPACE)));
+    }
+}
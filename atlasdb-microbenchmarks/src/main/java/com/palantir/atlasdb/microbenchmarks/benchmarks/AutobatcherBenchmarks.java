@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of the disruptor-based autobatchers with a trivial batch function, so that the cost of the
+ * ring buffer hand-off and future completion dominates.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AutobatcherBenchmarks {
+    private static final int ASYNC_ITERATIONS = 100;
+
+    private DisruptorAutobatcher<Long, Long> coalescing;
+    private DisruptorAutobatcher<Long, Long> independent;
+
+    @Setup
+    public void setUp() {
+        coalescing = Autobatchers.<Long, Long>coalescing(requests -> Maps.toMap(requests, request -> request + 1))
+                .safeLoggablePurpose("microbenchmark-coalescing")
+                .build();
+        independent = Autobatchers.<Long, Long>independent(batch -> batch.forEach(
+                        element -> element.result().set(element.argument() + 1)))
+                .safeLoggablePurpose("microbenchmark-independent")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        coalescing.close();
+        independent.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long coalescingSingleThreaded() {
+        return Futures.getUnchecked(coalescing.apply(ThreadLocalRandom.current().nextLong(1_000)));
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Long coalescingContended() {
+        return Futures.getUnchecked(coalescing.apply(ThreadLocalRandom.current().nextLong(1_000)));
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Long independentContended() {
+        return Futures.getUnchecked(independent.apply(ThreadLocalRandom.current().nextLong()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(ASYNC_ITERATIONS)
+    public List<Long> independentPipelined() {
+        List<ListenableFuture<Long>> futures = new ArrayList<>(ASYNC_ITERATIONS);
+        for (int i = 0; i < ASYNC_ITERATIONS; i++) {
+            futures.add(independent.apply((long) i));
+        }
+        return Futures.getUnchecked(Futures.allAsList(futures));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.factory.TransactionManagers;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs full {@code SnapshotTransaction} lifecycles against the in-memory key value service, so that the transaction
+ * protocol (start, buffered writes, conflict checking, commit timestamp and transactions table writes) dominates the
+ * measurement rather than the storage backend.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InMemoryTransactionBenchmarks {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("benchmarks.table");
+    private static final int PRELOADED_ROWS = 10_000;
+    private static final int CELLS_PER_WRITE = 100;
+    private static final byte[] COLUMN = PtBytes.toBytes("c");
+    private static final byte[] VALUE = new byte[64];
+
+    private TransactionManager transactionManager;
+
+    @Setup
+    public void setUp() {
+        transactionManager = TransactionManagers.createInMemory(ImmutableSet.of());
+        transactionManager.getKeyValueService().createTable(TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        transactionManager.runTaskThrowOnConflict(txn -> {
+            Map<Cell, byte[]> writes = new HashMap<>();
+            for (int row = 0; row < PRELOADED_ROWS; row++) {
+                writes.put(cell(row), VALUE);
+            }
+            txn.put(TABLE, writes);
+            return null;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        transactionManager.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object emptyReadOnlyTransaction() {
+        return transactionManager.runTaskReadOnly(Transaction::getTimestamp);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Map<Cell, byte[]> readPreloadedCells() {
+        Set<Cell> cells = ImmutableSet.of(randomPreloadedCell(), randomPreloadedCell(), randomPreloadedCell());
+        return transactionManager.runTaskThrowOnConflict(txn -> txn.get(TABLE, cells));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object writeAndCommit() {
+        Map<Cell, byte[]> writes = new HashMap<>();
+        long base = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE / 2);
+        for (int i = 0; i < CELLS_PER_WRITE; i++) {
+            writes.put(cell(base + i), VALUE);
+        }
+        return transactionManager.runTaskWithRetry(txn -> {
+            txn.put(TABLE, writes);
+            return txn.getTimestamp();
+        });
+    }
+
+    private static Cell randomPreloadedCell() {
+        return cell(ThreadLocalRandom.current().nextInt(PRELOADED_ROWS));
+    }
+
+    private static Cell cell(long row) {
+        return Cell.create(PtBytes.toBytes(row), COLUMN);
+    }
+}
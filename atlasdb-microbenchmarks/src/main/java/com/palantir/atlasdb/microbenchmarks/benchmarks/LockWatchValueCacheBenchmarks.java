@@ -0,0 +1,139 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.cache.CacheMetrics;
+import com.palantir.atlasdb.keyvalue.api.cache.LockWatchValueScopingCache;
+import com.palantir.atlasdb.keyvalue.api.cache.LockWatchValueScopingCacheImpl;
+import com.palantir.atlasdb.keyvalue.api.cache.TransactionScopedCache;
+import com.palantir.atlasdb.keyvalue.api.watch.LockWatchEventCacheImpl;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.watch.LockWatchEventCache;
+import com.palantir.lock.watch.LockWatchReferences;
+import com.palantir.lock.watch.LockWatchStateUpdate;
+import com.palantir.lock.watch.TransactionUpdate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Drives the client-side lock watch value cache through complete transaction lifecycles: processing the start
+ * transactions update, reading through the transaction scoped cache, processing the commit update and flushing
+ * loaded values to the central cache. No lock events are published, so after warm-up every read should be a hit.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LockWatchValueCacheBenchmarks {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("benchmarks.watched");
+    private static final UUID LEADER = UUID.randomUUID();
+    private static final int NUM_CELLS = 10_000;
+    private static final int CELLS_PER_READ = 20;
+    private static final int MAX_EVENTS = 10_000;
+    private static final long MAX_CACHE_SIZE = 20_000_000L;
+    private static final LockWatchStateUpdate NO_UPDATES = LockWatchStateUpdate.success(LEADER, 0L, ImmutableList.of());
+    private static final byte[] VALUE = new byte[64];
+
+    private LockWatchEventCache eventCache;
+    private LockWatchValueScopingCache valueCache;
+    private long nextTimestamp;
+
+    @Setup
+    public void setUp() {
+        CacheMetrics metrics = CacheMetrics.create(MetricsManagers.createForTests());
+        eventCache = LockWatchEventCacheImpl.create(metrics, MAX_EVENTS);
+        valueCache =
+                LockWatchValueScopingCacheImpl.create(eventCache, metrics, MAX_CACHE_SIZE, 0.0, ImmutableSet.of(TABLE));
+        nextTimestamp = 1L;
+        eventCache.processStartTransactionsUpdate(
+                ImmutableSet.of(0L),
+                LockWatchStateUpdate.snapshot(
+                        LEADER,
+                        0L,
+                        ImmutableSet.of(),
+                        ImmutableSet.of(LockWatchReferences.entireTable(TABLE.getQualifiedName()))));
+        eventCache.removeTransactionStateFromCache(0L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Map<Cell, byte[]> readThroughCacheAndCommit() {
+        long startTimestamp = nextTimestamp;
+        nextTimestamp += 2;
+        Set<Long> startTimestamps = ImmutableSet.of(startTimestamp);
+        eventCache.processStartTransactionsUpdate(startTimestamps, NO_UPDATES);
+        valueCache.processStartTransactions(startTimestamps);
+
+        TransactionScopedCache scopedCache = valueCache.getTransactionScopedCache(startTimestamp);
+        Map<Cell, byte[]> result =
+                scopedCache.get(TABLE, randomCells(), LockWatchValueCacheBenchmarks::loadFromRemote);
+
+        eventCache.processGetCommitTimestampsUpdate(
+                ImmutableList.of(TransactionUpdate.builder()
+                        .startTs(startTimestamp)
+                        .commitTs(startTimestamp + 1)
+                        .writesToken(LockToken.of(UUID.randomUUID()))
+                        .build()),
+                NO_UPDATES);
+        valueCache.updateCacheWithCommitTimestampsInformation(startTimestamps);
+        valueCache.onSuccessfulCommit(startTimestamp);
+        valueCache.ensureStateRemoved(startTimestamp);
+        eventCache.removeTransactionStateFromCache(startTimestamp);
+        return result;
+    }
+
+    private static Set<Cell> randomCells() {
+        Set<Cell> cells = new HashSet<>();
+        while (cells.size() < CELLS_PER_READ) {
+            cells.add(Cell.create(
+                    PtBytes.toBytes(ThreadLocalRandom.current().nextInt(NUM_CELLS)), PtBytes.toBytes("c")));
+        }
+        return cells;
+    }
+
+    private static ListenableFuture<Map<Cell, byte[]>> loadFromRemote(Set<Cell> cells) {
+        Map<Cell, byte[]> values = new HashMap<>();
+        cells.forEach(cell -> values.put(cell, VALUE));
+        return Futures.immediateFuture(values);
+    }
+}
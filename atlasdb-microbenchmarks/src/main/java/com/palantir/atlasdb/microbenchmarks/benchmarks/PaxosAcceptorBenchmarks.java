@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.palantir.paxos.BooleanPaxosResponse;
+import com.palantir.paxos.Client;
+import com.palantir.paxos.ImmutableLegacyOperationMarkers;
+import com.palantir.paxos.ImmutableNamespaceAndUseCase;
+import com.palantir.paxos.ImmutablePaxosStorageParameters;
+import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosAcceptorImpl;
+import com.palantir.paxos.PaxosProposal;
+import com.palantir.paxos.PaxosProposalId;
+import com.palantir.paxos.PaxosValue;
+import com.palantir.paxos.SqliteConnections;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single Paxos acceptor persisting prepare and accept rounds to SQLite in a temporary directory. This is
+ * the durable write that every timestamp bound extension and leadership round pays on each TimeLock node, without
+ * any network hops between proposer and acceptors.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PaxosAcceptorBenchmarks {
+    private static final String PROPOSER = UUID.randomUUID().toString();
+    private static final byte[] DATA = new byte[Long.BYTES];
+
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    private Path directory;
+    private HikariDataSource dataSource;
+    private PaxosAcceptor acceptor;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("atlasdb-paxos-benchmark");
+        dataSource = SqliteConnections.getDefaultConfiguredPooledDataSource(directory.resolve("sqlite"));
+        acceptor = PaxosAcceptorImpl.newSplittingAcceptor(
+                ImmutablePaxosStorageParameters.builder()
+                        .fileBasedLogDirectory(directory.resolve("file").toString())
+                        .sqliteDataSource(dataSource)
+                        .namespaceAndUseCase(ImmutableNamespaceAndUseCase.of(Client.of("benchmark"), "acceptor"))
+                        .skipConsistencyCheckAndTruncateOldPaxosLog(true)
+                        .build(),
+                ImmutableLegacyOperationMarkers.builder()
+                        .markLegacyRead(() -> {})
+                        .markLegacyWrite(() -> {})
+                        .build(),
+                Optional.empty());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        dataSource.close();
+        MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean prepareAndAcceptSingleThreaded() {
+        return prepareAndAccept();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean prepareAndAcceptContended() {
+        return prepareAndAccept();
+    }
+
+    private boolean prepareAndAccept() {
+        long sequence = nextSequence.incrementAndGet();
+        PaxosProposalId proposalId = new PaxosProposalId(sequence, PROPOSER);
+        acceptor.prepare(sequence, proposalId);
+        BooleanPaxosResponse response =
+                acceptor.accept(sequence, new PaxosProposal(proposalId, new PaxosValue(PROPOSER, sequence, DATA)));
+        return response.isSuccessful();
+    }
+}
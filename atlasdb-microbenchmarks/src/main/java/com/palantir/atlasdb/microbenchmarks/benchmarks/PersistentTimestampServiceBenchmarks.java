@@ -0,0 +1,85 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.palantir.timestamp.PersistentTimestampService;
+import com.palantir.timestamp.PersistentTimestampServiceImpl;
+import com.palantir.timestamp.TimestampBoundStore;
+import com.palantir.timestamp.TimestampRange;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures timestamp allocation in {@link PersistentTimestampServiceImpl} against an in-memory bound store, which
+ * isolates the cost of the atomic timestamp and the upper limit bookkeeping from any persistence latency.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PersistentTimestampServiceBenchmarks {
+    private PersistentTimestampService timestampService;
+
+    @Setup
+    public void setUp() {
+        timestampService = PersistentTimestampServiceImpl.create(new InMemoryBoundStore());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long getFreshTimestampSingleThreaded() {
+        return timestampService.getFreshTimestamp();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long getFreshTimestampContended() {
+        return timestampService.getFreshTimestamp();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public TimestampRange getFreshTimestampsBatch() {
+        return timestampService.getFreshTimestamps(1_000);
+    }
+
+    private static final class InMemoryBoundStore implements TimestampBoundStore {
+        private volatile long upperLimit = 0;
+
+        @Override
+        public long getUpperLimit() {
+            return upperLimit;
+        }
+
+        @Override
+        public void storeUpperLimit(long limit) {
+            upperLimit = limit;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.timelock.lock.AsyncLockService;
+import com.palantir.atlasdb.timelock.lock.AsyncResult;
+import com.palantir.atlasdb.timelock.lock.Leased;
+import com.palantir.atlasdb.timelock.lock.LockLog;
+import com.palantir.atlasdb.timelock.lock.SharedLockExecutors;
+import com.palantir.atlasdb.timelock.lock.TimeLimit;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.v2.LockToken;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares running the background lock work of many namespaces on {@link SharedLockExecutors} against giving
+ * each namespace its own reaper and timeout threads. Lock descriptors are drawn from a small space so that requests
+ * block and schedule timeouts.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SharedLockExecutorsBenchmarks {
+    private static final TimeLimit TIMEOUT = TimeLimit.of(50L);
+    private static final int DESCRIPTOR_SPACE = 8;
+
+    @Param({"dedicated", "shared"})
+    public String executionModel;
+
+    @Param({"256"})
+    public int numNamespaces;
+
+    @Param({"4"})
+    public int numSharedExecutors;
+
+    private SharedLockExecutors sharedExecutors;
+    private List<AsyncLockService> lockServices;
+
+    @Setup
+    public void setUp() {
+        boolean shared = executionModel.equals("shared");
+        sharedExecutors = SharedLockExecutors.create(numSharedExecutors, MetricsManagers.createForTests());
+        LockLog lockLog = new LockLog(new MetricRegistry(), () -> Long.MAX_VALUE);
+        lockServices = IntStream.range(0, numNamespaces)
+                .mapToObj(index -> shared
+                        ? AsyncLockService.createDefault(
+                                lockLog,
+                                sharedExecutors.executorFor("namespace-" + index),
+                                sharedExecutors.executorFor("namespace-" + index))
+                        : AsyncLockService.createDefault(
+                                lockLog,
+                                PTExecutors.newSingleThreadScheduledExecutor(),
+                                PTExecutors.newSingleThreadScheduledExecutor()))
+                .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        lockServices.forEach(AsyncLockService::close);
+        sharedExecutors.close();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean lockAndUnlockContended() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AsyncLockService lockService = lockServices.get(random.nextInt(numNamespaces));
+        AsyncResult<Leased<LockToken>> result = lockService.lock(
+                UUID.randomUUID(),
+                ImmutableSet.of(StringLockDescriptor.of(Integer.toString(random.nextInt(DESCRIPTOR_SPACE)))),
+                TIMEOUT);
+
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        result.onComplete(() -> completion.complete(null));
+        completion.join();
+        return result.isCompletedSuccessfully() && lockService.unlock(result.get().value());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.factory.TransactionManagers;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
+import com.palantir.atlasdb.sweep.queue.ShardAndStrategy;
+import com.palantir.atlasdb.sweep.queue.TargetedSweeper;
+import com.palantir.atlasdb.sweep.queue.WriteInfo;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the targeted sweep queue against the in-memory key value service: the writer path that transactions pay
+ * on commit, and a full enqueue, commit and sweep cycle that exercises the reader, the transactions table lookups and
+ * the deletes issued by the sweeper.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SweepQueueBenchmarks {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("benchmarks.swept");
+    private static final int SHARDS = 1;
+    private static final int WRITES_PER_TRANSACTION = 100;
+
+    private TransactionManager transactionManager;
+    private TransactionService transactionService;
+    private TargetedSweeper sweeper;
+
+    @Setup
+    public void setUp() {
+        transactionManager = TransactionManagers.createInMemory(ImmutableSet.of());
+        transactionManager
+                .getKeyValueService()
+                .createTable(
+                        TABLE,
+                        TableMetadata.builder()
+                                .sweepStrategy(SweepStrategy.CONSERVATIVE)
+                                .build()
+                                .persistToBytes());
+        transactionService = transactionManager.getTransactionService();
+        sweeper = TargetedSweeper.createUninitializedForTest(() -> SHARDS);
+        sweeper.initializeWithoutRunning(transactionManager);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sweeper.close();
+        transactionManager.close();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long enqueueWrites() {
+        long timestamp = freshTimestamp();
+        sweeper.enqueue(writesAt(timestamp));
+        return timestamp;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long enqueueCommitAndSweep() {
+        long timestamp = freshTimestamp();
+        transactionService.markInProgress(timestamp);
+        sweeper.enqueue(writesAt(timestamp));
+        transactionService.putUnlessExists(timestamp, freshTimestamp());
+        return sweeper.sweepNextBatch(ShardAndStrategy.conservative(0), freshTimestamp());
+    }
+
+    private long freshTimestamp() {
+        return transactionManager.getTimestampService().getFreshTimestamp();
+    }
+
+    private static List<WriteInfo> writesAt(long timestamp) {
+        List<WriteInfo> writes = new ArrayList<>(WRITES_PER_TRANSACTION);
+        for (int i = 0; i < WRITES_PER_TRANSACTION; i++) {
+            writes.add(WriteInfo.write(
+                    TABLE, Cell.create(PtBytes.toBytes(timestamp), PtBytes.toBytes(i)), timestamp));
+        }
+        return writes;
+    }
+}
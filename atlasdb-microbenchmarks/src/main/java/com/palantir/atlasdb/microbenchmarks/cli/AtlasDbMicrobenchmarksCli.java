@@ -0,0 +1,149 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks.cli;
+
+import com.palantir.atlasdb.microbenchmarks.BaselineComparison;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import io.airlift.airline.Arguments;
+import io.airlift.airline.Command;
+import io.airlift.airline.HelpOption;
+import io.airlift.airline.Option;
+import io.airlift.airline.SingleCommand;
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reflections.Reflections;
+import org.reflections.scanners.MethodAnnotationsScanner;
+
+/**
+ * Runs the in-process AtlasDB microbenchmarks. Unlike atlasdb-perf, these benchmarks need no docker containers or
+ * external databases, so they can run on a laptop or in CI and be compared against a recorded baseline.
+ */
+@Command(name = "atlasdb-microbenchmarks", description = "In-process AtlasDB microbenchmarks.")
+public class AtlasDbMicrobenchmarksCli {
+    private static final String BENCHMARKS_PACKAGE = "com.palantir.atlasdb.microbenchmarks.benchmarks";
+
+    @Inject
+    private HelpOption helpOption;
+
+    @Arguments(description = "The benchmarks to run. Leave blank to run all benchmarks.")
+    private Set<String> tests;
+
+    @Option(
+            name = {"-l", "--list-tests"},
+            description = "Lists all available benchmarks.")
+    private boolean listTests;
+
+    @Option(
+            name = {"-o", "--output"},
+            description = "The file in which to store the results in JMH's JSON format. Defaults to "
+                    + "microbenchmark-results.json.")
+    private String outputFile = "microbenchmark-results.json";
+
+    @Option(
+            name = {"--baseline"},
+            description = "A JSON results file from an earlier run to compare against. The command exits with a "
+                    + "non-zero status if any benchmark regressed by more than the threshold.")
+    private String baselineFile;
+
+    @Option(
+            name = {"--threshold"},
+            description = "The percentage by which a score or allocation rate may worsen relative to the baseline "
+                    + "before it is reported as a regression. Defaults to 10.")
+    private double thresholdPercent = 10.0;
+
+    @Option(
+            name = {"--no-allocation-profiling"},
+            description = "Disables the GC profiler, which records allocated bytes per operation.")
+    private boolean disableAllocationProfiling;
+
+    @Option(
+            name = {"--test-run"},
+            description = "Run a single short iteration of the benchmarks for testing purposes.")
+    private boolean testRun;
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        AtlasDbMicrobenchmarksCli cli =
+                SingleCommand.singleCommand(AtlasDbMicrobenchmarksCli.class).parse(args);
+
+        if (cli.helpOption.showHelpIfRequested()) {
+            return;
+        }
+
+        if (cli.listTests) {
+            getAllBenchmarks().stream().sorted().forEach(System.out::println);
+            return;
+        }
+
+        if (cli.baselineFile != null && !new File(cli.baselineFile).isFile()) {
+            throw new SafeIllegalArgumentException("Baseline results file does not exist");
+        }
+
+        new Runner(buildOptions(cli).build()).run();
+
+        if (cli.baselineFile != null) {
+            BaselineComparison comparison = BaselineComparison.compare(
+                    new File(cli.baselineFile), new File(cli.outputFile), cli.thresholdPercent);
+            comparison.report().forEach(System.out::println);
+            if (comparison.hasRegressions()) {
+                System.out.println("Regressions against baseline:");
+                comparison.regressions().forEach(System.out::println);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static ChainedOptionsBuilder buildOptions(AtlasDbMicrobenchmarksCli cli) {
+        ChainedOptionsBuilder optBuilder = new OptionsBuilder()
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(cli.outputFile);
+
+        Set<String> benchmarks = cli.tests == null ? getAllBenchmarks() : cli.tests;
+        benchmarks.forEach(benchmark -> optBuilder.include(".*" + benchmark));
+
+        if (!cli.disableAllocationProfiling) {
+            optBuilder.addProfiler(GCProfiler.class);
+        }
+
+        if (cli.testRun) {
+            optBuilder
+                    .forks(0)
+                    .warmupIterations(0)
+                    .measurementIterations(1)
+                    .mode(Mode.SingleShotTime);
+        }
+        return optBuilder;
+    }
+
+    private static Set<String> getAllBenchmarks() {
+        Reflections reflections = new Reflections(BENCHMARKS_PACKAGE, new MethodAnnotationsScanner());
+        return reflections.getMethodsAnnotatedWith(Benchmark.class).stream()
+                .map(method -> method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.microbenchmarks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+
+public class BaselineComparisonTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String THROUGHPUT = "com.palantir.Benchmarks.throughput";
+    private static final String LATENCY = "com.palantir.Benchmarks.latency";
+
+    @Test
+    public void parsesPrimaryScoreParamsAndAllocationRate() {
+        ArrayNode results = OBJECT_MAPPER.createArrayNode();
+        ObjectNode result = result(THROUGHPUT, "thrpt", 100.0, Optional.of(48.0));
+        result.putObject("params").put("size", "10").put("mode", "fast");
+        results.add(result);
+
+        Map<String, BenchmarkScore> scores = BaselineComparison.parseScores(results);
+
+        String name = THROUGHPUT + "{mode=fast, size=10}";
+        assertThat(scores).containsOnlyKeys(name);
+        BenchmarkScore score = scores.get(name);
+        assertThat(score.score()).isEqualTo(100.0);
+        assertThat(score.unit()).isEqualTo("ops/s");
+        assertThat(score.allocatedBytesPerOperation()).contains(48.0);
+        assertThat(score.higherIsBetter()).isTrue();
+    }
+
+    @Test
+    public void flagsThroughputDropsBeyondThreshold() {
+        BaselineComparison comparison = compare(
+                parse(result(THROUGHPUT, "thrpt", 100.0, Optional.empty())),
+                parse(result(THROUGHPUT, "thrpt", 85.0, Optional.empty())));
+
+        assertThat(comparison.hasRegressions()).isTrue();
+        assertThat(comparison.regressions()).singleElement().asString().contains(THROUGHPUT);
+    }
+
+    @Test
+    public void flagsLatencyIncreasesButNotImprovements() {
+        BaselineComparison worse = compare(
+                parse(result(LATENCY, "avgt", 100.0, Optional.empty())),
+                parse(result(LATENCY, "avgt", 120.0, Optional.empty())));
+        BaselineComparison better = compare(
+                parse(result(LATENCY, "avgt", 100.0, Optional.empty())),
+                parse(result(LATENCY, "avgt", 50.0, Optional.empty())));
+
+        assertThat(worse.hasRegressions()).isTrue();
+        assertThat(better.hasRegressions()).isFalse();
+    }
+
+    @Test
+    public void toleratesChangesWithinThreshold() {
+        BaselineComparison comparison = compare(
+                parse(result(THROUGHPUT, "thrpt", 100.0, Optional.of(100.0))),
+                parse(result(THROUGHPUT, "thrpt", 95.0, Optional.of(105.0))));
+
+        assertThat(comparison.hasRegressions()).isFalse();
+        assertThat(comparison.report()).hasSize(2);
+    }
+
+    @Test
+    public void flagsAllocationRegressionsEvenIfScoreImproves() {
+        BaselineComparison comparison = compare(
+                parse(result(THROUGHPUT, "thrpt", 100.0, Optional.of(100.0))),
+                parse(result(THROUGHPUT, "thrpt", 150.0, Optional.of(200.0))));
+
+        assertThat(comparison.regressions()).singleElement().asString().contains("B/op");
+    }
+
+    @Test
+    public void reportsBenchmarksMissingFromBaselineWithoutFailing() {
+        BaselineComparison comparison =
+                compare(ImmutableMap.of(), parse(result(THROUGHPUT, "thrpt", 100.0, Optional.empty())));
+
+        assertThat(comparison.hasRegressions()).isFalse();
+        assertThat(comparison.report()).singleElement().asString().contains("no baseline");
+    }
+
+    @Test
+    public void rejectsNegativeThreshold() {
+        assertThatThrownBy(() -> BaselineComparison.compare(ImmutableMap.of(), ImmutableMap.of(), -1))
+                .isInstanceOf(SafeIllegalArgumentException.class);
+    }
+
+    private static BaselineComparison compare(
+            Map<String, BenchmarkScore> baseline, Map<String, BenchmarkScore> current) {
+        return BaselineComparison.compare(baseline, current, 10);
+    }
+
+    private static Map<String, BenchmarkScore> parse(JsonNode result) {
+        return BaselineComparison.parseScores(OBJECT_MAPPER.createArrayNode().add(result));
+    }
+
+    private static ObjectNode result(String benchmark, String mode, double score, Optional<Double> allocation) {
+        ObjectNode result = OBJECT_MAPPER.createObjectNode().put("benchmark", benchmark).put("mode", mode);
+        result.putObject("primaryMetric")
+                .put("score", score)
+                .put("scoreUnit", mode.equals("thrpt") ? "ops/s" : "us/op");
+        ObjectNode secondaryMetrics = result.putObject("secondaryMetrics");
+        allocation.ifPresent(bytes -> secondaryMetrics
+                .putObject("·gc.alloc.rate.norm")
+                .put("score", bytes)
+                .put("scoreUnit", "B/op"));
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.backend;
+
+import com.palantir.atlasdb.spi.KeyValueServiceRuntimeConfig;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+/**
+ * A backend that runs inside the benchmark JVM rather than in a docker container. These backends ignore the address
+ * they are given, and each call to {@link AtlasDbServicesConnector#connect()} gets a fresh, empty key value service.
+ */
+public abstract class EmbeddedKeyValueServiceInstrumentation extends KeyValueServiceInstrumentation {
+    private static final InetSocketAddress EMBEDDED_ADDRESS = InetSocketAddress.createUnresolved("embedded", 0);
+
+    EmbeddedKeyValueServiceInstrumentation() {
+        super(0, "");
+    }
+
+    @Override
+    public String getDockerComposeResourceFileName() {
+        throw new SafeIllegalStateException(
+                "Embedded backends are not started through docker-compose", SafeArg.of("backend", toString()));
+    }
+
+    public DockerizedDatabaseUri getUri() {
+        return new DockerizedDatabaseUri(this, EMBEDDED_ADDRESS);
+    }
+
+    @Override
+    public Optional<KeyValueServiceRuntimeConfig> getKeyValueServiceRuntimeConfig(InetSocketAddress addr) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean canConnect(InetSocketAddress addr) {
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.backend;
+
+import com.palantir.atlasdb.keyvalue.dbkvs.H2DdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableH2DdlConfig;
+
+/**
+ * H2 with get and getRows results held in compact maps, for comparison with {@link H2KeyValueServiceInstrumentation}
+ * on the transaction read benchmarks without a database container.
+ */
+public class H2CompactResultsKeyValueServiceInstrumentation extends H2KeyValueServiceInstrumentation {
+
+    @Override
+    H2DdlConfig getDdlConfig() {
+        return ImmutableH2DdlConfig.builder().compactReadResults(true).build();
+    }
+
+    @Override
+    public String toString() {
+        return "H2_COMPACT_RESULTS";
+    }
+}
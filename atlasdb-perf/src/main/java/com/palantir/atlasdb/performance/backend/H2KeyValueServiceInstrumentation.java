@@ -0,0 +1,56 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.backend;
+
+import com.palantir.atlasdb.keyvalue.dbkvs.H2DdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableDbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableH2DdlConfig;
+import com.palantir.atlasdb.spi.KeyValueServiceConfig;
+import com.palantir.nexus.db.pool.config.ImmutableH2ConnectionConfig;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+
+/**
+ * DbKvs over an in-memory H2 database. H2 is run in PostgreSQL compatibility mode, since DbKvs uses its Postgres
+ * tables and queries for H2.
+ */
+public class H2KeyValueServiceInstrumentation extends EmbeddedKeyValueServiceInstrumentation {
+
+    @Override
+    public KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr) {
+        return ImmutableDbKeyValueServiceConfig.builder()
+                .ddl(getDdlConfig())
+                .connection(ImmutableH2ConnectionConfig.builder()
+                        .dbLogin("sa")
+                        .url(getUrl())
+                        .build())
+                .build();
+    }
+
+    H2DdlConfig getDdlConfig() {
+        return ImmutableH2DdlConfig.builder().build();
+    }
+
+    private static String getUrl() {
+        // A uniquely named database per connection keeps benchmarks isolated; it is dropped once the pool closes.
+        return "jdbc:h2:mem:atlasdb-perf-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE";
+    }
+
+    @Override
+    public String toString() {
+        return "H2";
+    }
+}
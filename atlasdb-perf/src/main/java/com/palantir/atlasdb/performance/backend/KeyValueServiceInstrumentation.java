@@ -39,6 +39,12 @@ public abstract class KeyValueServiceInstrumentation {
     static {
         addNewBackendType(new CassandraKeyValueServiceInstrumentation());
         addNewBackendType(new PostgresKeyValueServiceInstrumentation());
+        addNewBackendType(new PostgresCopyKeyValueServiceInstrumentation());
+        addNewBackendType(new PostgresCallingThreadKeyValueServiceInstrumentation());
+        addNewBackendType(new PostgresCompactResultsKeyValueServiceInstrumentation());
+        addNewBackendType(new InMemoryKeyValueServiceInstrumentation());
+        addNewBackendType(new H2KeyValueServiceInstrumentation());
+        addNewBackendType(new H2CompactResultsKeyValueServiceInstrumentation());
     }
 
     KeyValueServiceInstrumentation(int kvsPort, String dockerComposeFileName) {
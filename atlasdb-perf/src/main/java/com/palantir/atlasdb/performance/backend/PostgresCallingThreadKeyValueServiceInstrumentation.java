@@ -0,0 +1,36 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.backend;
+
+import com.palantir.nexus.db.pool.config.ImmutablePostgresConnectionConfig;
+import java.net.InetSocketAddress;
+
+/**
+ * Postgres with SQL statements run on the calling thread rather than handed to the shared statement executors.
+ */
+public class PostgresCallingThreadKeyValueServiceInstrumentation extends PostgresKeyValueServiceInstrumentation {
+
+    @Override
+    ImmutablePostgresConnectionConfig getConnectionConfig(InetSocketAddress addr) {
+        return super.getConnectionConfig(addr).withRunStatementsOnCallingThread(true);
+    }
+
+    @Override
+    public String toString() {
+        return "POSTGRES_CALLING_THREAD";
+    }
+}
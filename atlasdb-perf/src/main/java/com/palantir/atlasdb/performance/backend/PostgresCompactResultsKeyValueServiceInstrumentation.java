@@ -0,0 +1,37 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.backend;
+
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutablePostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
+
+/**
+ * Postgres with get and getRows results held in compact maps, for comparison with {@link
+ * PostgresKeyValueServiceInstrumentation} on the transaction read benchmarks.
+ */
+public class PostgresCompactResultsKeyValueServiceInstrumentation extends PostgresKeyValueServiceInstrumentation {
+
+    @Override
+    PostgresDdlConfig getDdlConfig() {
+        return ImmutablePostgresDdlConfig.builder().compactReadResults(true).build();
+    }
+
+    @Override
+    public String toString() {
+        return "POSTGRES_COMPACT_RESULTS";
+    }
+}
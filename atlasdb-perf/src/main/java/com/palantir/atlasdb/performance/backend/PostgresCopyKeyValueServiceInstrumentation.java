@@ -0,0 +1,39 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.backend;
+
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutablePostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
+
+/**
+ * Postgres with large write batches sent through the binary COPY protocol rather than batched INSERT statements.
+ */
+public class PostgresCopyKeyValueServiceInstrumentation extends PostgresKeyValueServiceInstrumentation {
+    private static final int BULK_COPY_THRESHOLD = 100;
+
+    @Override
+    PostgresDdlConfig getDdlConfig() {
+        return ImmutablePostgresDdlConfig.builder()
+                .bulkCopyThreshold(BULK_COPY_THRESHOLD)
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "POSTGRES_COPY";
+    }
+}
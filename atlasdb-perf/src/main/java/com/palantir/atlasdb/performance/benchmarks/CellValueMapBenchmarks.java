@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.benchmarks;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.CompactCellValueMap;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares building and post-filtering KVS read results as a {@link HashMap} of {@link Cell}s and {@link Value}s
+ * against a {@link CompactCellValueMap}. Run with {@code --gc-profile} to compare the bytes allocated per operation.
+ * For the end to end effect on transaction reads, run {@link TransactionGetBenchmarks} and
+ * {@link TransactionGetDynamicBenchmarks} against the {@code H2} and {@code H2_COMPACT_RESULTS} (or {@code POSTGRES}
+ * and {@code POSTGRES_COMPACT_RESULTS}) backends.
+ */
+@Measurement(iterations = 5, time = 2)
+@Warmup(iterations = 3, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CellValueMapBenchmarks {
+    private static final int COLUMNS_PER_ROW = 10;
+    private static final int VALUE_BYTES = 32;
+    private static final int POST_FILTER_PASSES = 3;
+
+    @Param({"10000", "100000"})
+    public int numCells;
+
+    private byte[][] rows;
+    private byte[][] columns;
+    private byte[][] contents;
+    private long[] timestamps;
+
+    private Map<Cell, Value> hashMapResults;
+    private Map<Cell, Value> compactResults;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        rows = new byte[numCells][];
+        columns = new byte[numCells][];
+        contents = new byte[numCells][];
+        timestamps = new long[numCells];
+        for (int i = 0; i < numCells; i++) {
+            rows[i] = ("row" + i / COLUMNS_PER_ROW).getBytes(StandardCharsets.UTF_8);
+            columns[i] = ("col" + i % COLUMNS_PER_ROW).getBytes(StandardCharsets.UTF_8);
+            contents[i] = new byte[VALUE_BYTES];
+            random.nextBytes(contents[i]);
+            timestamps[i] = random.nextInt(100);
+        }
+        hashMapResults = accumulateIntoHashMap();
+        compactResults = accumulateIntoCompactMap();
+    }
+
+    @Benchmark
+    public Map<Cell, Value> accumulateIntoHashMap() {
+        Map<Cell, Value> results = new HashMap<>();
+        for (int i = 0; i < numCells; i++) {
+            Cell cell = Cell.create(rows[i], columns[i]);
+            Value value = Value.create(contents[i], timestamps[i]);
+            Value oldValue = results.put(cell, value);
+            if (oldValue != null && oldValue.getTimestamp() > value.getTimestamp()) {
+                results.put(cell, oldValue);
+            }
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Map<Cell, Value> accumulateIntoCompactMap() {
+        CompactCellValueMap results = CompactCellValueMap.create();
+        for (int i = 0; i < numCells; i++) {
+            results.putIfNewer(rows[i], columns[i], contents[i], timestamps[i]);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public void postFilterHashMap(Blackhole blackhole) {
+        postFilter(new HashMap<>(hashMapResults), blackhole);
+    }
+
+    @Benchmark
+    public void postFilterCompactMap(Blackhole blackhole) {
+        // a fresh copy, as the map keeps the cells and values created by reading it
+        postFilter(CompactCellValueMap.copyOf(compactResults), blackhole);
+    }
+
+    /**
+     * Mirrors the shape of transaction post-filtering: gather the distinct start timestamps, then visit each entry as
+     * many times as SnapshotTransaction does (sizing, orphaned sentinel detection and collecting the results).
+     */
+    private static void postFilter(Map<Cell, Value> results, Blackhole blackhole) {
+        Set<Long> startTimestamps = new HashSet<>();
+        if (results instanceof CompactCellValueMap) {
+            ((CompactCellValueMap) results).forEachTimestamp(startTimestamps::add);
+        } else {
+            results.values().forEach(value -> startTimestamps.add(value.getTimestamp()));
+        }
+        blackhole.consume(startTimestamps);
+        for (int pass = 0; pass < POST_FILTER_PASSES; pass++) {
+            for (Map.Entry<Cell, Value> entry : results.entrySet()) {
+                blackhole.consume(entry.getKey());
+                blackhole.consume(entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.benchmarks;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.performance.benchmarks.table.ConsecutiveNarrowTable;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point reads of a single cell, where per-statement overhead dominates the cost of the query itself.
+ */
+@State(Scope.Benchmark)
+public class KvsGetCellBenchmarks {
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 5)
+    @Measurement(time = 30)
+    public Object getSingleCell(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        Cell cell = Iterables.getOnlyElement(table.getCellsRequest(1));
+        Map<Cell, Value> result = table.getKvs().get(table.getTableRef(), ImmutableMap.of(cell, Long.MAX_VALUE));
+        Preconditions.checkState(result.size() == 1, "Should be 1 cell, but were: %s", result.size());
+        return result;
+    }
+
+    @Benchmark
+    @Threads(32)
+    @Warmup(time = 5)
+    @Measurement(time = 30)
+    public Object getSingleCellConcurrently(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        return getSingleCell(table);
+    }
+}
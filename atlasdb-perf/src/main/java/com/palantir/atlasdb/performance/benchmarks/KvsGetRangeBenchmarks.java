@@ -23,6 +23,7 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.performance.benchmarks.table.ConsecutiveNarrowTable;
+import com.palantir.atlasdb.performance.benchmarks.table.WideRowsTable;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.util.paging.TokenBackedBasicResultsPage;
 import java.util.Arrays;
@@ -35,6 +36,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
 
 @State(Scope.Benchmark)
 public class KvsGetRangeBenchmarks {
@@ -129,6 +131,30 @@ public class KvsGetRangeBenchmarks {
         return getSingleRangeInner(table, (int) (0.1 * table.getNumRows()));
     }
 
+    /**
+     * Scans every cell of a table of moderately wide rows, so that decoding of large result pages dominates. Run with
+     * {@code --gc-profile} to compare bytes allocated per operation between read path implementations.
+     */
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 16, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 160, timeUnit = TimeUnit.SECONDS)
+    public int getFullRangeOfWideRows(WideRowsTable table, Blackhole blackhole) {
+        int numCells = 0;
+        try (ClosableIterator<RowResult<Value>> result =
+                table.getKvs().getRange(table.getTableRef(), RangeRequest.all(), Long.MAX_VALUE)) {
+            while (result.hasNext()) {
+                RowResult<Value> row = result.next();
+                numCells += row.getColumns().size();
+                blackhole.consume(row);
+            }
+        }
+        int expectedNumCells = WideRowsTable.NUM_ROWS * WideRowsTable.NUM_COLS_PER_ROW;
+        Preconditions.checkState(
+                numCells == expectedNumCells, "Should be %s cells, but were: %s", expectedNumCells, numCells);
+        return numCells;
+    }
+
     @Benchmark
     @Threads(1)
     @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.performance.benchmarks;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
 import com.palantir.atlasdb.keyvalue.api.Value;
@@ -37,6 +38,37 @@ public class KvsGetRowsBenchmarks {
     public Object getManyRowsWithGetRows(ConsecutiveNarrowTable.CleanNarrowTable table) {
         Map<Cell, Value> result =
                 table.getKvs().getRows(table.getTableRef(), table.getRowList(), ColumnSelection.all(), Long.MAX_VALUE);
+        return checkAllRowsLoaded(table, result);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 5)
+    @Measurement(time = 40)
+    public Object getManyRowsWithGetRowsAsync(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        Map<Cell, Value> result = Futures.getUnchecked(table.getKvs()
+                .getRowsAsync(table.getTableRef(), table.getRowList(), ColumnSelection.all(), Long.MAX_VALUE));
+        return checkAllRowsLoaded(table, result);
+    }
+
+    @Benchmark
+    @Threads(32)
+    @Warmup(time = 5)
+    @Measurement(time = 40)
+    public Object getManyRowsWithGetRowsConcurrently(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        return getManyRowsWithGetRows(table);
+    }
+
+    @Benchmark
+    @Threads(32)
+    @Warmup(time = 5)
+    @Measurement(time = 40)
+    public Object getManyRowsWithGetRowsAsyncConcurrently(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        return getManyRowsWithGetRowsAsync(table);
+    }
+
+    private static Map<Cell, Value> checkAllRowsLoaded(
+            ConsecutiveNarrowTable.CleanNarrowTable table, Map<Cell, Value> result) {
         Preconditions.checkState(
                 result.size() == table.getRowList().size(),
                 "Should be %s rows, but were: %s",
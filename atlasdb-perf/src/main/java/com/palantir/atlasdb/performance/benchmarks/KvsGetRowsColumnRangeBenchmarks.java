@@ -16,6 +16,8 @@
 package com.palantir.atlasdb.performance.benchmarks;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
@@ -65,6 +67,33 @@ public class KvsGetRowsColumnRangeBenchmarks {
         return loadedCells;
     }
 
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 16, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 160, timeUnit = TimeUnit.SECONDS)
+    public Object getAllColumnsAlignedAsync(WideRowsTable table) {
+        List<byte[]> rows = IntStream.rangeClosed(0, WideRowsTable.NUM_ROWS - 1)
+                .mapToObj(WideRowsTable::getRow)
+                .collect(Collectors.toList());
+        Map<byte[], RowColumnRangeIterator> rowsColumnRange = Futures.getUnchecked(table.getKvs()
+                .getRowsColumnRangeAsync(
+                        table.getTableRef(),
+                        rows,
+                        BatchColumnRangeSelection.create(null, null, WideRowsTable.NUM_COLS_PER_ROW),
+                        Long.MAX_VALUE));
+        int expectedNumCells = WideRowsTable.NUM_ROWS * WideRowsTable.NUM_COLS_PER_ROW;
+        List<Map.Entry<Cell, Value>> loadedCells = new ArrayList<>(expectedNumCells);
+        for (byte[] row : rows) {
+            rowsColumnRange.get(row).forEachRemaining(loadedCells::add);
+        }
+        Preconditions.checkState(
+                loadedCells.size() == expectedNumCells,
+                "Should be %s cells, but were: %s",
+                expectedNumCells,
+                loadedCells.size());
+        return loadedCells;
+    }
+
     @Benchmark
     @Threads(1)
     @Warmup(time = 16, timeUnit = TimeUnit.SECONDS)
@@ -89,6 +118,9 @@ public class KvsGetRowsColumnRangeBenchmarks {
         return loadedCells;
     }
 
+    /**
+     * Reads a single very wide row in large pages; run with {@code --gc-profile} to measure allocation per page.
+     */
     @Benchmark
     @Threads(1)
     @Warmup(time = 16, timeUnit = TimeUnit.SECONDS)
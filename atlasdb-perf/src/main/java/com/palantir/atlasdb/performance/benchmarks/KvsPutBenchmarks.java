@@ -40,6 +40,7 @@ public class KvsPutBenchmarks {
 
     private static final long DUMMY_TIMESTAMP = 1L;
     private static final int BATCH_SIZE = 250;
+    private static final int LARGE_BATCH_SIZE = 5_000;
 
     @Benchmark
     @Threads(1)
@@ -61,6 +62,16 @@ public class KvsPutBenchmarks {
         return batch;
     }
 
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 25, timeUnit = TimeUnit.SECONDS)
+    public Object largeBatchRandomPut(EmptyTables tables) {
+        Map<Cell, byte[]> batch = tables.generateBatchToInsert(LARGE_BATCH_SIZE);
+        tables.getKvs().put(tables.getFirstTableRef(), batch, DUMMY_TIMESTAMP);
+        return batch;
+    }
+
     @Benchmark
     @Threads(1)
     @Warmup(time = 5, timeUnit = TimeUnit.SECONDS)
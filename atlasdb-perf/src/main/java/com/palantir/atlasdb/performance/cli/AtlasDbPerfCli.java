@@ -21,6 +21,7 @@ import com.palantir.atlasdb.performance.PerformanceResults;
 import com.palantir.atlasdb.performance.backend.DatabasesContainer;
 import com.palantir.atlasdb.performance.backend.DockerizedDatabase;
 import com.palantir.atlasdb.performance.backend.DockerizedDatabaseUri;
+import com.palantir.atlasdb.performance.backend.EmbeddedKeyValueServiceInstrumentation;
 import com.palantir.atlasdb.performance.backend.KeyValueServiceInstrumentation;
 import com.palantir.logsafe.exceptions.SafeRuntimeException;
 import com.palantir.logsafe.logger.SafeLogger;
@@ -32,6 +33,7 @@ import io.airlift.airline.Option;
 import io.airlift.airline.SingleCommand;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -40,6 +42,7 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -51,7 +54,8 @@ import org.reflections.scanners.MethodAnnotationsScanner;
 /**
  * The Atlas Perf(ormance) CLI is a tool for making and running AtlasDB performance tests.
  *
- * This requires you to have a docker-machine running and configured correctly.
+ * This requires you to have a docker-machine running and configured correctly, unless only the embedded MEMORY or
+ * H2 backends are used.
  *
  * @author mwakerman, bullman
  */
@@ -67,7 +71,7 @@ public class AtlasDbPerfCli {
 
     @Option(
             name = {"-b", "--backend"},
-            description = "Backing KVS stores to use. (e.g. POSTGRES or CASSANDRA)"
+            description = "Backing KVS stores to use. (e.g. POSTGRES, CASSANDRA, or the embedded MEMORY and H2)"
                     + " Defaults to all backends if not specified.")
     private Set<String> backends;
 
@@ -93,6 +97,11 @@ public class AtlasDbPerfCli {
             description = "Run a single iteration of the benchmarks for testing purposes.")
     private boolean testRun;
 
+    @Option(
+            name = {"--gc-profile"},
+            description = "Attach the JMH GC profiler to report the allocation rate and bytes allocated per operation.")
+    private boolean gcProfile;
+
     public static void main(String[] args) throws RunnerException, IOException {
         AtlasDbPerfCli cli = SingleCommand.singleCommand(AtlasDbPerfCli.class).parse(args);
 
@@ -117,12 +126,27 @@ public class AtlasDbPerfCli {
             runJmh(cli, getDockerUris(cli));
         } else {
             Set<String> backends = cli.backends != null ? cli.backends : KeyValueServiceInstrumentation.getBackends();
-            try (DatabasesContainer container = startupDatabase(backends)) {
-                runJmh(
-                        cli,
-                        container.getDockerizedDatabases().stream()
-                                .map(DockerizedDatabase::getUri)
-                                .collect(Collectors.toList()));
+            List<KeyValueServiceInstrumentation> instrumentations = backends.stream()
+                    .map(KeyValueServiceInstrumentation::forDatabase)
+                    .collect(Collectors.toList());
+            List<DockerizedDatabaseUri> embeddedUris = instrumentations.stream()
+                    .filter(EmbeddedKeyValueServiceInstrumentation.class::isInstance)
+                    .map(EmbeddedKeyValueServiceInstrumentation.class::cast)
+                    .map(EmbeddedKeyValueServiceInstrumentation::getUri)
+                    .collect(Collectors.toList());
+            List<KeyValueServiceInstrumentation> dockerized = instrumentations.stream()
+                    .filter(instrumentation -> !(instrumentation instanceof EmbeddedKeyValueServiceInstrumentation))
+                    .collect(Collectors.toList());
+            if (dockerized.isEmpty()) {
+                runJmh(cli, embeddedUris);
+                return;
+            }
+            try (DatabasesContainer container = DatabasesContainer.startup(dockerized)) {
+                List<DockerizedDatabaseUri> uris = new ArrayList<>(embeddedUris);
+                container.getDockerizedDatabases().stream()
+                        .map(DockerizedDatabase::getUri)
+                        .forEach(uris::add);
+                runJmh(cli, uris);
             }
         }
     }
@@ -141,6 +165,10 @@ public class AtlasDbPerfCli {
                                 .collect(Collectors.toList())
                                 .toArray(new String[uris.size()]));
 
+        if (cli.gcProfile) {
+            optBuilder.addProfiler(GCProfiler.class);
+        }
+
         if (cli.tests == null) {
             getAllBenchmarks().forEach(b -> optBuilder.include(".*" + b));
         } else {
@@ -175,12 +203,6 @@ public class AtlasDbPerfCli {
         }
     }
 
-    private static DatabasesContainer startupDatabase(Set<String> backends) {
-        return DatabasesContainer.startup(backends.stream()
-                .map(KeyValueServiceInstrumentation::forDatabase)
-                .collect(Collectors.toList()));
-    }
-
     private static List<DockerizedDatabaseUri> getDockerUris(AtlasDbPerfCli cli) {
         return cli.dbUris.stream().map(DockerizedDatabaseUri::fromUriString).collect(Collectors.toList());
     }
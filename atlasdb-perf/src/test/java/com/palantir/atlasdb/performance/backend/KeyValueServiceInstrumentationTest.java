@@ -60,6 +60,34 @@ public class KeyValueServiceInstrumentationTest {
         KeyValueServiceInstrumentation.removeBackendType(dummyKeyValueServiceInstrumentation);
     }
 
+    @Test
+    public void embeddedBackendsAreRegisteredByDefault() {
+        assertThat(KeyValueServiceInstrumentation.getBackends()).contains("MEMORY", "H2");
+        assertThat(KeyValueServiceInstrumentation.forDatabase("MEMORY"))
+                .isExactlyInstanceOf(InMemoryKeyValueServiceInstrumentation.class);
+        assertThat(KeyValueServiceInstrumentation.forDatabase("H2"))
+                .isExactlyInstanceOf(H2KeyValueServiceInstrumentation.class);
+    }
+
+    @Test
+    public void embeddedBackendUrisRoundTrip() {
+        EmbeddedKeyValueServiceInstrumentation h2 =
+                (EmbeddedKeyValueServiceInstrumentation) KeyValueServiceInstrumentation.forDatabase("H2");
+
+        DockerizedDatabaseUri uri = DockerizedDatabaseUri.fromUriString(h2.getUri().toString());
+
+        assertThat(uri.getKeyValueServiceInstrumentation()).isSameAs(h2);
+        assertThat(h2.getKeyValueServiceConfig(uri.getAddress()).type()).isEqualTo("relational");
+    }
+
+    @Test
+    public void h2BackendUsesDistinctDatabasePerConnection() {
+        KeyValueServiceInstrumentation h2 = KeyValueServiceInstrumentation.forDatabase("H2");
+        InetSocketAddress address = InetSocketAddress.createUnresolved("embedded", 0);
+
+        assertThat(h2.getKeyValueServiceConfig(address)).isNotEqualTo(h2.getKeyValueServiceConfig(address));
+    }
+
     private static class DummyKeyValueServiceInstrumentation extends KeyValueServiceInstrumentation {
 
         DummyKeyValueServiceInstrumentation(int kvsPort, String dockerComposeFileName) {
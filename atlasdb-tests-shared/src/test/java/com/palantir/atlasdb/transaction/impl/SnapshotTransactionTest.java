@@ -129,6 +129,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -1635,6 +1636,39 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         spiedTimeLockService.unlock(ImmutableSet.of(res.getLock()));
     }
 
+    @Test
+    public void compactWriteBufferServesLocalWritesAndCommitsThemAfterSpilling() {
+        setTransactionConfig(ImmutableTransactionConfig.builder()
+                .compactWriteBufferMemoryBudgetBytes(1024L)
+                .build());
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res = timelockService.lockImmutableTimestamp();
+        Transaction transaction =
+                getSnapshotTransactionWith(timelockService, () -> transactionTs, res, PreCommitConditions.NO_OP);
+
+        Map<Cell, byte[]> writes = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            writes.put(Cell.create(PtBytes.toBytes("row" + i), COL_A), PtBytes.toBytes("value" + i));
+        }
+        transaction.put(TABLE, writes);
+        Cell overwritten = Cell.create(PtBytes.toBytes("row1"), COL_A);
+        transaction.put(TABLE, ImmutableMap.of(overwritten, PtBytes.toBytes("new")));
+        transaction.delete(TABLE, ImmutableSet.of(Cell.create(PtBytes.toBytes("row0"), COL_A)));
+
+        assertThat(transaction.get(TABLE, ImmutableSet.of(overwritten)).get(overwritten))
+                .isEqualTo(PtBytes.toBytes("new"));
+        assertThat(BatchingVisitables.copyToList(transaction.getRange(TABLE, RangeRequest.all())))
+                .hasSize(999);
+        transaction.commit();
+        timelockService.unlock(ImmutableSet.of(res.getLock()));
+
+        Transaction reader = txManager.createNewTransaction();
+        assertThat(BatchingVisitables.copyToList(reader.getRange(TABLE, RangeRequest.all())))
+                .hasSize(999);
+        assertThat(reader.get(TABLE, ImmutableSet.of(overwritten)).get(overwritten))
+                .isEqualTo(PtBytes.toBytes("new"));
+    }
+
     @Test
     public void getOrphanedSweepSentinelDoesNotThrow() {
         Transaction t1 = txManager.createNewTransaction();
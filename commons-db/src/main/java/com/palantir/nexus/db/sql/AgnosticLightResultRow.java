@@ -19,7 +19,7 @@ import com.palantir.exception.PalantirSqlException;
 import java.io.InputStream;
 import org.joda.time.DateTime;
 
-public interface AgnosticLightResultRow extends AgnosticResultRow {
+public interface AgnosticLightResultRow extends AgnosticResultRow, PositionalResultRow {
 
     InputStream getBinaryInputStream(String colname) throws PalantirSqlException;
 
@@ -85,6 +85,26 @@ public class AgnosticLightResultRowImpl extends AbstractAgnosticResultRow implem
         return ResultSets.getBytes(results, col);
     }
 
+    @Override
+    public int columnIndex(String colname) {
+        return findColumn(colname);
+    }
+
+    @Override
+    public byte[] getBytesAt(int col) throws PalantirSqlException {
+        return ResultSets.getBytes(results, col);
+    }
+
+    @Override
+    public long getLongAt(int col) throws PalantirSqlException {
+        return ResultSets.getLong(results, col);
+    }
+
+    @Override
+    public boolean wasNull() throws PalantirSqlException {
+        return ResultSets.wasNull(results);
+    }
+
     @Override
     public InputStream getBinaryInputStream(final String colname) throws PalantirSqlException {
         return getBinaryInputStream(findColumn(colname));
@@ -77,6 +77,23 @@ public abstract class BasicSQL {
         boolean isSqlCancellationDisabled();
 
         SqlTimer getSqlTimer();
+
+        /**
+         * If true, statements run on the calling thread instead of being handed to the select and execute executors.
+         * Queries are then cancelled by a shared timer once the calling thread is interrupted, rather than by the
+         * calling thread itself while it waits for an executor thread.
+         */
+        default boolean isCallingThreadExecutionEnabled() {
+            return false;
+        }
+
+        /**
+         * Timeout applied to queries through {@link PreparedStatement#setQueryTimeout(int)} when statements run on
+         * the calling thread. Zero means no timeout.
+         */
+        default int getQueryTimeoutSeconds() {
+            return 0;
+        }
     }
 
     protected abstract SqlConfig getSqlConfig();
@@ -427,6 +444,8 @@ public abstract class BasicSQL {
             throws PalantirInterruptedException, PalantirSqlException {
         if (isSqlCancellationDisabled()) {
             return runUninterruptablyInternal(ps, visitor, sql, autoClose, fetchSize);
+        } else if (isCallingThreadExecutionEnabled()) {
+            return runOnCallingThreadInternal(ps, visitor, autoClose, fetchSize);
         } else {
             return runCancellablyInternal(ps, visitor, sql, autoClose, fetchSize);
         }
@@ -436,6 +455,22 @@ public abstract class BasicSQL {
         return getSqlConfig().isSqlCancellationDisabled();
     }
 
+    private boolean isCallingThreadExecutionEnabled() {
+        return getSqlConfig().isCallingThreadExecutionEnabled();
+    }
+
+    /**
+     * Runs the callable on the execute executor, or directly if statements run on the calling thread. Interrupts do
+     * not cancel the callable in either case.
+     */
+    private <T> T runUninterruptably(Callable<T> callable, String threadString, @Nullable Connection connection)
+            throws PalantirSqlException {
+        if (isCallingThreadExecutionEnabled()) {
+            return BasicSQLUtils.runUninterruptablyOnCallingThread(callable);
+        }
+        return BasicSQLUtils.runUninterruptably(executeStatementExecutor, callable, threadString, connection);
+    }
+
     private <T> T runUninterruptablyInternal(
             final PreparedStatement ps,
             final ResultSetVisitor<T> visitor,
@@ -447,8 +482,7 @@ public abstract class BasicSQL {
             SqlLoggers.CANCEL_LOGGER.debug("interrupted prior to executing uninterruptable SQL call");
             throw new PalantirInterruptedException("interrupted prior to executing uninterruptable SQL call");
         }
-        return BasicSQLUtils.runUninterruptably(
-                executeStatementExecutor,
+        return runUninterruptably(
                 () -> {
                     if (fetchSize != null) {
                         ps.setFetchSize(fetchSize);
@@ -520,6 +554,47 @@ public abstract class BasicSQL {
         }
     }
 
+    private <T> T runOnCallingThreadInternal(
+            PreparedStatement ps, ResultSetVisitor<T> visitor, AutoClose autoClose, @Nullable Integer fetchSize)
+            throws PalantirInterruptedException, PalantirSqlException {
+        if (Thread.currentThread().isInterrupted()) {
+            SqlLoggers.CANCEL_LOGGER.debug("interrupted prior to executing SQL call");
+            throw new PalantirInterruptedException("interrupted prior to executing SQL call");
+        }
+        ResultSet rs = null;
+        try (StatementCanceller.Registration registration = StatementCanceller.shared().register(ps)) {
+            try {
+                if (fetchSize != null) {
+                    ps.setFetchSize(fetchSize);
+                }
+                int queryTimeoutSeconds = getSqlConfig().getQueryTimeoutSeconds();
+                if (queryTimeoutSeconds > 0) {
+                    ps.setQueryTimeout(queryTimeoutSeconds);
+                }
+                rs = ps.executeQuery();
+                return visitor.visit(rs);
+            } catch (SQLException e) {
+                throwIfCancelled(registration, e);
+                throw PalantirSqlException.create(e);
+            } catch (PalantirSqlException e) {
+                throwIfCancelled(registration, e);
+                throw e;
+            }
+        } finally {
+            if (rs != null && autoClose == AutoClose.TRUE) {
+                ResultSets.close(rs);
+            }
+        }
+    }
+
+    private static void throwIfCancelled(StatementCanceller.Registration registration, Exception cause)
+            throws PalantirInterruptedException {
+        if (registration.wasCancelled()) {
+            // the interrupt flag is still set, as nothing on this thread has cleared it
+            throw new PalantirInterruptedException("SQL call interrupted", cause); // $NON-NLS-1$
+        }
+    }
+
     interface PreparedStatementVisitor<T> {
         T visit(PreparedStatement ps) throws PalantirSqlException;
     }
@@ -546,11 +621,8 @@ public abstract class BasicSQL {
         PreparedStatement ps = null;
 
         try {
-            ps = BasicSQLUtils.runUninterruptably(
-                    executeStatementExecutor,
-                    () -> createPreparedStatement(c, query.getQuery(), vs),
-                    "SQL createPreparedStatement",
-                    c);
+            ps = runUninterruptably(
+                    () -> createPreparedStatement(c, query.getQuery(), vs), "SQL createPreparedStatement", c);
             return visitor.visit(ps);
         } catch (PalantirSqlException sqle) {
             throw wrapSQLExceptionWithVerboseLogging(sqle, query.getQuery(), vs);
@@ -561,7 +633,11 @@ public abstract class BasicSQL {
     }
 
     static PalantirSqlException handleInterruptions(long startTime, ExecutionException ee) throws PalantirSqlException {
-        SQLException e = getSQLException(ee.getCause());
+        return handleExecutionFailure(startTime, ee.getCause());
+    }
+
+    static PalantirSqlException handleExecutionFailure(long startTime, Throwable cause) throws PalantirSqlException {
+        SQLException e = getSQLException(cause);
         return handleInterruptions(startTime, e);
     }
 
@@ -610,8 +686,7 @@ public abstract class BasicSQL {
         if (SqlLoggers.LOGGER.isTraceEnabled()) {
             SqlLoggers.LOGGER.trace("SQL execution query: {}", SafeArg.of("sqlQuery", sql.getQuery()));
         }
-        return BasicSQLUtils.runUninterruptably(
-                executeStatementExecutor,
+        return runUninterruptably(
                 () -> {
                     return wrapPreparedStatement(
                             c,
@@ -820,8 +895,7 @@ public abstract class BasicSQL {
         if (SqlLoggers.LOGGER.isTraceEnabled()) {
             SqlLoggers.LOGGER.trace("SQL update interval query: {}", SafeArg.of("sqlQuery", sql.getQuery()));
         }
-        return BasicSQLUtils.runUninterruptably(
-                executeStatementExecutor,
+        return runUninterruptably(
                 () -> {
                     return wrapPreparedStatement(
                             c,
@@ -843,8 +917,7 @@ public abstract class BasicSQL {
         if (SqlLoggers.LOGGER.isTraceEnabled()) {
             SqlLoggers.LOGGER.trace("SQL update many query: {}", SafeArg.of("sqlQuery", sql.getQuery()));
         }
-        BasicSQLUtils.runUninterruptably(
-                executeStatementExecutor,
+        runUninterruptably(
                 (Callable<Void>) () -> {
                     List<BlobHandler> cleanups = new ArrayList<>();
                     PreparedStatement ps = null;
@@ -886,8 +959,7 @@ public abstract class BasicSQL {
             SqlLoggers.LOGGER.trace(
                     "SQL insert one count rows internal query: {}", SafeArg.of("sqlQuery", sql.getQuery()));
         }
-        return BasicSQLUtils.runUninterruptably(
-                executeStatementExecutor,
+        return runUninterruptably(
                 () -> {
                     return wrapPreparedStatement(
                             c,
@@ -909,8 +981,7 @@ public abstract class BasicSQL {
         if (SqlLoggers.LOGGER.isTraceEnabled()) {
             SqlLoggers.LOGGER.trace("SQL insert many query: {}", SafeArg.of("sqlQuery", sql.getQuery()));
         }
-        return BasicSQLUtils.runUninterruptably(
-                executeStatementExecutor,
+        return runUninterruptably(
                 () -> {
                     int[] inserted = null;
                     PreparedStatement ps = null;
@@ -318,6 +318,25 @@ public class BasicSQLUtils {
         return result;
     }
 
+    /**
+     * Runs the callable directly on the calling thread, translating failures as {@link #runUninterruptably} does.
+     * The interrupt flag is cleared while the callable runs and restored afterwards, since some drivers (e.g. H2 over
+     * NIO file channels) close the underlying connection when they see it set.
+     */
+    public static <T> T runUninterruptablyOnCallingThread(Callable<T> callable) throws PalantirSqlException {
+        long startTime = System.currentTimeMillis();
+        boolean wasInterrupted = Thread.interrupted();
+        try {
+            return callable.call();
+        } catch (Exception e) {
+            throw BasicSQL.handleExecutionFailure(startTime, e);
+        } finally {
+            if (wasInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @SuppressWarnings("ReadReturnValueIgnored") // Read is from a byte array input stream; will read everything
     public static void toStringSqlArgs(final StringBuilder sb, Object[] args) {
         if (args instanceof Object[][]) {
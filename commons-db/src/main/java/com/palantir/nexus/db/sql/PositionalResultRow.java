@@ -0,0 +1,48 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.nexus.db.sql;
+
+import com.palantir.exception.PalantirSqlException;
+
+/**
+ * Positional access to the current row of a result set. Callers resolve the index of each column once with
+ * {@link #columnIndex(String)} and then read every row by index, which avoids the per-value column name lookups and
+ * the boxing performed by the name-based accessors of {@link AgnosticResultRow}. This matters for tight loops over
+ * large pages of results.
+ */
+public interface PositionalResultRow {
+
+    /**
+     * Returns the index of the given column, suitable for passing to the positional accessors of this row.
+     *
+     * @throws IllegalArgumentException if the column is not part of the result set
+     */
+    int columnIndex(String colname);
+
+    byte[] getBytesAt(int col) throws PalantirSqlException;
+
+    /**
+     * Returns the value of the given column as a primitive long, or 0 if it was SQL NULL; use {@link #wasNull()} to
+     * tell the two apart.
+     */
+    long getLongAt(int col) throws PalantirSqlException;
+
+    /**
+     * Returns whether the last column read through a positional accessor was SQL NULL.
+     */
+    boolean wasNull() throws PalantirSqlException;
+}
@@ -0,0 +1,114 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.nexus.db.sql;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.nexus.db.sql.monitoring.logger.SqlLoggers;
+import com.palantir.sql.PreparedStatements;
+import java.sql.PreparedStatement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cancels statements that run on the calling thread once that thread is interrupted. JDBC drivers block in socket
+ * reads that do not respond to interrupts, so a single shared timer periodically checks the threads running
+ * registered statements and cancels the statements of any that have been interrupted.
+ */
+final class StatementCanceller {
+    private static final long CHECK_INTERVAL_MILLIS = 100;
+
+    private static final Supplier<StatementCanceller> SHARED = Suppliers.memoize(() -> {
+        StatementCanceller canceller = new StatementCanceller();
+        ScheduledExecutorService timer = PTExecutors.newSingleThreadScheduledExecutor(
+                new NamedThreadFactory("SQL statement canceller", true));
+        timer.scheduleWithFixedDelay(
+                canceller::cancelInterruptedStatements,
+                CHECK_INTERVAL_MILLIS,
+                CHECK_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+        return canceller;
+    });
+
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+
+    @VisibleForTesting
+    StatementCanceller() {}
+
+    static StatementCanceller shared() {
+        return SHARED.get();
+    }
+
+    /**
+     * Registers a statement that is about to run on the current thread. The returned registration must be closed
+     * once the statement has finished.
+     */
+    Registration register(PreparedStatement ps) {
+        Registration registration = new Registration(ps, Thread.currentThread());
+        registrations.add(registration);
+        return registration;
+    }
+
+    @VisibleForTesting
+    void cancelInterruptedStatements() {
+        for (Registration registration : registrations) {
+            if (registration.thread.isInterrupted()) {
+                registration.cancel();
+            }
+        }
+    }
+
+    final class Registration implements AutoCloseable {
+        private final PreparedStatement ps;
+        private final Thread thread;
+        private volatile boolean cancelled = false;
+
+        private Registration(PreparedStatement ps, Thread thread) {
+            this.ps = ps;
+            this.thread = thread;
+        }
+
+        /**
+         * Whether the statement was cancelled because its thread was interrupted.
+         */
+        boolean wasCancelled() {
+            return cancelled;
+        }
+
+        private synchronized void cancel() {
+            if (!cancelled && registrations.contains(this)) {
+                SqlLoggers.CANCEL_LOGGER.debug("about to cancel a SQL call on an interrupted thread");
+                cancelled = true;
+                try {
+                    PreparedStatements.cancel(ps);
+                } catch (RuntimeException e) {
+                    SqlLoggers.CANCEL_LOGGER.warn("Failed to cancel a SQL call on an interrupted thread", e);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            registrations.remove(this);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.palantir.nexus.db.monitoring.timer.DurationSqlTimer;
@@ -27,10 +28,12 @@ import com.palantir.nexus.db.monitoring.timer.SqlTimer;
 import java.io.ByteArrayInputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Test;
 
 @SuppressWarnings("unchecked") // mocked executors
@@ -65,6 +68,60 @@ public class BasicSQLTest {
         verify(executeExecutorTwo, times(2)).submit(any(Callable.class));
     }
 
+    @Test
+    public void callingThreadExecutionBypassesExecutors() throws SQLException {
+        ExecutorService selectExecutor = mock(ExecutorService.class);
+        ExecutorService executeExecutor = mock(ExecutorService.class);
+        BasicSQL basicSql = createBasicSQL(selectExecutor, executeExecutor, true, 0);
+
+        executeSqlQuery(basicSql);
+
+        verifyNoInteractions(selectExecutor, executeExecutor);
+    }
+
+    @Test
+    public void callingThreadExecutionClearsInterruptForUninterruptibleStatements() throws SQLException {
+        BasicSQL basicSql = createBasicSQL(mock(ExecutorService.class), mock(ExecutorService.class), true, 0);
+        Connection conn = mock(Connection.class);
+        AtomicBoolean interruptedWhilePreparing = new AtomicBoolean();
+        when(conn.prepareStatement(any())).thenAnswer(invocation -> {
+            interruptedWhilePreparing.set(Thread.currentThread().isInterrupted());
+            return mock(PreparedStatement.class);
+        });
+
+        Thread.currentThread().interrupt();
+        try {
+            basicSql.execute(
+                    conn,
+                    SQLString.getUnregisteredQuery("SELECT 1 FROM a.b;"),
+                    new Object[0],
+                    BasicSQL.AutoClose.FALSE);
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+
+        assertThat(interruptedWhilePreparing).isFalse();
+    }
+
+    @Test
+    public void callingThreadExecutionAppliesQueryTimeout() throws SQLException {
+        ExecutorService selectExecutor = mock(ExecutorService.class);
+        BasicSQL basicSql = createBasicSQL(selectExecutor, mock(ExecutorService.class), true, 5);
+        Connection conn = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(conn.prepareStatement(any())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+
+        assertThat(basicSql.selectExistsInternal(conn, SQLString.getUnregisteredQuery("SELECT 1 FROM a.b;")))
+                .isTrue();
+
+        verify(ps).setQueryTimeout(5);
+        verify(rs).close();
+        verifyNoInteractions(selectExecutor);
+    }
+
     @Test
     public void testSQLException() {
         StringBuilder sb = new StringBuilder();
@@ -97,6 +154,14 @@ public class BasicSQLTest {
     }
 
     private BasicSQL createBasicSQL(final ExecutorService selectExecutor, final ExecutorService executeExecutor) {
+        return createBasicSQL(selectExecutor, executeExecutor, false, 0);
+    }
+
+    private BasicSQL createBasicSQL(
+            ExecutorService selectExecutor,
+            ExecutorService executeExecutor,
+            boolean callingThreadExecution,
+            int queryTimeoutSeconds) {
         return new BasicSQL(selectExecutor, executeExecutor) {
             @Override
             protected SqlConfig getSqlConfig() {
@@ -110,6 +175,16 @@ public class BasicSQLTest {
                     public SqlTimer getSqlTimer() {
                         return new DurationSqlTimer();
                     }
+
+                    @Override
+                    public boolean isCallingThreadExecutionEnabled() {
+                        return callingThreadExecution;
+                    }
+
+                    @Override
+                    public int getQueryTimeoutSeconds() {
+                        return queryTimeoutSeconds;
+                    }
                 };
             }
         };
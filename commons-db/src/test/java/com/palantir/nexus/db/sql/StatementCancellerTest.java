@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.nexus.db.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import org.junit.After;
+import org.junit.Test;
+
+public class StatementCancellerTest {
+    private final StatementCanceller canceller = new StatementCanceller();
+    private final PreparedStatement ps = mock(PreparedStatement.class);
+
+    @After
+    public void after() {
+        // clear any interrupt set by a test
+        Thread.interrupted();
+    }
+
+    @Test
+    public void doesNotCancelStatementsOfRunningThreads() throws SQLException {
+        try (StatementCanceller.Registration registration = canceller.register(ps)) {
+            canceller.cancelInterruptedStatements();
+
+            assertThat(registration.wasCancelled()).isFalse();
+        }
+        verify(ps, never()).cancel();
+    }
+
+    @Test
+    public void cancelsStatementsOfInterruptedThreadsOnce() throws SQLException {
+        try (StatementCanceller.Registration registration = canceller.register(ps)) {
+            Thread.currentThread().interrupt();
+            canceller.cancelInterruptedStatements();
+            canceller.cancelInterruptedStatements();
+
+            assertThat(registration.wasCancelled()).isTrue();
+        }
+        verify(ps).cancel();
+    }
+
+    @Test
+    public void doesNotCancelFinishedStatements() throws SQLException {
+        StatementCanceller.Registration registration = canceller.register(ps);
+        registration.close();
+        Thread.currentThread().interrupt();
+
+        canceller.cancelInterruptedStatements();
+
+        assertThat(registration.wasCancelled()).isFalse();
+        verify(ps, never()).cancel();
+    }
+}
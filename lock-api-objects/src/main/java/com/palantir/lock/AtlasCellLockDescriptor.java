@@ -35,9 +35,17 @@ public final class AtlasCellLockDescriptor {
     /** Returns a {@code LockDescriptor} instance for the given table, row, and column. */
     public static LockDescriptor of(String tableName, byte[] rowName, byte[] colName) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(tableName));
+        return of(tableName.getBytes(StandardCharsets.UTF_8), rowName, colName);
+    }
+
+    /**
+     * Returns a {@code LockDescriptor} instance for the given table, row, and column, where the table name has already
+     * been encoded as UTF-8. Useful when creating descriptors for many cells of the same table.
+     */
+    public static LockDescriptor of(byte[] tableBytes, byte[] rowName, byte[] colName) {
+        Preconditions.checkArgument(tableBytes.length > 0, "tableBytes should not be empty");
         Preconditions.checkNotNull(rowName, "rowName should not be null");
         Preconditions.checkNotNull(colName, "colName should not be null");
-        byte[] tableBytes = tableName.getBytes(StandardCharsets.UTF_8);
         byte[] bytes = new byte[tableBytes.length + 1 + rowName.length + 1 + colName.length];
         System.arraycopy(tableBytes, 0, bytes, 0, tableBytes.length);
         System.arraycopy(rowName, 0, bytes, tableBytes.length + 1, rowName.length);
@@ -35,8 +35,16 @@ public final class AtlasRowLockDescriptor {
     /** Returns a {@code LockDescriptor} instance for the given table and row. */
     public static LockDescriptor of(String tableName, byte[] rowName) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(tableName));
+        return of(tableName.getBytes(StandardCharsets.UTF_8), rowName);
+    }
+
+    /**
+     * Returns a {@code LockDescriptor} instance for the given table and row, where the table name has already been
+     * encoded as UTF-8. Useful when creating descriptors for many rows of the same table.
+     */
+    public static LockDescriptor of(byte[] tableBytes, byte[] rowName) {
+        Preconditions.checkArgument(tableBytes.length > 0, "tableBytes should not be empty");
         Preconditions.checkNotNull(rowName, "rowName should not be null");
-        byte[] tableBytes = tableName.getBytes(StandardCharsets.UTF_8);
         byte[] bytes = new byte[tableBytes.length + 1 + rowName.length];
         System.arraycopy(tableBytes, 0, bytes, 0, tableBytes.length);
         System.arraycopy(rowName, 0, bytes, tableBytes.length + 1, rowName.length);
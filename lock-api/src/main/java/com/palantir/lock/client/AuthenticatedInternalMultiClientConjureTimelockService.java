@@ -16,6 +16,10 @@
 
 package com.palantir.lock.client;
 
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockRequestV2;
@@ -26,6 +30,7 @@ import com.palantir.atlasdb.timelock.api.LeaderTimes;
 import com.palantir.atlasdb.timelock.api.MultiClientConjureTimelockServiceBlocking;
 import com.palantir.atlasdb.timelock.api.Namespace;
 import com.palantir.tokens.auth.AuthHeader;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -60,4 +65,15 @@ public class AuthenticatedInternalMultiClientConjureTimelockService
     public Map<Namespace, ConjureUnlockResponseV2> unlock(Map<Namespace, ConjureUnlockRequestV2> requests) {
         return delegate.unlock(AUTH_HEADER, requests);
     }
+
+    @Override
+    public Map<Namespace, List<ConjureLockResponse>> lock(Map<Namespace, List<ConjureLockRequest>> requests) {
+        return delegate.lock(AUTH_HEADER, requests);
+    }
+
+    @Override
+    public Map<Namespace, ConjureRefreshLocksResponseV2> refreshLocks(
+            Map<Namespace, ConjureRefreshLocksRequestV2> requests) {
+        return delegate.refreshLocks(AUTH_HEADER, requests);
+    }
 }
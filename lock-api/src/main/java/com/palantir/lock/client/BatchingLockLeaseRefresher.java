@@ -0,0 +1,108 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
+import com.palantir.lock.v2.LeaderTime;
+import com.palantir.lock.v2.Lease;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces concurrent lock lease refreshes for a single namespace into one leader time call and at most one
+ * refreshLocksV2 call per batch, handing each caller back the subset of its tokens that are still held.
+ *
+ * The leader time is read afresh for every batch, after all of the batch's refreshes were requested, so a lease is
+ * only ever confirmed against a leader time no older than the refresh asking about it.
+ */
+@SuppressWarnings("DangerousIdentityKey")
+final class BatchingLockLeaseRefresher implements AutoCloseable {
+    private final NamespacedConjureTimelockService delegate;
+    private final LeaderTimeGetter leaderTimeGetter;
+    private final DisruptorAutobatcher<Set<LeasedLockToken>, Set<LeasedLockToken>> autobatcher;
+
+    private BatchingLockLeaseRefresher(NamespacedConjureTimelockService delegate, LeaderTimeGetter leaderTimeGetter) {
+        this.delegate = delegate;
+        this.leaderTimeGetter = leaderTimeGetter;
+        this.autobatcher = Autobatchers.<Set<LeasedLockToken>, Set<LeasedLockToken>>independent(this::processBatch)
+                .safeLoggablePurpose("refresh-lock-leases")
+                .batchFunctionTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    static BatchingLockLeaseRefresher create(
+            NamespacedConjureTimelockService delegate, LeaderTimeGetter leaderTimeGetter) {
+        return new BatchingLockLeaseRefresher(delegate, leaderTimeGetter);
+    }
+
+    Set<LeasedLockToken> refresh(Set<LeasedLockToken> tokens) {
+        if (tokens.isEmpty()) {
+            return tokens;
+        }
+        return AtlasFutures.getUnchecked(autobatcher.apply(tokens));
+    }
+
+    @VisibleForTesting
+    void processBatch(List<BatchElement<Set<LeasedLockToken>, Set<LeasedLockToken>>> batch) {
+        Set<LeasedLockToken> allTokens = new HashSet<>();
+        batch.forEach(element -> allTokens.addAll(element.argument()));
+
+        LeaderTime leaderTime = leaderTimeGetter.leaderTime();
+        Set<LeasedLockToken> stillHeld =
+                allTokens.stream().filter(token -> token.isValid(leaderTime)).collect(Collectors.toSet());
+        stillHeld.addAll(refreshTokens(Sets.difference(allTokens, stillHeld)));
+
+        for (BatchElement<Set<LeasedLockToken>, Set<LeasedLockToken>> element : batch) {
+            element.result()
+                    .set(element.argument().stream().filter(stillHeld::contains).collect(Collectors.toSet()));
+        }
+    }
+
+    private Set<LeasedLockToken> refreshTokens(Set<LeasedLockToken> leasedTokens) {
+        if (leasedTokens.isEmpty()) {
+            return leasedTokens;
+        }
+
+        ConjureRefreshLocksResponseV2 refreshLockResponse =
+                delegate.refreshLocksV2(ConjureRefreshLocksRequestV2.of(LockLeaseService.serverTokens(leasedTokens)));
+        Lease lease = refreshLockResponse.getLease();
+
+        Set<LeasedLockToken> refreshedTokens = leasedTokens.stream()
+                .filter(t -> refreshLockResponse
+                        .getRefreshedTokens()
+                        .contains(LockLeaseService.convertV1Token(t.serverToken())))
+                .collect(Collectors.toSet());
+
+        refreshedTokens.forEach(t -> t.updateLease(lease));
+        return refreshedTokens;
+    }
+
+    @Override
+    public void close() {
+        autobatcher.close();
+    }
+}
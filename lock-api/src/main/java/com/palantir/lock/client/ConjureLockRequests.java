@@ -28,10 +28,13 @@ import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
 import com.palantir.lock.watch.LockWatchVersion;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public final class ConjureLockRequests {
     private ConjureLockRequests() {}
@@ -54,12 +57,18 @@ public final class ConjureLockRequests {
                 .build();
     }
 
+    /**
+     * Descriptors are sent in lock order, so that the server does not need to sort them. Sorting here is cheap, as
+     * transactions usually request their locks in order already.
+     */
     private static Set<ConjureLockDescriptor> toConjure(Set<LockDescriptor> lockDescriptors) {
-        return lockDescriptors.stream()
-                .map(LockDescriptor::getBytes)
-                .map(Bytes::from)
-                .map(ConjureLockDescriptor::of)
-                .collect(Collectors.toSet());
+        List<LockDescriptor> orderedDescriptors = new ArrayList<>(lockDescriptors);
+        orderedDescriptors.sort(Comparator.naturalOrder());
+        Set<ConjureLockDescriptor> descriptors = new LinkedHashSet<>(orderedDescriptors.size());
+        for (LockDescriptor descriptor : orderedDescriptors) {
+            descriptors.add(ConjureLockDescriptor.of(Bytes.from(descriptor.getBytes())));
+        }
+        return descriptors;
     }
 
     public static Optional<ConjureIdentifiedVersion> toConjure(Optional<LockWatchVersion> maybeVersion) {
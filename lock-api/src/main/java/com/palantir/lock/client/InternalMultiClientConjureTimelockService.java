@@ -16,6 +16,10 @@
 
 package com.palantir.lock.client;
 
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockRequestV2;
@@ -24,6 +28,7 @@ import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
 import com.palantir.atlasdb.timelock.api.LeaderTimes;
 import com.palantir.atlasdb.timelock.api.Namespace;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,4 +42,8 @@ public interface InternalMultiClientConjureTimelockService {
             Map<Namespace, ConjureStartTransactionsRequest> requests);
 
     Map<Namespace, ConjureUnlockResponseV2> unlock(Map<Namespace, ConjureUnlockRequestV2> requests);
+
+    Map<Namespace, List<ConjureLockResponse>> lock(Map<Namespace, List<ConjureLockRequest>> requests);
+
+    Map<Namespace, ConjureRefreshLocksResponseV2> refreshLocks(Map<Namespace, ConjureRefreshLocksRequestV2> requests);
 }
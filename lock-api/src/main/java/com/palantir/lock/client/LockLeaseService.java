@@ -17,16 +17,12 @@
 package com.palantir.lock.client;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Sets;
 import com.palantir.atlasdb.timelock.api.ConjureLockToken;
 import com.palantir.atlasdb.timelock.api.ConjureLockTokenV2;
-import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
-import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
-import com.palantir.lock.v2.LeaderTime;
 import com.palantir.lock.v2.Lease;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
@@ -37,6 +33,7 @@ import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
 import com.palantir.lock.watch.LockWatchVersion;
 import com.palantir.logsafe.Preconditions;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -49,6 +46,7 @@ public class LockLeaseService implements AutoCloseable {
     private final LeaderTimeGetter leaderTimeGetter;
     private final LockTokenUnlocker unlocker;
     private final BlockEnforcingLockService lockService;
+    private final BatchingLockLeaseRefresher refresher;
 
     @VisibleForTesting
     LockLeaseService(
@@ -61,6 +59,7 @@ public class LockLeaseService implements AutoCloseable {
         this.leaderTimeGetter = leaderTimeGetter;
         this.lockService = BlockEnforcingLockService.create(delegate);
         this.unlocker = unlocker;
+        this.refresher = BatchingLockLeaseRefresher.create(delegate, leaderTimeGetter);
     }
 
     public static LockLeaseService create(
@@ -140,17 +139,7 @@ public class LockLeaseService implements AutoCloseable {
         if (uncastedTokens.isEmpty()) {
             return uncastedTokens;
         }
-
-        LeaderTime leaderTime = leaderTimeGetter.leaderTime();
-        Set<LeasedLockToken> allTokens = leasedTokens(uncastedTokens);
-
-        Set<LeasedLockToken> validByLease =
-                allTokens.stream().filter(token -> token.isValid(leaderTime)).collect(Collectors.toSet());
-
-        Set<LeasedLockToken> toRefresh = Sets.difference(allTokens, validByLease);
-        Set<LeasedLockToken> refreshedTokens = refreshTokens(toRefresh);
-
-        return Sets.union(refreshedTokens, validByLease);
+        return Collections.unmodifiableSet(refresher.refresh(leasedTokens(uncastedTokens)));
     }
 
     Set<LockToken> unlock(Set<LockToken> tokens) {
@@ -167,25 +156,6 @@ public class LockLeaseService implements AutoCloseable {
                 .collect(Collectors.toSet());
     }
 
-    private Set<LeasedLockToken> refreshTokens(Set<LeasedLockToken> leasedTokens) {
-        if (leasedTokens.isEmpty()) {
-            return leasedTokens;
-        }
-
-        ConjureRefreshLocksResponseV2 refreshLockResponse =
-                delegate.refreshLocksV2(ConjureRefreshLocksRequestV2.of(serverTokens(leasedTokens)));
-        Lease lease = refreshLockResponse.getLease();
-
-        Set<LeasedLockToken> refreshedTokens = leasedTokens.stream()
-                .filter(t -> refreshLockResponse
-                        .getRefreshedTokens()
-                        .contains(LockLeaseService.convertV1Token(t.serverToken())))
-                .collect(Collectors.toSet());
-
-        refreshedTokens.forEach(t -> t.updateLease(lease));
-        return refreshedTokens;
-    }
-
     @SuppressWarnings("unchecked")
     private static Set<LeasedLockToken> leasedTokens(Set<LockToken> tokens) {
         for (LockToken token : tokens) {
@@ -195,19 +165,20 @@ public class LockLeaseService implements AutoCloseable {
         return (Set<LeasedLockToken>) (Set<?>) tokens;
     }
 
-    private static Set<ConjureLockTokenV2> serverTokens(Set<LeasedLockToken> leasedTokens) {
+    static Set<ConjureLockTokenV2> serverTokens(Set<LeasedLockToken> leasedTokens) {
         return leasedTokens.stream()
                 .map(LeasedLockToken::serverToken)
                 .map(LockLeaseService::convertV1Token)
                 .collect(Collectors.toSet());
     }
 
-    private static ConjureLockTokenV2 convertV1Token(ConjureLockToken conjureLockToken) {
+    static ConjureLockTokenV2 convertV1Token(ConjureLockToken conjureLockToken) {
         return ConjureLockTokenV2.of(conjureLockToken.getRequestId());
     }
 
     @Override
     public void close() {
+        refresher.close();
         leaderTimeGetter.close();
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.Namespace;
+import com.palantir.common.streams.KeyedStream;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import org.immutables.value.Value;
+
+/**
+ * Coalesces non-blocking lock requests from all namespaces talking to the same TimeLock cluster into a single
+ * multi-client lock call per batch.
+ *
+ * A batched response is only sent once every request in it has completed, so a request that waits on a contended
+ * lock would hold up every other request in its batch. Only requests with a zero acquire timeout are accepted here;
+ * blocking requests must be sent on their own.
+ */
+public class MultiClientLockAcquirer implements AutoCloseable {
+    private final DisruptorAutobatcher<NamespacedLockRequest, ConjureLockResponse> batcher;
+
+    public MultiClientLockAcquirer(InternalMultiClientConjureTimelockService delegate, OptionalInt bufferSize) {
+        this.batcher = Autobatchers.independent(new LockConsumer(delegate))
+                .bufferSize(bufferSize)
+                .batchFunctionTimeout(Duration.ofSeconds(30))
+                .safeLoggablePurpose("multi-client-lock-acquirer")
+                .build();
+    }
+
+    public static boolean isBatchable(ConjureLockRequest request) {
+        return request.getAcquireTimeoutMs() == 0;
+    }
+
+    public ConjureLockResponse lock(Namespace namespace, ConjureLockRequest request) {
+        Preconditions.checkArgument(
+                isBatchable(request),
+                "Only non-blocking lock requests may be batched",
+                SafeArg.of("acquireTimeoutMs", request.getAcquireTimeoutMs()));
+        return AtlasFutures.getUnchecked(batcher.apply(ImmutableNamespacedLockRequest.of(namespace, request)));
+    }
+
+    @Override
+    public void close() {
+        batcher.close();
+    }
+
+    @VisibleForTesting
+    static class LockConsumer implements Consumer<List<BatchElement<NamespacedLockRequest, ConjureLockResponse>>> {
+        private final InternalMultiClientConjureTimelockService timelockService;
+
+        LockConsumer(InternalMultiClientConjureTimelockService timelockService) {
+            this.timelockService = timelockService;
+        }
+
+        @Override
+        public void accept(List<BatchElement<NamespacedLockRequest, ConjureLockResponse>> batch) {
+            try {
+                processBatch(batch);
+            } catch (Throwable t) {
+                batch.forEach(element -> element.result().setException(t));
+            }
+        }
+
+        private void processBatch(List<BatchElement<NamespacedLockRequest, ConjureLockResponse>> batch) {
+            Map<Namespace, List<BatchElement<NamespacedLockRequest, ConjureLockResponse>>> elementsByNamespace =
+                    new HashMap<>();
+            for (BatchElement<NamespacedLockRequest, ConjureLockResponse> element : batch) {
+                elementsByNamespace
+                        .computeIfAbsent(element.argument().namespace(), _unused -> new ArrayList<>())
+                        .add(element);
+            }
+
+            Map<Namespace, List<ConjureLockResponse>> responses =
+                    timelockService.lock(KeyedStream.stream(elementsByNamespace)
+                            .<List<ConjureLockRequest>>map(elements -> elements.stream()
+                                    .map(element -> element.argument().request())
+                                    .collect(ImmutableList.toImmutableList()))
+                            .collectToMap());
+
+            elementsByNamespace.forEach((namespace, elements) -> {
+                List<ConjureLockResponse> namespaceResponses = responses.get(namespace);
+                if (namespaceResponses == null || namespaceResponses.size() != elements.size()) {
+                    throw new SafeIllegalStateException(
+                            "TimeLock returned the wrong number of lock responses for a namespace",
+                            SafeArg.of("namespace", namespace),
+                            SafeArg.of("expected", elements.size()),
+                            SafeArg.of("actual", namespaceResponses == null ? 0 : namespaceResponses.size()));
+                }
+                for (int i = 0; i < elements.size(); i++) {
+                    elements.get(i).result().set(namespaceResponses.get(i));
+                }
+            });
+        }
+    }
+
+    @Value.Immutable
+    interface NamespacedLockRequest {
+        @Value.Parameter
+        Namespace namespace();
+
+        @Value.Parameter
+        ConjureLockRequest request();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.timelock.api.ConjureLockTokenV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
+import com.palantir.atlasdb.timelock.api.Namespace;
+import com.palantir.common.streams.KeyedStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.immutables.value.Value;
+
+/**
+ * Coalesces lock lease refreshes from all namespaces talking to the same TimeLock cluster into a single
+ * multi-client refreshLocks call per batch.
+ */
+public class MultiClientLockRefresher implements AutoCloseable {
+    private final DisruptorAutobatcher<RefreshRequest, ConjureRefreshLocksResponseV2> batcher;
+
+    public MultiClientLockRefresher(InternalMultiClientConjureTimelockService delegate, OptionalInt bufferSize) {
+        this.batcher = Autobatchers.independent(new RefreshConsumer(delegate))
+                .bufferSize(bufferSize)
+                .batchFunctionTimeout(Duration.ofSeconds(30))
+                .safeLoggablePurpose("multi-client-lock-refresher")
+                .build();
+    }
+
+    public ConjureRefreshLocksResponseV2 refreshLocks(Namespace namespace, ConjureRefreshLocksRequestV2 request) {
+        return AtlasFutures.getUnchecked(batcher.apply(ImmutableRefreshRequest.of(namespace, request.get())));
+    }
+
+    @Override
+    public void close() {
+        batcher.close();
+    }
+
+    private static final class SingleClientBatchManager {
+        private final List<BatchElement<RefreshRequest, ConjureRefreshLocksResponseV2>> requests = new ArrayList<>();
+
+        private void addBatchElement(BatchElement<RefreshRequest, ConjureRefreshLocksResponseV2> batchElement) {
+            requests.add(batchElement);
+        }
+
+        private ConjureRefreshLocksRequestV2 getCombinedRequest() {
+            Set<ConjureLockTokenV2> lockTokens = new HashSet<>();
+            for (BatchElement<RefreshRequest, ConjureRefreshLocksResponseV2> batchElement : requests) {
+                lockTokens.addAll(batchElement.argument().lockSet());
+            }
+            return ConjureRefreshLocksRequestV2.of(lockTokens);
+        }
+
+        private void applyResponse(ConjureRefreshLocksResponseV2 relevantResponse) {
+            Set<ConjureLockTokenV2> refreshedTokens = relevantResponse.getRefreshedTokens();
+            for (BatchElement<RefreshRequest, ConjureRefreshLocksResponseV2> batchElement : requests) {
+                Set<ConjureLockTokenV2> refreshedForRequest =
+                        ImmutableSet.copyOf(Sets.intersection(batchElement.argument().lockSet(), refreshedTokens));
+                batchElement
+                        .result()
+                        .set(ConjureRefreshLocksResponseV2.of(refreshedForRequest, relevantResponse.getLease()));
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static class RefreshConsumer
+            implements Consumer<List<BatchElement<RefreshRequest, ConjureRefreshLocksResponseV2>>> {
+        private final InternalMultiClientConjureTimelockService timelockService;
+
+        RefreshConsumer(InternalMultiClientConjureTimelockService timelockService) {
+            this.timelockService = timelockService;
+        }
+
+        @Override
+        public void accept(List<BatchElement<RefreshRequest, ConjureRefreshLocksResponseV2>> batchElements) {
+            Map<Namespace, SingleClientBatchManager> batchManagers = new HashMap<>();
+            for (BatchElement<RefreshRequest, ConjureRefreshLocksResponseV2> batchElement : batchElements) {
+                batchManagers
+                        .computeIfAbsent(batchElement.argument().namespace(), _unused -> new SingleClientBatchManager())
+                        .addBatchElement(batchElement);
+            }
+
+            Map<Namespace, ConjureRefreshLocksResponseV2> responses =
+                    timelockService.refreshLocks(KeyedStream.stream(batchManagers)
+                            .map(SingleClientBatchManager::getCombinedRequest)
+                            .collectToMap());
+
+            batchManagers.forEach((namespace, batchManager) -> batchManager.applyResponse(responses.get(namespace)));
+        }
+    }
+
+    @Value.Immutable
+    interface RefreshRequest {
+        @Value.Parameter
+        Namespace namespace();
+
+        @Value.Parameter
+        Set<ConjureLockTokenV2> lockSet();
+    }
+}
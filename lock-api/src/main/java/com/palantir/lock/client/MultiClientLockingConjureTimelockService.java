@@ -0,0 +1,169 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponseV2;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
+import com.palantir.atlasdb.timelock.api.ConjureSingleTimestamp;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
+import com.palantir.atlasdb.timelock.api.ConjureUnlockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureUnlockRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureUnlockResponseV2;
+import com.palantir.atlasdb.timelock.api.ConjureWaitForLocksResponse;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
+import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.Namespace;
+import com.palantir.atlasdb.timelock.api.SuccessfulLockResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
+import com.palantir.lock.v2.LeaderTime;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.util.UUID;
+
+/**
+ * Routes non-blocking lock requests and lock refresh requests through batchers shared by every namespace talking to the
+ * same TimeLock cluster; all other requests go straight to the delegate.
+ *
+ * A lock request that may block is first attempted without blocking through the batcher, so that uncontended
+ * requests (for example, commit locks of concurrently committing transactions) share a round trip. Only if that
+ * attempt fails is the request sent on its own with its full acquire timeout.
+ */
+public class MultiClientLockingConjureTimelockService implements NamespacedConjureTimelockService, AutoCloseable {
+    private final Namespace namespace;
+    private final NamespacedConjureTimelockService delegate;
+    private final ReferenceTrackingWrapper<MultiClientLockAcquirer> lockAcquirer;
+    private final ReferenceTrackingWrapper<MultiClientLockRefresher> lockRefresher;
+
+    public MultiClientLockingConjureTimelockService(
+            String namespace,
+            NamespacedConjureTimelockService delegate,
+            ReferenceTrackingWrapper<MultiClientLockAcquirer> lockAcquirer,
+            ReferenceTrackingWrapper<MultiClientLockRefresher> lockRefresher) {
+        this.namespace = Namespace.of(namespace);
+        this.delegate = delegate;
+        this.lockAcquirer = lockAcquirer;
+        this.lockRefresher = lockRefresher;
+    }
+
+    @Override
+    public ConjureLockResponse lock(ConjureLockRequest request) {
+        if (MultiClientLockAcquirer.isBatchable(request)) {
+            return lockAcquirer.getDelegate().lock(namespace, request);
+        }
+        ConjureLockResponse nonBlockingResponse =
+                lockAcquirer.getDelegate().lock(namespace, toNonBlockingAttempt(request));
+        if (nonBlockingResponse.accept(IsSuccessful.INSTANCE)) {
+            return nonBlockingResponse;
+        }
+        return delegate.lock(request);
+    }
+
+    @Override
+    public ConjureRefreshLocksResponseV2 refreshLocksV2(ConjureRefreshLocksRequestV2 request) {
+        return lockRefresher.getDelegate().refreshLocks(namespace, request);
+    }
+
+    @Override
+    public ConjureUnlockResponse unlock(ConjureUnlockRequest request) {
+        return delegate.unlock(request);
+    }
+
+    @Override
+    public ConjureUnlockResponseV2 unlockV2(ConjureUnlockRequestV2 request) {
+        return delegate.unlockV2(request);
+    }
+
+    @Override
+    public ConjureRefreshLocksResponse refreshLocks(ConjureRefreshLocksRequest request) {
+        return delegate.refreshLocks(request);
+    }
+
+    @Override
+    public ConjureWaitForLocksResponse waitForLocks(ConjureLockRequest request) {
+        return delegate.waitForLocks(request);
+    }
+
+    @Override
+    public LeaderTime leaderTime() {
+        return delegate.leaderTime();
+    }
+
+    @Override
+    public GetCommitTimestampsResponse getCommitTimestamps(GetCommitTimestampsRequest request) {
+        return delegate.getCommitTimestamps(request);
+    }
+
+    @Override
+    public ConjureGetFreshTimestampsResponseV2 getFreshTimestampsV2(ConjureGetFreshTimestampsRequestV2 request) {
+        return delegate.getFreshTimestampsV2(request);
+    }
+
+    @Override
+    public ConjureSingleTimestamp getFreshTimestamp() {
+        return delegate.getFreshTimestamp();
+    }
+
+    @Override
+    public ConjureStartTransactionsResponse startTransactions(ConjureStartTransactionsRequest request) {
+        return delegate.startTransactions(request);
+    }
+
+    /**
+     * TimeLock remembers the result of a request by its id until it expires, so the non-blocking attempt needs an id of
+     * its own for the blocking request to still be able to acquire the locks after it fails.
+     */
+    private static ConjureLockRequest toNonBlockingAttempt(ConjureLockRequest request) {
+        return ConjureLockRequest.builder()
+                .from(request)
+                .requestId(UUID.randomUUID())
+                .acquireTimeoutMs(0)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        lockAcquirer.close();
+        lockRefresher.close();
+    }
+
+    private enum IsSuccessful implements ConjureLockResponse.Visitor<Boolean> {
+        INSTANCE;
+
+        @Override
+        public Boolean visitSuccessful(SuccessfulLockResponse value) {
+            return true;
+        }
+
+        @Override
+        public Boolean visitUnsuccessful(UnsuccessfulLockResponse value) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitUnknown(String unknownType) {
+            throw new SafeIllegalStateException("Unknown response type", SafeArg.of("type", unknownType));
+        }
+    }
+}
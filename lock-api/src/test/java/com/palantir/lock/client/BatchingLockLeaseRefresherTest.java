@@ -0,0 +1,134 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher.DisruptorFuture;
+import com.palantir.atlasdb.timelock.api.ConjureLockToken;
+import com.palantir.atlasdb.timelock.api.ConjureLockTokenV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
+import com.palantir.common.time.NanoTime;
+import com.palantir.lock.v2.LeaderTime;
+import com.palantir.lock.v2.LeadershipId;
+import com.palantir.lock.v2.Lease;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchingLockLeaseRefresherTest {
+    private static final LeadershipId LEADER_ID = LeadershipId.random();
+    private static final Duration LEASE_DURATION = Duration.ofSeconds(1);
+
+    @Mock
+    private NamespacedConjureTimelockService timelock;
+
+    private final AtomicLong leaderNanos = new AtomicLong(5_000L);
+    private BatchingLockLeaseRefresher refresher;
+
+    @Before
+    public void before() {
+        when(timelock.leaderTime()).thenAnswer(_inv -> leaderTime());
+        refresher = BatchingLockLeaseRefresher.create(timelock, new LegacyLeaderTimeGetter(timelock));
+    }
+
+    @After
+    public void after() {
+        refresher.close();
+    }
+
+    @Test
+    public void validLeasesAreCheckedAgainstLeaderTimeWithoutRefreshing() {
+        LeasedLockToken token = tokenWithLease(LEASE_DURATION);
+
+        assertThat(refresher.refresh(ImmutableSet.of(token))).containsExactly(token);
+        verify(timelock).leaderTime();
+        verify(timelock, never()).refreshLocksV2(any());
+    }
+
+    @Test
+    public void everyBatchReadsAFreshLeaderTime() {
+        LeasedLockToken token = tokenWithLease(LEASE_DURATION);
+        refresher.refresh(ImmutableSet.of(token));
+
+        leaderNanos.addAndGet(LEASE_DURATION.toNanos());
+        when(timelock.refreshLocksV2(any())).thenReturn(ConjureRefreshLocksResponseV2.of(ImmutableSet.of(), lease()));
+
+        assertThat(refresher.refresh(ImmutableSet.of(token))).isEmpty();
+        verify(timelock, times(2)).leaderTime();
+        verify(timelock).refreshLocksV2(ConjureRefreshLocksRequestV2.of(ImmutableSet.of(serverToken(token))));
+    }
+
+    @Test
+    public void batchIsRefreshedInOneCallAndSplitBetweenCallers() {
+        LeasedLockToken valid = tokenWithLease(LEASE_DURATION);
+        LeasedLockToken refreshable = tokenWithLease(Duration.ZERO);
+        LeasedLockToken lost = tokenWithLease(Duration.ZERO);
+        when(timelock.refreshLocksV2(any()))
+                .thenReturn(ConjureRefreshLocksResponseV2.of(ImmutableSet.of(serverToken(refreshable)), lease()));
+
+        BatchElement<Set<LeasedLockToken>, Set<LeasedLockToken>> first = element(ImmutableSet.of(valid, refreshable));
+        BatchElement<Set<LeasedLockToken>, Set<LeasedLockToken>> second = element(ImmutableSet.of(refreshable, lost));
+        refresher.processBatch(ImmutableList.of(first, second));
+
+        verify(timelock).leaderTime();
+        verify(timelock)
+                .refreshLocksV2(ConjureRefreshLocksRequestV2.of(
+                        ImmutableSet.of(serverToken(refreshable), serverToken(lost))));
+        assertThat(Futures.getDone(first.result())).containsExactlyInAnyOrder(valid, refreshable);
+        assertThat(Futures.getDone(second.result())).containsExactly(refreshable);
+        assertThat(refreshable.isValid(leaderTime())).isTrue();
+    }
+
+    private static BatchElement<Set<LeasedLockToken>, Set<LeasedLockToken>> element(Set<LeasedLockToken> tokens) {
+        return BatchElement.of(tokens, new DisruptorFuture<>("test"));
+    }
+
+    private LeasedLockToken tokenWithLease(Duration validity) {
+        return LeasedLockToken.of(ConjureLockToken.of(UUID.randomUUID()), Lease.of(leaderTime(), validity));
+    }
+
+    private static ConjureLockTokenV2 serverToken(LeasedLockToken token) {
+        return ConjureLockTokenV2.of(token.serverToken().getRequestId());
+    }
+
+    private Lease lease() {
+        return Lease.of(leaderTime(), LEASE_DURATION);
+    }
+
+    private LeaderTime leaderTime() {
+        return LeaderTime.of(LEADER_ID, NanoTime.createForTests(leaderNanos.get()));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher.DisruptorFuture;
+import com.palantir.atlasdb.timelock.api.ConjureLockDescriptor;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockToken;
+import com.palantir.atlasdb.timelock.api.Namespace;
+import com.palantir.atlasdb.timelock.api.SuccessfulLockResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
+import com.palantir.common.time.NanoTime;
+import com.palantir.conjure.java.lib.Bytes;
+import com.palantir.lock.client.MultiClientLockAcquirer.LockConsumer;
+import com.palantir.lock.v2.LeaderTime;
+import com.palantir.lock.v2.LeadershipId;
+import com.palantir.lock.v2.Lease;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import java.time.Duration;
+import java.util.OptionalInt;
+import java.util.UUID;
+import org.junit.Test;
+
+public class MultiClientLockAcquirerTest {
+    private static final Namespace NAMESPACE_1 = Namespace.of("namespace");
+    private static final Namespace NAMESPACE_2 = Namespace.of("Namensbereich");
+
+    private static final ConjureLockRequest REQUEST_1 = lockRequest();
+    private static final ConjureLockRequest REQUEST_2 = lockRequest();
+    private static final ConjureLockRequest REQUEST_3 = lockRequest();
+
+    private static final ConjureLockResponse RESPONSE_1 = successfulResponse(REQUEST_1);
+    private static final ConjureLockResponse RESPONSE_2 =
+            ConjureLockResponse.unsuccessful(UnsuccessfulLockResponse.of());
+    private static final ConjureLockResponse RESPONSE_3 = successfulResponse(REQUEST_3);
+
+    private final InternalMultiClientConjureTimelockService conjureTimelockService =
+            mock(InternalMultiClientConjureTimelockService.class);
+    private final LockConsumer lockConsumer = new LockConsumer(conjureTimelockService);
+
+    @Test
+    public void groupsRequestsByNamespaceAndAssignsResponsesInOrder() {
+        DisruptorFuture<ConjureLockResponse> firstResultFuture = new DisruptorFuture<>("test");
+        DisruptorFuture<ConjureLockResponse> secondResultFuture = new DisruptorFuture<>("test2");
+        DisruptorFuture<ConjureLockResponse> thirdResultFuture = new DisruptorFuture<>("test3");
+        when(conjureTimelockService.lock(ImmutableMap.of(
+                        NAMESPACE_1, ImmutableList.of(REQUEST_1, REQUEST_3), NAMESPACE_2, ImmutableList.of(REQUEST_2))))
+                .thenReturn(ImmutableMap.of(
+                        NAMESPACE_1,
+                        ImmutableList.of(RESPONSE_1, RESPONSE_3),
+                        NAMESPACE_2,
+                        ImmutableList.of(RESPONSE_2)));
+
+        lockConsumer.accept(ImmutableList.of(
+                BatchElement.of(ImmutableNamespacedLockRequest.of(NAMESPACE_1, REQUEST_1), firstResultFuture),
+                BatchElement.of(ImmutableNamespacedLockRequest.of(NAMESPACE_2, REQUEST_2), secondResultFuture),
+                BatchElement.of(ImmutableNamespacedLockRequest.of(NAMESPACE_1, REQUEST_3), thirdResultFuture)));
+
+        assertThat(Futures.getUnchecked(firstResultFuture)).isEqualTo(RESPONSE_1);
+        assertThat(Futures.getUnchecked(secondResultFuture)).isEqualTo(RESPONSE_2);
+        assertThat(Futures.getUnchecked(thirdResultFuture)).isEqualTo(RESPONSE_3);
+    }
+
+    @Test
+    public void failsAllFuturesIfRequestFails() {
+        RuntimeException runtimeException = new RuntimeException("I am a RuntimeException, short and stout");
+        when(conjureTimelockService.lock(any())).thenThrow(runtimeException);
+        DisruptorFuture<ConjureLockResponse> firstResultFuture = new DisruptorFuture<>("test");
+        DisruptorFuture<ConjureLockResponse> secondResultFuture = new DisruptorFuture<>("test2");
+
+        lockConsumer.accept(ImmutableList.of(
+                BatchElement.of(ImmutableNamespacedLockRequest.of(NAMESPACE_1, REQUEST_1), firstResultFuture),
+                BatchElement.of(ImmutableNamespacedLockRequest.of(NAMESPACE_2, REQUEST_2), secondResultFuture)));
+
+        assertThatThrownBy(() -> Futures.getUnchecked(firstResultFuture)).hasCause(runtimeException);
+        assertThatThrownBy(() -> Futures.getUnchecked(secondResultFuture)).hasCause(runtimeException);
+    }
+
+    @Test
+    public void failsAllFuturesIfResponseIsMissingEntries() {
+        when(conjureTimelockService.lock(any()))
+                .thenReturn(ImmutableMap.of(NAMESPACE_1, ImmutableList.of(RESPONSE_1)));
+        DisruptorFuture<ConjureLockResponse> resultFuture = new DisruptorFuture<>("test");
+
+        lockConsumer.accept(ImmutableList.of(
+                BatchElement.of(ImmutableNamespacedLockRequest.of(NAMESPACE_1, REQUEST_1), new DisruptorFuture<>("a")),
+                BatchElement.of(ImmutableNamespacedLockRequest.of(NAMESPACE_1, REQUEST_3), resultFuture)));
+
+        assertThatThrownBy(() -> Futures.getUnchecked(resultFuture))
+                .hasCauseInstanceOf(SafeIllegalStateException.class);
+    }
+
+    @Test
+    public void rejectsBlockingRequests() {
+        ConjureLockRequest blockingRequest =
+                ConjureLockRequest.builder().from(REQUEST_1).acquireTimeoutMs(100).build();
+
+        try (MultiClientLockAcquirer lockAcquirer =
+                new MultiClientLockAcquirer(conjureTimelockService, OptionalInt.empty())) {
+            assertThatThrownBy(() -> lockAcquirer.lock(NAMESPACE_1, blockingRequest))
+                    .isInstanceOf(SafeIllegalArgumentException.class);
+        }
+        verifyNoInteractions(conjureTimelockService);
+    }
+
+    private static ConjureLockRequest lockRequest() {
+        return ConjureLockRequest.builder()
+                .requestId(UUID.randomUUID())
+                .lockDescriptors(ImmutableSet.of(ConjureLockDescriptor.of(Bytes.from(new byte[] {1}))))
+                .acquireTimeoutMs(0)
+                .build();
+    }
+
+    private static ConjureLockResponse successfulResponse(ConjureLockRequest request) {
+        return ConjureLockResponse.successful(SuccessfulLockResponse.of(
+                ConjureLockToken.of(request.getRequestId()),
+                Lease.of(LeaderTime.of(LeadershipId.random(), NanoTime.createForTests(10)), Duration.ofSeconds(1))));
+    }
+}
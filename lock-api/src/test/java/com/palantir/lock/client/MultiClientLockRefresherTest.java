@@ -0,0 +1,108 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher.DisruptorFuture;
+import com.palantir.atlasdb.timelock.api.ConjureLockTokenV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
+import com.palantir.atlasdb.timelock.api.Namespace;
+import com.palantir.common.time.NanoTime;
+import com.palantir.lock.client.MultiClientLockRefresher.RefreshConsumer;
+import com.palantir.lock.v2.LeaderTime;
+import com.palantir.lock.v2.LeadershipId;
+import com.palantir.lock.v2.Lease;
+import java.time.Duration;
+import java.util.OptionalInt;
+import java.util.UUID;
+import org.junit.Test;
+
+public class MultiClientLockRefresherTest {
+    private static final Namespace NAMESPACE_1 = Namespace.of("namespace");
+    private static final Namespace NAMESPACE_2 = Namespace.of("Namensbereich");
+
+    private static final ConjureLockTokenV2 CONJURE_TOKEN_1 = ConjureLockTokenV2.of(UUID.randomUUID());
+    private static final ConjureLockTokenV2 CONJURE_TOKEN_2 = ConjureLockTokenV2.of(UUID.randomUUID());
+    private static final ConjureLockTokenV2 CONJURE_TOKEN_3 = ConjureLockTokenV2.of(UUID.randomUUID());
+
+    private static final Lease LEASE_1 =
+            Lease.of(LeaderTime.of(LeadershipId.random(), NanoTime.createForTests(10)), Duration.ofSeconds(1));
+    private static final Lease LEASE_2 =
+            Lease.of(LeaderTime.of(LeadershipId.random(), NanoTime.createForTests(20)), Duration.ofSeconds(1));
+
+    private final InternalMultiClientConjureTimelockService conjureTimelockService =
+            mock(InternalMultiClientConjureTimelockService.class);
+
+    @Test
+    public void canRefreshOneUserRequest() {
+        when(conjureTimelockService.refreshLocks(ImmutableMap.of(
+                        NAMESPACE_1, ConjureRefreshLocksRequestV2.of(ImmutableSet.of(CONJURE_TOKEN_1)))))
+                .thenReturn(ImmutableMap.of(
+                        NAMESPACE_1, ConjureRefreshLocksResponseV2.of(ImmutableSet.of(CONJURE_TOKEN_1), LEASE_1)));
+        try (MultiClientLockRefresher refresher =
+                new MultiClientLockRefresher(conjureTimelockService, OptionalInt.of(1024))) {
+            assertThat(refresher.refreshLocks(
+                            NAMESPACE_1, ConjureRefreshLocksRequestV2.of(ImmutableSet.of(CONJURE_TOKEN_1))))
+                    .isEqualTo(ConjureRefreshLocksResponseV2.of(ImmutableSet.of(CONJURE_TOKEN_1), LEASE_1));
+        }
+    }
+
+    @Test
+    public void combinesRequestsPerNamespaceAndSplitsResponses() {
+        DisruptorFuture<ConjureRefreshLocksResponseV2> firstResultFuture = new DisruptorFuture<>("test");
+        DisruptorFuture<ConjureRefreshLocksResponseV2> secondResultFuture = new DisruptorFuture<>("test2");
+        DisruptorFuture<ConjureRefreshLocksResponseV2> thirdResultFuture = new DisruptorFuture<>("test3");
+        when(conjureTimelockService.refreshLocks(ImmutableMap.of(
+                        NAMESPACE_1,
+                        ConjureRefreshLocksRequestV2.of(ImmutableSet.of(CONJURE_TOKEN_1, CONJURE_TOKEN_2)),
+                        NAMESPACE_2,
+                        ConjureRefreshLocksRequestV2.of(ImmutableSet.of(CONJURE_TOKEN_3)))))
+                .thenReturn(ImmutableMap.of(
+                        NAMESPACE_1,
+                        ConjureRefreshLocksResponseV2.of(ImmutableSet.of(CONJURE_TOKEN_2), LEASE_1),
+                        NAMESPACE_2,
+                        ConjureRefreshLocksResponseV2.of(ImmutableSet.of(CONJURE_TOKEN_3), LEASE_2)));
+
+        new RefreshConsumer(conjureTimelockService)
+                .accept(ImmutableList.of(
+                        BatchElement.of(
+                                ImmutableRefreshRequest.of(NAMESPACE_1, ImmutableSet.of(CONJURE_TOKEN_1)),
+                                firstResultFuture),
+                        BatchElement.of(
+                                ImmutableRefreshRequest.of(NAMESPACE_1, ImmutableSet.of(CONJURE_TOKEN_2)),
+                                secondResultFuture),
+                        BatchElement.of(
+                                ImmutableRefreshRequest.of(NAMESPACE_2, ImmutableSet.of(CONJURE_TOKEN_3)),
+                                thirdResultFuture)));
+
+        assertThat(Futures.getUnchecked(firstResultFuture))
+                .isEqualTo(ConjureRefreshLocksResponseV2.of(ImmutableSet.of(), LEASE_1));
+        assertThat(Futures.getUnchecked(secondResultFuture))
+                .isEqualTo(ConjureRefreshLocksResponseV2.of(ImmutableSet.of(CONJURE_TOKEN_2), LEASE_1));
+        assertThat(Futures.getUnchecked(thirdResultFuture))
+                .isEqualTo(ConjureRefreshLocksResponseV2.of(ImmutableSet.of(CONJURE_TOKEN_3), LEASE_2));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.timelock.api.ConjureLockDescriptor;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockToken;
+import com.palantir.atlasdb.timelock.api.Namespace;
+import com.palantir.atlasdb.timelock.api.SuccessfulLockResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
+import com.palantir.common.time.NanoTime;
+import com.palantir.conjure.java.lib.Bytes;
+import com.palantir.lock.v2.LeaderTime;
+import com.palantir.lock.v2.LeadershipId;
+import com.palantir.lock.v2.Lease;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.Test;
+
+public class MultiClientLockingConjureTimelockServiceTest {
+    private static final String NAMESPACE = "namespace";
+    private static final ConjureLockResponse UNSUCCESSFUL_RESPONSE =
+            ConjureLockResponse.unsuccessful(UnsuccessfulLockResponse.of());
+    private static final ConjureLockResponse SUCCESSFUL_RESPONSE = ConjureLockResponse.successful(
+            SuccessfulLockResponse.of(ConjureLockToken.of(UUID.randomUUID()), lease()));
+
+    private final NamespacedConjureTimelockService delegate = mock(NamespacedConjureTimelockService.class);
+    private final MultiClientLockAcquirer lockAcquirer = mock(MultiClientLockAcquirer.class);
+    private final MultiClientLockingConjureTimelockService service = new MultiClientLockingConjureTimelockService(
+            NAMESPACE,
+            delegate,
+            new ReferenceTrackingWrapper<>(lockAcquirer),
+            new ReferenceTrackingWrapper<>(mock(MultiClientLockRefresher.class)));
+
+    @Test
+    public void batchesNonBlockingLockRequests() {
+        ConjureLockRequest request = lockRequest(0);
+        when(lockAcquirer.lock(any(), any())).thenReturn(UNSUCCESSFUL_RESPONSE);
+
+        assertThat(service.lock(request)).isEqualTo(UNSUCCESSFUL_RESPONSE);
+        verify(lockAcquirer).lock(eq(Namespace.of(NAMESPACE)), eq(request));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    public void blockingLockRequestsReturnSuccessfulNonBlockingAttempt() {
+        ConjureLockRequest request = lockRequest(100);
+        when(lockAcquirer.lock(any(), any())).thenReturn(SUCCESSFUL_RESPONSE);
+
+        assertThat(service.lock(request)).isEqualTo(SUCCESSFUL_RESPONSE);
+        verify(lockAcquirer)
+                .lock(eq(Namespace.of(NAMESPACE)), argThat(attempt -> isNonBlockingAttempt(request, attempt)));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    public void blockingLockRequestsAreSentOnTheirOwnIfNonBlockingAttemptFails() {
+        ConjureLockRequest request = lockRequest(100);
+        when(lockAcquirer.lock(any(), any())).thenReturn(UNSUCCESSFUL_RESPONSE);
+        when(delegate.lock(request)).thenReturn(SUCCESSFUL_RESPONSE);
+
+        assertThat(service.lock(request)).isEqualTo(SUCCESSFUL_RESPONSE);
+        verify(lockAcquirer)
+                .lock(eq(Namespace.of(NAMESPACE)), argThat(attempt -> isNonBlockingAttempt(request, attempt)));
+        verify(delegate).lock(request);
+    }
+
+    private static boolean isNonBlockingAttempt(ConjureLockRequest request, ConjureLockRequest attempt) {
+        return attempt.getAcquireTimeoutMs() == 0
+                && !attempt.getRequestId().equals(request.getRequestId())
+                && attempt.getLockDescriptors().equals(request.getLockDescriptors());
+    }
+
+    private static ConjureLockRequest lockRequest(int acquireTimeoutMs) {
+        return ConjureLockRequest.builder()
+                .requestId(UUID.randomUUID())
+                .lockDescriptors(ImmutableSet.of(ConjureLockDescriptor.of(Bytes.from(new byte[] {1}))))
+                .acquireTimeoutMs(acquireTimeoutMs)
+                .build();
+    }
+
+    private static Lease lease() {
+        return Lease.of(LeaderTime.of(LeadershipId.random(), NanoTime.createForTests(10)), Duration.ofSeconds(1));
+    }
+}
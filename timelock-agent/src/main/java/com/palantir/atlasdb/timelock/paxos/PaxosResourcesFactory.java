@@ -115,7 +115,8 @@ public final class PaxosResourcesFactory {
                 .leadershipContextFactory(factory)
                 .putLeadershipBatchComponents(PaxosUseCase.LEADER_FOR_EACH_CLIENT, factory.components())
                 .addAdhocResources(new BatchPingableLeaderResource(install.nodeUuid(), factory.components()))
-                .timeLockCorruptionComponents(timeLockCorruptionComponents(install.sqliteDataSource(), remoteClients))
+                .timeLockCorruptionComponents(timeLockCorruptionComponents(
+                        install.sqliteDataSource(), remoteClients, metrics, paxosRuntime))
                 .build();
     }
 
@@ -164,7 +165,8 @@ public final class PaxosResourcesFactory {
                         new LeaderLearnerResource(factory.components().learner(PaxosUseCase.PSEUDO_LEADERSHIP_CLIENT)),
                         factory.components().pingableLeader(PaxosUseCase.PSEUDO_LEADERSHIP_CLIENT))
                 .addUndertowServices(LeaderAcceptorResourceEndpoints.of(leaderAcceptorResource))
-                .timeLockCorruptionComponents(timeLockCorruptionComponents(install.sqliteDataSource(), remoteClients))
+                .timeLockCorruptionComponents(timeLockCorruptionComponents(
+                        install.sqliteDataSource(), remoteClients, metrics, paxosRuntime))
                 .build();
     }
 
@@ -260,7 +262,10 @@ public final class PaxosResourcesFactory {
     }
 
     private static TimeLockCorruptionComponents timeLockCorruptionComponents(
-            DataSource dataSource, PaxosRemoteClients remoteClients) {
+            DataSource dataSource,
+            PaxosRemoteClients remoteClients,
+            MetricsManager metrics,
+            Supplier<PaxosRuntimeConfiguration> paxosRuntime) {
         RemoteCorruptionDetector remoteCorruptionDetector = new RemoteCorruptionDetector();
 
         PaxosLogHistoryProvider historyProvider =
@@ -269,7 +274,11 @@ public final class PaxosResourcesFactory {
         LocalTimestampInvariantsVerifier timestampInvariantsVerifier = new LocalTimestampInvariantsVerifier(dataSource);
 
         LocalCorruptionDetector localCorruptionDetector = LocalCorruptionDetector.create(
-                historyProvider, remoteClients.getRemoteCorruptionNotifiers(), timestampInvariantsVerifier);
+                historyProvider,
+                remoteClients.getRemoteCorruptionNotifiers(),
+                timestampInvariantsVerifier,
+                Suppliers.compose(PaxosRuntimeConfiguration::corruptionDetection, paxosRuntime::get),
+                metrics.getTaggedRegistry());
 
         CorruptionHealthCheck healthCheck =
                 new CorruptionHealthCheck(localCorruptionDetector, remoteCorruptionDetector);
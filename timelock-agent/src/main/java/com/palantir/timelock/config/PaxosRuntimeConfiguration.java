@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.base.Preconditions;
+import com.palantir.timelock.corruption.detection.CorruptionDetectionRuntimeConfig;
 import java.time.Duration;
 import org.immutables.value.Value;
 
@@ -97,6 +98,12 @@ public interface PaxosRuntimeConfiguration {
         return false;
     }
 
+    @Value.Default
+    @JsonProperty("corruption-detection")
+    default CorruptionDetectionRuntimeConfig corruptionDetection() {
+        return CorruptionDetectionRuntimeConfig.defaultConfig();
+    }
+
     @Value.Immutable
     @JsonDeserialize(as = ImmutableTimestampPaxosConfig.class)
     @JsonSerialize(as = ImmutableTimestampPaxosConfig.class)
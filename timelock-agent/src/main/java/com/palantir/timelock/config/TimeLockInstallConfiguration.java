@@ -68,6 +68,27 @@ public interface TimeLockInstallConfiguration {
         return false;
     }
 
+    /**
+     * Number of shared threads that run the background lock work (lease reaping and lock request timeouts) of all
+     * namespaces. Each namespace is assigned to one of them. Zero, the default, gives every namespace its own reaper
+     * and timeout threads instead.
+     */
+    @JsonProperty("shared-lock-executors")
+    @Value.Default
+    default int sharedLockExecutors() {
+        return 0;
+    }
+
+    /**
+     * Whether to record lock wait and hold times per namespace, for the lock contention management endpoint. Off by
+     * default, as recording adds work to every lock request with lock descriptors.
+     */
+    @JsonProperty("lock-contention-diagnostics-enabled")
+    @Value.Default
+    default boolean lockContentionDiagnosticsEnabled() {
+        return false;
+    }
+
     @Value.Derived
     default boolean isNewService() {
         return paxos().isNewService();
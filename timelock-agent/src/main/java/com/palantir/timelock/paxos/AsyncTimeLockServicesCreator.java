@@ -25,6 +25,8 @@ import com.palantir.atlasdb.timelock.TimeLockServices;
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.lock.LockLog;
 import com.palantir.atlasdb.timelock.lock.NonTransactionalLockService;
+import com.palantir.atlasdb.timelock.lock.SharedLockExecutors;
+import com.palantir.atlasdb.timelock.lock.diagnostics.LockContentionDiagnostics;
 import com.palantir.atlasdb.timelock.paxos.LeadershipComponents;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.concurrent.NamedThreadFactory;
@@ -47,17 +49,23 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
     private final LockLog lockLog;
     private final LeadershipComponents leadershipComponents;
     private final Map<Client, LockDiagnosticConfig> lockDiagnosticConfig;
+    private final Optional<SharedLockExecutors> sharedLockExecutors;
+    private final Optional<LockContentionDiagnostics> lockContentionDiagnostics;
 
     AsyncTimeLockServicesCreator(
             MetricsManager metricsManager,
             LockLog lockLog,
             LeadershipComponents leadershipComponents,
             // TODO(fdesouza): Remove this once PDS-95791 is resolved.
-            Map<Client, LockDiagnosticConfig> lockDiagnosticConfig) {
+            Map<Client, LockDiagnosticConfig> lockDiagnosticConfig,
+            Optional<SharedLockExecutors> sharedLockExecutors,
+            Optional<LockContentionDiagnostics> lockContentionDiagnostics) {
         this.metricsManager = metricsManager;
         this.lockLog = lockLog;
         this.leadershipComponents = leadershipComponents;
         this.lockDiagnosticConfig = lockDiagnosticConfig;
+        this.sharedLockExecutors = sharedLockExecutors;
+        this.lockContentionDiagnostics = lockContentionDiagnostics;
     }
 
     @Override
@@ -66,7 +74,9 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
             Supplier<ManagedTimestampService> rawTimestampServiceSupplier,
             Supplier<LockService> rawLockServiceSupplier) {
         log.info("Creating async timelock services for client {}", SafeArg.of("client", client));
-        LockLog maybeEnhancedLockLog = maybeEnhancedLockLog(client);
+        LockLog maybeEnhancedLockLog = lockContentionDiagnostics
+                .map(diagnostics -> maybeEnhancedLockLog(client).withContentionDiagnostics(diagnostics, client.value()))
+                .orElseGet(() -> maybeEnhancedLockLog(client));
 
         AsyncTimelockService asyncTimelockService = leadershipComponents.wrapInLeadershipProxy(
                 client,
@@ -87,22 +97,25 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
 
     private AsyncTimelockService createRawAsyncTimelockService(
             Client client, Supplier<ManagedTimestampService> timestampServiceSupplier, LockLog maybeEnhancedLockLog) {
-        ScheduledExecutorService reaperExecutor = new InstrumentedScheduledExecutorService(
-                PTExecutors.newSingleThreadScheduledExecutor(
-                        new NamedThreadFactory("async-lock-reaper-" + client, true)),
-                metricsManager.getRegistry(),
-                "async-lock-reaper");
-        ScheduledExecutorService timeoutExecutor = new InstrumentedScheduledExecutorService(
-                PTExecutors.newSingleThreadScheduledExecutor(
-                        new NamedThreadFactory("async-lock-timeouts-" + client, true)),
-                metricsManager.getRegistry(),
-                "async-lock-timeouts");
+        ScheduledExecutorService reaperExecutor = sharedLockExecutors
+                .map(executors -> executors.executorFor(client.value()))
+                .orElseGet(() -> createDedicatedExecutor("async-lock-reaper", client));
+        ScheduledExecutorService timeoutExecutor = sharedLockExecutors
+                .map(executors -> executors.executorFor(client.value()))
+                .orElseGet(() -> createDedicatedExecutor("async-lock-timeouts", client));
         return new AsyncTimelockServiceImpl(
                 AsyncLockService.createDefault(maybeEnhancedLockLog, reaperExecutor, timeoutExecutor),
                 timestampServiceSupplier.get(),
                 maybeEnhancedLockLog);
     }
 
+    private ScheduledExecutorService createDedicatedExecutor(String name, Client client) {
+        return new InstrumentedScheduledExecutorService(
+                PTExecutors.newSingleThreadScheduledExecutor(new NamedThreadFactory(name + "-" + client, true)),
+                metricsManager.getRegistry(),
+                name);
+    }
+
     /**
      * TODO(fdesouza): Remove this once PDS-95791 is resolved.
      * @deprecated Remove this once PDS-95791 is resolved.
@@ -47,6 +47,8 @@ import com.palantir.atlasdb.timelock.adjudicate.LeaderElectionMetricAggregator;
 import com.palantir.atlasdb.timelock.adjudicate.TimeLockClientFeedbackResource;
 import com.palantir.atlasdb.timelock.batch.MultiClientConjureTimelockResource;
 import com.palantir.atlasdb.timelock.lock.LockLog;
+import com.palantir.atlasdb.timelock.lock.SharedLockExecutors;
+import com.palantir.atlasdb.timelock.lock.diagnostics.LockContentionDiagnostics;
 import com.palantir.atlasdb.timelock.lock.v1.ConjureLockV1Resource;
 import com.palantir.atlasdb.timelock.management.PersistentNamespaceContexts;
 import com.palantir.atlasdb.timelock.management.ServiceLifecycleController;
@@ -125,6 +127,8 @@ public class TimeLockAgent {
     private final LeaderElectionMetricAggregator leaderElectionAggregator;
     private final TimeLockCorruptionComponents corruptionComponents;
     private final Runnable serviceStopper;
+    private final Optional<LockContentionDiagnostics> lockContentionDiagnostics;
+    private final Optional<SharedLockExecutors> sharedLockExecutors;
     private LeaderPingHealthCheck healthCheck;
     private TimelockNamespaces namespaces;
 
@@ -249,8 +253,19 @@ public class TimeLockAgent {
                 metricsManager.getRegistry(),
                 Suppliers.compose(TimeLockRuntimeConfiguration::slowLockLogTriggerMillis, runtime::get));
 
+        this.sharedLockExecutors = install.sharedLockExecutors() > 0
+                ? Optional.of(SharedLockExecutors.create(install.sharedLockExecutors(), metricsManager))
+                : Optional.empty();
+        this.lockContentionDiagnostics = install.lockContentionDiagnosticsEnabled()
+                ? Optional.of(LockContentionDiagnostics.create())
+                : Optional.empty();
         this.timelockCreator = new AsyncTimeLockServicesCreator(
-                metricsManager, lockLog, paxosResources.leadershipComponents(), install.lockDiagnosticConfig());
+                metricsManager,
+                lockLog,
+                paxosResources.leadershipComponents(),
+                install.lockDiagnosticConfig(),
+                sharedLockExecutors,
+                lockContentionDiagnostics);
 
         this.noSimultaneousServiceCheck = NoSimultaneousServiceCheck.create(
                 new TimeLockActivityCheckerFactory(cluster, metricsManager, userAgent).getTimeLockActivityCheckers());
@@ -403,13 +418,15 @@ public class TimeLockAgent {
                             timestampStorage.persistentNamespaceContext(),
                             namespaces,
                             redirectRetryTargeter(),
-                            serviceLifecycleController));
+                            serviceLifecycleController,
+                            lockContentionDiagnostics));
         } else {
             registrar.accept(TimeLockManagementResource.jersey(
                     timestampStorage.persistentNamespaceContext(),
                     namespaces,
                     redirectRetryTargeter(),
-                    serviceLifecycleController));
+                    serviceLifecycleController,
+                    lockContentionDiagnostics));
         }
     }
 
@@ -612,5 +629,7 @@ public class TimeLockAgent {
         paxosResources.leadershipComponents().shutdown();
         timestampStorage.close();
         sqliteDataSource.close();
+        sharedLockExecutors.ifPresent(SharedLockExecutors::close);
+        lockContentionDiagnostics.ifPresent(LockContentionDiagnostics::close);
     }
 }
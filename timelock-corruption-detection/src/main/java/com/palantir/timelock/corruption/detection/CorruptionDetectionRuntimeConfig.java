@@ -0,0 +1,109 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.timelock.corruption.detection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.time.Duration;
+import org.immutables.value.Value;
+
+/**
+ * Controls the background verification of the local Paxos logs against the logs of the other nodes.
+ *
+ * Every run verifies the next batch of rounds for as many namespaces as fit in {@link #maxTimePerRun()}, resuming
+ * from the persisted verification progress. Runs are separated by {@link #interval()}, so the fraction of time spent
+ * on verification is bounded by {@code maxTimePerRun / (maxTimePerRun + interval)}.
+ */
+@JsonDeserialize(as = ImmutableCorruptionDetectionRuntimeConfig.class)
+@JsonSerialize(as = ImmutableCorruptionDetectionRuntimeConfig.class)
+@Value.Immutable
+public interface CorruptionDetectionRuntimeConfig {
+    @JsonProperty("enabled")
+    @Value.Default
+    default boolean enabled() {
+        return false;
+    }
+
+    @JsonProperty("interval-in-ms")
+    @Value.Default
+    default long intervalMs() {
+        return Duration.ofMinutes(1).toMillis();
+    }
+
+    @JsonIgnore
+    @Value.Derived
+    @Value.Auxiliary
+    default Duration interval() {
+        return Duration.ofMillis(intervalMs());
+    }
+
+    @JsonProperty("max-time-per-run-in-ms")
+    @Value.Default
+    default long maxTimePerRunMs() {
+        return Duration.ofSeconds(5).toMillis();
+    }
+
+    @JsonIgnore
+    @Value.Derived
+    @Value.Auxiliary
+    default Duration maxTimePerRun() {
+        return Duration.ofMillis(maxTimePerRunMs());
+    }
+
+    /**
+     * Number of rounds loaded per namespace and use case in one batch, from this node and from each remote.
+     */
+    @JsonProperty("max-rounds-per-batch")
+    @Value.Default
+    default int maxRoundsPerBatch() {
+        return 100;
+    }
+
+    @JsonProperty("max-namespaces-per-batch")
+    @Value.Default
+    default int maxNamespacesPerBatch() {
+        return 50;
+    }
+
+    @Value.Check
+    default void check() {
+        Preconditions.checkArgument(
+                intervalMs() > 0,
+                "Corruption detection interval must be positive",
+                SafeArg.of("interval", intervalMs()));
+        Preconditions.checkArgument(
+                maxTimePerRunMs() > 0,
+                "Corruption detection time budget must be positive",
+                SafeArg.of("maxTimePerRun", maxTimePerRunMs()));
+        Preconditions.checkArgument(
+                maxRoundsPerBatch() > 0,
+                "Corruption detection batch size must be positive",
+                SafeArg.of("maxRoundsPerBatch", maxRoundsPerBatch()));
+        Preconditions.checkArgument(
+                maxNamespacesPerBatch() > 0,
+                "Corruption detection batch size must be positive",
+                SafeArg.of("maxNamespacesPerBatch", maxNamespacesPerBatch()));
+    }
+
+    static CorruptionDetectionRuntimeConfig defaultConfig() {
+        return ImmutableCorruptionDetectionRuntimeConfig.builder().build();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.timelock.corruption.detection;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Ticker;
+import com.palantir.paxos.NamespaceAndUseCase;
+import com.palantir.timelock.history.PaxosLogHistoryProvider;
+import com.palantir.timelock.history.models.CompletePaxosHistoryForNamespaceAndUseCase;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies the Paxos history of all namespaces and use cases in bounded batches, stopping once the run's time budget
+ * is used up. Verification progress within each namespace is persisted by {@link PaxosLogHistoryProvider}; this class
+ * additionally rotates through the namespaces across runs, so that a budget too small to cover every namespace in one
+ * run still reaches all of them eventually.
+ *
+ * Not thread safe; runs are expected to be issued from a single thread.
+ */
+final class IncrementalHistoryVerifier {
+    private static final Comparator<NamespaceAndUseCase> VERIFICATION_ORDER = Comparator.comparing(
+                    (NamespaceAndUseCase namespaceAndUseCase) -> namespaceAndUseCase.namespace().value())
+            .thenComparing(NamespaceAndUseCase::useCase);
+
+    private final PaxosLogHistoryProvider historyProvider;
+    private final TimelockCorruptionDetectionMetrics metrics;
+    private final Ticker ticker;
+    private final Map<NamespaceAndUseCase, Long> verificationLags = new ConcurrentHashMap<>();
+
+    private int nextNamespaceIndex = 0;
+
+    IncrementalHistoryVerifier(
+            PaxosLogHistoryProvider historyProvider, TaggedMetricRegistry metricRegistry, Ticker ticker) {
+        this.historyProvider = historyProvider;
+        this.metrics = TimelockCorruptionDetectionMetrics.of(metricRegistry);
+        this.ticker = ticker;
+        metrics.maxVerificationLag(() -> verificationLags.values().stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0L));
+        metrics.totalVerificationLag(() -> verificationLags.values().stream()
+                .mapToLong(Long::longValue)
+                .sum());
+    }
+
+    CorruptionHealthReport verifyWithinBudget(CorruptionDetectionRuntimeConfig config) {
+        List<NamespaceAndUseCase> namespaceAndUseCases = historyProvider.getNamespaceAndUseCaseTuples().stream()
+                .sorted(VERIFICATION_ORDER)
+                .collect(Collectors.toList());
+        verificationLags.keySet().retainAll(namespaceAndUseCases);
+
+        ImmutableCorruptionHealthReport.Builder report = ImmutableCorruptionHealthReport.builder();
+        if (namespaceAndUseCases.isEmpty()) {
+            return report.build();
+        }
+
+        Stopwatch stopwatch = Stopwatch.createStarted(ticker);
+        int startIndex = nextNamespaceIndex % namespaceAndUseCases.size();
+        int numVerified = 0;
+        while (numVerified < namespaceAndUseCases.size()) {
+            if (stopwatch.elapsed().compareTo(config.maxTimePerRun()) >= 0) {
+                metrics.timeBudgetExhausted().mark();
+                break;
+            }
+
+            int batchSize = Math.min(config.maxNamespacesPerBatch(), namespaceAndUseCases.size() - numVerified);
+            Set<NamespaceAndUseCase> batch = new HashSet<>();
+            for (int offset = 0; offset < batchSize; offset++) {
+                batch.add(namespaceAndUseCases.get((startIndex + numVerified + offset) % namespaceAndUseCases.size()));
+            }
+
+            CorruptionHealthReport batchReport = verifyBatch(batch, config.maxRoundsPerBatch());
+            report.putAllViolatingStatusesToNamespaceAndUseCase(batchReport.violatingStatusesToNamespaceAndUseCase());
+            numVerified += batchSize;
+            nextNamespaceIndex = (startIndex + numVerified) % namespaceAndUseCases.size();
+        }
+        return report.build();
+    }
+
+    private CorruptionHealthReport verifyBatch(Set<NamespaceAndUseCase> batch, int maxRounds) {
+        List<CompletePaxosHistoryForNamespaceAndUseCase> history;
+        try {
+            history = historyProvider.getHistory(batch, maxRounds);
+        } catch (RuntimeException e) {
+            metrics.verificationFailure().mark();
+            throw e;
+        }
+
+        CorruptionHealthReport batchReport = HistoryAnalyzer.corruptionHealthReportForHistory(history);
+        long roundsVerified = history.stream()
+                .mapToLong(historyForNamespaceAndUseCase ->
+                        historyForNamespaceAndUseCase.getAllSequenceNumbers().size())
+                .sum();
+        metrics.roundsVerified().mark(roundsVerified);
+        batch.forEach(namespaceAndUseCase ->
+                verificationLags.put(namespaceAndUseCase, historyProvider.getVerificationLag(namespaceAndUseCase)));
+        return batchReport;
+    }
+}
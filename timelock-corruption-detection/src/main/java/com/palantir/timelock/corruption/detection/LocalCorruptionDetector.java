@@ -16,25 +16,30 @@
 
 package com.palantir.timelock.corruption.detection;
 
+import com.google.common.base.Ticker;
 import com.palantir.common.concurrent.NamedThreadFactory;
 import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
 import com.palantir.timelock.corruption.TimeLockCorruptionNotifier;
 import com.palantir.timelock.corruption.handle.LocalCorruptionHandler;
 import com.palantir.timelock.history.PaxosLogHistoryProvider;
-import java.time.Duration;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public final class LocalCorruptionDetector implements CorruptionDetector {
-    private static final Duration TIMELOCK_CORRUPTION_ANALYSIS_INTERVAL = Duration.ofMinutes(5);
+    private static final SafeLogger log = SafeLoggerFactory.get(LocalCorruptionDetector.class);
     private static final String CORRUPTION_DETECTOR_THREAD_PREFIX = "timelock-corruption-detector";
 
     private final ScheduledExecutorService executor = PTExecutors.newSingleThreadScheduledExecutor(
             new NamedThreadFactory(CORRUPTION_DETECTOR_THREAD_PREFIX, true));
     private final LocalCorruptionHandler corruptionHandler;
-    private final PaxosLogHistoryProvider historyProvider;
+    private final IncrementalHistoryVerifier historyVerifier;
     private final LocalTimestampInvariantsVerifier timestampInvariantsVerifier;
+    private final Supplier<CorruptionDetectionRuntimeConfig> runtimeConfig;
 
     private volatile CorruptionStatus localCorruptionState = CorruptionStatus.HEALTHY;
     private volatile CorruptionHealthReport localCorruptionReport = CorruptionHealthReport.defaultHealthyReport();
@@ -42,48 +47,61 @@ public final class LocalCorruptionDetector implements CorruptionDetector {
     public static LocalCorruptionDetector create(
             PaxosLogHistoryProvider historyProvider,
             List<TimeLockCorruptionNotifier> corruptionNotifiers,
-            LocalTimestampInvariantsVerifier timestampInvariants) {
-        LocalCorruptionDetector localCorruptionDetector =
-                new LocalCorruptionDetector(historyProvider, corruptionNotifiers, timestampInvariants);
-
-        // TODO(mdaudali): Decide whether to re-enable once we've determined whether corruption detection will not kill
-        // the node timelock is running on
-
-        // localCorruptionDetector.scheduleWithFixedDelay();
+            LocalTimestampInvariantsVerifier timestampInvariants,
+            Supplier<CorruptionDetectionRuntimeConfig> runtimeConfig,
+            TaggedMetricRegistry metricRegistry) {
+        LocalCorruptionDetector localCorruptionDetector = new LocalCorruptionDetector(
+                new IncrementalHistoryVerifier(historyProvider, metricRegistry, Ticker.systemTicker()),
+                corruptionNotifiers,
+                timestampInvariants,
+                runtimeConfig);
+
+        // Verification is bounded per run and off by default in the runtime config, so the schedule is always set
+        // up and picks up the config whenever it changes.
+        localCorruptionDetector.scheduleNextRun();
         return localCorruptionDetector;
     }
 
     private LocalCorruptionDetector(
-            PaxosLogHistoryProvider historyProvider,
+            IncrementalHistoryVerifier historyVerifier,
             List<TimeLockCorruptionNotifier> corruptionNotifiers,
-            LocalTimestampInvariantsVerifier timestampInvariantsVerifier) {
+            LocalTimestampInvariantsVerifier timestampInvariantsVerifier,
+            Supplier<CorruptionDetectionRuntimeConfig> runtimeConfig) {
 
-        this.historyProvider = historyProvider;
+        this.historyVerifier = historyVerifier;
         this.timestampInvariantsVerifier = timestampInvariantsVerifier;
+        this.runtimeConfig = runtimeConfig;
         this.corruptionHandler = new LocalCorruptionHandler(corruptionNotifiers);
     }
 
-    @SuppressWarnings("UnusedMethod") // Remove when re-enabling local corruption
-    private void scheduleWithFixedDelay() {
-        executor.scheduleWithFixedDelay(
-                () -> {
-                    CorruptionHealthReport paxosRoundCorruptionReport = analyzeHistoryAndBuildCorruptionHealthReport();
-                    CorruptionHealthReport timestampInvariantsReport =
-                            timestampInvariantsVerifier.timestampInvariantsHealthReport();
-                    localCorruptionReport = ImmutableCorruptionHealthReport.builder()
-                            .from(paxosRoundCorruptionReport)
-                            .putAllViolatingStatusesToNamespaceAndUseCase(
-                                    timestampInvariantsReport.violatingStatusesToNamespaceAndUseCase())
-                            .build();
-                    processLocalHealthReport();
-                },
-                TIMELOCK_CORRUPTION_ANALYSIS_INTERVAL.getSeconds(),
-                TIMELOCK_CORRUPTION_ANALYSIS_INTERVAL.getSeconds(),
-                TimeUnit.SECONDS);
+    private void scheduleNextRun() {
+        executor.schedule(
+                this::runAndScheduleNext, runtimeConfig.get().interval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runAndScheduleNext() {
+        try {
+            CorruptionDetectionRuntimeConfig config = runtimeConfig.get();
+            if (config.enabled()) {
+                runCorruptionChecks(config);
+            }
+        } catch (Throwable throwable) {
+            log.warn("Failed to run TimeLock corruption checks; they will be retried in the next run", throwable);
+        } finally {
+            scheduleNextRun();
+        }
     }
 
-    private CorruptionHealthReport analyzeHistoryAndBuildCorruptionHealthReport() {
-        return HistoryAnalyzer.corruptionHealthReportForHistory(historyProvider.getHistory());
+    private void runCorruptionChecks(CorruptionDetectionRuntimeConfig config) {
+        CorruptionHealthReport paxosRoundCorruptionReport = historyVerifier.verifyWithinBudget(config);
+        CorruptionHealthReport timestampInvariantsReport =
+                timestampInvariantsVerifier.timestampInvariantsHealthReport();
+        localCorruptionReport = ImmutableCorruptionHealthReport.builder()
+                .from(paxosRoundCorruptionReport)
+                .putAllViolatingStatusesToNamespaceAndUseCase(
+                        timestampInvariantsReport.violatingStatusesToNamespaceAndUseCase())
+                .build();
+        processLocalHealthReport();
     }
 
     private void processLocalHealthReport() {
@@ -43,13 +43,27 @@ public class PaxosLogHistoryProgressTracker {
 
     public HistoryQuerySequenceBounds getNextPaxosLogSequenceRangeToBeVerified(
             NamespaceAndUseCase namespaceAndUseCase) {
+        return getNextPaxosLogSequenceRangeToBeVerified(namespaceAndUseCase, MAX_ROWS_ALLOWED);
+    }
+
+    public HistoryQuerySequenceBounds getNextPaxosLogSequenceRangeToBeVerified(
+            NamespaceAndUseCase namespaceAndUseCase, int maxRows) {
         ProgressState progressState = getOrPopulateProgressState(namespaceAndUseCase);
 
         if (progressState.shouldResetProgressState()) {
             progressState = resetProgressState(namespaceAndUseCase);
         }
 
-        return sequenceBoundsForNextHistoryQuery(progressState.lastVerifiedSeq());
+        return sequenceBoundsForNextHistoryQuery(progressState.lastVerifiedSeq(), maxRows);
+    }
+
+    /**
+     * Number of learnt sequence numbers for the namespace and use case that the current verification pass has not
+     * yet reached.
+     */
+    public long getVerificationLag(NamespaceAndUseCase namespaceAndUseCase) {
+        long lastVerifiedSeq = getOrPopulateProgressState(namespaceAndUseCase).lastVerifiedSeq();
+        return Math.max(0, getLatestLearnedSequenceForNamespaceAndUseCase(namespaceAndUseCase) - lastVerifiedSeq);
     }
 
     public void updateProgressState(
@@ -108,7 +122,7 @@ public class PaxosLogHistoryProgressTracker {
                 .build();
     }
 
-    private HistoryQuerySequenceBounds sequenceBoundsForNextHistoryQuery(long lastVerified) {
-        return HistoryQuerySequenceBounds.of(lastVerified + 1, lastVerified + MAX_ROWS_ALLOWED);
+    private HistoryQuerySequenceBounds sequenceBoundsForNextHistoryQuery(long lastVerified, int maxRows) {
+        return HistoryQuerySequenceBounds.of(lastVerified + 1, lastVerified + maxRows);
     }
 }
@@ -56,7 +56,7 @@ public class PaxosLogHistoryProvider {
         this.progressTracker = new PaxosLogHistoryProgressTracker(dataSource, sqlitePaxosStateLogHistory);
     }
 
-    private Set<NamespaceAndUseCase> getNamespaceAndUseCaseTuples() {
+    public Set<NamespaceAndUseCase> getNamespaceAndUseCaseTuples() {
         return sqlitePaxosStateLogHistory.getAllNamespaceAndUseCaseTuples().stream()
                 .map(namespaceAndUseCase -> ImmutableNamespaceAndUseCase.of(
                         namespaceAndUseCase.namespace(),
@@ -67,8 +67,18 @@ public class PaxosLogHistoryProvider {
     //     TODO(snanda): Refactor the two parts on translating PaxosHistoryOnRemote to
     //      CompletePaxosHistoryForNamespaceAndUseCase to a separate component
     public List<CompletePaxosHistoryForNamespaceAndUseCase> getHistory() {
+        return getHistory(getNamespaceAndUseCaseTuples(), PaxosLogHistoryProgressTracker.MAX_ROWS_ALLOWED);
+    }
+
+    /**
+     * Loads the next batch of at most {@code maxRowsPerNamespaceAndUseCase} sequence numbers for each of the given
+     * namespace and use case pairs from this node and all remotes, and advances the persisted verification progress
+     * for those pairs.
+     */
+    public List<CompletePaxosHistoryForNamespaceAndUseCase> getHistory(
+            Set<NamespaceAndUseCase> namespaceAndUseCases, int maxRowsPerNamespaceAndUseCase) {
         Map<NamespaceAndUseCase, HistoryQuerySequenceBounds> namespaceAndUseCaseWiseSequenceRangeToBeVerified =
-                getNamespaceAndUseCaseToHistoryQuerySeqBoundsMap();
+                getNamespaceAndUseCaseToHistoryQuerySeqBoundsMap(namespaceAndUseCases, maxRowsPerNamespaceAndUseCase);
 
         PaxosHistoryOnSingleNode localPaxosHistory =
                 localHistoryLoader.getLocalPaxosHistory(namespaceAndUseCaseWiseSequenceRangeToBeVerified);
@@ -120,9 +130,15 @@ public class PaxosLogHistoryProvider {
                 .collect(Collectors.toList());
     }
 
-    private Map<NamespaceAndUseCase, HistoryQuerySequenceBounds> getNamespaceAndUseCaseToHistoryQuerySeqBoundsMap() {
-        return KeyedStream.of(getNamespaceAndUseCaseTuples().stream())
-                .map(progressTracker::getNextPaxosLogSequenceRangeToBeVerified)
+    public long getVerificationLag(NamespaceAndUseCase namespaceAndUseCase) {
+        return progressTracker.getVerificationLag(namespaceAndUseCase);
+    }
+
+    private Map<NamespaceAndUseCase, HistoryQuerySequenceBounds> getNamespaceAndUseCaseToHistoryQuerySeqBoundsMap(
+            Set<NamespaceAndUseCase> namespaceAndUseCases, int maxRows) {
+        return KeyedStream.of(namespaceAndUseCases.stream())
+                .map(namespaceAndUseCase ->
+                        progressTracker.getNextPaxosLogSequenceRangeToBeVerified(namespaceAndUseCase, maxRows))
                 .collectToMap();
     }
 
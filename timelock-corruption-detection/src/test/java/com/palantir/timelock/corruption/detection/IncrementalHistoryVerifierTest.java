@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.timelock.corruption.detection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.paxos.Client;
+import com.palantir.paxos.ImmutableNamespaceAndUseCase;
+import com.palantir.paxos.NamespaceAndUseCase;
+import com.palantir.timelock.history.PaxosLogHistoryProvider;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalHistoryVerifierTest {
+    private static final NamespaceAndUseCase NAMESPACE_1 = ImmutableNamespaceAndUseCase.of(Client.of("a"), "useCase");
+    private static final NamespaceAndUseCase NAMESPACE_2 = ImmutableNamespaceAndUseCase.of(Client.of("b"), "useCase");
+    private static final NamespaceAndUseCase NAMESPACE_3 = ImmutableNamespaceAndUseCase.of(Client.of("c"), "useCase");
+    private static final Duration BATCH_DURATION = Duration.ofMillis(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+    private final PaxosLogHistoryProvider historyProvider = mock(PaxosLogHistoryProvider.class);
+    private final TaggedMetricRegistry registry = new DefaultTaggedMetricRegistry();
+    private final IncrementalHistoryVerifier verifier =
+            new IncrementalHistoryVerifier(historyProvider, registry, ticker);
+
+    @Before
+    public void setUp() {
+        when(historyProvider.getNamespaceAndUseCaseTuples())
+                .thenReturn(ImmutableSet.of(NAMESPACE_3, NAMESPACE_1, NAMESPACE_2));
+        when(historyProvider.getHistory(any(), anyInt())).thenAnswer(_invocation -> {
+            nanos.addAndGet(BATCH_DURATION.toNanos());
+            return ImmutableList.of();
+        });
+    }
+
+    @Test
+    public void verifiesAllNamespacesInBatchesWhenWithinBudget() {
+        verifier.verifyWithinBudget(config(2, Duration.ofSeconds(1)));
+
+        verify(historyProvider).getHistory(ImmutableSet.of(NAMESPACE_1, NAMESPACE_2), 7);
+        verify(historyProvider).getHistory(ImmutableSet.of(NAMESPACE_3), 7);
+        assertThat(meter("timeBudgetExhausted").getCount()).isZero();
+    }
+
+    @Test
+    public void stopsOnceBudgetIsUsedAndResumesWithRemainingNamespaces() {
+        CorruptionDetectionRuntimeConfig config = config(1, BATCH_DURATION.multipliedBy(2));
+
+        verifier.verifyWithinBudget(config);
+        verify(historyProvider).getHistory(ImmutableSet.of(NAMESPACE_1), 7);
+        verify(historyProvider).getHistory(ImmutableSet.of(NAMESPACE_2), 7);
+        assertThat(meter("timeBudgetExhausted").getCount()).isEqualTo(1);
+
+        verifier.verifyWithinBudget(config);
+        verify(historyProvider).getHistory(ImmutableSet.of(NAMESPACE_3), 7);
+        verify(historyProvider, times(2)).getHistory(ImmutableSet.of(NAMESPACE_1), 7);
+    }
+
+    @Test
+    public void publishesVerificationLag() {
+        when(historyProvider.getVerificationLag(NAMESPACE_1)).thenReturn(5L);
+        when(historyProvider.getVerificationLag(NAMESPACE_2)).thenReturn(12L);
+        when(historyProvider.getVerificationLag(NAMESPACE_3)).thenReturn(0L);
+
+        verifier.verifyWithinBudget(config(3, Duration.ofSeconds(1)));
+
+        assertThat(gauge("maxVerificationLag").getValue()).isEqualTo(12L);
+        assertThat(gauge("totalVerificationLag").getValue()).isEqualTo(17L);
+    }
+
+    @Test
+    public void recordsFailuresAndPropagatesThem() {
+        RuntimeException failure = new RuntimeException("remote unavailable");
+        when(historyProvider.getHistory(any(), anyInt())).thenThrow(failure);
+
+        assertThatThrownBy(() -> verifier.verifyWithinBudget(config(3, Duration.ofSeconds(1))))
+                .isEqualTo(failure);
+        assertThat(meter("verificationFailure").getCount()).isEqualTo(1);
+    }
+
+    private static CorruptionDetectionRuntimeConfig config(int namespacesPerBatch, Duration maxTimePerRun) {
+        return ImmutableCorruptionDetectionRuntimeConfig.builder()
+                .enabled(true)
+                .maxNamespacesPerBatch(namespacesPerBatch)
+                .maxRoundsPerBatch(7)
+                .maxTimePerRunMs(maxTimePerRun.toMillis())
+                .build();
+    }
+
+    private Meter meter(String name) {
+        return (Meter) metric(name);
+    }
+
+    private Gauge<?> gauge(String name) {
+        return (Gauge<?>) metric(name);
+    }
+
+    private Metric metric(String name) {
+        return registry.getMetrics().entrySet().stream()
+                .filter(entry -> entry.getKey().safeName().equals("timelockCorruptionDetection." + name))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow();
+    }
+}
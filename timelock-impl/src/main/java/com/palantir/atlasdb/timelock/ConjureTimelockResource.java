@@ -17,6 +17,7 @@
 package com.palantir.atlasdb.timelock;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -144,23 +145,29 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
     @Override
     public ListenableFuture<ConjureLockResponse> lock(
             AuthHeader authHeader, String namespace, ConjureLockRequest request) {
-        return handleExceptions(() -> {
-            IdentifiedLockRequest lockRequest = ImmutableIdentifiedLockRequest.builder()
-                    .lockDescriptors(fromConjureLockDescriptors(request.getLockDescriptors()))
-                    .clientDescription(request.getClientDescription())
-                    .requestId(request.getRequestId())
-                    .acquireTimeoutMs(request.getAcquireTimeoutMs())
-                    .build();
-            ListenableFuture<LockResponseV2> tokenFuture =
-                    forNamespace(namespace).lock(lockRequest);
-            return Futures.transform(
-                    tokenFuture,
-                    token -> token.accept(Visitor.of(
-                            success -> ConjureLockResponse.successful(SuccessfulLockResponse.of(
-                                    ConjureLockToken.of(success.getToken().getRequestId()), success.getLease())),
-                            failure -> ConjureLockResponse.unsuccessful(UnsuccessfulLockResponse.of()))),
-                    MoreExecutors.directExecutor());
-        });
+        return handleExceptions(() -> acquireLocks(forNamespace(namespace), request));
+    }
+
+    /**
+     * Acquires the locks of a conjure lock request on the given service, converting the request and its response
+     * between their conjure and server representations.
+     */
+    public static ListenableFuture<ConjureLockResponse> acquireLocks(
+            AsyncTimelockService timelockService, ConjureLockRequest request) {
+        IdentifiedLockRequest lockRequest = ImmutableIdentifiedLockRequest.builder()
+                .lockDescriptors(fromConjureLockDescriptors(request.getLockDescriptors()))
+                .clientDescription(request.getClientDescription())
+                .requestId(request.getRequestId())
+                .acquireTimeoutMs(request.getAcquireTimeoutMs())
+                .build();
+        ListenableFuture<LockResponseV2> tokenFuture = timelockService.lock(lockRequest);
+        return Futures.transform(
+                tokenFuture,
+                token -> token.accept(Visitor.of(
+                        success -> ConjureLockResponse.successful(SuccessfulLockResponse.of(
+                                ConjureLockToken.of(success.getToken().getRequestId()), success.getLease())),
+                        failure -> ConjureLockResponse.unsuccessful(UnsuccessfulLockResponse.of()))),
+                MoreExecutors.directExecutor());
     }
 
     @Override
@@ -183,11 +190,12 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
     }
 
     private static Set<LockDescriptor> fromConjureLockDescriptors(Set<ConjureLockDescriptor> lockDescriptors) {
-        Set<LockDescriptor> descriptors = Sets.newHashSetWithExpectedSize(lockDescriptors.size());
+        // Preserves the order the client sent, which is usually lock order.
+        ImmutableSet.Builder<LockDescriptor> descriptors = ImmutableSet.builderWithExpectedSize(lockDescriptors.size());
         for (ConjureLockDescriptor descriptor : lockDescriptors) {
             descriptors.add(ByteArrayLockDescriptor.of(descriptor.get().asNewByteArray()));
         }
-        return descriptors;
+        return descriptors.build();
     }
 
     @Override
@@ -28,8 +28,13 @@ import com.palantir.atlasdb.futures.AtlasFutures;
 import com.palantir.atlasdb.http.RedirectRetryTargeter;
 import com.palantir.atlasdb.timelock.AsyncTimelockService;
 import com.palantir.atlasdb.timelock.ConjureResourceExceptionHandler;
+import com.palantir.atlasdb.timelock.ConjureTimelockResource;
 import com.palantir.atlasdb.timelock.api.ConjureIdentifiedVersion;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockTokenV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockRequestV2;
@@ -46,6 +51,8 @@ import com.palantir.lock.v2.LeaderTime;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.watch.LockWatchVersion;
 import com.palantir.tokens.auth.AuthHeader;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -127,6 +134,52 @@ public final class MultiClientConjureTimelockResource implements UndertowMultiCl
                 MoreExecutors.directExecutor()));
     }
 
+    @Override
+    public ListenableFuture<Map<Namespace, List<ConjureLockResponse>>> lock(
+            AuthHeader authHeader, Map<Namespace, List<ConjureLockRequest>> requests) {
+        return handleExceptions(() -> Futures.transform(
+                Futures.allAsList(Collections2.transform(
+                        requests.entrySet(), e -> lockForSingleNamespace(e.getKey(), e.getValue()))),
+                ImmutableMap::copyOf,
+                MoreExecutors.directExecutor()));
+    }
+
+    @Override
+    public ListenableFuture<Map<Namespace, ConjureRefreshLocksResponseV2>> refreshLocks(
+            AuthHeader authHeader, Map<Namespace, ConjureRefreshLocksRequestV2> requests) {
+        return handleExceptions(() -> Futures.transform(
+                Futures.allAsList(Collections2.transform(
+                        requests.entrySet(), e -> refreshLocksForSingleNamespace(e.getKey(), e.getValue()))),
+                ImmutableMap::copyOf,
+                MoreExecutors.directExecutor()));
+    }
+
+    private ListenableFuture<Entry<Namespace, List<ConjureLockResponse>>> lockForSingleNamespace(
+            Namespace namespace, List<ConjureLockRequest> requests) {
+        AsyncTimelockService service = getServiceForNamespace(namespace);
+        List<ListenableFuture<ConjureLockResponse>> responseFutures = new ArrayList<>(requests.size());
+        for (ConjureLockRequest request : requests) {
+            responseFutures.add(ConjureTimelockResource.acquireLocks(service, request));
+        }
+        return Futures.transform(
+                Futures.allAsList(responseFutures),
+                responses -> Maps.immutableEntry(namespace, responses),
+                MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<Entry<Namespace, ConjureRefreshLocksResponseV2>> refreshLocksForSingleNamespace(
+            Namespace namespace, ConjureRefreshLocksRequestV2 request) {
+        ListenableFuture<ConjureRefreshLocksResponseV2> refreshResponseFuture = Futures.transform(
+                getServiceForNamespace(namespace).refreshLockLeases(toServerLockTokens(request.get())),
+                response -> ConjureRefreshLocksResponseV2.of(
+                        fromServerLockTokens(response.refreshedTokens()), response.getLease()),
+                MoreExecutors.directExecutor());
+        return Futures.transform(
+                refreshResponseFuture,
+                response -> Maps.immutableEntry(namespace, response),
+                MoreExecutors.directExecutor());
+    }
+
     private ListenableFuture<Entry<Namespace, ConjureUnlockResponseV2>> unlockForSingleNamespace(
             Namespace namespace, ConjureUnlockRequestV2 request) {
         ListenableFuture<ConjureUnlockResponseV2> unlockResponseFuture = Futures.transform(
@@ -243,6 +296,18 @@ public final class MultiClientConjureTimelockResource implements UndertowMultiCl
             return unwrap(resource.unlock(authHeader, requests));
         }
 
+        @Override
+        public Map<Namespace, List<ConjureLockResponse>> lock(
+                AuthHeader authHeader, Map<Namespace, List<ConjureLockRequest>> requests) {
+            return unwrap(resource.lock(authHeader, requests));
+        }
+
+        @Override
+        public Map<Namespace, ConjureRefreshLocksResponseV2> refreshLocks(
+                AuthHeader authHeader, Map<Namespace, ConjureRefreshLocksRequestV2> requests) {
+            return unwrap(resource.refreshLocks(authHeader, requests));
+        }
+
         private static <T> T unwrap(ListenableFuture<T> future) {
             return AtlasFutures.getUnchecked(future);
         }
@@ -41,11 +41,18 @@ public class ExclusiveLock implements AsyncLock {
 
     @Override
     public synchronized AsyncResult<Void> lock(UUID requestId) {
+        if (isAvailable()) {
+            currentHolder = requestId;
+            return AsyncResult.completedResult();
+        }
         return submit(new LockRequest(requestId, false));
     }
 
     @Override
     public synchronized AsyncResult<Void> waitUntilAvailable(UUID requestId) {
+        if (isAvailable()) {
+            return AsyncResult.completedResult();
+        }
         return submit(new LockRequest(requestId, true));
     }
 
@@ -72,6 +79,14 @@ public class ExclusiveLock implements AsyncLock {
         return currentHolder;
     }
 
+    /**
+     * A request for an available lock would be granted as soon as it was queued, so it can skip the queue.
+     */
+    @GuardedBy("this")
+    private boolean isAvailable() {
+        return currentHolder == null && queue.isEmpty();
+    }
+
     @GuardedBy("this")
     private AsyncResult<Void> submit(LockRequest request) {
         queue.enqueue(request);
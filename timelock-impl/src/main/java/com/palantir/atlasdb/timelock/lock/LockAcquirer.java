@@ -94,7 +94,9 @@ public class LockAcquirer implements AutoCloseable {
             try {
                 AsyncResult<Void> lockResult = AsyncResult.completedResult();
                 for (AsyncLock lock : locks.get()) {
-                    lockResult = lockResult.concatWith(() -> lockFunction.apply(lock));
+                    lockResult = lockResult.isCompletedSuccessfully()
+                            ? lockDirectly(lockResult, lock)
+                            : lockResult.concatWith(() -> lockFunction.apply(lock));
                 }
                 this.result = lockResult;
             } catch (Throwable t) {
@@ -104,6 +106,23 @@ public class LockAcquirer implements AutoCloseable {
             }
         }
 
+        /**
+         * Uncontended locks are granted synchronously, so while every earlier lock has been granted there is no need to
+         * chain a future per lock; for requests locking thousands of rows, this avoids most of the allocation. A result
+         * that is still pending is chained, so that the result of the acquisition is never a lock's own queued result.
+         */
+        private AsyncResult<Void> lockDirectly(AsyncResult<Void> completedResult, AsyncLock lock) {
+            AsyncResult<Void> lockResult;
+            try {
+                lockResult = lockFunction.apply(lock);
+            } catch (Throwable t) {
+                lockResult = new AsyncResult<>();
+                lockResult.fail(t);
+            }
+            AsyncResult<Void> pendingResult = lockResult;
+            return lockResult.isComplete() ? lockResult : completedResult.concatWith(() -> pendingResult);
+        }
+
         private void registerCompletionHandlers() {
             result.onError(error -> {
                 log.warn("Error while acquiring locks", SafeArg.of("requestId", requestId), error);
@@ -33,7 +33,7 @@ public class LockCollection {
     }
 
     public OrderedLocks getAll(Set<LockDescriptor> descriptors) {
-        List<LockDescriptor> orderedDescriptors = sort(descriptors);
+        Iterable<LockDescriptor> orderedDescriptors = sort(descriptors);
 
         List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(descriptors.size());
         for (LockDescriptor descriptor : orderedDescriptors) {
@@ -43,12 +43,30 @@ public class LockCollection {
         return OrderedLocks.fromOrderedList(locks);
     }
 
-    private static List<LockDescriptor> sort(Set<LockDescriptor> descriptors) {
+    /**
+     * Clients send descriptors in lock order, so this is usually a single pass over the request. Locks must be taken in
+     * a consistent order to avoid deadlocks, so the order is checked rather than assumed.
+     */
+    private static Iterable<LockDescriptor> sort(Set<LockDescriptor> descriptors) {
+        if (isSorted(descriptors)) {
+            return descriptors;
+        }
         List<LockDescriptor> orderedDescriptors = new ArrayList<>(descriptors);
         orderedDescriptors.sort(Comparator.naturalOrder());
         return orderedDescriptors;
     }
 
+    private static boolean isSorted(Set<LockDescriptor> descriptors) {
+        LockDescriptor previous = null;
+        for (LockDescriptor descriptor : descriptors) {
+            if (previous != null && previous.compareTo(descriptor) >= 0) {
+                return false;
+            }
+            previous = descriptor;
+        }
+        return true;
+    }
+
     private AsyncLock getLock(LockDescriptor descriptor) {
         return locksById.get(descriptor);
     }
@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.debug.LockDiagnosticConfig;
 import com.palantir.atlasdb.debug.LockDiagnosticInfo;
 import com.palantir.atlasdb.timelock.lock.LockEvents.RequestInfo;
+import com.palantir.atlasdb.timelock.lock.diagnostics.LockContentionDiagnostics;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.client.IdentifiedLockRequest;
 import com.palantir.lock.v2.WaitForLocksRequest;
@@ -41,8 +42,12 @@ public class LockLog {
     }
 
     private LockLog(LockEvents events) {
+        this(events, Optional.empty());
+    }
+
+    private LockLog(LockEvents events, Optional<LockDiagnosticCollector> lockDiagnosticInfoCollector) {
         this.events = events;
-        this.lockDiagnosticInfoCollector = Optional.empty();
+        this.lockDiagnosticInfoCollector = lockDiagnosticInfoCollector;
     }
 
     /**
@@ -65,6 +70,15 @@ public class LockLog {
         return new LockLog(events, new LockDiagnosticCollector(lockDiagnosticConfig));
     }
 
+    /**
+     * Returns a lock log that additionally records lock wait and hold times for the given namespace.
+     */
+    public LockLog withContentionDiagnostics(LockContentionDiagnostics diagnostics, String namespace) {
+        return new LockLog(
+                new CombinedLockEvents(ImmutableList.of(events, diagnostics.eventsFor(namespace))),
+                lockDiagnosticInfoCollector);
+    }
+
     public void registerRequest(IdentifiedLockRequest request, AsyncResult<?> result) {
         registerRequest(RequestInfo.of(request), result);
     }
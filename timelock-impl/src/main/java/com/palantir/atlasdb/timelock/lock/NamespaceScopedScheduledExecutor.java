@@ -0,0 +1,222 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.logsafe.exceptions.SafeRuntimeException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The view of a shared lock executor used by a single namespace. Shutting it down stops running the namespace's tasks,
+ * and cancels its scheduled ones, without stopping the underlying executor.
+ *
+ * Scheduled tasks are tracked until they complete or are cancelled, so that a namespace that shuts down does not leave
+ * pending lock request timeouts queued on the shared executor until their deadlines.
+ */
+final class NamespaceScopedScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+    private final SharedLockExecutors.SharedExecutor executor;
+    private final Runnable onShutdown;
+    private final Set<TrackedTask<?>> scheduledTasks = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean isShutdown = new AtomicBoolean(false);
+
+    NamespaceScopedScheduledExecutor(SharedLockExecutors.SharedExecutor executor, Runnable onShutdown) {
+        this.executor = executor;
+        this.onShutdown = onShutdown;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        checkNotShutdown();
+        executor.delegate().execute(wrap(command));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        checkNotShutdown();
+        TrackedTask<Object> task = newTask();
+        Runnable wrapped = wrap(command);
+        return task.start(executor.delegate()
+                .schedule(
+                        () -> {
+                            try {
+                                wrapped.run();
+                            } finally {
+                                task.untrack();
+                            }
+                        },
+                        delay,
+                        unit));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        checkNotShutdown();
+        TrackedTask<V> task = newTask();
+        return task.start(executor.delegate()
+                .schedule(
+                        () -> {
+                            try {
+                                if (isShutdown.get()) {
+                                    throw new SafeRuntimeException("Namespace executor was shut down");
+                                }
+                                return callable.call();
+                            } finally {
+                                task.untrack();
+                            }
+                        },
+                        delay,
+                        unit));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        checkNotShutdown();
+        TrackedTask<Object> task = newTask();
+        return task.start(executor.delegate().scheduleAtFixedRate(wrap(command), initialDelay, period, unit));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        checkNotShutdown();
+        TrackedTask<Object> task = newTask();
+        return task.start(executor.delegate().scheduleWithFixedDelay(wrap(command), initialDelay, delay, unit));
+    }
+
+    @Override
+    public void shutdown() {
+        if (isShutdown.compareAndSet(false, true)) {
+            scheduledTasks.forEach(task -> task.cancel(false));
+            scheduledTasks.clear();
+            onShutdown.run();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown.get();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return isShutdown.get();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isShutdown.get();
+    }
+
+    @VisibleForTesting
+    int scheduledTaskCount() {
+        return scheduledTasks.size();
+    }
+
+    private Runnable wrap(Runnable command) {
+        return executor.instrument(() -> {
+            if (!isShutdown.get()) {
+                command.run();
+            }
+        });
+    }
+
+    private <V> TrackedTask<V> newTask() {
+        TrackedTask<V> task = new TrackedTask<>();
+        scheduledTasks.add(task);
+        return task;
+    }
+
+    private void checkNotShutdown() {
+        if (isShutdown.get()) {
+            throw new RejectedExecutionException("Namespace executor was shut down");
+        }
+    }
+
+    /**
+     * A task scheduled on the shared executor on behalf of this namespace. It is tracked before it is scheduled, so
+     * that a concurrent shutdown either cancels it or is observed when it starts.
+     */
+    private final class TrackedTask<V> implements ScheduledFuture<V> {
+        private volatile ScheduledFuture<? extends V> delegate;
+
+        private ScheduledFuture<V> start(ScheduledFuture<? extends V> future) {
+            delegate = future;
+            if (isShutdown.get()) {
+                cancel(false);
+            }
+            return this;
+        }
+
+        private void untrack() {
+            scheduledTasks.remove(this);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            untrack();
+            ScheduledFuture<? extends V> future = delegate;
+            return future != null && future.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return delegate.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return delegate.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return delegate.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return delegate.get(timeout, unit);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return delegate.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return delegate.compareTo(other);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A fixed set of single-threaded executors that run the background lock work (reaping expired leases and timing out
+ * blocked lock requests) of all namespaces, instead of two dedicated threads per namespace.
+ *
+ * A namespace is assigned to the executor serving the fewest namespaces, using recent utilisation to break ties, and
+ * keeps it while any of its scoped executors is open. Shutting down the last of them releases the assignment.
+ *
+ * This does not shard lock request processing: lock and unlock requests are still served on the request threads that
+ * receive them, and only the scheduled background work moves onto the shared executors.
+ */
+public final class SharedLockExecutors implements Closeable {
+    private final List<SharedExecutor> executors;
+    private final Optional<MetricsManager> metricsManager;
+
+    @GuardedBy("this")
+    private final Map<String, Assignment> assignments = new HashMap<>();
+
+    @VisibleForTesting
+    SharedLockExecutors(
+            List<ScheduledExecutorService> delegates, LongSupplier nanoClock, Optional<MetricsManager> metricsManager) {
+        Preconditions.checkArgument(!delegates.isEmpty(), "Must have at least one shared executor");
+        this.executors = IntStream.range(0, delegates.size())
+                .mapToObj(index -> new SharedExecutor(index, delegates.get(index), nanoClock))
+                .collect(ImmutableList.toImmutableList());
+        this.metricsManager = metricsManager;
+        metricsManager.ifPresent(this::registerMetrics);
+    }
+
+    public static SharedLockExecutors create(int numExecutors, MetricsManager metricsManager) {
+        Preconditions.checkArgument(
+                numExecutors > 0,
+                "Number of shared lock executors must be positive",
+                SafeArg.of("numExecutors", numExecutors));
+        List<ScheduledExecutorService> delegates = IntStream.range(0, numExecutors)
+                .mapToObj(index -> PTExecutors.newSingleThreadScheduledExecutor(
+                        new NamedThreadFactory("timelock-shared-lock-executor-" + index, true)))
+                .collect(Collectors.toList());
+        return new SharedLockExecutors(delegates, System::nanoTime, Optional.of(metricsManager));
+    }
+
+    /**
+     * Returns an executor running on the shared executor the namespace is assigned to. Shutting the returned executor
+     * down cancels the work submitted through it, but leaves the shared executor running for other namespaces.
+     */
+    public synchronized ScheduledExecutorService executorFor(String namespace) {
+        Assignment assignment = assignments.computeIfAbsent(namespace, _unused -> assign());
+        assignment.openExecutors++;
+        return new NamespaceScopedScheduledExecutor(assignment.executor, () -> release(namespace));
+    }
+
+    @VisibleForTesting
+    synchronized Optional<Integer> executorIndexFor(String namespace) {
+        return Optional.ofNullable(assignments.get(namespace)).map(assignment -> assignment.executor.index);
+    }
+
+    @VisibleForTesting
+    SharedExecutor sharedExecutor(int index) {
+        return executors.get(index);
+    }
+
+    @Override
+    public synchronized void close() {
+        executors.forEach(executor -> executor.delegate.shutdownNow());
+        assignments.clear();
+        metricsManager.ifPresent(manager -> manager.deregisterTaggedMetrics(
+                metricName -> metricName.safeName().startsWith(SharedLockExecutors.class.getName())));
+    }
+
+    @GuardedBy("this")
+    private Assignment assign() {
+        SharedExecutor executor = executors.stream()
+                .min(Comparator.comparingInt((SharedExecutor sharedExecutor) -> sharedExecutor.namespaces)
+                        .thenComparingDouble(SharedExecutor::utilisation))
+                .orElseThrow();
+        executor.namespaces++;
+        return new Assignment(executor);
+    }
+
+    private synchronized void release(String namespace) {
+        Assignment assignment = assignments.get(namespace);
+        if (assignment == null) {
+            return;
+        }
+        assignment.openExecutors--;
+        if (assignment.openExecutors == 0) {
+            assignments.remove(namespace);
+            assignment.executor.namespaces--;
+        }
+    }
+
+    private synchronized int namespacesOf(SharedExecutor executor) {
+        return executor.namespaces;
+    }
+
+    private void registerMetrics(MetricsManager manager) {
+        for (SharedExecutor executor : executors) {
+            Map<String, String> tags = ImmutableMap.of("executor", Integer.toString(executor.index));
+            manager.registerOrGet(SharedLockExecutors.class, "utilisation", executor::utilisation, tags);
+            manager.registerOrGet(SharedLockExecutors.class, "namespaces", () -> namespacesOf(executor), tags);
+        }
+    }
+
+    private static final class Assignment {
+        private final SharedExecutor executor;
+        private int openExecutors;
+
+        private Assignment(SharedExecutor executor) {
+            this.executor = executor;
+        }
+    }
+
+    static final class SharedExecutor {
+        @VisibleForTesting
+        static final long UTILISATION_DECAY_NANOS = Duration.ofSeconds(10).toNanos();
+
+        private final int index;
+        private final ScheduledExecutorService delegate;
+        private final LongSupplier nanoClock;
+
+        // Guarded by the enclosing SharedLockExecutors.
+        private int namespaces;
+
+        @GuardedBy("this")
+        private long lastTaskEndNanos;
+
+        @GuardedBy("this")
+        private double utilisationAtLastTaskEnd;
+
+        private SharedExecutor(int index, ScheduledExecutorService delegate, LongSupplier nanoClock) {
+            this.index = index;
+            this.delegate = delegate;
+            this.nanoClock = nanoClock;
+            this.lastTaskEndNanos = nanoClock.getAsLong();
+        }
+
+        ScheduledExecutorService delegate() {
+            return delegate;
+        }
+
+        Runnable instrument(Runnable task) {
+            return () -> {
+                long start = nanoClock.getAsLong();
+                try {
+                    task.run();
+                } finally {
+                    recordTask(start, nanoClock.getAsLong());
+                }
+            };
+        }
+
+        /**
+         * Fraction of time this executor spent running tasks, as an exponentially weighted average over roughly the
+         * last ten seconds. Reading it has no side effects, so the gauge and namespace assignment see the same value
+         * however often either of them reads it.
+         */
+        synchronized double utilisation() {
+            return utilisationAtLastTaskEnd * decay(nanoClock.getAsLong() - lastTaskEndNanos);
+        }
+
+        /**
+         * The delegate runs one task at a time, so a task starts no earlier than the previous one ended, and the time
+         * since then splits into idle time followed by this task's busy time.
+         */
+        private synchronized void recordTask(long startNanos, long endNanos) {
+            long elapsed = endNanos - lastTaskEndNanos;
+            if (elapsed <= 0) {
+                return;
+            }
+            double busyFraction = Math.min(1.0, (double) (endNanos - startNanos) / elapsed);
+            double decay = decay(elapsed);
+            utilisationAtLastTaskEnd = utilisationAtLastTaskEnd * decay + (1 - decay) * busyFraction;
+            lastTaskEndNanos = endNanos;
+        }
+
+        private static double decay(long elapsedNanos) {
+            return Math.exp(-(double) Math.max(0, elapsedNanos) / UTILISATION_DECAY_NANOS);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock.diagnostics;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.io.BaseEncoding;
+import com.palantir.atlasdb.timelock.api.management.ContendedLockDescriptor;
+import com.palantir.atlasdb.timelock.api.management.LockContentionReport;
+import com.palantir.atlasdb.timelock.api.management.LockDurationSummary;
+import com.palantir.atlasdb.timelock.api.management.LockPrefixContention;
+import com.palantir.atlasdb.timelock.lock.LockEvents.RequestInfo;
+import com.palantir.conjure.java.lib.SafeLong;
+import com.palantir.lock.LockDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregates the lock events of a single namespace into a fixed number of time buckets. Each bucket keeps histograms
+ * of lock wait and hold times per descriptor prefix, and the wait time of its most contended descriptors. Every
+ * structure is capped, so memory stays bounded however many distinct descriptors are locked.
+ */
+final class LockContentionAggregator {
+    static final Duration BUCKET_DURATION = Duration.ofMinutes(1);
+    static final int RETAINED_BUCKETS = 10;
+    static final int MAX_PREFIXES_PER_BUCKET = 256;
+    static final int MAX_DESCRIPTORS_PER_BUCKET = 1024;
+    static final int MAX_OUTSTANDING_HOLDS = 65_536;
+    static final String OTHER_PREFIX = "<other>";
+
+    private static final int MAX_PREFIX_BYTES = 64;
+    private static final CharMatcher BASIC_PRINTABLE_ASCII = CharMatcher.inRange(' ', '~');
+
+    private final Deque<TimeBucket> buckets = new ArrayDeque<>();
+    private final Map<UUID, OutstandingHold> outstandingHolds = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, OutstandingHold> eldest) {
+            return size() > MAX_OUTSTANDING_HOLDS;
+        }
+    };
+    synchronized void acquired(long timestampMillis, long waitMillis, RequestInfo request) {
+        TimeBucket bucket = bucketFor(timestampMillis);
+        Set<String> prefixes = prefixes(request.lockDescriptors());
+        prefixes.forEach(prefix -> bucket.prefixStatistics(prefix).recordAcquisition(waitMillis));
+        if (waitMillis > 0) {
+            request.lockDescriptors().forEach(descriptor -> bucket.recordContention(descriptor, waitMillis, false));
+        }
+        outstandingHolds.put(request.id(), new OutstandingHold(timestampMillis, prefixes));
+    }
+
+    synchronized void timedOut(long timestampMillis, long waitMillis, RequestInfo request) {
+        TimeBucket bucket = bucketFor(timestampMillis);
+        prefixes(request.lockDescriptors())
+                .forEach(prefix -> bucket.prefixStatistics(prefix).recordTimeout(waitMillis));
+        request.lockDescriptors().forEach(descriptor -> bucket.recordContention(descriptor, waitMillis, true));
+    }
+
+    synchronized void released(long timestampMillis, UUID requestId) {
+        OutstandingHold hold = outstandingHolds.remove(requestId);
+        if (hold == null) {
+            return;
+        }
+        long holdMillis = Math.max(0, timestampMillis - hold.acquiredAtMillis);
+        TimeBucket bucket = bucketFor(timestampMillis);
+        hold.prefixes.forEach(prefix -> bucket.prefixStatistics(prefix).recordHold(holdMillis));
+    }
+
+    synchronized Optional<LockContentionReport> report(long nowMillis, int maxDescriptors, long droppedEvents) {
+        evictExpiredBuckets(nowMillis);
+        if (buckets.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, PrefixStatistics> prefixes = new HashMap<>();
+        Map<LockDescriptor, DescriptorContention> descriptors = new HashMap<>();
+        for (TimeBucket bucket : buckets) {
+            bucket.prefixes.forEach((prefix, statistics) ->
+                    prefixes.computeIfAbsent(prefix, _unused -> new PrefixStatistics()).merge(statistics));
+            bucket.descriptors.forEach((descriptor, contention) -> descriptors
+                    .computeIfAbsent(descriptor, _unused -> new DescriptorContention())
+                    .merge(contention));
+        }
+
+        return Optional.of(LockContentionReport.builder()
+                .windowStartMillis(SafeLong.of(buckets.getFirst().startMillis))
+                .windowEndMillis(SafeLong.of(nowMillis))
+                .droppedEvents(SafeLong.of(droppedEvents))
+                .prefixes(prefixes.entrySet().stream()
+                        .sorted(Comparator.comparingLong(
+                                        (Map.Entry<String, PrefixStatistics> entry) -> entry.getValue().waitTime.total)
+                                .reversed())
+                        .map(entry -> entry.getValue().toConjure(entry.getKey()))
+                        .collect(Collectors.toList()))
+                .mostContendedDescriptors(descriptors.entrySet().stream()
+                        .sorted(Comparator.comparingLong((Map.Entry<LockDescriptor, DescriptorContention> entry) ->
+                                        entry.getValue().totalWaitMillis)
+                                .reversed())
+                        .limit(Math.max(0, maxDescriptors))
+                        .map(entry -> entry.getValue().toConjure(entry.getKey()))
+                        .collect(Collectors.toList()))
+                .build());
+    }
+
+    private TimeBucket bucketFor(long timestampMillis) {
+        long startMillis = timestampMillis - Math.floorMod(timestampMillis, BUCKET_DURATION.toMillis());
+        if (buckets.isEmpty() || buckets.getLast().startMillis < startMillis) {
+            buckets.addLast(new TimeBucket(startMillis));
+            while (buckets.size() > RETAINED_BUCKETS) {
+                buckets.removeFirst();
+            }
+            return buckets.getLast();
+        }
+
+        // Events from different threads are not drained in timestamp order, so an event may belong to an older bucket.
+        Iterator<TimeBucket> newestFirst = buckets.descendingIterator();
+        while (newestFirst.hasNext()) {
+            TimeBucket bucket = newestFirst.next();
+            if (bucket.startMillis <= startMillis) {
+                return bucket;
+            }
+        }
+        return buckets.getFirst();
+    }
+
+    /**
+     * Whether this aggregator no longer holds any statistics within the retained window. Holds acquired before the
+     * window are forgotten too; their hold time would no longer be reported, and their locks may have been released
+     * without an event, for example when leadership was lost.
+     */
+    synchronized boolean isIdle(long nowMillis) {
+        evictExpiredBuckets(nowMillis);
+        long retainedFromMillis = retainedFromMillis(nowMillis);
+        Iterator<OutstandingHold> holds = outstandingHolds.values().iterator();
+        while (holds.hasNext() && holds.next().acquiredAtMillis < retainedFromMillis) {
+            holds.remove();
+        }
+        return buckets.isEmpty() && outstandingHolds.isEmpty();
+    }
+
+    private void evictExpiredBuckets(long nowMillis) {
+        long bucketMillis = BUCKET_DURATION.toMillis();
+        long retainedFromMillis = retainedFromMillis(nowMillis);
+        while (!buckets.isEmpty() && buckets.getFirst().startMillis + bucketMillis <= retainedFromMillis) {
+            buckets.removeFirst();
+        }
+    }
+
+    private static long retainedFromMillis(long nowMillis) {
+        return nowMillis - BUCKET_DURATION.toMillis() * RETAINED_BUCKETS;
+    }
+
+    private static Set<String> prefixes(Collection<LockDescriptor> descriptors) {
+        return descriptors.stream().map(LockContentionAggregator::prefix).collect(Collectors.toSet());
+    }
+
+    /**
+     * AtlasDB row and cell lock descriptors start with the table name followed by a zero byte.
+     */
+    static String prefix(LockDescriptor descriptor) {
+        byte[] bytes = descriptor.getBytes();
+        int length = Math.min(bytes.length, MAX_PREFIX_BYTES);
+        for (int index = 0; index < length; index++) {
+            if (bytes[index] == 0) {
+                length = index;
+                break;
+            }
+        }
+        return readable(Arrays.copyOf(bytes, length));
+    }
+
+    private static String readable(byte[] bytes) {
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        return BASIC_PRINTABLE_ASCII.matchesAllOf(value) ? value : BaseEncoding.base16().encode(bytes);
+    }
+
+    private static final class OutstandingHold {
+        private final long acquiredAtMillis;
+        private final Set<String> prefixes;
+
+        private OutstandingHold(long acquiredAtMillis, Set<String> prefixes) {
+            this.acquiredAtMillis = acquiredAtMillis;
+            this.prefixes = prefixes;
+        }
+    }
+
+    private static final class TimeBucket {
+        private final long startMillis;
+        private final Map<String, PrefixStatistics> prefixes = new HashMap<>();
+        private final Map<LockDescriptor, DescriptorContention> descriptors = new HashMap<>();
+
+        private TimeBucket(long startMillis) {
+            this.startMillis = startMillis;
+        }
+
+        private PrefixStatistics prefixStatistics(String prefix) {
+            PrefixStatistics statistics = prefixes.get(prefix);
+            if (statistics != null) {
+                return statistics;
+            }
+            String key = prefixes.size() < MAX_PREFIXES_PER_BUCKET ? prefix : OTHER_PREFIX;
+            return prefixes.computeIfAbsent(key, _unused -> new PrefixStatistics());
+        }
+
+        /**
+         * Once the bucket is full, a new descriptor replaces the least contended one, so heavily contended descriptors
+         * are retained while the counts of rarely contended ones are approximate.
+         */
+        private void recordContention(LockDescriptor descriptor, long waitMillis, boolean timedOut) {
+            DescriptorContention contention = descriptors.get(descriptor);
+            if (contention == null) {
+                if (descriptors.size() >= MAX_DESCRIPTORS_PER_BUCKET) {
+                    descriptors.entrySet().stream()
+                            .min(Comparator.comparingLong(entry -> entry.getValue().totalWaitMillis))
+                            .map(Map.Entry::getKey)
+                            .ifPresent(descriptors::remove);
+                }
+                contention = new DescriptorContention();
+                descriptors.put(descriptor, contention);
+            }
+            contention.record(waitMillis, timedOut);
+        }
+    }
+
+    private static final class PrefixStatistics {
+        private long acquisitions = 0;
+        private long timeouts = 0;
+        private final DurationHistogram waitTime = new DurationHistogram();
+        private final DurationHistogram holdTime = new DurationHistogram();
+
+        private void recordAcquisition(long waitMillis) {
+            acquisitions++;
+            waitTime.record(waitMillis);
+        }
+
+        private void recordTimeout(long waitMillis) {
+            timeouts++;
+            waitTime.record(waitMillis);
+        }
+
+        private void recordHold(long holdMillis) {
+            holdTime.record(holdMillis);
+        }
+
+        private void merge(PrefixStatistics other) {
+            acquisitions += other.acquisitions;
+            timeouts += other.timeouts;
+            waitTime.merge(other.waitTime);
+            holdTime.merge(other.holdTime);
+        }
+
+        private LockPrefixContention toConjure(String prefix) {
+            return LockPrefixContention.builder()
+                    .prefix(prefix)
+                    .acquisitions(SafeLong.of(acquisitions))
+                    .timeouts(SafeLong.of(timeouts))
+                    .waitTime(waitTime.toConjure())
+                    .holdTime(holdTime.toConjure())
+                    .build();
+        }
+    }
+
+    private static final class DescriptorContention {
+        private long contendedAcquisitions = 0;
+        private long timeouts = 0;
+        private long totalWaitMillis = 0;
+
+        private void record(long waitMillis, boolean timedOut) {
+            if (timedOut) {
+                timeouts++;
+            } else {
+                contendedAcquisitions++;
+            }
+            totalWaitMillis += waitMillis;
+        }
+
+        private void merge(DescriptorContention other) {
+            contendedAcquisitions += other.contendedAcquisitions;
+            timeouts += other.timeouts;
+            totalWaitMillis += other.totalWaitMillis;
+        }
+
+        private ContendedLockDescriptor toConjure(LockDescriptor descriptor) {
+            return ContendedLockDescriptor.builder()
+                    .descriptor(readable(descriptor.getBytes()))
+                    .contendedAcquisitions(SafeLong.of(contendedAcquisitions))
+                    .timeouts(SafeLong.of(timeouts))
+                    .totalWaitMillis(SafeLong.of(totalWaitMillis))
+                    .build();
+        }
+    }
+
+    /**
+     * Counts durations in power-of-two buckets: bucket {@code i} holds durations in {@code [2^(i-1), 2^i)}, and
+     * bucket 0 holds zero durations.
+     */
+    static final class DurationHistogram {
+        private final long[] counts = new long[Long.SIZE + 1];
+        private long count = 0;
+        private long total = 0;
+        private long max = 0;
+
+        void record(long millis) {
+            long value = Math.max(0, millis);
+            counts[Long.SIZE - Long.numberOfLeadingZeros(value)]++;
+            count++;
+            total += value;
+            max = Math.max(max, value);
+        }
+
+        void merge(DurationHistogram other) {
+            for (int index = 0; index < counts.length; index++) {
+                counts[index] += other.counts[index];
+            }
+            count += other.count;
+            total += other.total;
+            max = Math.max(max, other.max);
+        }
+
+        long percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int index = 0; index < counts.length; index++) {
+                seen += counts[index];
+                if (seen >= rank) {
+                    return Math.min(max, index == 0 ? 0 : (1L << Math.min(index, Long.SIZE - 2)) - 1);
+                }
+            }
+            return max;
+        }
+
+        private LockDurationSummary toConjure() {
+            return LockDurationSummary.builder()
+                    .count(SafeLong.of(count))
+                    .p50Millis(SafeLong.of(percentile(0.5)))
+                    .p99Millis(SafeLong.of(percentile(0.99)))
+                    .maxMillis(SafeLong.of(max))
+                    .build();
+        }
+    }
+}
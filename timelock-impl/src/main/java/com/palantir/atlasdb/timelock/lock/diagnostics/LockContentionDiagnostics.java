@@ -0,0 +1,223 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock.diagnostics;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.timelock.api.management.LockContentionReport;
+import com.palantir.atlasdb.timelock.lock.LockEvents;
+import com.palantir.atlasdb.timelock.lock.LockEvents.RequestInfo;
+import com.palantir.atlasdb.timelock.lock.diagnostics.LockEventBuffer.EventType;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.logsafe.logger.SafeLogger;
+import com.palantir.logsafe.logger.SafeLoggerFactory;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects lock wait and hold times for every namespace with bounded memory and low overhead on the lock path.
+ *
+ * Lock events are recorded into a small buffer owned by the recording thread, and a single background thread drains
+ * the buffers into a {@link LockContentionAggregator} per namespace. Recording never blocks: if a buffer is full, the
+ * event is dropped and counted instead. The aggregator of a namespace is removed once it holds no statistics within
+ * the retained window, so namespaces that stop taking locks do not keep their aggregators.
+ */
+public final class LockContentionDiagnostics implements Closeable {
+    private static final SafeLogger log = SafeLoggerFactory.get(LockContentionDiagnostics.class);
+
+    static final int BUFFER_CAPACITY = 2048;
+    private static final Duration DRAIN_INTERVAL = Duration.ofMillis(100);
+
+    private final LongSupplier clock;
+    private final ScheduledExecutorService drainExecutor;
+    private final Map<String, LockContentionAggregator> aggregators = new ConcurrentHashMap<>();
+    private final Set<LockEventBuffer> buffers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<LockEventBuffer> localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    @VisibleForTesting
+    LockContentionDiagnostics(LongSupplier clock, ScheduledExecutorService drainExecutor) {
+        this.clock = clock;
+        this.drainExecutor = drainExecutor;
+        drainExecutor.scheduleWithFixedDelay(
+                this::drainSafely, DRAIN_INTERVAL.toMillis(), DRAIN_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static LockContentionDiagnostics create() {
+        return new LockContentionDiagnostics(
+                System::currentTimeMillis,
+                PTExecutors.newSingleThreadScheduledExecutor(
+                        new NamedThreadFactory("lock-contention-diagnostics", true)));
+    }
+
+    /**
+     * Returns lock events that record into the statistics of the given namespace.
+     */
+    public LockEvents eventsFor(String namespace) {
+        return new RecordingLockEvents(namespace);
+    }
+
+    public Optional<LockContentionReport> getReport(String namespace, int maxDescriptors) {
+        return Optional.ofNullable(aggregators.get(namespace))
+                .flatMap(aggregator -> aggregator.report(clock.getAsLong(), maxDescriptors, droppedEvents.get()));
+    }
+
+    @Override
+    public void close() {
+        drainExecutor.shutdown();
+    }
+
+    @VisibleForTesting
+    Set<String> aggregatedNamespaces() {
+        return aggregators.keySet();
+    }
+
+    @VisibleForTesting
+    synchronized void drain() {
+        List<DrainedEvent> events = new ArrayList<>();
+        for (LockEventBuffer buffer : buffers) {
+            buffer.drainTo((type, timestampMillis, waitMillis, subject, namespace) ->
+                    events.add(new DrainedEvent(type, timestampMillis, waitMillis, subject, namespace)));
+            droppedEvents.addAndGet(buffer.takeDroppedEvents());
+            if (!buffer.isOwnerAlive() && buffer.isEmpty()) {
+                buffers.remove(buffer);
+            }
+        }
+
+        // A lock may be released on a different thread from the one that recorded its acquisition.
+        events.sort(Comparator.comparingLong((DrainedEvent event) -> event.timestampMillis)
+                .thenComparing(event -> event.type));
+        events.forEach(event -> event.apply(
+                aggregators.computeIfAbsent(event.namespace, _unused -> new LockContentionAggregator())));
+
+        long nowMillis = clock.getAsLong();
+        aggregators.values().removeIf(aggregator -> aggregator.isIdle(nowMillis));
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (Throwable t) {
+            log.warn("Failed to aggregate lock contention diagnostics", t);
+        }
+    }
+
+    private LockEventBuffer registerBuffer() {
+        LockEventBuffer buffer = new LockEventBuffer(BUFFER_CAPACITY, Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private final class RecordingLockEvents implements LockEvents {
+        private final String namespace;
+
+        /**
+         * Requests whose acquisition was recorded, so that only their releases are recorded. Most unlocks are of
+         * immutable timestamp locks, which have no lock descriptors and are never recorded as acquisitions.
+         */
+        private final Set<UUID> recordedAcquisitions = ConcurrentHashMap.newKeySet();
+
+        private RecordingLockEvents(String namespace) {
+            this.namespace = namespace;
+        }
+
+        @Override
+        public void registerRequest(RequestInfo request) {
+            // do nothing
+        }
+
+        @Override
+        public void timedOut(RequestInfo request, long acquisitionTimeMillis) {
+            record(EventType.TIMED_OUT, acquisitionTimeMillis, request);
+        }
+
+        @Override
+        public void successfulAcquisition(RequestInfo request, long acquisitionTimeMillis) {
+            if (record(EventType.ACQUIRED, acquisitionTimeMillis, request)
+                    && recordedAcquisitions.size() < LockContentionAggregator.MAX_OUTSTANDING_HOLDS) {
+                recordedAcquisitions.add(request.id());
+            }
+        }
+
+        @Override
+        public void lockExpired(UUID requestId, Collection<LockDescriptor> lockDescriptors) {
+            recordRelease(requestId);
+        }
+
+        @Override
+        public void explicitlyUnlocked(UUID requestId) {
+            recordRelease(requestId);
+        }
+
+        private boolean record(EventType type, long waitMillis, RequestInfo request) {
+            if (request.lockDescriptors().isEmpty()) {
+                return false;
+            }
+            return localBuffer.get().offer(type, clock.getAsLong(), waitMillis, request, namespace);
+        }
+
+        private void recordRelease(UUID requestId) {
+            if (recordedAcquisitions.remove(requestId)) {
+                localBuffer.get().offer(EventType.RELEASED, clock.getAsLong(), 0, requestId, namespace);
+            }
+        }
+    }
+
+    private static final class DrainedEvent {
+        private final EventType type;
+        private final long timestampMillis;
+        private final long waitMillis;
+        private final Object subject;
+        private final String namespace;
+
+        private DrainedEvent(EventType type, long timestampMillis, long waitMillis, Object subject, String namespace) {
+            this.type = type;
+            this.timestampMillis = timestampMillis;
+            this.waitMillis = waitMillis;
+            this.subject = subject;
+            this.namespace = namespace;
+        }
+
+        private void apply(LockContentionAggregator aggregator) {
+            switch (type) {
+                case ACQUIRED:
+                    aggregator.acquired(timestampMillis, waitMillis, (RequestInfo) subject);
+                    break;
+                case TIMED_OUT:
+                    aggregator.timedOut(timestampMillis, waitMillis, (RequestInfo) subject);
+                    break;
+                case RELEASED:
+                    aggregator.released(timestampMillis, (UUID) subject);
+                    break;
+            }
+        }
+    }
+}
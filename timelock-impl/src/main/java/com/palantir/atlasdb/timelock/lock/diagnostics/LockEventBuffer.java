@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock.diagnostics;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded single-producer, single-consumer ring of lock events. Each recording thread owns one buffer, so recording
+ * an event is a handful of array stores with no contention; events are dropped rather than blocking when the buffer
+ * is full.
+ */
+final class LockEventBuffer {
+    enum EventType {
+        ACQUIRED,
+        TIMED_OUT,
+        RELEASED
+    }
+
+    interface EventSink {
+        void accept(
+                EventType type,
+                long timestampMillis,
+                long waitMillis,
+                Object subject,
+                String namespace);
+    }
+
+    private final int mask;
+    private final EventType[] types;
+    private final long[] timestamps;
+    private final long[] waits;
+    private final Object[] subjects;
+    private final String[] namespaces;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final WeakReference<Thread> owner;
+
+    LockEventBuffer(int capacity, Thread owner) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.types = new EventType[size];
+        this.timestamps = new long[size];
+        this.waits = new long[size];
+        this.subjects = new Object[size];
+        this.namespaces = new String[size];
+        this.owner = new WeakReference<>(owner);
+    }
+
+    /**
+     * Must only be called by the owning thread.
+     */
+    boolean offer(
+            EventType type,
+            long timestampMillis,
+            long waitMillis,
+            Object subject,
+            String namespace) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() > mask) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int index = (int) (currentTail & mask);
+        types[index] = type;
+        timestamps[index] = timestampMillis;
+        waits[index] = waitMillis;
+        subjects[index] = subject;
+        namespaces[index] = namespace;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Must only be called by the single draining thread.
+     */
+    int drainTo(EventSink sink) {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        for (long position = currentHead; position < currentTail; position++) {
+            int index = (int) (position & mask);
+            Object subject = subjects[index];
+            String namespace = namespaces[index];
+            subjects[index] = null;
+            namespaces[index] = null;
+            sink.accept(types[index], timestamps[index], waits[index], subject, namespace);
+        }
+        head.lazySet(currentTail);
+        return (int) (currentTail - currentHead);
+    }
+
+    long takeDroppedEvents() {
+        return dropped.getAndSet(0);
+    }
+
+    boolean isOwnerAlive() {
+        Thread thread = owner.get();
+        return thread != null && thread.isAlive();
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+}
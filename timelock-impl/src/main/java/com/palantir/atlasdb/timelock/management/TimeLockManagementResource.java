@@ -24,15 +24,18 @@ import com.palantir.atlasdb.http.RedirectRetryTargeter;
 import com.palantir.atlasdb.keyvalue.api.TimestampSeries;
 import com.palantir.atlasdb.timelock.ConjureResourceExceptionHandler;
 import com.palantir.atlasdb.timelock.TimelockNamespaces;
+import com.palantir.atlasdb.timelock.api.management.LockContentionReport;
 import com.palantir.atlasdb.timelock.api.management.TimeLockManagementService;
 import com.palantir.atlasdb.timelock.api.management.TimeLockManagementServiceEndpoints;
 import com.palantir.atlasdb.timelock.api.management.UndertowTimeLockManagementService;
+import com.palantir.atlasdb.timelock.lock.diagnostics.LockContentionDiagnostics;
 import com.palantir.atlasdb.timelock.paxos.PaxosTimeLockConstants;
 import com.palantir.conjure.java.undertow.lib.UndertowService;
 import com.palantir.logsafe.logger.SafeLogger;
 import com.palantir.logsafe.logger.SafeLoggerFactory;
 import com.palantir.paxos.Client;
 import com.palantir.tokens.auth.AuthHeader;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
@@ -45,46 +48,61 @@ public final class TimeLockManagementResource implements UndertowTimeLockManagem
     private final TimelockNamespaces timelockNamespaces;
     private final ConjureResourceExceptionHandler exceptionHandler;
     private final ServiceLifecycleController serviceLifecycleController;
+    private final Optional<LockContentionDiagnostics> lockContentionDiagnostics;
 
     private TimeLockManagementResource(
             Set<PersistentNamespaceLoader> namespaceLoaders,
             TimelockNamespaces timelockNamespaces,
             RedirectRetryTargeter redirectRetryTargeter,
-            ServiceLifecycleController serviceLifecycleController) {
+            ServiceLifecycleController serviceLifecycleController,
+            Optional<LockContentionDiagnostics> lockContentionDiagnostics) {
         this.namespaceLoaders = namespaceLoaders;
         this.timelockNamespaces = timelockNamespaces;
         this.exceptionHandler = new ConjureResourceExceptionHandler(redirectRetryTargeter);
         this.serviceLifecycleController = serviceLifecycleController;
+        this.lockContentionDiagnostics = lockContentionDiagnostics;
     }
 
     public static TimeLockManagementResource create(
             PersistentNamespaceContext persistentNamespaceContext,
             TimelockNamespaces timelockNamespaces,
             RedirectRetryTargeter redirectRetryTargeter,
-            ServiceLifecycleController serviceLifecycleController) {
+            ServiceLifecycleController serviceLifecycleController,
+            Optional<LockContentionDiagnostics> lockContentionDiagnostics) {
         return new TimeLockManagementResource(
                 createNamespaceLoaders(persistentNamespaceContext),
                 timelockNamespaces,
                 redirectRetryTargeter,
-                serviceLifecycleController);
+                serviceLifecycleController,
+                lockContentionDiagnostics);
     }
 
     public static UndertowService undertow(
             PersistentNamespaceContext persistentNamespaceContext,
             TimelockNamespaces timelockNamespaces,
             RedirectRetryTargeter redirectRetryTargeter,
-            ServiceLifecycleController serviceLifecycleController) {
+            ServiceLifecycleController serviceLifecycleController,
+            Optional<LockContentionDiagnostics> lockContentionDiagnostics) {
         return TimeLockManagementServiceEndpoints.of(TimeLockManagementResource.create(
-                persistentNamespaceContext, timelockNamespaces, redirectRetryTargeter, serviceLifecycleController));
+                persistentNamespaceContext,
+                timelockNamespaces,
+                redirectRetryTargeter,
+                serviceLifecycleController,
+                lockContentionDiagnostics));
     }
 
     public static TimeLockManagementService jersey(
             PersistentNamespaceContext persistentNamespaceContext,
             TimelockNamespaces timelockNamespaces,
             RedirectRetryTargeter redirectRetryTargeter,
-            ServiceLifecycleController serviceLifecycleController) {
+            ServiceLifecycleController serviceLifecycleController,
+            Optional<LockContentionDiagnostics> lockContentionDiagnostics) {
         return new JerseyAdapter(TimeLockManagementResource.create(
-                persistentNamespaceContext, timelockNamespaces, redirectRetryTargeter, serviceLifecycleController));
+                persistentNamespaceContext,
+                timelockNamespaces,
+                redirectRetryTargeter,
+                serviceLifecycleController,
+                lockContentionDiagnostics));
     }
 
     @Override
@@ -137,6 +155,14 @@ public final class TimeLockManagementResource implements UndertowTimeLockManagem
         return Futures.immediateFuture(serviceLifecycleController.getServerId());
     }
 
+    @Override
+    public ListenableFuture<Optional<LockContentionReport>> getLockContention(
+            AuthHeader authHeader, String namespace, int maxDescriptors) {
+        // This endpoint only returns state already in memory, so it's okay to NOT make it async.
+        return Futures.immediateFuture(
+                lockContentionDiagnostics.flatMap(diagnostics -> diagnostics.getReport(namespace, maxDescriptors)));
+    }
+
     private <T> ListenableFuture<T> handleExceptions(Supplier<ListenableFuture<T>> supplier) {
         return exceptionHandler.handleExceptions(supplier);
     }
@@ -192,6 +218,12 @@ public final class TimeLockManagementResource implements UndertowTimeLockManagem
             return unwrap(resource.forceKillTimeLockServer(authHeader));
         }
 
+        @Override
+        public Optional<LockContentionReport> getLockContention(
+                AuthHeader authHeader, String namespace, int maxDescriptors) {
+            return unwrap(resource.getLockContention(authHeader, namespace, maxDescriptors));
+        }
+
         private static <T> T unwrap(ListenableFuture<T> future) {
             return AtlasFutures.getUnchecked(future);
         }
@@ -24,11 +24,17 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.Futures;
 import com.palantir.atlasdb.http.RedirectRetryTargeter;
 import com.palantir.atlasdb.timelock.AsyncTimelockService;
+import com.palantir.atlasdb.timelock.api.ConjureLockDescriptor;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockTokenV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequestV2;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponseV2;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockRequestV2;
@@ -37,19 +43,25 @@ import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
 import com.palantir.atlasdb.timelock.api.LeaderTimes;
 import com.palantir.atlasdb.timelock.api.Namespace;
+import com.palantir.atlasdb.timelock.api.SuccessfulLockResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
 import com.palantir.atlasdb.util.TimelockTestUtils;
 import com.palantir.common.streams.KeyedStream;
 import com.palantir.common.time.NanoTime;
 import com.palantir.conjure.java.api.errors.QosException.RetryOther;
+import com.palantir.conjure.java.lib.Bytes;
 import com.palantir.conjure.java.api.errors.QosException.Throttle;
 import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.lock.client.IdentifiedLockRequest;
 import com.palantir.lock.remoting.BlockingTimeoutException;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.lock.v2.LeadershipId;
 import com.palantir.lock.v2.Lease;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.LockResponseV2;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.v2.PartitionedTimestamps;
+import com.palantir.lock.v2.RefreshLockResponseV2;
 import com.palantir.lock.watch.LockWatchStateUpdate;
 import com.palantir.tokens.auth.AuthHeader;
 import java.net.URL;
@@ -170,6 +182,72 @@ public class MultiClientConjureTimelockResourceTest {
         }
     }
 
+    @Test
+    public void canLockForMultipleClientsPreservingRequestOrder() {
+        ConjureLockRequest first = lockRequest();
+        ConjureLockRequest second = lockRequest();
+        ConjureLockRequest other = lockRequest();
+        Map<Namespace, List<ConjureLockRequest>> requests = ImmutableMap.of(
+                Namespace.of("client1"), ImmutableList.of(first, second),
+                Namespace.of("client2"), ImmutableList.of(other));
+
+        Map<Namespace, List<ConjureLockResponse>> responses =
+                Futures.getUnchecked(resource.lock(AUTH_HEADER, requests));
+
+        assertThat(responses.get(Namespace.of("client1")))
+                .extracting(MultiClientConjureTimelockResourceTest::lockedRequestId)
+                .containsExactly(first.getRequestId(), second.getRequestId());
+        assertThat(responses.get(Namespace.of("client2")))
+                .extracting(MultiClientConjureTimelockResourceTest::lockedRequestId)
+                .containsExactly(other.getRequestId());
+    }
+
+    @Test
+    public void canRefreshLocksForMultipleClients() {
+        Set<String> namespaces = ImmutableSet.of("client1", "client2");
+        Map<Namespace, ConjureRefreshLocksRequestV2> requests = KeyedStream.of(namespaces)
+                .map(namespace ->
+                        ConjureRefreshLocksRequestV2.of(ImmutableSet.of(ConjureLockTokenV2.of(UUID.randomUUID()))))
+                .mapKeys(Namespace::of)
+                .collectToMap();
+
+        Map<Namespace, ConjureRefreshLocksResponseV2> responses =
+                Futures.getUnchecked(resource.refreshLocks(AUTH_HEADER, requests));
+
+        requests.forEach((namespace, request) -> {
+            ConjureRefreshLocksResponseV2 response = responses.get(namespace);
+            assertThat(response.getRefreshedTokens()).containsExactlyElementsOf(request.get());
+            assertThat(response.getLease().leaderTime().id()).isEqualTo(namespaceToLeaderMap.get(namespace.get()));
+        });
+    }
+
+    private static ConjureLockRequest lockRequest() {
+        return ConjureLockRequest.builder()
+                .requestId(UUID.randomUUID())
+                .lockDescriptors(ImmutableSet.of(ConjureLockDescriptor.of(Bytes.from(new byte[] {1}))))
+                .acquireTimeoutMs(100)
+                .build();
+    }
+
+    private static UUID lockedRequestId(ConjureLockResponse response) {
+        return response.accept(new ConjureLockResponse.Visitor<UUID>() {
+            @Override
+            public UUID visitSuccessful(SuccessfulLockResponse value) {
+                return value.getLockToken().getRequestId();
+            }
+
+            @Override
+            public UUID visitUnsuccessful(UnsuccessfulLockResponse value) {
+                throw new AssertionError("Expected lock request to succeed");
+            }
+
+            @Override
+            public UUID visitUnknown(String unknownType) {
+                throw new AssertionError("Unexpected lock response type " + unknownType);
+            }
+        });
+    }
+
     private Map<Namespace, GetCommitTimestampsResponse> getGetCommitTimestampsResponseMap(Set<String> namespaces) {
         return KeyedStream.of(namespaces)
                 .mapKeys(Namespace::of)
@@ -224,6 +302,14 @@ public class MultiClientConjureTimelockResourceTest {
                 .thenReturn(Futures.immediateFuture(getCommitTimestampResponse(client)));
         when(timelockService.unlock(any()))
                 .thenAnswer(invocation -> Futures.immediateFuture(invocation.<Set<LockToken>>getArgument(0)));
+        when(timelockService.lock(any())).thenAnswer(invocation -> {
+            IdentifiedLockRequest request = invocation.getArgument(0);
+            return Futures.immediateFuture(LockResponseV2.successful(
+                    LockToken.of(request.getRequestId()), Lease.of(leaderTime, Duration.ofSeconds(977))));
+        });
+        when(timelockService.refreshLockLeases(any()))
+                .thenAnswer(invocation -> Futures.immediateFuture(RefreshLockResponseV2.of(
+                        invocation.<Set<LockToken>>getArgument(0), Lease.of(leaderTime, Duration.ofSeconds(977)))));
         return timelockService;
     }
 
@@ -0,0 +1,180 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.util.MetricsManagers;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jmock.lib.concurrent.DeterministicScheduler;
+import org.junit.Test;
+
+public class SharedLockExecutorsTest {
+    private static final long DECAY_NANOS = SharedLockExecutors.SharedExecutor.UTILISATION_DECAY_NANOS;
+
+    private final DeterministicScheduler firstExecutor = new DeterministicScheduler();
+    private final DeterministicScheduler secondExecutor = new DeterministicScheduler();
+    private final AtomicLong nanoClock = new AtomicLong();
+    private final SharedLockExecutors sharedExecutors = new SharedLockExecutors(
+            ImmutableList.of(firstExecutor, secondExecutor), nanoClock::get, Optional.empty());
+
+    @Test
+    public void spreadsNamespacesAcrossExecutorsAndKeepsThemAssigned() {
+        sharedExecutors.executorFor("a");
+        sharedExecutors.executorFor("b");
+        int first = sharedExecutors.executorIndexFor("a").orElseThrow();
+        int second = sharedExecutors.executorIndexFor("b").orElseThrow();
+
+        assertThat(first).isNotEqualTo(second);
+        sharedExecutors.executorFor("a");
+        assertThat(sharedExecutors.executorIndexFor("a")).hasValue(first);
+    }
+
+    @Test
+    public void runsNamespaceTasksOnItsSharedExecutor() {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledExecutorService executor = sharedExecutors.executorFor("a");
+
+        executor.schedule(runs::incrementAndGet, 5, TimeUnit.SECONDS);
+        delegateOf("a").tick(5, TimeUnit.SECONDS);
+
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    public void shuttingDownNamespaceExecutorLeavesSharedExecutorRunningForOthers() {
+        AtomicInteger aRuns = new AtomicInteger();
+        AtomicInteger cRuns = new AtomicInteger();
+        ScheduledExecutorService aExecutor = sharedExecutors.executorFor("a");
+        sharedExecutors.executorFor("b");
+        ScheduledExecutorService cExecutor = sharedExecutors.executorFor("c");
+        assertThat(sharedExecutors.executorIndexFor("c")).isEqualTo(sharedExecutors.executorIndexFor("a"));
+        DeterministicScheduler delegate = delegateOf("a");
+
+        aExecutor.scheduleAtFixedRate(aRuns::incrementAndGet, 1, 1, TimeUnit.SECONDS);
+        cExecutor.scheduleAtFixedRate(cRuns::incrementAndGet, 1, 1, TimeUnit.SECONDS);
+        delegate.tick(2, TimeUnit.SECONDS);
+        aExecutor.shutdown();
+        delegate.tick(2, TimeUnit.SECONDS);
+
+        assertThat(aRuns).hasValue(2);
+        assertThat(cRuns).hasValue(4);
+        assertThat(aExecutor.isShutdown()).isTrue();
+        assertThat(cExecutor.isShutdown()).isFalse();
+        assertThatThrownBy(() -> aExecutor.execute(aRuns::incrementAndGet))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void releasesAssignmentOnceAllOfNamespaceExecutorsAreShutDown() {
+        ScheduledExecutorService reaper = sharedExecutors.executorFor("a");
+        ScheduledExecutorService timeouts = sharedExecutors.executorFor("a");
+
+        reaper.shutdown();
+        reaper.shutdown();
+        assertThat(sharedExecutors.executorIndexFor("a")).isPresent();
+
+        timeouts.shutdownNow();
+        assertThat(sharedExecutors.executorIndexFor("a")).isEmpty();
+    }
+
+    @Test
+    public void releasedNamespacesNoLongerCountTowardsTheirExecutor() {
+        int first = indexAfterAssigning("a");
+        sharedExecutors.executorFor("b").shutdown();
+
+        assertThat(indexAfterAssigning("c")).isNotEqualTo(first);
+    }
+
+    @Test
+    public void measuresExecutorUtilisationWithoutResettingOnRead() {
+        SharedLockExecutors.SharedExecutor executor = sharedExecutors.sharedExecutor(0);
+
+        executor.instrument(() -> nanoClock.addAndGet(DECAY_NANOS)).run();
+        double busy = 1 - Math.exp(-1);
+        assertThat(executor.utilisation()).isCloseTo(busy, within(1e-9));
+        assertThat(executor.utilisation()).isCloseTo(busy, within(1e-9));
+
+        nanoClock.addAndGet(DECAY_NANOS);
+        assertThat(executor.utilisation()).isCloseTo(busy * Math.exp(-1), within(1e-9));
+    }
+
+    @Test
+    public void assignsNamespaceToLessUtilisedExecutorWhenNamespaceCountsTie() {
+        sharedExecutors.sharedExecutor(0).instrument(() -> nanoClock.addAndGet(DECAY_NANOS)).run();
+
+        assertThat(indexAfterAssigning("a")).isEqualTo(1);
+    }
+
+    @Test
+    public void shuttingDownNamespaceExecutorCancelsItsPendingOneShotTasks() {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledExecutorService executor = sharedExecutors.executorFor("a");
+        DeterministicScheduler delegate = delegateOf("a");
+        ScheduledFuture<?> timeout = executor.schedule(runs::incrementAndGet, 5, TimeUnit.SECONDS);
+
+        executor.shutdown();
+
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(delegate.isIdle()).isTrue();
+        delegate.tick(5, TimeUnit.SECONDS);
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    public void stopsTrackingOneShotTasksOnceTheyRunOrAreCancelled() {
+        NamespaceScopedScheduledExecutor executor =
+                (NamespaceScopedScheduledExecutor) sharedExecutors.executorFor("a");
+        DeterministicScheduler delegate = delegateOf("a");
+
+        executor.schedule(() -> {}, 1, TimeUnit.SECONDS);
+        executor.schedule(() -> {}, 5, TimeUnit.SECONDS).cancel(false);
+        assertThat(executor.scheduledTaskCount()).isEqualTo(1);
+
+        delegate.tick(1, TimeUnit.SECONDS);
+        assertThat(executor.scheduledTaskCount()).isZero();
+    }
+
+    @Test
+    public void closeStopsSharedExecutors() {
+        SharedLockExecutors executors = SharedLockExecutors.create(1, MetricsManagers.createForTests());
+        ScheduledExecutorService executor = executors.executorFor("a");
+
+        executors.close();
+
+        assertThat(executors.executorIndexFor("a")).isEmpty();
+        assertThatThrownBy(() -> executor.execute(() -> {})).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private int indexAfterAssigning(String namespace) {
+        sharedExecutors.executorFor(namespace);
+        return sharedExecutors.executorIndexFor(namespace).orElseThrow();
+    }
+
+    private DeterministicScheduler delegateOf(String namespace) {
+        return sharedExecutors.executorIndexFor(namespace).orElseThrow() == 0 ? firstExecutor : secondExecutor;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.timelock.api.management.ContendedLockDescriptor;
+import com.palantir.atlasdb.timelock.api.management.LockContentionReport;
+import com.palantir.atlasdb.timelock.api.management.LockPrefixContention;
+import com.palantir.atlasdb.timelock.lock.ImmutableRequestInfo;
+import com.palantir.atlasdb.timelock.lock.LockEvents;
+import com.palantir.atlasdb.timelock.lock.LockEvents.RequestInfo;
+import com.palantir.conjure.java.lib.SafeLong;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.jmock.lib.concurrent.DeterministicScheduler;
+import org.junit.Test;
+
+public class LockContentionDiagnosticsTest {
+    private static final String NAMESPACE = "namespace";
+    private static final LockDescriptor ROW_1 = rowLock("table", "row1");
+    private static final LockDescriptor ROW_2 = rowLock("table", "row2");
+    private static final LockDescriptor OTHER_ROW = rowLock("other", "row");
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final LockContentionDiagnostics diagnostics =
+            new LockContentionDiagnostics(clock::get, new DeterministicScheduler());
+    private final LockEvents events = diagnostics.eventsFor(NAMESPACE);
+
+    @Test
+    public void recordsWaitAndHoldTimesPerTable() {
+        RequestInfo request = request(ROW_1, ROW_2);
+        events.successfulAcquisition(request, 5L);
+        clock.addAndGet(500L);
+        events.explicitlyUnlocked(request.id());
+        diagnostics.drain();
+
+        LockPrefixContention table = prefix(report(), "table");
+        assertThat(table.getAcquisitions()).isEqualTo(SafeLong.of(1));
+        assertThat(table.getWaitTime().getMaxMillis()).isEqualTo(SafeLong.of(5));
+        assertThat(table.getHoldTime().getCount()).isEqualTo(SafeLong.of(1));
+        assertThat(table.getHoldTime().getMaxMillis()).isEqualTo(SafeLong.of(500));
+    }
+
+    @Test
+    public void recordsHoldTimeWhenReleasedOnAnotherThread() throws InterruptedException {
+        RequestInfo request = request(ROW_1);
+        events.successfulAcquisition(request, 0L);
+        clock.addAndGet(100L);
+        Thread unlocker = new Thread(() -> events.explicitlyUnlocked(request.id()));
+        unlocker.start();
+        unlocker.join();
+        diagnostics.drain();
+
+        assertThat(prefix(report(), "table").getHoldTime().getMaxMillis()).isEqualTo(SafeLong.of(100));
+    }
+
+    @Test
+    public void reportsMostContendedDescriptors() {
+        events.successfulAcquisition(request(ROW_1), 10L);
+        events.successfulAcquisition(request(ROW_1), 20L);
+        events.timedOut(request(ROW_2), 50L);
+        events.successfulAcquisition(request(OTHER_ROW), 1L);
+        events.successfulAcquisition(request(OTHER_ROW), 0L);
+        diagnostics.drain();
+
+        LockContentionReport report = diagnostics.getReport(NAMESPACE, 2).orElseThrow();
+        assertThat(report.getMostContendedDescriptors())
+                .extracting(ContendedLockDescriptor::getTotalWaitMillis)
+                .containsExactly(SafeLong.of(50), SafeLong.of(30));
+        assertThat(report.getMostContendedDescriptors().get(0).getTimeouts()).isEqualTo(SafeLong.of(1));
+        assertThat(report.getMostContendedDescriptors().get(1).getContendedAcquisitions())
+                .isEqualTo(SafeLong.of(2));
+        assertThat(prefix(report, "other").getAcquisitions()).isEqualTo(SafeLong.of(2));
+    }
+
+    @Test
+    public void ignoresRequestsWithoutLockDescriptors() {
+        events.successfulAcquisition(ImmutableRequestInfo.of(UUID.randomUUID(), "immutable", ImmutableSet.of()), 0L);
+        diagnostics.drain();
+
+        assertThat(diagnostics.getReport(NAMESPACE, 10)).isEmpty();
+    }
+
+    @Test
+    public void ignoresReleasesOfUnrecordedAcquisitions() {
+        for (int i = 0; i < LockContentionDiagnostics.BUFFER_CAPACITY; i++) {
+            events.explicitlyUnlocked(UUID.randomUUID());
+        }
+        events.successfulAcquisition(request(ROW_1), 0L);
+        diagnostics.drain();
+
+        LockContentionReport report = report();
+        assertThat(report.getDroppedEvents()).isEqualTo(SafeLong.of(0));
+        assertThat(prefix(report, "table").getAcquisitions()).isEqualTo(SafeLong.of(1));
+    }
+
+    @Test
+    public void removesNamespacesWithoutStatisticsInRetainedWindow() {
+        RequestInfo request = request(ROW_1);
+        events.successfulAcquisition(request, 10L);
+        events.explicitlyUnlocked(request.id());
+        events.successfulAcquisition(request(ROW_2), 10L);
+        diagnostics.drain();
+        assertThat(diagnostics.aggregatedNamespaces()).containsExactly(NAMESPACE);
+
+        clock.addAndGet(LockContentionAggregator.BUCKET_DURATION.toMillis()
+                * (LockContentionAggregator.RETAINED_BUCKETS + 1));
+        diagnostics.drain();
+        assertThat(diagnostics.aggregatedNamespaces()).isEmpty();
+    }
+
+    @Test
+    public void forgetsStatisticsOutsideRetainedWindow() {
+        events.successfulAcquisition(request(ROW_1), 10L);
+        diagnostics.drain();
+        assertThat(diagnostics.getReport(NAMESPACE, 10)).isPresent();
+
+        clock.addAndGet(LockContentionAggregator.BUCKET_DURATION.toMillis()
+                * (LockContentionAggregator.RETAINED_BUCKETS + 1));
+        assertThat(diagnostics.getReport(NAMESPACE, 10)).isEmpty();
+    }
+
+    @Test
+    public void dropsEventsWhenBufferIsFull() {
+        int numEvents = LockContentionDiagnostics.BUFFER_CAPACITY + 5;
+        for (int i = 0; i < numEvents; i++) {
+            events.successfulAcquisition(request(ROW_1), 0L);
+        }
+        diagnostics.drain();
+
+        LockContentionReport report = report();
+        assertThat(report.getDroppedEvents()).isEqualTo(SafeLong.of(5));
+        assertThat(prefix(report, "table").getAcquisitions())
+                .isEqualTo(SafeLong.of(LockContentionDiagnostics.BUFFER_CAPACITY));
+    }
+
+    @Test
+    public void keepsNamespacesSeparate() {
+        diagnostics.eventsFor("other").successfulAcquisition(request(ROW_1), 10L);
+        diagnostics.drain();
+
+        assertThat(diagnostics.getReport("other", 10)).isPresent();
+        assertThat(diagnostics.getReport(NAMESPACE, 10)).isEmpty();
+    }
+
+    private LockContentionReport report() {
+        return diagnostics.getReport(NAMESPACE, 10).orElseThrow();
+    }
+
+    private static LockPrefixContention prefix(LockContentionReport report, String prefix) {
+        return report.getPrefixes().stream()
+                .filter(contention -> contention.getPrefix().equals(prefix))
+                .collect(Collectors.toList())
+                .get(0);
+    }
+
+    private static LockDescriptor rowLock(String table, String row) {
+        return AtlasRowLockDescriptor.of(table, row.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static RequestInfo request(LockDescriptor... descriptors) {
+        return ImmutableRequestInfo.of(UUID.randomUUID(), "client", ImmutableSet.copyOf(descriptors));
+    }
+}
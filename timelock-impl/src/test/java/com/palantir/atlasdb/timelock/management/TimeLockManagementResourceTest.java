@@ -32,6 +32,7 @@ import com.palantir.tokens.auth.BearerToken;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
@@ -82,7 +83,8 @@ public class TimeLockManagementResourceTest {
                 persistentNamespaceContext,
                 namespaces,
                 redirectRetryTargeter,
-                new ServiceLifecycleController(serviceStopper, PTExecutors.newSingleThreadScheduledExecutor()));
+                new ServiceLifecycleController(serviceStopper, PTExecutors.newSingleThreadScheduledExecutor()),
+                Optional.empty());
 
         createDirectoryForLeaderForEachClientUseCase(NAMESPACE_1);
         createDirectoryInRootDataDirectory(NAMESPACE_2);
@@ -40,6 +40,7 @@ public abstract class AbstractBenchmark {
     private final ExecutorService executor;
     private final AtomicLongArray times;
     private volatile long totalTime;
+    private volatile Map<String, Object> lockRpcCounts;
     private volatile Throwable error = null;
     private volatile long[] sortedTimes;
     private final AtomicInteger counter = new AtomicInteger(0);
@@ -71,10 +72,12 @@ public abstract class AbstractBenchmark {
 
     private void runTests() throws InterruptedException {
         try {
+            LockRpcCounts startLockRpcCounts = LockRpcCounts.current();
             long start = System.nanoTime();
             scheduleTests();
             waitForTestsToComplete();
             totalTime = System.nanoTime() - start;
+            lockRpcCounts = LockRpcCounts.current().since(startLockRpcCounts, numClients * requestsPerClient);
         } finally {
             stopExecutors();
         }
@@ -152,6 +155,7 @@ public abstract class AbstractBenchmark {
         result.put("totalTime", totalTime / 1_000_000.0);
         result.put("throughput", getThroughput());
         result.put("name", getClass().getSimpleName());
+        result.putAll(lockRpcCounts);
         result.putAll(getExtraParameters());
 
         return result;
@@ -0,0 +1,67 @@
+/*
+ * (c) Copyright 2023 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.benchmarks.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.timelock.api.ConjureTimelockServiceBlocking;
+import com.palantir.atlasdb.timelock.api.MultiClientConjureTimelockServiceBlocking;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.SharedTaggedMetricRegistries;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+import java.util.Map;
+
+/**
+ * Counts the lock requests this client has sent to TimeLock, both on their own and through the multi-client lock
+ * endpoint, using the timers of the instrumented TimeLock clients. Comparing the counts of a benchmark run with
+ * {@code batchLockRequests} on and off shows how many round trips lock batching saves.
+ */
+final class LockRpcCounts {
+    private static final MetricName SINGLE_CLIENT_LOCK_TIMER = lockTimer(ConjureTimelockServiceBlocking.class);
+    private static final MetricName MULTI_CLIENT_LOCK_TIMER =
+            lockTimer(MultiClientConjureTimelockServiceBlocking.class);
+
+    private final long singleClientLocks;
+    private final long multiClientLocks;
+
+    private LockRpcCounts(long singleClientLocks, long multiClientLocks) {
+        this.singleClientLocks = singleClientLocks;
+        this.multiClientLocks = multiClientLocks;
+    }
+
+    static LockRpcCounts current() {
+        TaggedMetricRegistry registry = SharedTaggedMetricRegistries.getSingleton();
+        return new LockRpcCounts(
+                registry.timer(SINGLE_CLIENT_LOCK_TIMER).getCount(),
+                registry.timer(MULTI_CLIENT_LOCK_TIMER).getCount());
+    }
+
+    Map<String, Object> since(LockRpcCounts start, int numRequests) {
+        long singleClientLocksSent = singleClientLocks - start.singleClientLocks;
+        long multiClientLocksSent = multiClientLocks - start.multiClientLocks;
+        return ImmutableMap.of(
+                "singleClientLockRpcs", singleClientLocksSent,
+                "multiClientLockRpcs", multiClientLocksSent,
+                "lockRpcsPerRequest", (double) (singleClientLocksSent + multiClientLocksSent) / numRequests);
+    }
+
+    private static MetricName lockTimer(Class<?> serviceInterface) {
+        return MetricName.builder()
+                .safeName(MetricRegistry.name(serviceInterface, "lock"))
+                .build();
+    }
+}
@@ -43,6 +43,15 @@ public class BenchmarksRunner extends BenchmarkRunnerBase {
         runAndPrintResults(() -> client.transactionWriteRows(1, 20, 1000, 200));
     }
 
+    /**
+     * Commits from many concurrent clients, so that commit locks can be batched; compare latency and lock RPC counts
+     * with {@code batchLockRequests} on and off in the client config.
+     */
+    @Test
+    public void writeTransactionRowsConcurrently() {
+        runAndPrintResults(() -> client.transactionWriteRows(32, 50, 10, 200));
+    }
+
     @Test
     public void writeTransactionDynamicColumns() {
         runAndPrintResults(() -> client.transactionWriteDynamicColumns(1, 20, 1000, 200));
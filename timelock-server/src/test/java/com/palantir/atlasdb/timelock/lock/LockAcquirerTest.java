@@ -89,6 +89,22 @@ public class LockAcquirerTest {
         assertThat(acquisitions.isCompletedSuccessfully()).isTrue();
     }
 
+    @Test
+    public void doesNotAcquireLaterLocksUntilEarlierHeldLockIsReleased() {
+        lockB.lock(OTHER_REQUEST_ID);
+
+        AsyncResult<HeldLocks> acquisitions = acquire(lockA, lockB, lockC);
+
+        assertThat(acquisitions.isComplete()).isFalse();
+        assertThat(lockA.getCurrentHolder()).isEqualTo(REQUEST_ID);
+        verify(lockC, never()).lock(REQUEST_ID);
+
+        lockB.unlock(OTHER_REQUEST_ID);
+
+        assertThat(acquisitions.isCompletedSuccessfully()).isTrue();
+        assertThat(lockC.getCurrentHolder()).isEqualTo(REQUEST_ID);
+    }
+
     @Test(timeout = 10_000)
     public void doesNotStackOverflowIfLocksAreAcquiredSynchronously() {
         List<AsyncLock> locks = IntStream.range(0, 10_000)
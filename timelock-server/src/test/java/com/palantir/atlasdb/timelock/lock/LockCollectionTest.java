@@ -18,6 +18,7 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.StringLockDescriptor;
 import java.util.Arrays;
@@ -70,6 +71,21 @@ public class LockCollectionTest {
         assertThat(actualOrder).containsExactlyElementsOf(expectedOrder);
     }
 
+    @Test
+    public void returnsLocksInOrderRegardlessOfRequestOrder() {
+        List<LockDescriptor> orderedDescriptors = IntStream.range(0, 10)
+                .mapToObj(i -> StringLockDescriptor.of("lock" + i))
+                .collect(Collectors.toList());
+        List<AsyncLock> expectedOrder =
+                lockCollection.getAll(ImmutableSet.copyOf(orderedDescriptors)).get();
+
+        List<AsyncLock> actualOrder = lockCollection
+                .getAll(ImmutableSet.copyOf(Lists.reverse(orderedDescriptors)))
+                .get();
+
+        assertThat(actualOrder).containsExactlyElementsOf(expectedOrder);
+    }
+
     private static Set<LockDescriptor> descriptors(String... names) {
         return Arrays.stream(names).map(StringLockDescriptor::of).collect(Collectors.toSet());
     }